@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.cleaners.CommentsAndEmptyLinesCleaner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Cleans comments and empty lines of the synthetic Java files, with the cleaner configured as for Java files (for the
+ * lines of code, and keeping empty lines for the duplication). Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=CommentsAndEmptyLinesCleanerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentsAndEmptyLinesCleanerBenchmark {
+    @Param({"500"})
+    public int files;
+
+    private List<String> contents;
+
+    @Setup
+    public void setup() {
+        contents = SyntheticCorpus.createJavaFiles(files).stream().map(SourceFile::getContent).collect(Collectors.toList());
+    }
+
+    private CommentsAndEmptyLinesCleaner createCleaner() {
+        CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+        cleaner.addCommentBlockHelper("/*", "*/");
+        cleaner.addCommentBlockHelper("//", "\n");
+        cleaner.addStringBlockHelper("\"", "\\");
+        cleaner.addStringBlockHelper("'", "\\");
+        return cleaner;
+    }
+
+    @Benchmark
+    public int clean() {
+        int lines = 0;
+        for (String content : contents) {
+            lines += createCleaner().clean(content).getCleanedLinesCount();
+        }
+        return lines;
+    }
+
+    @Benchmark
+    public int cleanKeepEmptyLines() {
+        int length = 0;
+        for (String content : contents) {
+            length += createCleaner().cleanKeepEmptyLines(content).length();
+        }
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CommentsAndEmptyLinesCleanerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import nl.obren.sokrates.sourcecode.cleaners.CommentsAndEmptyLinesCleaner;
+import nl.obren.sokrates.sourcecode.cleaners.CommentsCleanerUtils;
+import nl.obren.sokrates.sourcecode.cleaners.CommentsCleanersReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares the scanning comment cleaners with the former cleaners that clean one block at a time (see
+ * CommentsCleanersReference in the codeanalyzer tests) on a large synthetic file with many comments and strings. The
+ * former cleaners copy the content for each block, so the difference grows with the size of the file. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=CommentsCleanerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentsCleanerBenchmark {
+    @Param({"20000"})
+    public int lines;
+
+    private String content;
+
+    @Setup
+    public void setup() {
+        content = createContent(lines);
+    }
+
+    private static String createContent(int lines) {
+        Random random = new Random(SyntheticCorpus.SEED);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    content.append("/* comment ").append(i).append(" */ var a").append(i).append(" = 'x';\n");
+                    break;
+                case 1:
+                    content.append("var s").append(i).append(" = \"a \\\"quoted\\\" // text\"; // note\n");
+                    break;
+                case 2:
+                    content.append("/**\n * Block ").append(i).append("\n */\n");
+                    break;
+                case 3:
+                    content.append("\n");
+                    break;
+                default:
+                    content.append("function f").append(i).append("(a, b) { return a + b; } // ").append(i).append("\n");
+            }
+        }
+        return content.toString();
+    }
+
+    private CommentsAndEmptyLinesCleaner createCleaner() {
+        CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+        cleaner.addCommentBlockHelper("/*", "*/");
+        cleaner.addCommentBlockHelper("//", "\n");
+        cleaner.addStringBlockHelper("\"", "\\");
+        cleaner.addStringBlockHelper("'", "\\");
+        return cleaner;
+    }
+
+    @Benchmark
+    public CleanedContent cleanOneBlockAtATime() {
+        return CommentsCleanersReference.clean(createCleaner().getCodeBlockParsers(), content);
+    }
+
+    @Benchmark
+    public CleanedContent cleanWithScanner() {
+        return createCleaner().clean(content);
+    }
+
+    @Benchmark
+    public String cleanCommentsOneAtATime() {
+        String cleanedContent = CommentsCleanersReference.cleanBlockComments(content, "/*", "*/");
+        return CommentsCleanersReference.cleanLineComments(cleanedContent, "//");
+    }
+
+    @Benchmark
+    public String cleanCommentsInOnePass() {
+        String cleanedContent = CommentsCleanerUtils.cleanBlockComments(content, "/*", "*/");
+        return CommentsCleanerUtils.cleanLineComments(cleanedContent, "//");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CommentsCleanerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.reports.dataexporters.DataExporter;
+import nl.obren.sokrates.sourcecode.analysis.CodeAnalyzer;
+import nl.obren.sokrates.sourcecode.analysis.CodeAnalyzerSettings;
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
+import nl.obren.sokrates.sourcecode.scoping.ScopeCreator;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Exports the data of an analysis of the synthetic Java files (written to a temporary folder, scoped by conventions
+ * and analyzed once at setup). The JSON export is private in DataExporter, so the benchmark measures saveData, which
+ * runs it together with the text and source exports. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=DataExporterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataExporterBenchmark {
+    @Param({"500"})
+    public int files;
+
+    private File folder;
+    private File configFile;
+    private File reportsFolder;
+    private CodeConfiguration codeConfiguration;
+    private CodeAnalysisResults analysisResults;
+
+    @Setup
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("sokrates-benchmark").toFile();
+        SyntheticCorpus.writeJavaFiles(folder, files);
+        configFile = new File(folder, "_sokrates/config.json");
+        reportsFolder = new File(folder, "_sokrates/reports");
+        new ScopeCreator(folder, configFile, null).createScopeFromConventions("benchmark", "", "", null);
+
+        String json = FileUtils.readFileToString(configFile, StandardCharsets.UTF_8);
+        codeConfiguration = (CodeConfiguration) new JsonMapper().getObject(json, CodeConfiguration.class);
+        analysisResults = new CodeAnalyzer(new CodeAnalyzerSettings(), codeConfiguration, configFile).analyze(new ProgressFeedback());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Benchmark
+    public File saveData() throws IOException {
+        DataExporter dataExporter = new DataExporter(new ProgressFeedback());
+        dataExporter.saveData(configFile, codeConfiguration, reportsFolder, analysisResults);
+        return dataExporter.getDataFolder();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DataExporterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares checking if commit dates are within a time window with the former Calendar and SimpleDateFormat based
+ * check, with the "yyyy-MM-dd" string check and with commit dates parsed to epoch days in advance. Running the main
+ * method adds the GC profiler, which reports the allocated bytes per operation (gc.alloc.rate.norm). Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=DateUtilsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateUtilsBenchmark {
+    @Param({"1000"})
+    public int dates;
+
+    private List<String> commitDates = new ArrayList<>();
+    private int[] commitEpochDays;
+
+    @Setup
+    public void setup() {
+        DateUtils.setDateParam("2021-03-01");
+        Random random = new Random(SyntheticCorpus.SEED);
+        LocalDate today = LocalDate.of(2021, 3, 1);
+        for (int i = 0; i < dates; i++) {
+            commitDates.add(today.minusDays(random.nextInt(730)).toString());
+        }
+        commitEpochDays = DateUtils.toEpochDays(commitDates);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DateUtils.setDateParam(null);
+    }
+
+    @Benchmark
+    public int checkWithCalendars() {
+        int count = 0;
+        for (String date : commitDates) {
+            if (isCommittedBetweenWithCalendars(date, 0, 90)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int checkDateStrings() {
+        int count = 0;
+        for (String date : commitDates) {
+            if (DateUtils.isCommittedBetween(date, 0, 90)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int checkEpochDays() {
+        int count = 0;
+        for (int epochDay : commitEpochDays) {
+            if (DateUtils.isCommittedBetween(epochDay, 0, 90)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // the former implementation of DateUtils.isCommittedBetween
+    private static boolean isCommittedBetweenWithCalendars(String date, int daysAgo1, int daysAgo2) {
+        Calendar cal1 = getCalendar();
+        cal1.add(Calendar.DATE, -daysAgo1);
+        String thresholdDate1 = new SimpleDateFormat(DateUtils.DATE_FORMAT).format(cal1.getTime());
+
+        Calendar cal2 = getCalendar();
+        cal2.add(Calendar.DATE, -daysAgo2);
+        String thresholdDate2 = new SimpleDateFormat(DateUtils.DATE_FORMAT).format(cal2.getTime());
+
+        return date.compareTo(thresholdDate2) >= 0 && date.compareTo(thresholdDate1) <= 0;
+    }
+
+    private static Calendar getCalendar() {
+        Calendar calendar = Calendar.getInstance();
+        try {
+            calendar.setTime(new SimpleDateFormat(DateUtils.DATE_FORMAT).parse(DateUtils.getDateParam()));
+        } catch (ParseException e) {
+            e.printStackTrace();
+        }
+        return calendar;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DateUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.lang.java.JavaHeuristicDependenciesExtractor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Extracts the dependencies between the packages of the synthetic Java files (anchors from package declarations,
+ * resolved via imports) with the heuristic dependencies extractor for Java. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=DependenciesExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependenciesExtractionBenchmark {
+    @Param({"1000"})
+    public int files;
+
+    private List<SourceFile> sourceFiles;
+
+    @Setup
+    public void setup() {
+        sourceFiles = SyntheticCorpus.createJavaFiles(files);
+    }
+
+    @Benchmark
+    public int extractDependencies() {
+        return new JavaHeuristicDependenciesExtractor().extractDependencies(sourceFiles, new ProgressFeedback()).getDependencies().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DependenciesExtractionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.duplication.DuplicationEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Finds duplicated blocks (of at least 6 lines) in the synthetic Java files, a quarter of whose methods are copied
+ * from a shared pool, with the default (blocks) duplication engine. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=DuplicationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicationBenchmark {
+    @Param({"300"})
+    public int files;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private List<SourceFile> sourceFiles;
+
+    @Setup
+    public void setup() {
+        sourceFiles = SyntheticCorpus.createJavaFiles(files);
+    }
+
+    @Benchmark
+    public int findDuplicates() {
+        DuplicationEngine duplicationEngine = new DuplicationEngine();
+        duplicationEngine.setThreads(threads);
+        return duplicationEngine.findDuplicates(sourceFiles, 6, new ProgressFeedback()).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DuplicationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.filehistory.CommitInfo;
+import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
+import nl.obren.sokrates.sourcecode.filehistory.GitHistoryUtil;
+import nl.obren.sokrates.sourcecode.githistory.AuthorCommit;
+import nl.obren.sokrates.sourcecode.githistory.GitHistory;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares the former List.contains based deduplication of commits and file dates with the IdSet based aggregations
+ * of GitHistoryUtils and GitHistoryUtil, on the synthetic git history. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=GitHistoryAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHistoryAggregationBenchmark {
+    @Param({"200000"})
+    public int lines;
+
+    private GitHistory history = new GitHistory();
+
+    @Setup
+    public void setup() {
+        for (String line : SyntheticCorpus.createGitHistory(lines, 2000).split("\n")) {
+            String[] elements = line.split(" ");
+            history.add(elements[0], elements[1], elements[2], elements[3]);
+        }
+    }
+
+    @Benchmark
+    public List<AuthorCommit> authorCommitsWithListContains() {
+        List<AuthorCommit> commits = new ArrayList<>();
+        List<String> commitIds = new ArrayList<>();
+        history.forEach(fileUpdate -> {
+            String commitId = fileUpdate.getCommitId();
+            if (!commitIds.contains(commitId)) {
+                commitIds.add(commitId);
+                commits.add(new AuthorCommit(fileUpdate.getDate(), fileUpdate.getAuthorEmail()));
+            }
+        });
+        return commits;
+    }
+
+    @Benchmark
+    public List<AuthorCommit> authorCommitsWithIdSet() {
+        return GitHistoryUtils.getAuthorCommits(history);
+    }
+
+    @Benchmark
+    public List<FileModificationHistory> fileHistoriesWithListContains() {
+        List<FileModificationHistory> files = new ArrayList<>();
+        Map<String, FileModificationHistory> map = new HashMap<>();
+        history.forEach(fileUpdate -> {
+            FileModificationHistory fileInfo = map.get(fileUpdate.getPath());
+            if (fileInfo == null) {
+                fileInfo = new FileModificationHistory(fileUpdate.getPath());
+                files.add(fileInfo);
+                map.put(fileUpdate.getPath(), fileInfo);
+            }
+            CommitInfo commitInfo = new CommitInfo(fileUpdate.getCommitId(), fileUpdate.getDate());
+            commitInfo.setEmail(fileUpdate.getAuthorEmail());
+            fileInfo.getCommits().add(commitInfo);
+            if (!fileInfo.getDates().contains(fileUpdate.getDate())) {
+                fileInfo.getDates().add(fileUpdate.getDate());
+            }
+        });
+        return files;
+    }
+
+    @Benchmark
+    public List<FileModificationHistory> fileHistoriesWithIdSet() {
+        return new GitHistoryUtil().importHistory(history);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GitHistoryAggregationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
+import nl.obren.sokrates.sourcecode.githistory.GitHistory;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryIndexFile;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryUtils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Reads a synthetic git-history.txt file, from the text or from its binary index. GitHistoryUtils.getHistoryFromFile
+ * keeps the first history it reads for the rest of the run, so the benchmark calls readHistory, which does the
+ * reading for it. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=GitHistoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHistoryBenchmark {
+    @Param({"200000"})
+    public int lines;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private File folder;
+    private File historyFile;
+    private FileHistoryAnalysisConfig config = new FileHistoryAnalysisConfig();
+
+    @Setup
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("sokrates-benchmark").toFile();
+        historyFile = new File(folder, GitHistoryUtils.GIT_HISTORY_FILE_NAME);
+        String history = SyntheticCorpus.createGitHistory(lines, 2000);
+        if (indexed) {
+            String watermark = String.format("%040x", lines);
+            FileUtils.write(historyFile, GitHistoryIndexFile.getWatermarkLine(watermark) + "\n" + history, StandardCharsets.UTF_8);
+            GitHistoryIndexFile.save(historyFile, GitHistoryUtils.readHistory(historyFile, config), watermark);
+        } else {
+            FileUtils.write(historyFile, history, StandardCharsets.UTF_8);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Benchmark
+    public GitHistory readHistory() {
+        return GitHistoryUtils.readHistory(historyFile, config);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GitHistoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
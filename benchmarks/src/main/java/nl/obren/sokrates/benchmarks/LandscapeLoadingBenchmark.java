@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.common.io.JsonGenerator;
+import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.common.utils.ParallelBatches;
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.analysis.results.FilesAnalysisResults;
+import nl.obren.sokrates.sourcecode.analysis.results.UnitsAnalysisResults;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ProjectAnalysisResultsLoader;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ProjectAnalysisResultsSamples;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Compares loading the analysis results of synthetic projects (see ProjectAnalysisResultsSamples in the codeanalyzer
+ * tests) with the full JSON mapping and with the streaming ProjectAnalysisResultsLoader. The peak heap usage of each
+ * iteration is printed after the iteration. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=LandscapeLoadingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class LandscapeLoadingBenchmark {
+    @Param({"200"})
+    public int projects;
+
+    private File folder;
+    private List<File> files = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("sokrates-benchmark").toFile();
+        for (int i = 0; i < projects; i++) {
+            File file = new File(folder, "analysisResults" + i + ".json");
+            String json = new JsonGenerator().generate(ProjectAnalysisResultsSamples.createAnalysisResults(i));
+            FileUtils.write(file, json, StandardCharsets.UTF_8);
+            files.add(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeapUsage() {
+        System.gc();
+        getHeapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakHeapUsage() {
+        long peak = getHeapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.println("peak heap: " + peak / (1024 * 1024) + " MB");
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CodeAnalysisResults> loadWithJsonMapper() throws IOException {
+        List<CodeAnalysisResults> results = new ArrayList<>();
+        for (File file : files) {
+            String json = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            CodeAnalysisResults codeAnalysisResults = (CodeAnalysisResults) new JsonMapper().getObject(json, CodeAnalysisResults.class);
+            codeAnalysisResults.setUnitsAnalysisResults(new UnitsAnalysisResults());
+            codeAnalysisResults.setFilesAnalysisResults(new FilesAnalysisResults());
+            results.add(codeAnalysisResults);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<CodeAnalysisResults> loadWithStreamingLoader() throws IOException {
+        ProjectAnalysisResultsLoader loader = new ProjectAnalysisResultsLoader();
+        List<CodeAnalysisResults> results = new ArrayList<>();
+        for (File file : files) {
+            results.add(loader.load(file));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<CodeAnalysisResults> loadWithStreamingLoaderInParallel() {
+        ProjectAnalysisResultsLoader loader = new ProjectAnalysisResultsLoader();
+        List<CodeAnalysisResults> results = new ArrayList<>();
+        ParallelBatches batches = new ParallelBatches(Runtime.getRuntime().availableProcessors());
+        try {
+            batches.forEachInOrder(files, file -> {
+                try {
+                    return loader.load(file);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, (file, result) -> results.add(result));
+        } finally {
+            batches.shutdown();
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LandscapeLoadingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import nl.obren.sokrates.sourcecode.landscape.ContributorConnectionUtils;
+import nl.obren.sokrates.sourcecode.landscape.ContributorProjectGraph;
+import nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesCalculator;
+import nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesReference;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesSamples.*;
+
+/*
+ * Compares calculating people dependencies window by window (see PeopleDependenciesReference in the codeanalyzer
+ * tests) with the one pass PeopleDependenciesCalculator, for the windows of a project analysis (files history) and of
+ * a landscape analysis (contributors and their projects, including the connections via projects from
+ * ContributorProjectGraph), and project dependencies via people window by window with the ones from
+ * ContributorProjectGraph. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=PeopleDependenciesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PeopleDependenciesBenchmark {
+    @Param({"1000"})
+    public int contributors;
+
+    private CodeAnalysisResults codeAnalysisResults;
+    private List<ContributorProjects> contributorProjects;
+
+    @Setup
+    public void setup() {
+        DateUtils.setDateParam(ANALYSIS_DATE);
+        codeAnalysisResults = createCodeAnalysisResults(contributors, contributors * 5, SyntheticCorpus.SEED);
+        contributorProjects = createContributorProjects(contributors, contributors / 5, SyntheticCorpus.SEED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DateUtils.setDateParam(null);
+    }
+
+    @Benchmark
+    public int filesWindowByWindow() {
+        int count = 0;
+        for (int daysAgo : PROJECT_WINDOWS) {
+            count += PeopleDependenciesReference.getPeopleDependencies(codeAnalysisResults, daysAgo).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int filesInOnePass() {
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        for (int daysAgo : PROJECT_WINDOWS) {
+            calculator.addWindow(0, daysAgo);
+        }
+        calculator.addFileHistories(codeAnalysisResults.getFilesHistoryAnalysisResults().getHistory());
+        int count = 0;
+        for (int window = 0; window < PROJECT_WINDOWS.length; window++) {
+            count += calculator.getFileDependencies(window).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int projectsWindowByWindow() {
+        int count = 0;
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            List<ComponentDependency> dependencies = PeopleDependenciesReference.getPeopleDependencies(contributorProjects, window[0], window[1]);
+            count += PeopleDependenciesReference.getConnectionsViaProjects(contributorProjects, dependencies, window[0], window[1]).size();
+            count += PeopleDependenciesReference.getContributorsActiveInPeriodCount(contributorProjects, window[0], window[1]);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int projectsInOnePass() {
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        int[] windows = new int[LANDSCAPE_WINDOWS.length];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = calculator.addWindow(LANDSCAPE_WINDOWS[i][0], LANDSCAPE_WINDOWS[i][1]);
+        }
+        calculator.addContributorProjects(contributorProjects);
+        ContributorProjectGraph graph = new ContributorProjectGraph(contributorProjects);
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            graph.addWindow(window[0], window[1]);
+        }
+        int count = 0;
+        for (int window : windows) {
+            List<ComponentDependency> dependencies = calculator.getProjectDependencies(window);
+            count += ContributorConnectionUtils.getConnectionsViaProjects(graph, window, dependencies).size();
+            count += graph.getActiveContributorsCount(window);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int projectDependenciesWindowByWindow() {
+        int count = 0;
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            count += PeopleDependenciesReference.getProjectDependenciesViaPeople(contributorProjects, window[0], window[1]).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int projectDependenciesWithGraph() {
+        ContributorProjectGraph graph = new ContributorProjectGraph(contributorProjects);
+        int count = 0;
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            count += graph.getProjectDependenciesViaPeople(graph.addWindow(window[0], window[1])).size();
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PeopleDependenciesBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SearcheableFilesCache;
+import nl.obren.sokrates.sourcecode.search.SearchExpression;
+import nl.obren.sokrates.sourcecode.search.SearchRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Searches the content of the synthetic Java files with SearcheableFilesCache, for an expression found in most files
+ * and for one that is not found at all. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=SearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"1000"})
+    public int files;
+
+    @Param({".*total [+]= .*", ".*(TODO|FIXME).*"})
+    public String expression;
+
+    private SearcheableFilesCache searcheableFilesCache;
+
+    @Setup
+    public void setup() {
+        searcheableFilesCache = SearcheableFilesCache.getInstance(SyntheticCorpus.createJavaFiles(files));
+    }
+
+    @Benchmark
+    public int search() {
+        SearchRequest searchRequest = new SearchRequest(new SearchExpression(""), new SearchExpression(expression));
+        return searcheableFilesCache.search(searchRequest, new ProgressFeedback()).getFoundFiles().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
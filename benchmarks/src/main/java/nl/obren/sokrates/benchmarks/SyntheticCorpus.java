@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Deterministic synthetic inputs for the benchmarks, generated from a fixed seed so that the results of different
+ * commits can be compared. Java files are spread over modules (packages) that import each other, and have comments,
+ * strings with comment markers, methods with conditions and loops, and some methods copied from a shared pool
+ * (duplicates).
+ */
+public class SyntheticCorpus {
+    public static final long SEED = 42;
+    public static final int MODULES = 20;
+    public static final int SHARED_METHODS = 30;
+
+    private static final String[] WORDS = {"value", "count", "total", "item", "name", "index", "result", "data", "node", "path"};
+
+    public static List<SourceFile> createJavaFiles(int files) {
+        Random random = new Random(SEED);
+        List<String> sharedMethods = createSharedMethods(random);
+
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            String relativePath = getRelativePath(i);
+            SourceFile sourceFile = new SourceFile(new File("synthetic/" + relativePath), createJavaFile(random, i, sharedMethods));
+            sourceFile.setRelativePath(relativePath);
+            sourceFiles.add(sourceFile);
+        }
+        return sourceFiles;
+    }
+
+    public static void writeJavaFiles(File root, int files) throws IOException {
+        for (SourceFile sourceFile : createJavaFiles(files)) {
+            FileUtils.write(new File(root, sourceFile.getRelativePath()), sourceFile.getContent(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // lines in the format of the git-history.txt file (date, email, commit ID and path), with several files per commit
+    public static String createGitHistory(int lines, int files) {
+        Random random = new Random(SEED);
+        StringBuilder history = new StringBuilder();
+        int commit = 0;
+        int count = 0;
+        while (count < lines) {
+            String date = String.format("%04d-%02d-%02d", 2015 + commit / 4000, 1 + (commit / 300) % 12, 1 + (commit / 10) % 28);
+            String email = "developer" + random.nextInt(200) + "@example.com";
+            String commitId = String.format("%040x", commit);
+            int filesPerCommit = 1 + random.nextInt(20);
+            for (int i = 0; i < filesPerCommit && count < lines; i++) {
+                history.append(date).append(' ').append(email).append(' ').append(commitId).append(' ')
+                        .append(getRelativePath(random.nextInt(files))).append('\n');
+                count++;
+            }
+            commit++;
+        }
+        return history.toString();
+    }
+
+    private static String getRelativePath(int index) {
+        return "src/main/java/com/example/module" + (index % MODULES) + "/Class" + index + ".java";
+    }
+
+    private static List<String> createSharedMethods(Random random) {
+        List<String> methods = new ArrayList<>();
+        for (int i = 0; i < SHARED_METHODS; i++) {
+            methods.add(createMethod(random, "shared" + i, 8 + random.nextInt(12)));
+        }
+        return methods;
+    }
+
+    private static String createJavaFile(Random random, int index, List<String> sharedMethods) {
+        StringBuilder content = new StringBuilder();
+        content.append("/*\n * Copyright (c) 2021 Example. All rights reserved.\n */\n\n");
+        content.append("package com.example.module").append(index % MODULES).append(";\n\n");
+        int imports = 1 + random.nextInt(4);
+        for (int i = 0; i < imports; i++) {
+            int module = random.nextInt(MODULES);
+            content.append("import com.example.module").append(module).append(".Class").append(module + MODULES * random.nextInt(10)).append(";\n");
+        }
+        content.append("import java.util.List;\n\n");
+
+        content.append("/**\n * Synthetic class ").append(index).append(".\n */\n");
+        content.append("public class Class").append(index).append(" {\n");
+        content.append("    private static final String NAME = \"Class").append(index).append(" // not a comment /* */\";\n\n");
+
+        int methods = 3 + random.nextInt(12);
+        for (int i = 0; i < methods; i++) {
+            if (random.nextInt(10) == 0) {
+                content.append(sharedMethods.get(random.nextInt(sharedMethods.size())));
+            } else {
+                content.append(createMethod(random, "method" + i, 2 + random.nextInt(30)));
+            }
+            content.append("\n");
+        }
+        content.append("}\n");
+        return content.toString();
+    }
+
+    private static String createMethod(Random random, String name, int statements) {
+        String total = word(random) + "Total" + random.nextInt(1000);
+        StringBuilder method = new StringBuilder();
+        method.append("    /**\n     * Calculates the ").append(word(random)).append(".\n     */\n");
+        method.append("    public int ").append(name).append("(List<String> items, int limit) {\n");
+        method.append("        int ").append(total).append(" = ").append(random.nextInt(10)).append(";\n");
+        for (int i = 0; i < statements; i++) {
+            String variable = word(random) + i;
+            switch (random.nextInt(5)) {
+                case 0:
+                    method.append("        if (limit > ").append(random.nextInt(100)).append(" && items.size() > ").append(i).append(") {\n");
+                    method.append("            ").append(total).append(" += items.get(").append(i).append(").length();\n");
+                    method.append("        }\n");
+                    break;
+                case 1:
+                    method.append("        for (String ").append(variable).append(" : items) {\n");
+                    method.append("            ").append(total).append(" += ").append(variable).append(".isEmpty() ? 0 : ").append(i).append("; // counts non-empty items\n");
+                    method.append("        }\n");
+                    break;
+                case 2:
+                    method.append("        // ").append(word(random)).append(" ").append(word(random)).append("\n");
+                    method.append("        String ").append(variable).append(" = \"").append(word(random)).append(" /* text */\";\n");
+                    method.append("        ").append(total).append(" += ").append(variable).append(".length();\n");
+                    break;
+                case 3:
+                    method.append("        while (").append(total).append(" > limit * ").append(i + 2).append(" || ").append(total).append(" < 0) {\n");
+                    method.append("            ").append(total).append(" /= ").append(2 + random.nextInt(8)).append(";\n");
+                    method.append("        }\n");
+                    break;
+                default:
+                    method.append("        ").append(total).append(" += '").append((char) ('a' + random.nextInt(26))).append("' * ").append(i).append(";\n");
+            }
+        }
+        method.append("        return ").append(total).append(";\n");
+        method.append("    }\n");
+        return method.toString();
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.benchmarks;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.units.CStyleHeuristicUnitsExtractor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Extracts the units (methods) of the synthetic Java files with the C-style heuristic units extractor. Run with:
+ * mvn -pl benchmarks -am verify -Pbenchmarks -DskipTests -Dbenchmarks.include=UnitsExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnitsExtractionBenchmark {
+    @Param({"500"})
+    public int files;
+
+    private List<SourceFile> sourceFiles;
+
+    @Setup
+    public void setup() {
+        sourceFiles = SyntheticCorpus.createJavaFiles(files);
+    }
+
+    @Benchmark
+    public int extractUnits() {
+        int units = 0;
+        for (SourceFile sourceFile : sourceFiles) {
+            units += new CStyleHeuristicUnitsExtractor().extractUnits(sourceFile).size();
+        }
+        return units;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UnitsExtractionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -7,6 +7,7 @@ package nl.obren.sokrates.cli;
 import nl.obren.sokrates.cli.git.GitHistoryExtractor;
 import nl.obren.sokrates.common.io.JsonGenerator;
 import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.common.renderingutils.GraphvizSvgCache;
 import nl.obren.sokrates.common.renderingutils.Thresholds;
 import nl.obren.sokrates.common.renderingutils.VisualizationItem;
 import nl.obren.sokrates.common.renderingutils.VisualizationTemplate;
@@ -17,6 +18,7 @@ import nl.obren.sokrates.common.renderingutils.x3d.Unit3D;
 import nl.obren.sokrates.common.renderingutils.x3d.X3DomExporter;
 import nl.obren.sokrates.common.utils.BasicColorInfo;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.reports.core.ReportExportTime;
 import nl.obren.sokrates.reports.core.ReportFileExporter;
 import nl.obren.sokrates.reports.core.RichTextReport;
 import nl.obren.sokrates.reports.dataexporters.DataExporter;
@@ -141,7 +143,9 @@ public class CommandLineInterface {
             return;
         }
 
-        new GitHistoryExtractor().extractGitHistory(root);
+        String threadsValue = cmd.getOptionValue(commands.getThreads().getOpt());
+        GitHistoryExtractor extractor = StringUtils.isNumeric(threadsValue) ? new GitHistoryExtractor(Integer.parseInt(threadsValue)) : new GitHistoryExtractor();
+        extractor.extractGitHistory(root);
     }
 
     private void extractGitSubHistory(String[] args) throws ParseException, IOException {
@@ -200,9 +204,12 @@ public class CommandLineInterface {
         SokratesFileUtils.extractFiles(root, new File(root, dest), new File(root, destParentValue), patternValue);
     }
 
-    private void updateDateParam(CommandLine cmd) {
+    private void updateDateParam(CommandLine cmd) throws ParseException {
         String dateString = cmd.getOptionValue(commands.getDate().getOpt());
         if (dateString != null) {
+            if (DateUtils.parseEpochDay(dateString) == DateUtils.NO_DATE) {
+                throw new ParseException("the date '" + dateString + "' is not a valid date in the yyyy-MM-dd format");
+            }
             System.out.println("Using '" + dateString + "' as latest source code update date for active contributors reports.");
             DateUtils.setDateParam(dateString);
         }
@@ -234,6 +241,9 @@ public class CommandLineInterface {
         String confFilePath = cmd.getOptionValue(commands.getConfFile().getOpt());
         updateDateParam(cmd);
 
+        String threadsValue = cmd.getOptionValue(commands.getThreads().getOpt());
+        int threads = StringUtils.isNumeric(threadsValue) ? Integer.parseInt(threadsValue) : 1;
+
         if (cmd.hasOption(commands.getRecursive().getOpt())) {
             List<File> landscapeConfigFiles = LandscapeAnalysisUtils.findAllSokratesLandscapeConfigFiles(root);
             landscapeConfigFiles.forEach(landscapeConfigFile -> {
@@ -242,14 +252,14 @@ public class CommandLineInterface {
                 System.out.println(System.getProperty("user.dir"));
                 System.setProperty("user.dir", absolutePath);
                 System.out.println(System.getProperty("user.dir"));
-                LandscapeAnalysisCommands.update(new File(landscapeFolder.getAbsolutePath()), null);
+                LandscapeAnalysisCommands.update(new File(landscapeFolder.getAbsolutePath()), null, threads);
             });
             System.out.println("Analysed " + landscapeConfigFiles + " landscape(s):");
             landscapeConfigFiles.forEach(landscapeConfigFile -> {
                 System.out.println(" -  " + landscapeConfigFile.getPath());
             });
         } else {
-            LandscapeAnalysisCommands.update(root, confFilePath != null ? new File(confFilePath) : null);
+            LandscapeAnalysisCommands.update(root, confFilePath != null ? new File(confFilePath) : null, threads);
         }
     }
 
@@ -457,7 +467,7 @@ public class CommandLineInterface {
         return conf;
     }
 
-    private void generateReports(CommandLine cmd) throws IOException {
+    private void generateReports(CommandLine cmd) throws IOException, ParseException {
         updateDateParam(cmd);
 
         File sokratesConfigFile;
@@ -569,8 +579,12 @@ public class CommandLineInterface {
         List<RichTextReport> reports = generator.report();
         reports.forEach(report -> {
             info("Generating the '" + report.getId().toUpperCase() + "' report...");
-            ReportFileExporter.exportHtml(reportsFolder, "html", report, analysisResults.getCodeConfiguration().getAnalysis().getCustomHtmlReportHeaderFragment());
         });
+        String customHeaderFragment = analysisResults.getCodeConfiguration().getAnalysis().getCustomHtmlReportHeaderFragment();
+        List<ReportExportTime> exportTimes = ReportFileExporter.exportHtml(reportsFolder, ReportFileExporter.HTML_REPORTS_SUB_FOLDER,
+                reports, customHeaderFragment, codeAnalyzerSettings.getThreads());
+        ReportFileExporter.printExportTimesSummary(exportTimes, 5);
+        LOG.info(GraphvizSvgCache.getInstance().getStats());
         if (!codeAnalyzerSettings.isDataOnly() && codeAnalyzerSettings.isUpdateIndex()) {
             ReportFileExporter.exportReportsIndexFile(reportsFolder, analysisResults, sokratesConfigFolder);
         }
@@ -702,6 +716,22 @@ public class CommandLineInterface {
     private CodeAnalyzerSettings getCodeAnalyzerSettings(CommandLine cmd) {
         CodeAnalyzerSettings settings = new CodeAnalyzerSettings();
 
+        String threadsValue = cmd.getOptionValue(commands.getThreads().getOpt());
+        if (StringUtils.isNumeric(threadsValue)) {
+            settings.setThreads(Integer.parseInt(threadsValue));
+            System.out.println("Running analyses on " + settings.getThreads() + " threads.");
+        }
+
+        if (cmd.hasOption(commands.getIncremental().getOpt())) {
+            settings.setIncremental(true);
+            System.out.println("Reusing analysis results of unchanged files.");
+        }
+
+        if (cmd.hasOption(commands.getSearchIndex().getOpt())) {
+            settings.setSearchIndex(true);
+            System.out.println("Updating the search index.");
+        }
+
         return settings;
     }
 
@@ -50,6 +50,9 @@ public class Commands {
     public static final String ARG_HTML_REPORTS_FOLDER_NAME = "html";
     public static final String ARG_ANALYSIS_ROOT = "analysisRoot";
     public static final String ARG_TIMEOUT = "timeout";
+    public static final String ARG_THREADS = "threads";
+    public static final String ARG_INCREMENTAL = "incremental";
+    public static final String ARG_SEARCH_INDEX = "searchIndex";
     public static final String ARG_PREFIX = "prefix";
     public static final String ARG_PATTERN = "pattern";
     public static final String ARG_DEST_FOLDER = "destFolder";
@@ -78,6 +81,9 @@ public class Commands {
     private Option date = new Option(ARG_DATE, true, "[OPTIONAL] last date of source code update (default today), used for reports on active contributors");
     private Option analysisRoot = new Option(ARG_ANALYSIS_ROOT, true, "[OPTIONAL] the path to configuration file (default is \"<currentFolder>/_sokrates/config.json\")");
     private Option timeout = new Option(ARG_TIMEOUT, true, "[OPTIONAL] timeout in seconds");
+    private Option threads = new Option(ARG_THREADS, true, "[OPTIONAL] the number of threads used to run independent analyses and export reports in parallel (default 1, for extractGitHistory the number of available processors)");
+    private Option incremental = new Option(ARG_INCREMENTAL, false, "[OPTIONAL] reuses per-file analysis results of unchanged files from the previous run (stored in the \"_sokrates_cache\" folder next to the \"_sokrates\" folder)");
+    private Option searchIndex = new Option(ARG_SEARCH_INDEX, false, "[OPTIONAL] builds or updates a trigram index of the analyzed files (stored in the \"_sokrates\" folder), used to speed up concern and code explorer searches");
     private Option prefix = new Option(ARG_PREFIX, true, "the path prefix");
     private Option pattern = new Option(ARG_PATTERN, true, "the file path regex pattern");
     private Option destRoot = new Option(ARG_DEST_FOLDER, true, "the destination folder");
@@ -163,6 +169,9 @@ public class Commands {
         options.addOption(outputFolder);
         options.addOption(internalGraphviz);
         options.addOption(timeout);
+        options.addOption(threads);
+        options.addOption(incremental);
+        options.addOption(searchIndex);
         options.addOption(date);
         options.addOption(help);
 
@@ -228,6 +237,7 @@ public class Commands {
     public Options getExtractGitHistoryOption() {
         Options options = new Options();
         options.addOption(analysisRoot);
+        options.addOption(threads);
         options.addOption(help);
 
         analysisRoot.setRequired(false);
@@ -253,6 +263,7 @@ public class Commands {
         options.addOption(confFile);
         options.addOption(recursive);
         options.addOption(timeout);
+        options.addOption(threads);
         options.addOption(date);
         options.addOption(help);
 
@@ -297,6 +308,18 @@ public class Commands {
         return timeout;
     }
 
+    public Option getThreads() {
+        return threads;
+    }
+
+    public Option getIncremental() {
+        return incremental;
+    }
+
+    public Option getSearchIndex() {
+        return searchIndex;
+    }
+
     public Option getPrefix() {
         return prefix;
     }
@@ -1,88 +1,262 @@
 package nl.obren.sokrates.cli.git;
 
-import org.apache.commons.io.FileUtils;
+import nl.obren.sokrates.common.utils.ParallelBatches;
+import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
+import nl.obren.sokrates.sourcecode.githistory.GitHistory;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryIndexFile;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryLineParser;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryUtils;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.LogCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.treewalk.AbstractTreeIterator;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileDescriptor;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
+/*
+ * Writes the git-history.txt file (one "date email commit path" line per changed file) directly from the repository.
+ * Commits are listed on the calling thread, the diffs against the first parent are computed by a pool of workers, each
+ * with its own object reader and diff formatter, and the lines are written through one buffered writer in the order
+ * of the commit log, so the output is the same regardless of the number of threads.
+ *
+ * The first line of the file is a watermark with the HEAD commit at the time of extraction. If the watermark is still
+ * reachable from HEAD, only the newer commits are extracted and put in front of the previous lines. The binary history
+ * index (see GitHistoryIndexFile) is updated together with the file: the new updates are added in front of the updates
+ * loaded from the previous index, and the previous lines are copied without being parsed. Only if the previous index is
+ * missing or out of date are the previous lines parsed again.
+ */
 public class GitHistoryExtractor {
+    private static final int PROGRESS_STEP = 1000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private final List<AutoCloseable> resources = Collections.synchronizedList(new ArrayList<>());
+
     public static void main(String args[]) throws IOException, GitAPIException {
         new GitHistoryExtractor().extractGitHistory(new File("/Users/zobrenovic/Downloads/test/temp_clone_dir/"));
     }
 
+    public GitHistoryExtractor() {
+    }
+
+    public GitHistoryExtractor(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
     public void extractGitHistory(File root) {
+        File gitHistoryFile = new File(root, GitHistoryUtils.GIT_HISTORY_FILE_NAME);
+        File tempFile = new File(root, GitHistoryUtils.GIT_HISTORY_FILE_NAME + ".tmp");
         FileRepositoryBuilder builder = new FileRepositoryBuilder();
-        File gitHistoryFile = new File(root, "git-history.txt");
-        try {
-            FileUtils.writeStringToFile(gitHistoryFile, "", StandardCharsets.UTF_8);
-            Repository repo = builder.setGitDir(new File(root, ".git")).setMustExist(true).build();
-            Git git = new Git(repo);
-            Iterable<RevCommit> log = git.log().call();
-            AtomicInteger count = new AtomicInteger();
-            for (Iterator<RevCommit> iterator = log.iterator(); iterator.hasNext(); ) {
-                RevCommit rev = iterator.next();
-                if (rev.getParentCount() == 0) {
-                    continue;
-                }
-                RevCommit prev = rev.getParent(0);
-                List<String> paths = new ArrayList<>();
-                FileOutputStream stdout = new FileOutputStream(FileDescriptor.out);
-                try (DiffFormatter diffFormatter = new DiffFormatter(stdout)) {
-                    diffFormatter.setRepository(repo);
-                    for (DiffEntry entry : diffFormatter.scan(prev, rev)) {
-                        String newPath = entry.getNewPath();
-                        if (!newPath.equals("/dev/null")) {
-                            paths.add(newPath);
+        long start = System.currentTimeMillis();
+        try (Repository repo = builder.setGitDir(new File(root, ".git")).setMustExist(true).build()) {
+            ObjectId head = repo.resolve(Constants.HEAD);
+            if (head == null) {
+                System.out.println("The repository has no commits");
+                return;
+            }
+            ObjectId watermark = getWatermark(repo, head, gitHistoryFile);
+            GitHistory previousHistory = watermark != null ? GitHistoryIndexFile.load(gitHistoryFile) : null;
+            List<CommitInfo> commits = getCommits(repo, head, watermark);
+            if (watermark != null && commits.isEmpty() && previousHistory != null) {
+                System.out.println("The git history in " + gitHistoryFile.getPath() + " is up to date");
+                return;
+            }
+            System.out.println("Extracting git history of " + commits.size() + (watermark != null ? " new" : "") + " commits on " + threads + " threads");
+
+            GitHistory history = new GitHistory();
+            int processed[] = {0};
+            int lines[] = {0};
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                write(writer, GitHistoryIndexFile.getWatermarkLine(head.getName()));
+
+                ThreadLocal<DiffFormatter> diffFormatters = ThreadLocal.withInitial(() -> createDiffFormatter(repo));
+                ParallelBatches parallelBatches = new ParallelBatches(threads);
+                try {
+                    parallelBatches.forEachInOrder(commits, commit -> getChangedPaths(diffFormatters.get(), commit), (commit, paths) -> {
+                        for (String path : paths) {
+                            write(writer, commit.getLinePrefix() + path);
+                            history.add(commit.date, commit.email, commit.id.getName(), path);
+                            lines[0]++;
+                        }
+                        if (++processed[0] % PROGRESS_STEP == 0) {
+                            System.out.println(processed[0] + "/" + commits.size() + " commits (" + getThroughput(processed[0], start) + " commits/sec)");
                         }
-                    }
+                    });
+                } finally {
+                    parallelBatches.shutdown();
+                    closeResources();
                 }
 
-                paths.forEach(path -> {
-                    System.out.print(count.incrementAndGet() + " ");
-                    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-                    String line = format.format(rev.getAuthorIdent().getWhen()) + " "
-                            + rev.getAuthorIdent().getEmailAddress() + " "
-                            + rev.getId().getName() + " " + path;
-                    try {
-                        FileUtils.writeStringToFile(gitHistoryFile, line + "\n", StandardCharsets.UTF_8, true);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                    System.out.println(line);
-                });
+                if (watermark != null && previousHistory != null) {
+                    copyPreviousHistory(writer, gitHistoryFile);
+                    history.addAll(previousHistory);
+                } else if (watermark != null) {
+                    System.out.println("The git history index is missing or out of date, parsing the previous history");
+                    appendPreviousHistory(writer, gitHistoryFile, history);
+                }
             }
-        } catch (IOException | GitAPIException e) {
+            Files.move(tempFile.toPath(), gitHistoryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            GitHistoryIndexFile.save(gitHistoryFile, history, head.getName());
+
+            System.out.println("Extracted " + lines[0] + " lines from " + processed[0] + " commits in "
+                    + (System.currentTimeMillis() - start) + " ms (" + getThroughput(processed[0], start) + " commits/sec) to " + gitHistoryFile.getPath());
+        } catch (IOException | UncheckedIOException | GitAPIException e) {
             e.printStackTrace();
+        } finally {
+            tempFile.delete();
         }
     }
 
-    private AbstractTreeIterator getCanonicalTreeParser(Repository repo, ObjectId commitId) throws IOException {
+    private ObjectId getWatermark(Repository repo, ObjectId head, File gitHistoryFile) throws IOException {
+        String watermark = GitHistoryIndexFile.readWatermark(gitHistoryFile);
+        if (watermark == null || !ObjectId.isId(watermark)) {
+            return null;
+        }
+
+        ObjectId watermarkId = ObjectId.fromString(watermark);
+        if (!repo.getObjectDatabase().has(watermarkId)) {
+            System.out.println("The last extracted commit " + watermark + " is not in the repository, extracting the whole history");
+            return null;
+        }
         try (RevWalk walk = new RevWalk(repo)) {
-            RevCommit commit = walk.parseCommit(commitId);
-            ObjectId treeId = commit.getTree().getId();
-            try (ObjectReader reader = repo.newObjectReader()) {
-                return new CanonicalTreeParser(null, reader, treeId);
+            if (!walk.isMergedInto(walk.parseCommit(watermarkId), walk.parseCommit(head))) {
+                System.out.println("The last extracted commit " + watermark + " is not reachable from HEAD, extracting the whole history");
+                return null;
+            }
+        }
+
+        return watermarkId;
+    }
+
+    private List<CommitInfo> getCommits(Repository repo, ObjectId head, ObjectId watermark) throws GitAPIException, IOException {
+        List<CommitInfo> commits = new ArrayList<>();
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        try (Git git = new Git(repo)) {
+            LogCommand log = git.log().add(head);
+            if (watermark != null) {
+                log.not(watermark);
+            }
+            for (RevCommit rev : log.call()) {
+                if (rev.getParentCount() == 0) {
+                    continue;
+                }
+                commits.add(new CommitInfo(rev.getParent(0).getId(), rev.getId(),
+                        format.format(rev.getAuthorIdent().getWhen()), rev.getAuthorIdent().getEmailAddress()));
+            }
+        }
+        return commits;
+    }
+
+    private void appendPreviousHistory(BufferedWriter writer, File gitHistoryFile, GitHistory history) throws IOException {
+        GitHistoryLineParser parser = new GitHistoryLineParser(new FileHistoryAnalysisConfig());
+        try (BufferedReader reader = Files.newBufferedReader(gitHistoryFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(GitHistoryIndexFile.WATERMARK_PREFIX)) {
+                    write(writer, line);
+                    parser.parse(line, history);
+                }
+            }
+        }
+    }
+
+    // copies the previous lines (all but the watermark in the first line) as they are
+    private void copyPreviousHistory(BufferedWriter writer, File gitHistoryFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(gitHistoryFile.toPath(), StandardCharsets.UTF_8)) {
+            reader.readLine();
+            char[] buffer = new char[COPY_BUFFER_SIZE];
+            int count;
+            while ((count = reader.read(buffer)) > 0) {
+                writer.write(buffer, 0, count);
+            }
+        }
+    }
+
+    private DiffFormatter createDiffFormatter(Repository repo) {
+        ObjectReader reader = repo.newObjectReader();
+        DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE);
+        diffFormatter.setReader(reader, repo.getConfig());
+        resources.add(diffFormatter);
+        resources.add(reader);
+        return diffFormatter;
+    }
+
+    private List<String> getChangedPaths(DiffFormatter diffFormatter, CommitInfo commit) {
+        List<String> paths = new ArrayList<>();
+        try {
+            for (DiffEntry entry : diffFormatter.scan(commit.parentId, commit.id)) {
+                String newPath = entry.getNewPath();
+                if (!newPath.equals(DiffEntry.DEV_NULL)) {
+                    paths.add(newPath);
+                }
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return paths;
+    }
+
+    private void write(BufferedWriter writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long getThroughput(int commits, long start) {
+        long duration = Math.max(1, System.currentTimeMillis() - start);
+        return commits * 1000L / duration;
+    }
+
+    private void closeResources() {
+        resources.forEach(resource -> {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        resources.clear();
+    }
+
+    private static class CommitInfo {
+        private final ObjectId parentId;
+        private final ObjectId id;
+        private final String date;
+        private final String email;
+
+        CommitInfo(ObjectId parentId, ObjectId id, String date, String email) {
+            this.parentId = parentId;
+            this.id = id;
+            this.date = date;
+            this.email = email;
+        }
+
+        String getLinePrefix() {
+            return date + " " + email + " " + id.getName() + " ";
         }
     }
 }
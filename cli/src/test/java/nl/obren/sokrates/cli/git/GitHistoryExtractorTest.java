@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.cli.git;
+
+import nl.obren.sokrates.sourcecode.githistory.GitHistory;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryIndexFile;
+import nl.obren.sokrates.sourcecode.githistory.GitHistoryUtils;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class GitHistoryExtractorTest {
+    private static final PersonIdent AUTHOR = new PersonIdent("Developer", "dev@example.com");
+
+    @Test
+    public void extractOnlyNewCommits() throws Exception {
+        File root = Files.createTempDirectory("sokrates-git").toFile();
+        try (Git git = Git.init().setDirectory(root).call()) {
+            commit(git, root, "a.txt", "a");
+            commit(git, root, "a.txt", "a2");
+            commit(git, root, "b.txt", "b");
+
+            File historyFile = new File(root, GitHistoryUtils.GIT_HISTORY_FILE_NAME);
+            new GitHistoryExtractor(2).extractGitHistory(root);
+            assertEquals(2, GitHistoryIndexFile.load(historyFile).size());
+
+            // the previous lines keep their length, so the index stays valid, but give other emails if parsed again
+            String previousLines = FileUtils.readFileToString(historyFile, StandardCharsets.UTF_8);
+            String watermarkLine = previousLines.substring(0, previousLines.indexOf('\n') + 1);
+            String changedLines = previousLines.substring(watermarkLine.length()).replace("dev@example.com", "xyz@example.com");
+            FileUtils.write(historyFile, watermarkLine + changedLines, StandardCharsets.UTF_8);
+
+            commit(git, root, "c.txt", "c");
+            commit(git, root, "a.txt", "a3");
+            new GitHistoryExtractor(2).extractGitHistory(root);
+
+            GitHistory merged = GitHistoryIndexFile.load(historyFile);
+            assertNotNull(merged);
+            assertEquals(4, merged.size());
+            for (int i = 0; i < merged.size(); i++) {
+                assertEquals("dev@example.com", merged.getEmail(i));
+            }
+            String lines = FileUtils.readFileToString(historyFile, StandardCharsets.UTF_8);
+            assertTrue(lines.startsWith(GitHistoryIndexFile.getWatermarkLine(git.getRepository().resolve("HEAD").getName()) + "\n"));
+            assertTrue(lines.endsWith(changedLines));
+
+            FileUtils.forceDelete(historyFile);
+            FileUtils.forceDelete(GitHistoryIndexFile.getIndexFile(historyFile));
+            new GitHistoryExtractor(2).extractGitHistory(root);
+            GitHistory rebuilt = GitHistoryIndexFile.load(historyFile);
+
+            assertArrayEquals(toBytes(rebuilt), toBytes(merged));
+        } finally {
+            FileUtils.deleteDirectory(root);
+        }
+    }
+
+    private void commit(Git git, File root, String path, String content) throws Exception {
+        FileUtils.write(new File(root, path), content, StandardCharsets.UTF_8);
+        git.add().addFilepattern(path).call();
+        git.commit().setMessage(path).setAuthor(AUTHOR).setCommitter(AUTHOR).call();
+    }
+
+    private byte[] toBytes(GitHistory history) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            history.write(out);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -9,6 +9,7 @@ import nl.obren.sokrates.sourcecode.search.FoundLine;
 import nl.obren.sokrates.sourcecode.search.SearchExpression;
 import nl.obren.sokrates.sourcecode.search.SearchRequest;
 import nl.obren.sokrates.sourcecode.search.SearchResult;
+import nl.obren.sokrates.sourcecode.search.TrigramIndex;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
@@ -20,6 +21,7 @@ import java.util.Map;
 public class SearcheableFilesCache {
     private Map<File, SourceFileWithSearchData> files = new HashMap<>();
     private SearchResult searchResult;
+    private TrigramIndex.Query indexQuery;
 
     public static SearcheableFilesCache getInstance(List<SourceFile> sourceFiles) {
         SearcheableFilesCache searcheableFilesCache = new SearcheableFilesCache();
@@ -80,6 +82,7 @@ public class SearcheableFilesCache {
         searchResult = new SearchResult(searchRequest);
         searchResult.setTotalLinesCount(getTotalLinesCount());
         searchResult.setTotalNumberOfFiles(files.size());
+        indexQuery = TrigramIndex.getInstance().query(searchRequest.getContentSearchExpression().getExpression());
     }
 
     private void clearCachedFileSearchData(File file) {
@@ -117,7 +120,8 @@ public class SearcheableFilesCache {
 
     protected int getFoundInstancesCount(SearchExpression contentFilter, SourceFileWithSearchData sourceFileWithSearchData) {
         int foundInstancesCount = 0;
-        if (sourceFileWithSearchData != null && isNotEmpty(contentFilter.getExpression())) {
+        if (sourceFileWithSearchData != null && isNotEmpty(contentFilter.getExpression())
+                && (indexQuery == null || indexQuery.mayMatch(sourceFileWithSearchData.getSourceFile()))) {
             int lineCount = 0;
             List<String> lines = sourceFileWithSearchData.getLines();
             for (String line : lines) {
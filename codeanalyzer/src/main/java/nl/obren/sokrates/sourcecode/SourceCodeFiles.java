@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
 import nl.obren.sokrates.sourcecode.core.CodeConfigurationUtils;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
 import org.apache.commons.io.FilenameUtils;
 
 import java.io.File;
@@ -160,13 +161,16 @@ public class SourceCodeFiles {
     }
 
     private boolean hasTooLongLines(SourceFile sourceFile, int maxLineLength) {
+        return IncrementalAnalysisCache.getInstance().getLongestLineLength(sourceFile, () -> getLongestLineLength(sourceFile)) > maxLineLength;
+    }
+
+    private int getLongestLineLength(SourceFile sourceFile) {
+        int longestLineLength = 0;
         for (String line : sourceFile.getLines()) {
-            if (line.length() > maxLineLength) {
-                return true;
-            }
+            longestLineLength = Math.max(longestLineLength, line.length());
         }
 
-        return false;
+        return longestLineLength;
     }
 
     public List<SourceFile> getAllFiles() {
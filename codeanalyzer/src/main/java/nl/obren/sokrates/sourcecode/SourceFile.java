@@ -6,26 +6,29 @@ package nl.obren.sokrates.sourcecode;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
 import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
 import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
 import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzer;
 import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import nl.obren.sokrates.sourcecode.stats.RiskDistributionStats;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class SourceFile {
     private static final Log LOG = LogFactory.getLog(SourceFile.class);
@@ -174,7 +177,7 @@ public class SourceFile {
     @JsonIgnore
     public String getContent() {
         try {
-            return StringUtils.isNotBlank(content) ? content : getFile() != null ? FileUtils.readFileToString(getFile(), StandardCharsets.UTF_8) : "";
+            return StringUtils.isNotBlank(content) ? content : getFile() != null ? SourceFileContentCache.getInstance().getContent(getFile()) : "";
         } catch (IOException e) {
             LOG.debug(e);
         }
@@ -192,7 +195,7 @@ public class SourceFile {
         try {
             List<String> lines = StringUtils.isNotBlank(content)
                     ? SourceCodeCleanerUtils.splitInLines(content) : getFile() != null
-                    ? FileUtils.readLines(getFile(), StandardCharsets.UTF_8) : new ArrayList<>();
+                    ? IOUtils.readLines(new StringReader(SourceFileContentCache.getInstance().getContent(getFile()))) : new ArrayList<>();
             return lines;
         } catch (IOException e) {
             LOG.debug(e);
@@ -201,19 +204,39 @@ public class SourceFile {
     }
 
     @JsonIgnore
-    public List<String> getCleanedLines() {
+    public CleanedContent getCleanedContentForLinesOfCode() {
+        LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(this);
+        if (StringUtils.isNotBlank(content) || getFile() == null) {
+            return languageAnalyzer.cleanForLinesOfCodeCalculations(this);
+        }
+        return SourceFileContentCache.getInstance().getCleanedContent(getFile(), SourceFileContentCache.LINES_OF_CODE,
+                () -> languageAnalyzer.cleanForLinesOfCodeCalculations(this));
+    }
+
+    @JsonIgnore
+    public CleanedContent getCleanedContentForDuplication() {
         LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(this);
-        return SourceCodeCleanerUtils.splitInLines(languageAnalyzer.cleanForLinesOfCodeCalculations(this).getCleanedContent());
+        Supplier<CleanedContent> cleaner = () -> IncrementalAnalysisCache.getInstance().getCleanedContentForDuplication(this,
+                () -> languageAnalyzer.cleanForDuplicationCalculations(this));
+        if (StringUtils.isNotBlank(content) || getFile() == null) {
+            return cleaner.get();
+        }
+        return SourceFileContentCache.getInstance().getCleanedContent(getFile(), SourceFileContentCache.DUPLICATION, cleaner);
+    }
+
+    @JsonIgnore
+    public List<String> getCleanedLines() {
+        return SourceCodeCleanerUtils.splitInLines(getCleanedContentForLinesOfCode().getCleanedContent());
     }
 
     @JsonIgnore
     public List<String> getCleanedLinesForDuplication() {
-        return SourceCodeCleanerUtils.splitInLines(LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(this).cleanForDuplicationCalculations(this).getCleanedContent());
+        return SourceCodeCleanerUtils.splitInLines(getCleanedContentForDuplication().getCleanedContent());
     }
 
     @JsonIgnore
     public void setLinesOfCodeFromContent() {
-        linesOfCode = getCleanedLines().size();
+        linesOfCode = IncrementalAnalysisCache.getInstance().getLinesOfCode(this, () -> getCleanedLines().size());
     }
 
     @Override
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode;
+
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * Keeps file content and cleaned content of source files in memory, so that each file is read and cleaned once per
+ * analysis run. Entries are keyed by the file path and are valid only as long as the file modification time and size
+ * are unchanged. The cache is a LRU with a byte budget; evicted entries are optionally kept as soft references and
+ * recovered if the garbage collector has not claimed them yet. Hits and misses are counted separately for the file
+ * content and for the cleaned content, as a valid file entry may not have the requested cleaned content yet.
+ */
+public class SourceFileContentCache {
+    private static final Log LOG = LogFactory.getLog(SourceFileContentCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    public static final String LINES_OF_CODE = "loc";
+    public static final String DUPLICATION = "duplication";
+
+    private static SourceFileContentCache instance = new SourceFileContentCache();
+
+    private LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private Map<String, SoftReference<Entry>> spilledEntries = new HashMap<>();
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private boolean softSpill = true;
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long cleanedHits = 0;
+    private long cleanedMisses = 0;
+
+    public static SourceFileContentCache getInstance() {
+        return instance;
+    }
+
+    public synchronized void reset(long maxBytes, boolean softSpill) {
+        clear();
+        this.maxBytes = maxBytes;
+        this.softSpill = softSpill;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        spilledEntries.clear();
+        usedBytes = 0;
+        hits = 0;
+        misses = 0;
+        cleanedHits = 0;
+        cleanedMisses = 0;
+    }
+
+    public String getContent(File file) throws IOException {
+        Entry entry = getValidEntry(file);
+        synchronized (this) {
+            if (entry != null) {
+                hits++;
+                return entry.content;
+            }
+            misses++;
+        }
+
+        long lastModified = file.lastModified();
+        long length = file.length();
+        String content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+
+        put(new Entry(file.getPath(), lastModified, length, content));
+
+        return content;
+    }
+
+    public CleanedContent getCleanedContent(File file, String type, Supplier<CleanedContent> cleaner) {
+        Entry entry = getValidEntry(file);
+        if (entry != null) {
+            CleanedContent cleanedContent;
+            synchronized (this) {
+                cleanedContent = entry.cleanedContents.get(type);
+            }
+            if (cleanedContent != null) {
+                synchronized (this) {
+                    cleanedHits++;
+                }
+                return copy(cleanedContent);
+            }
+        }
+        synchronized (this) {
+            cleanedMisses++;
+        }
+
+        CleanedContent cleanedContent = cleaner.get();
+
+        synchronized (this) {
+            Entry currentEntry = entries.get(file.getPath());
+            if (currentEntry != null && !currentEntry.cleanedContents.containsKey(type)) {
+                CleanedContent cachedContent = copy(cleanedContent);
+                currentEntry.cleanedContents.put(type, cachedContent);
+                long bytes = estimateBytes(cachedContent);
+                currentEntry.bytes += bytes;
+                usedBytes += bytes;
+                evictIfNeeded();
+            }
+        }
+
+        return cleanedContent;
+    }
+
+    private synchronized Entry getValidEntry(File file) {
+        String key = file.getPath();
+        Entry entry = entries.get(key);
+        if (entry == null && softSpill) {
+            SoftReference<Entry> reference = spilledEntries.remove(key);
+            entry = reference != null ? reference.get() : null;
+            if (entry != null) {
+                entries.put(key, entry);
+                usedBytes += entry.bytes;
+                evictIfNeeded();
+            }
+        }
+
+        if (entry != null && entry.lastModified == file.lastModified() && entry.length == file.length()) {
+            return entry;
+        }
+
+        if (entry != null) {
+            entries.remove(key);
+            usedBytes -= entry.bytes;
+        }
+
+        return null;
+    }
+
+    private synchronized void put(Entry entry) {
+        Entry previous = entries.put(entry.path, entry);
+        if (previous != null) {
+            usedBytes -= previous.bytes;
+        }
+        usedBytes += entry.bytes;
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            usedBytes -= eldest.bytes;
+            if (softSpill) {
+                spilledEntries.put(eldest.path, new SoftReference<>(eldest));
+            }
+        }
+    }
+
+    private CleanedContent copy(CleanedContent cleanedContent) {
+        return new CleanedContent(cleanedContent);
+    }
+
+    private static long estimateBytes(String text) {
+        return text != null ? text.length() * 2L : 0;
+    }
+
+    private static long estimateBytes(CleanedContent cleanedContent) {
+        return estimateBytes(cleanedContent.getCleanedContent()) + cleanedContent.getFileLineIndexes().size() * 16L;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getCleanedHits() {
+        return cleanedHits;
+    }
+
+    public synchronized long getCleanedMisses() {
+        return cleanedMisses;
+    }
+
+    public synchronized String getStats() {
+        return "file content cache: " + hits + " hits, " + misses + " misses, cleaned content: " + cleanedHits + " hits, "
+                + cleanedMisses + " misses, "
+                + entries.size() + " files (" + (usedBytes / (1024 * 1024)) + " MB) in memory";
+    }
+
+    private static class Entry {
+        private String path;
+        private long lastModified;
+        private long length;
+        private String content;
+        private Map<String, CleanedContent> cleanedContents = new HashMap<>();
+        private long bytes;
+
+        Entry(String path, long lastModified, long length, String content) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = content;
+            this.bytes = estimateBytes(content);
+        }
+    }
+}
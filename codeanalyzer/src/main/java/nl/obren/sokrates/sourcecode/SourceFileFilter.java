@@ -5,20 +5,14 @@
 package nl.obren.sokrates.sourcecode;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import nl.obren.sokrates.common.utils.PatternCache;
 import nl.obren.sokrates.common.utils.RegexUtils;
 import nl.obren.sokrates.sourcecode.docs.Documentation;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class SourceFileFilter {
-    private static final Log LOG = LogFactory.getLog(SourceFileFilter.class);
-
     // A regex expression applied on the file path
     private String pathPattern = "";
 
@@ -43,15 +37,13 @@ public class SourceFileFilter {
     }
 
     public static boolean matchesAnyLine(List<String> lines, String patternString) {
+        PatternCache.CompiledPattern pattern = PatternCache.compile(patternString);
+        if (!pattern.isValid()) {
+            return false;
+        }
         for (String text : lines) {
-            try {
-                Pattern pattern = Pattern.compile(patternString);
-                Matcher matcher = pattern.matcher(text);
-                if (matcher.matches()) {
-                    return true;
-                }
-            } catch (PatternSyntaxException e) {
-                LOG.debug(e);
+            if (pattern.matchesEntirely(text)) {
+                return true;
             }
         }
 
@@ -64,20 +56,15 @@ public class SourceFileFilter {
         }
 
         int count = 0;
-        try {
-            Pattern pattern = Pattern.compile(patternString);
-
+        PatternCache.CompiledPattern pattern = PatternCache.compile(patternString);
+        if (pattern.isValid()) {
             for (String text : lines) {
-                Matcher matcher = pattern.matcher(text);
-                if (matcher.matches()) {
+                if (pattern.matchesEntirely(text)) {
                     count++;
                 }
             }
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
         }
 
-
         return count;
     }
 
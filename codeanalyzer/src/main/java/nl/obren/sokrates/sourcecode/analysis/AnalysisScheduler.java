@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.analysis;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Runs analysis stages as a dependency graph. A stage starts as soon as all stages producing its inputs
+ * (registered before it) are done. Inputs without a registered producer are ignored, so disabled stages
+ * can simply be left out. With one thread, stages run sequentially in the order they were added.
+ */
+public class AnalysisScheduler {
+    private static final Log LOG = LogFactory.getLog(AnalysisScheduler.class);
+
+    private List<AnalysisStage> stages = new ArrayList<>();
+    private int threads;
+
+    public AnalysisScheduler(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public AnalysisStage addStage(String name, Runnable task) {
+        AnalysisStage stage = new AnalysisStage(name, task);
+        stages.add(stage);
+        return stage;
+    }
+
+    public void run() {
+        if (threads == 1 || stages.size() <= 1) {
+            stages.forEach(this::runStage);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, stages.size()));
+        try {
+            Map<String, List<CompletableFuture<Void>>> producers = new HashMap<>();
+            List<CompletableFuture<Void>> all = new ArrayList<>();
+
+            stages.forEach(stage -> {
+                List<CompletableFuture<Void>> inputs = new ArrayList<>();
+                stage.getInputs().forEach(input -> {
+                    if (producers.containsKey(input)) {
+                        inputs.addAll(producers.get(input));
+                    }
+                });
+
+                CompletableFuture<Void> future = CompletableFuture.allOf(inputs.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> runStage(stage), executor);
+
+                stage.getOutputs().forEach(output -> producers.computeIfAbsent(output, k -> new ArrayList<>()).add(future));
+                all.add(future);
+            });
+
+            CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void runStage(AnalysisStage stage) {
+        long start = System.currentTimeMillis();
+        stage.run();
+        LOG.info("Analysis stage '" + stage.getName() + "' completed in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    public List<AnalysisStage> getStages() {
+        return stages;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AnalysisStage {
+    private String name;
+    private Runnable task;
+    private List<String> inputs = new ArrayList<>();
+    private List<String> outputs = new ArrayList<>();
+
+    public AnalysisStage(String name, Runnable task) {
+        this.name = name;
+        this.task = task;
+    }
+
+    public AnalysisStage requires(String... inputs) {
+        this.inputs.addAll(Arrays.asList(inputs));
+        return this;
+    }
+
+    public AnalysisStage produces(String... outputs) {
+        this.outputs.addAll(Arrays.asList(outputs));
+        return this;
+    }
+
+    public void run() {
+        task.run();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    public List<String> getOutputs() {
+        return outputs;
+    }
+}
@@ -14,6 +14,7 @@ import nl.obren.sokrates.sourcecode.metrics.MetricsList;
 import nl.obren.sokrates.sourcecode.metrics.NumericMetric;
 import nl.obren.sokrates.sourcecode.operations.ComplexOperation;
 import nl.obren.sokrates.sourcecode.operations.OperationStatement;
+import nl.obren.sokrates.sourcecode.search.ConcernsScanner;
 import nl.obren.sokrates.sourcecode.search.FoundText;
 import nl.obren.sokrates.sourcecode.search.SearchExpression;
 import nl.obren.sokrates.sourcecode.search.SearchRequest;
@@ -25,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import java.nio.file.FileSystems;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class AnalysisUtils {
     private static final Log LOG = LogFactory.getLog(AnalysisUtils.class);
@@ -32,6 +34,13 @@ public class AnalysisUtils {
     public static void analyze(String group, NamedSourceCodeAspect aspect, List<OperationStatement> textOperations,
                                ProgressFeedback progressFeedback, AspectAnalysisResults aspectAnalysisResults,
                                MetricsList metricsList, StringBuffer textSummary, long start) {
+        analyze(group, aspect, textOperations, progressFeedback, aspectAnalysisResults, metricsList, textSummary, start, null);
+    }
+
+    // concerns are searched with the given scanner if it is not null (see ConcernsScanner), and one filter at a time otherwise
+    public static void analyze(String group, NamedSourceCodeAspect aspect, List<OperationStatement> textOperations,
+                               ProgressFeedback progressFeedback, AspectAnalysisResults aspectAnalysisResults,
+                               MetricsList metricsList, StringBuffer textSummary, long start, ConcernsScanner concernsScanner) {
         aspectAnalysisResults.setAspect(aspect);
         String prefix = StringUtils.isNotBlank(group) ? (group + FileSystems.getDefault().getSeparator()) : "";
 
@@ -52,21 +61,18 @@ public class AnalysisUtils {
         aspectAnalysisResults.setLinesOfCode(aspect.getLinesOfCode());
 
         if (aspect instanceof Concern) {
-            LOG.info("Creating searchable file chache for " + name);
-            SearcheableFilesCache searcheableFilesCache = SearcheableFilesCache.getInstance(aspect.getSourceFiles());
-            aspect.getSourceFileFilters().forEach(filter -> {
-                SearchRequest searchRequest = new SearchRequest(
-                        new SearchExpression(filter.getPathPattern()),
-                        new SearchExpression(filter.getContentPattern()));
-                LOG.info("Searching for path line \"" + searchRequest.getPathSearchExpression().getExpression() + "\" and/or content like \""
-                        + searchRequest.getContentSearchExpression().getExpression() + "\"");
-                SearchResult searchResult = searcheableFilesCache.search(searchRequest, new ProgressFeedback());
+            Consumer<SearchResult> searchResultConsumer = searchResult -> {
                 List<FoundText> foundTextList = getFoundTexts(searchResult, textOperations);
                 aspectAnalysisResults.setFoundTextList(foundTextList);
                 aspectAnalysisResults.setFoundFiles(searchResult.getFoundFiles());
                 aspectAnalysisResults.setNumberOfRegexLineMatches(aspectAnalysisResults.getNumberOfRegexLineMatches()
                         + searchResult.getTotalNumberOfMatchingLines());
-            });
+            };
+            if (concernsScanner != null) {
+                concernsScanner.getSearchResults((Concern) aspect).forEach(searchResultConsumer);
+            } else {
+                search(name, aspect, searchResultConsumer);
+            }
         }
 
         SourceCodeAspectUtils.getAspectsPerExtensions(aspect).forEach(aspectPerExtension -> {
@@ -85,6 +91,20 @@ public class AnalysisUtils {
         });
     }
 
+    // the found files data of a search result is reused by the next search, so each result is consumed right away
+    private static void search(String name, NamedSourceCodeAspect aspect, Consumer<SearchResult> searchResultConsumer) {
+        LOG.info("Creating searchable file chache for " + name);
+        SearcheableFilesCache searcheableFilesCache = SearcheableFilesCache.getInstance(aspect.getSourceFiles());
+        aspect.getSourceFileFilters().forEach(filter -> {
+            SearchRequest searchRequest = new SearchRequest(
+                    new SearchExpression(filter.getPathPattern()),
+                    new SearchExpression(filter.getContentPattern()));
+            LOG.info("Searching for path line \"" + searchRequest.getPathSearchExpression().getExpression() + "\" and/or content like \""
+                    + searchRequest.getContentSearchExpression().getExpression() + "\"");
+            searchResultConsumer.accept(searcheableFilesCache.search(searchRequest, new ProgressFeedback()));
+        });
+    }
+
     private static List<FoundText> getFoundTexts(SearchResult searchResult, List<OperationStatement> textOperations) {
         List<FoundText> foundTextList;
         ComplexOperation operation = new ComplexOperation(textOperations);
@@ -4,10 +4,15 @@
 
 package nl.obren.sokrates.sourcecode.analysis;
 
+import nl.obren.sokrates.common.utils.PatternCache;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFileContentCache;
 import nl.obren.sokrates.sourcecode.analysis.files.*;
 import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.core.AnalysisConfig;
 import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
+import nl.obren.sokrates.sourcecode.search.TrigramIndex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -16,6 +21,13 @@ import java.text.DecimalFormat;
 
 public class CodeAnalyzer {
     private static final Log LOG = LogFactory.getLog(CodeAnalyzer.class);
+
+    private static final String SCOPES = "scopes";
+    private static final String FILES = "files";
+    private static final String HISTORY = "history";
+    private static final String UNITS = "units";
+    private static final String METRICS = "metrics";
+
     private long start;
     private CodeAnalyzerSettings codeAnalyzerSettings;
     private CodeConfiguration codeConfiguration;
@@ -48,40 +60,81 @@ public class CodeAnalyzer {
 
         AnalysisUtils.detailedInfo(results.getTextSummary(), progressFeedback, "Start of analysis", start);
 
-        new BasicsAnalyzer(results, codeConfigurationFile, progressFeedback).analyze();
+        AnalysisConfig analysisConfig = codeConfiguration.getAnalysis();
+        SourceFileContentCache.getInstance().reset(analysisConfig.getFileContentCacheMb() * 1024L * 1024L,
+                analysisConfig.isSoftFileContentCache());
+        if (codeAnalyzerSettings.isIncremental()) {
+            IncrementalAnalysisCache.getInstance().load(codeConfigurationFile);
+        } else {
+            IncrementalAnalysisCache.getInstance().disable();
+        }
+        if (codeAnalyzerSettings.isSearchIndex()) {
+            TrigramIndex.getInstance().load(codeConfigurationFile);
+        } else {
+            TrigramIndex.getInstance().disable();
+        }
+
+        AnalysisScheduler scheduler = new AnalysisScheduler(codeAnalyzerSettings.getThreads());
+
+        scheduler.addStage("basics", () -> new BasicsAnalyzer(results, codeConfigurationFile, progressFeedback).analyze())
+                .produces(SCOPES, METRICS);
 
         if (shouldAnalyzeLogicalDecomposition()) {
-            AnalysisUtils.info(textSummary, progressFeedback, "Analysing logical decompositions...", start);
-            new LogicalDecompositionAnalyzer(results).analyze(progressFeedback);
+            scheduler.addStage("logical decompositions", () -> {
+                AnalysisUtils.info(textSummary, progressFeedback, "Analysing logical decompositions...", start);
+                new LogicalDecompositionAnalyzer(results).analyze(progressFeedback);
+            }).requires(SCOPES).produces(METRICS);
         }
 
         if (shouldAnalyzeConcerns()) {
-            AnalysisUtils.info(textSummary, progressFeedback, "Analysing features of interest...", start);
-            new ConcernsAnalyzer(results, progressFeedback).analyze();
+            scheduler.addStage("concerns", () -> {
+                AnalysisUtils.info(textSummary, progressFeedback, "Analysing features of interest...", start);
+                new ConcernsAnalyzer(results, progressFeedback, codeAnalyzerSettings.getThreads()).analyze();
+            }).requires(SCOPES).produces(METRICS);
         }
 
         if (shouldAnalyzeFileSize()) {
-            AnalysisUtils.info(textSummary, progressFeedback, "Analysing file size...", start);
-            new FileSizeAnalyzer(results).analyze();
+            scheduler.addStage("file size", () -> {
+                AnalysisUtils.info(textSummary, progressFeedback, "Analysing file size...", start);
+                new FileSizeAnalyzer(results).analyze();
+            }).requires(SCOPES).produces(FILES, METRICS);
         }
 
         if (shouldAnalyzeFileHistory()) {
-            AnalysisUtils.info(textSummary, progressFeedback, "Analysing commit history...", start);
-            new FileHistoryAnalyzer(results, codeConfigurationFile.getParentFile()).analyze();
+            scheduler.addStage("file history", () -> {
+                AnalysisUtils.info(textSummary, progressFeedback, "Analysing commit history...", start);
+                new FileHistoryAnalyzer(results, codeConfigurationFile.getParentFile()).analyze();
+            }).requires(SCOPES).produces(HISTORY, METRICS);
         }
 
-        new ContributorsAnalyzer(results, codeConfigurationFile.getParentFile()).analyze();
+        scheduler.addStage("contributors", () -> new ContributorsAnalyzer(results, codeConfigurationFile.getParentFile()).analyze())
+                .requires(SCOPES, HISTORY).produces(METRICS);
 
         if (shouldAnalyzeUnits()) {
-            new UnitsAnalyzer(results, progressFeedback).analyze();
+            scheduler.addStage("units", () -> new UnitsAnalyzer(results, progressFeedback, codeAnalyzerSettings.getThreads()).analyze())
+                    .requires(SCOPES, FILES).produces(UNITS, METRICS);
         }
 
         if (shouldAnalyzeDuplication()) {
-            new DuplicationAnalyzer(results).analyze(progressFeedback);
+            scheduler.addStage("duplication", () -> new DuplicationAnalyzer(results, codeAnalyzerSettings.getThreads()).analyze(progressFeedback))
+                    .requires(SCOPES, UNITS).produces(METRICS);
         }
 
         if (shouldAnalyzeControls()) {
-            new ControlsAnalyzer(results, progressFeedback).analyze();
+            scheduler.addStage("controls", () -> new ControlsAnalyzer(results, progressFeedback).analyze())
+                    .requires(METRICS);
+        }
+
+        scheduler.run();
+
+        LOG.info(SourceFileContentCache.getInstance().getStats());
+        LOG.info(PatternCache.getInstance().getStats());
+        if (IncrementalAnalysisCache.getInstance().isEnabled()) {
+            IncrementalAnalysisCache.getInstance().save();
+            LOG.info(IncrementalAnalysisCache.getInstance().getStats());
+        }
+        if (TrigramIndex.getInstance().isEnabled()) {
+            LOG.info(TrigramIndex.getInstance().getStats());
         }
 
         addTotalAnalysisTimeMetric();
@@ -23,6 +23,9 @@ public class CodeAnalyzerSettings {
     private boolean createMetricsList = true;
     private boolean analyzeControls = true;
     private boolean analyzeFindings = true;
+    private int threads = 1;
+    private boolean incremental = false;
+    private boolean searchIndex = false;
 
     public void selectAll() {
         analyzeFilesInScope = true;
@@ -171,4 +174,28 @@ public class CodeAnalyzerSettings {
     public void setAnalyzeContributors(boolean analyzeContributors) {
         this.analyzeContributors = analyzeContributors;
     }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isSearchIndex() {
+        return searchIndex;
+    }
+
+    public void setSearchIndex(boolean searchIndex) {
+        this.searchIndex = searchIndex;
+    }
 }
@@ -13,9 +13,12 @@ import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
 import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
 import nl.obren.sokrates.sourcecode.metrics.Metric;
 import nl.obren.sokrates.sourcecode.metrics.MetricsList;
+import nl.obren.sokrates.sourcecode.search.TrigramIndex;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +55,7 @@ public class BasicsAnalyzer extends Analyzer {
 
         codeConfiguration.load(sourceCodeFiles, codeConfigurationFile);
         analyzeScopes();
+        updateSearchIndex();
 
         List<SourceFile> excludedFiles = sourceCodeFiles.getExcludedFiles();
 
@@ -61,6 +65,19 @@ public class BasicsAnalyzer extends Analyzer {
         AnalysisUtils.detailedInfo(textSummary, progressFeedback, "Excluded from analyses " + (excludedFiles.size()) + " files", start);
     }
 
+    private void updateSearchIndex() {
+        TrigramIndex searchIndex = TrigramIndex.getInstance();
+        if (searchIndex.isEnabled()) {
+            List<SourceFile> sourceFiles = new ArrayList<>();
+            Arrays.asList(codeConfiguration.getMain(), codeConfiguration.getTest(), codeConfiguration.getGenerated(),
+                    codeConfiguration.getBuildAndDeployment(), codeConfiguration.getOther())
+                    .forEach(aspect -> sourceFiles.addAll(aspect.getSourceFiles()));
+            searchIndex.update(sourceFiles, true);
+            searchIndex.save();
+            AnalysisUtils.detailedInfo(textSummary, progressFeedback, "Updated the search index (" + searchIndex.getFilesCount() + " files)", start);
+        }
+    }
+
     private Map<String, Integer> getExcludedExtensions(List<SourceFile> excludedFiles) {
         Map<String, Integer> excludedExtensions = new HashMap<>();
 
@@ -10,9 +10,12 @@ import nl.obren.sokrates.sourcecode.analysis.Analyzer;
 import nl.obren.sokrates.sourcecode.analysis.results.AspectAnalysisResults;
 import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
 import nl.obren.sokrates.sourcecode.analysis.results.ConcernsAnalysisResults;
+import nl.obren.sokrates.sourcecode.aspects.Concern;
 import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
 import nl.obren.sokrates.sourcecode.metrics.MetricsList;
+import nl.obren.sokrates.sourcecode.search.ConcernsScanner;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ConcernsAnalyzer extends Analyzer {
@@ -22,6 +25,12 @@ public class ConcernsAnalyzer extends Analyzer {
     private final long start;
     private final List<ConcernsAnalysisResults> analysisResults;
     private ProgressFeedback progressFeedback;
+    private int threads = 1;
+
+    public ConcernsAnalyzer(CodeAnalysisResults analysisResults, ProgressFeedback progressFeedback, int threads) {
+        this(analysisResults, progressFeedback);
+        this.threads = threads;
+    }
 
     public ConcernsAnalyzer(CodeAnalysisResults analysisResults, ProgressFeedback progressFeedback) {
         this.analysisResults = analysisResults.getConcernsAnalysisResults();
@@ -33,6 +42,11 @@ public class ConcernsAnalyzer extends Analyzer {
     }
 
     public void analyze() {
+        List<Concern> concerns = new ArrayList<>();
+        codeConfiguration.getConcernGroups().forEach(group -> concerns.addAll(group.getConcerns()));
+        ConcernsScanner concernsScanner = new ConcernsScanner(concerns, threads);
+        concernsScanner.scan(progressFeedback);
+
         codeConfiguration.getConcernGroups().forEach(group -> {
             ConcernsAnalysisResults concernsAnalysisResults = new ConcernsAnalysisResults(group.getName());
             analysisResults.add(concernsAnalysisResults);
@@ -41,7 +55,7 @@ public class ConcernsAnalyzer extends Analyzer {
                 AspectAnalysisResults aspectAnalysisResults = new AspectAnalysisResults(concern.getName());
                 concernsAnalysisResults.getConcerns().add(aspectAnalysisResults);
                 AnalysisUtils.analyze("CONCERN_" + group.getName(), concern, concern.getTextOperations(),
-                        progressFeedback, aspectAnalysisResults, metricsList, textSummary, start);
+                        progressFeedback, aspectAnalysisResults, metricsList, textSummary, start, concernsScanner);
             });
         });
     }
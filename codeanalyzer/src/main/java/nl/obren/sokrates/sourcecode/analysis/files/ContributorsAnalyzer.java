@@ -10,13 +10,12 @@ import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
 import nl.obren.sokrates.sourcecode.analysis.results.ContributorsAnalysisResults;
 import nl.obren.sokrates.sourcecode.contributors.ContributorsImport;
 import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
+import nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesCalculator;
 import nl.obren.sokrates.sourcecode.metrics.MetricsList;
 
 import java.io.File;
 import java.util.List;
 
-import static nl.obren.sokrates.sourcecode.landscape.ContributorConnectionUtils.getPeopleDependencies;
-
 public class ContributorsAnalyzer extends Analyzer {
     private CodeConfiguration codeConfiguration;
     private MetricsList metricsList;
@@ -45,16 +44,29 @@ public class ContributorsAnalyzer extends Analyzer {
             analysisResults.setContributorsPerDay(contributorsImport.getContributorsPerDay());
             analysisResults.setCommitsPerExtensions(fileHistoryAnalysisConfig.getCommitsPerExtension(sokratesFolder, fileHistoryAnalysisConfig));
 
-            analysisResults.setPeopleDependencies30Days(getPeopleDependencies(codeAnalysisResults, 30));
-            analysisResults.setPeopleDependencies90Days(getPeopleDependencies(codeAnalysisResults, 90));
-            analysisResults.setPeopleDependencies180Days(getPeopleDependencies(codeAnalysisResults, 180));
-            analysisResults.setPeopleDependencies365Days(getPeopleDependencies(codeAnalysisResults, 365));
-            analysisResults.setPeopleDependenciesAllTime(getPeopleDependencies(codeAnalysisResults, 36500));
+            updatePeopleDependencies();
 
             addMetrics();
         }
     }
 
+    // people dependencies of all time windows, in one pass over the files history
+    private void updatePeopleDependencies() {
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        int window30Days = calculator.addWindow(0, 30);
+        int window90Days = calculator.addWindow(0, 90);
+        int window180Days = calculator.addWindow(0, 180);
+        int window365Days = calculator.addWindow(0, 365);
+        int windowAllTime = calculator.addWindow(0, 36500);
+        calculator.addFileHistories(codeAnalysisResults.getFilesHistoryAnalysisResults().getHistory());
+
+        analysisResults.setPeopleDependencies30Days(calculator.getFileDependencies(window30Days));
+        analysisResults.setPeopleDependencies90Days(calculator.getFileDependencies(window90Days));
+        analysisResults.setPeopleDependencies180Days(calculator.getFileDependencies(window180Days));
+        analysisResults.setPeopleDependencies365Days(calculator.getFileDependencies(window365Days));
+        analysisResults.setPeopleDependenciesAllTime(calculator.getFileDependencies(windowAllTime));
+    }
+
     private void addMetrics() {
         metricsList.addSystemMetric().id("NUMBER_OF_CONTRIBUTORS")
                 .value(analysisResults.getContributors().size())
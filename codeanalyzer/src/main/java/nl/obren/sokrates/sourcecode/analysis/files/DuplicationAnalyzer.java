@@ -27,6 +27,12 @@ public class DuplicationAnalyzer extends Analyzer {
     private final NamedSourceCodeAspect main;
     private CodeAnalysisResults analysisResults;
     private ProgressFeedback progressFeedback;
+    private int threads = 1;
+
+    public DuplicationAnalyzer(CodeAnalysisResults analysisResults, int threads) {
+        this(analysisResults);
+        this.threads = threads;
+    }
 
     public DuplicationAnalyzer(CodeAnalysisResults analysisResults) {
         this.duplcationAnalysisResults = analysisResults.getDuplicationAnalysisResults();
@@ -47,7 +53,9 @@ public class DuplicationAnalyzer extends Analyzer {
         progressFeedback.start();
         progressFeedback.setDetailedText("");
         AnalysisUtils.info(textSummary, progressFeedback, "Analysing duplication...", start);
-        List<DuplicationInstance> duplicates = new DuplicationEngine().findDuplicates(main.getSourceFiles(),
+        DuplicationEngine duplicationEngine = DuplicationEngine.getInstance(codeConfiguration.getAnalysis().getDuplicationEngine());
+        duplicationEngine.setThreads(threads);
+        List<DuplicationInstance> duplicates = duplicationEngine.findDuplicates(main.getSourceFiles(),
                 codeConfiguration.getAnalysis().getMinDuplicationBlockLoc(), new ProgressFeedback());
 
         List<DuplicationInstance> duplicatedUnits = new UnitDuplicatesExtractor().findDuplicatedUnits(
@@ -56,6 +64,13 @@ public class DuplicationAnalyzer extends Analyzer {
 
         analysisResults.getDuplicationAnalysisResults().setUnitDuplicates(duplicatedUnits);
 
+        double minUnitSimilarity = codeConfiguration.getAnalysis().getMinUnitSimilarity();
+        if (minUnitSimilarity > 0) {
+            analysisResults.getDuplicationAnalysisResults().setSimilarUnits(new UnitDuplicatesExtractor().findSimilarUnits(
+                    analysisResults.getUnitsAnalysisResults().getAllUnits(),
+                    codeConfiguration.getAnalysis().getMinDuplicationBlockLoc(), minUnitSimilarity));
+        }
+
 
         Map<String, DuplicationInstance> mergedConsolidated = consolidate(merge(duplicates));
         ArrayList<DuplicationInstance> consolidatedDuplicationInstances = new ArrayList<>(mergedConsolidated.values());
@@ -14,7 +14,7 @@ import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
 import nl.obren.sokrates.sourcecode.filehistory.FileHistoryComponentsHelper;
 import nl.obren.sokrates.sourcecode.filehistory.FileHistoryUtils;
 import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
-import nl.obren.sokrates.sourcecode.filehistory.FilePairsChangedTogether;
+import nl.obren.sokrates.sourcecode.filehistory.FilePairsChangedTogetherCalculator;
 import nl.obren.sokrates.sourcecode.metrics.MetricsList;
 import nl.obren.sokrates.sourcecode.stats.SourceFileAgeDistribution;
 import nl.obren.sokrates.sourcecode.stats.SourceFileChangeDistribution;
@@ -52,14 +52,8 @@ public class FileHistoryAnalyzer extends Analyzer {
                 enrichFilesWithAge(history);
                 System.out.println("Analyzing file age...");
                 analyzeFilesAge();
-                System.out.println("Analyzing files changed together...");
+                System.out.println("Analyzing files changed together (all history, past 30, 90 and 180 days)...");
                 analyzeFilesChangedTogether(history);
-                System.out.println("Analyzing files changed together in past 30 days...");
-                analyzeFilesChangedTogether30Days(history);
-                System.out.println("Analyzing files changed together in past 90 days...");
-                analyzeFilesChangedTogether90Days(history);
-                System.out.println("Analyzing files changed together in past 180 days...");
-                analyzeFilesChangedTogether180Days(history);
             }
         }
     }
@@ -111,27 +105,14 @@ public class FileHistoryAnalyzer extends Analyzer {
     }
 
     private void analyzeFilesChangedTogether(List<FileModificationHistory> history) {
-        FilePairsChangedTogether filePairsChangedTogether = new FilePairsChangedTogether(codeConfiguration.getAnalysis().getMaxTemporalDependenciesDepthDays());
-        filePairsChangedTogether.populate(codeConfiguration.getMain(), history);
-        analysisResults.setFilePairsChangedTogether(filePairsChangedTogether.getFilePairs());
-    }
-
-    private void analyzeFilesChangedTogether30Days(List<FileModificationHistory> history) {
-        FilePairsChangedTogether filePairsChangedTogether = new FilePairsChangedTogether(30);
-        filePairsChangedTogether.populate(codeConfiguration.getMain(), history);
-        analysisResults.setFilePairsChangedTogether30Days(filePairsChangedTogether.getFilePairs());
-    }
-
-    private void analyzeFilesChangedTogether90Days(List<FileModificationHistory> history) {
-        FilePairsChangedTogether filePairsChangedTogether = new FilePairsChangedTogether(90);
-        filePairsChangedTogether.populate(codeConfiguration.getMain(), history);
-        analysisResults.setFilePairsChangedTogether90Days(filePairsChangedTogether.getFilePairs());
-    }
-
-    private void analyzeFilesChangedTogether180Days(List<FileModificationHistory> history) {
-        FilePairsChangedTogether filePairsChangedTogether = new FilePairsChangedTogether(180);
-        filePairsChangedTogether.populate(codeConfiguration.getMain(), history);
-        analysisResults.setFilePairsChangedTogether180Days(filePairsChangedTogether.getFilePairs());
+        FilePairsChangedTogetherCalculator calculator = new FilePairsChangedTogetherCalculator(
+                codeConfiguration.getAnalysis().getMaxTemporalDependenciesFilesPerCommit(),
+                codeConfiguration.getAnalysis().getMaxTemporalDependenciesDepthDays(), 30, 90, 180);
+        calculator.populate(codeConfiguration.getMain(), history);
+        analysisResults.setFilePairsChangedTogether(calculator.getFilePairs(0));
+        analysisResults.setFilePairsChangedTogether30Days(calculator.getFilePairs(1));
+        analysisResults.setFilePairsChangedTogether90Days(calculator.getFilePairs(2));
+        analysisResults.setFilePairsChangedTogether180Days(calculator.getFilePairs(3));
     }
 
     private void analyzeFilesAge() {
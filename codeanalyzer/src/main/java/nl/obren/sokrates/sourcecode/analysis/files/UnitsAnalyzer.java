@@ -40,6 +40,12 @@ public class UnitsAnalyzer extends Analyzer {
 
     private UnitCategoryNames conditionalComplexityCategoryNames = new UnitCategoryNames("1_5", "6_10", "10_25", "26_50", "51_PLUS");
     private List<UnitInfo> allUnits;
+    private int threads = 1;
+
+    public UnitsAnalyzer(CodeAnalysisResults analysisResults, ProgressFeedback progressFeedback, int threads) {
+        this(analysisResults, progressFeedback);
+        this.threads = threads;
+    }
 
     public UnitsAnalyzer(CodeAnalysisResults analysisResults, ProgressFeedback progressFeedback) {
         this.filesAnalysisResults = analysisResults.getFilesAnalysisResults();
@@ -55,7 +61,7 @@ public class UnitsAnalyzer extends Analyzer {
     public void analyze() {
         progressFeedback.start();
         AnalysisUtils.info(textSummary, progressFeedback, "Analysing units...", start);
-        this.allUnits = new UnitsExtractor().getUnits(main.getSourceFiles(), progressFeedback);
+        this.allUnits = new UnitsExtractor(threads).getUnits(main.getSourceFiles(), progressFeedback);
 
         int linesOfCode = UnitUtils.getLinesOfCode(allUnits);
         addBasicUnitMetrics(allUnits, linesOfCode);
@@ -22,6 +22,8 @@ public class DuplicationAnalysisResults {
     private List<DuplicationInstance> allDuplicates = new ArrayList<>();
     @JsonIgnore
     private List<DuplicationInstance> unitDuplicates = new ArrayList<>();
+    @JsonIgnore
+    private List<DuplicationInstance> similarUnits = new ArrayList<>();
     private List<DuplicationInstance> longestDuplicates = new ArrayList<>();
     private List<DuplicationInstance> mostFrequentDuplicates = new ArrayList<>();
 
@@ -92,4 +94,12 @@ public class DuplicationAnalysisResults {
     public void setUnitDuplicates(List<DuplicationInstance> unitDuplicates) {
         this.unitDuplicates = unitDuplicates;
     }
+
+    public List<DuplicationInstance> getSimilarUnits() {
+        return similarUnits;
+    }
+
+    public void setSimilarUnits(List<DuplicationInstance> similarUnits) {
+        this.similarUnits = similarUnits;
+    }
 }
@@ -4,6 +4,7 @@
 
 package nl.obren.sokrates.sourcecode.aspects;
 
+import nl.obren.sokrates.common.utils.MultiPatternMatcher;
 import nl.obren.sokrates.common.utils.RegexUtils;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.SourceFileFilter;
@@ -27,6 +28,7 @@ public class MetaRulesProcessor<T extends NamedSourceCodeAspect> {
     private Map<String, T> map = new HashMap<>();
     private MetaRulesProcessorCallback sourceCodeAspectFactory;
     private boolean uniqueClassification;
+    private MultiPatternMatcher contentMatcher;
 
     private MetaRulesProcessor(boolean uniqueClassification,
                                MetaRulesProcessorCallback sourceCodeAspectFactory) {
@@ -75,6 +77,10 @@ public class MetaRulesProcessor<T extends NamedSourceCodeAspect> {
         map = new HashMap<>();
         alreadyAddedFiles = new ArrayList<>();
 
+        List<String> contentPatterns = new ArrayList<>();
+        metaRules.forEach(metaRule -> contentPatterns.add(metaRule.getContentPattern()));
+        contentMatcher = new MultiPatternMatcher(contentPatterns);
+
         sourceFiles.forEach(sourceFile -> {
             processSourceFile(metaRules, sourceFile);
         });
@@ -82,13 +88,42 @@ public class MetaRulesProcessor<T extends NamedSourceCodeAspect> {
         return concerns;
     }
 
+    // the content rules are evaluated together in one pass over the file lines, and the matches are then processed
+    // rule by rule, in the same order as testing each rule separately
     private void processSourceFile(List<MetaRule> metaRules, SourceFile sourceFile) {
-        metaRules.forEach(metaRule -> {
+        BitSet pathMatchingRules = new BitSet();
+        BitSet contentRules = new BitSet();
+        BitSet cleanedContentRules = new BitSet();
+        for (int i = 0; i < metaRules.size(); i++) {
+            MetaRule metaRule = metaRules.get(i);
             SourceFileFilter sourceFileFilter = new SourceFileFilter(metaRule.getPathPattern(), metaRule.getContentPattern());
             if (sourceFileFilter.pathMatches(sourceFile.getRelativePath())) {
+                pathMatchingRules.set(i);
+                if (!metaRule.getUse().equalsIgnoreCase("path") && !stopProcessing(metaRule)) {
+                    (metaRule.isIgnoreComments() ? cleanedContentRules : contentRules).set(i);
+                }
+            }
+        }
+
+        List<String> lines = contentRules.isEmpty() ? new ArrayList<>() : sourceFile.getLines();
+        List<String> cleanedLines = cleanedContentRules.isEmpty() ? new ArrayList<>() : sourceFile.getCleanedLines();
+        List<List<Integer>> matchingLines = contentMatcher.getMatchingLines(lines, contentRules);
+        List<List<Integer>> matchingCleanedLines = contentMatcher.getMatchingLines(cleanedLines, cleanedContentRules);
+
+        for (int i = pathMatchingRules.nextSetBit(0); i >= 0; i = pathMatchingRules.nextSetBit(i + 1)) {
+            MetaRule metaRule = metaRules.get(i);
+            if (metaRule.getUse().equalsIgnoreCase("path")) {
                 processSourceFileContent(sourceFile, metaRule);
+            } else {
+                List<String> ruleLines = metaRule.isIgnoreComments() ? cleanedLines : lines;
+                List<Integer> ruleMatchingLines = metaRule.isIgnoreComments() ? matchingCleanedLines.get(i) : matchingLines.get(i);
+                for (int lineIndex : ruleMatchingLines) {
+                    if (shouldProcessFile(sourceFile)) {
+                        processMatchingString(sourceFile, metaRule, ruleLines.get(lineIndex));
+                    }
+                }
             }
-        });
+        }
     }
 
     private void processSourceFileContent(SourceFile sourceFile, MetaRule metaRule) {
@@ -22,6 +22,11 @@ public class CleanedContent {
         this.cleanedContent = cleanedContent;
     }
 
+    public CleanedContent(CleanedContent cleanedContent) {
+        this.cleanedContent = cleanedContent.getCleanedContent();
+        this.fileLineIndexes = new ArrayList<>(cleanedContent.getFileLineIndexes());
+    }
+
     public String getCleanedContent() {
         return cleanedContent;
     }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.cleaners;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Cleans content with code block parsers in one forward pass. The result is the same as letting the parsers clean or
+ * skip one block at a time (see CodeBlockParser.cleanOrSkip): the first parser whose start marker is found at the
+ * lowest index opens a block, comment blocks are replaced by their new lines, string blocks are kept, and a block
+ * without an end cuts off the rest of the content.
+ *
+ * Start markers are recognized by their first character, while the end markers and escape sequences of a block are
+ * found with forward searches (see MarkerSearch), so no part of the content is searched twice for the same marker and
+ * the content is never copied per block. The cleaned content is written into a char buffer that is reused between
+ * scans of the same scanner (CommentsAndEmptyLinesCleaner keeps one scanner per thread), and the lines of code with
+ * their line indexes are created directly from that buffer.
+ */
+public class CodeBlocksScanner {
+    private static final int ASCII = 128;
+
+    private char[] buffer = new char[0];
+    private int length = 0;
+
+    public void scan(List<CodeBlockParser> codeBlockParsers, String content) {
+        length = 0;
+        // a removed block leaves at most as many new lines as it has characters
+        ensureCapacity(content.length());
+
+        List<Block> blocks = new ArrayList<>();
+        codeBlockParsers.stream()
+                .filter(parser -> StringUtils.isNotEmpty(parser.getStartMarker()) && parser.getEndMarker() != null)
+                .forEach(parser -> blocks.add(new Block(parser, content)));
+        Block[][] blocksByFirstChar = getBlocksByFirstChar(blocks);
+
+        int position = 0;
+        int index = 0;
+        while (index < content.length()) {
+            char c = content.charAt(index);
+            Block block = getBlockStartingAt(content, index, c < ASCII ? blocksByFirstChar[c] : blocksByFirstChar[ASCII]);
+            if (block == null) {
+                index++;
+                continue;
+            }
+
+            append(content, position, index);
+            int endIndex = block.getEndIndex(index + 1);
+            if (endIndex < 0) {
+                return;
+            }
+            int blockEndIndex = endIndex + block.endMarker.length();
+            if (block.removeWhenCleaning) {
+                for (int i = index; i < endIndex; i++) {
+                    if (content.charAt(i) == '\n') {
+                        append('\n');
+                    }
+                }
+                if (block.endMarker.equals("\n")) {
+                    append('\n');
+                }
+            } else {
+                append(content, index, blockEndIndex);
+            }
+            position = blockEndIndex;
+            index = blockEndIndex;
+        }
+
+        append(content, position, content.length());
+    }
+
+    private Block[][] getBlocksByFirstChar(List<Block> blocks) {
+        List<List<Block>> lists = new ArrayList<>();
+        for (int i = 0; i <= ASCII; i++) {
+            lists.add(new ArrayList<>());
+        }
+        // blocks are kept in the order of the parsers, as the first parser wins when several markers start at an index
+        blocks.forEach(block -> lists.get(Math.min(block.startMarker.charAt(0), ASCII)).add(block));
+
+        Block[][] blocksByFirstChar = new Block[ASCII + 1][];
+        for (int i = 0; i <= ASCII; i++) {
+            blocksByFirstChar[i] = lists.get(i).isEmpty() ? null : lists.get(i).toArray(new Block[0]);
+        }
+        return blocksByFirstChar;
+    }
+
+    private Block getBlockStartingAt(String content, int index, Block[] candidates) {
+        if (candidates != null) {
+            for (Block block : candidates) {
+                if (content.startsWith(block.startMarker, index)) {
+                    return block;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void append(String content, int from, int to) {
+        content.getChars(from, to, buffer, length);
+        length += to - from;
+    }
+
+    private void append(char c) {
+        buffer[length++] = c;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            buffer = new char[Math.max(capacity, buffer.length * 2)];
+        }
+    }
+
+    public String getContent() {
+        return new String(buffer, 0, length);
+    }
+
+    // as SourceCodeCleanerUtils.cleanEmptyLinesWithLineIndexes(getContent())
+    public CleanedContent getCleanedContent() {
+        CleanedContent cleanedContent = new CleanedContent();
+        StringBuilder cleanedContentString = new StringBuilder(length);
+
+        int lineIndex = 0;
+        int lineStart = 0;
+        boolean emptyLine = true;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || buffer[i] == '\n') {
+                if (!emptyLine) {
+                    if (cleanedContentString.length() > 0) {
+                        cleanedContentString.append('\n');
+                    }
+                    cleanedContentString.append(buffer, lineStart, i - lineStart);
+                    cleanedContent.getFileLineIndexes().add(lineIndex);
+                }
+                lineIndex++;
+                lineStart = i + 1;
+                emptyLine = true;
+            } else if (buffer[i] > ' ') {
+                emptyLine = false;
+            }
+        }
+
+        cleanedContent.setCleanedContent(cleanedContentString.toString());
+        return cleanedContent;
+    }
+
+    private static class Block {
+        private final String startMarker;
+        private final String endMarker;
+        private final boolean removeWhenCleaning;
+
+        private final MarkerSearch endMarkers;
+        private MarkerSearch escapedEndMarkers;
+        private MarkerSearch escapedEscapeMarkers;
+        private int escapedEndMarkerLength;
+        private int escapedEscapeMarkerLength;
+
+        private Block(CodeBlockParser parser, String content) {
+            this.startMarker = parser.getStartMarker();
+            this.endMarker = parser.getEndMarker();
+            this.removeWhenCleaning = parser.isRemoveWhenCleaning();
+            this.endMarkers = new MarkerSearch(content, endMarker);
+
+            String escapeMarker = parser.getEscapeMarker();
+            if (StringUtils.isNotBlank(escapeMarker)) {
+                String escapedEndMarker = escapeMarker + endMarker;
+                String escapedEscapeMarker = escapeMarker + escapeMarker;
+                escapedEndMarkers = new MarkerSearch(content, escapedEndMarker);
+                escapedEndMarkerLength = escapedEndMarker.length();
+                if (!escapedEndMarker.equals(escapedEscapeMarker)) {
+                    escapedEscapeMarkers = new MarkerSearch(content, escapedEscapeMarker);
+                    escapedEscapeMarkerLength = escapedEscapeMarker.length();
+                }
+            }
+        }
+
+        // as CodeBlockParser.getStringEndIndex
+        private int getEndIndex(int fromIndex) {
+            int endIndex = endMarkers.indexOf(fromIndex);
+            if (escapedEndMarkers == null) {
+                return endIndex;
+            }
+
+            int index1 = escapedEndMarkers.indexOf(fromIndex);
+            int index2 = getEscapedEscapeMarkerIndex(fromIndex);
+            while (true) {
+                while (index2 >= 0 && index1 >= 0 && index1 <= endIndex && index2 <= index1) {
+                    int continueSearchFrom = index2 + escapedEscapeMarkerLength * 2;
+                    index1 = escapedEndMarkers.indexOf(continueSearchFrom);
+                    index2 = getEscapedEscapeMarkerIndex(continueSearchFrom);
+                }
+
+                if (endIndex > 0 && index1 >= 0 && index1 <= endIndex) {
+                    int continueSearchFrom = index1 + escapedEndMarkerLength;
+                    endIndex = endMarkers.indexOf(continueSearchFrom);
+                    index1 = escapedEndMarkers.indexOf(continueSearchFrom);
+                    index2 = getEscapedEscapeMarkerIndex(continueSearchFrom);
+                } else {
+                    break;
+                }
+            }
+
+            return endIndex;
+        }
+
+        private int getEscapedEscapeMarkerIndex(int fromIndex) {
+            return escapedEscapeMarkers != null ? escapedEscapeMarkers.indexOf(fromIndex) : -1;
+        }
+    }
+}
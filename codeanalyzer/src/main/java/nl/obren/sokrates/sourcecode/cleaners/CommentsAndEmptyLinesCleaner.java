@@ -4,17 +4,17 @@
 
 package nl.obren.sokrates.sourcecode.cleaners;
 
-import nl.obren.sokrates.sourcecode.CleaningResult;
-
 import java.util.ArrayList;
 import java.util.List;
 
+/*
+ * Language analyzers create a new cleaner for each file, so the scanner (and its char buffer) is kept per thread and
+ * reused by all cleaners on that thread.
+ */
 public class CommentsAndEmptyLinesCleaner {
-    private List<CodeBlockParser> codeBlockParsers = new ArrayList<>();
-    private String content;
-    private CodeBlockParser activeHelper = null;
+    private static final ThreadLocal<CodeBlocksScanner> SCANNER = ThreadLocal.withInitial(CodeBlocksScanner::new);
 
-    private int currentIndex = 0;
+    private List<CodeBlockParser> codeBlockParsers = new ArrayList<>();
 
     public CommentsAndEmptyLinesCleaner() {
     }
@@ -47,35 +47,15 @@ public class CommentsAndEmptyLinesCleaner {
     }
 
     public String cleanKeepEmptyLines(String originalContent) {
-        this.content = SourceCodeCleanerUtils.normalizeLineEnds(originalContent);
-
-        while (true) {
-            activeHelper = null;
-            final int index[] = {-1};
-            this.codeBlockParsers.forEach(helper -> {
-                int helperIndex = helper.getStringStartIndex(content, currentIndex);
-
-                if (helperIndex >= 0 && (index[0] == -1 || helperIndex < index[0])) {
-                    index[0] = helperIndex;
-                    activeHelper = helper;
-                }
-            });
-
-            if (activeHelper != null) {
-                CleaningResult cleaningResult = activeHelper.cleanOrSkip(content, index[0]);
-                content = cleaningResult.getContent();
-                currentIndex = cleaningResult.getCurrentIndex();
-            } else {
-                break;
-            }
-        }
-
-        return content;
+        CodeBlocksScanner scanner = SCANNER.get();
+        scanner.scan(codeBlockParsers, SourceCodeCleanerUtils.normalizeLineEnds(originalContent));
+        return scanner.getContent();
     }
 
     public CleanedContent clean(String originalContent) {
-        String rawContent = cleanKeepEmptyLines(originalContent);
-        return SourceCodeCleanerUtils.cleanEmptyLinesWithLineIndexes(rawContent);
+        CodeBlocksScanner scanner = SCANNER.get();
+        scanner.scan(codeBlockParsers, SourceCodeCleanerUtils.normalizeLineEnds(originalContent));
+        return scanner.getCleanedContent();
     }
 
     public List<CodeBlockParser> getCodeBlockParsers() {
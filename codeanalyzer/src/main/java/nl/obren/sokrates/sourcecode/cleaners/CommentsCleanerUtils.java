@@ -6,9 +6,40 @@ package nl.obren.sokrates.sourcecode.cleaners;
 
 import org.apache.commons.lang3.StringUtils;
 
+/*
+ * The comments are removed in one forward pass that copies the content between comments into a new builder. Comment
+ * markers that contain a line break are rare and may match across the removed comments, so for them the comments are
+ * removed one at a time from the whole content.
+ */
 public class CommentsCleanerUtils {
     public static String cleanLineComments(String content, String lineCommentStart) {
-        StringBuilder cleanedContent = new StringBuilder(SourceCodeCleanerUtils.normalizeLineEnds(content));
+        String normalizedContent = SourceCodeCleanerUtils.normalizeLineEnds(content);
+        if (lineCommentStart.contains("\n")) {
+            return cleanLineCommentsOneByOne(normalizedContent, lineCommentStart);
+        }
+        if (lineCommentStart.isEmpty()) {
+            return normalizedContent;
+        }
+
+        StringBuilder cleanedContent = new StringBuilder(normalizedContent.length());
+        int position = 0;
+        int commentStartIndex = normalizedContent.indexOf(lineCommentStart);
+        while (commentStartIndex >= 0) {
+            int commentEndIndex = normalizedContent.indexOf('\n', commentStartIndex + 1);
+            if (commentEndIndex < 0) {
+                commentEndIndex = normalizedContent.length();
+            }
+            cleanedContent.append(normalizedContent, position, commentStartIndex);
+            position = commentEndIndex;
+            commentStartIndex = normalizedContent.indexOf(lineCommentStart, position);
+        }
+        cleanedContent.append(normalizedContent, position, normalizedContent.length());
+
+        return cleanedContent.toString();
+    }
+
+    private static String cleanLineCommentsOneByOne(String content, String lineCommentStart) {
+        StringBuilder cleanedContent = new StringBuilder(content);
 
         while (true) {
             int commentStartIndex = cleanedContent.indexOf(lineCommentStart);
@@ -27,9 +58,67 @@ public class CommentsCleanerUtils {
     }
 
     public static String cleanBlockComments(String content, String commentBlockStart, String commentBlockEnd) {
-        StringBuilder cleanedContent = new StringBuilder(
-                content.replace(getReplaceForRegex(commentBlockStart) + ".*?" + getReplaceForRegex(commentBlockEnd), ""));
+        content = content.replace(getReplaceForRegex(commentBlockStart) + ".*?" + getReplaceForRegex(commentBlockEnd), "");
+        if (commentBlockStart.isEmpty() || commentBlockStart.contains("\n")) {
+            return cleanBlockCommentsOneByOne(content, commentBlockStart, commentBlockEnd);
+        }
+
+        // the cleaned content before the comment start and the content after it are the same as in cleanBlockCommentsOneByOne
+        StringBuilder cleanedContent = new StringBuilder(content.length());
+        MarkerSearch newLines = new MarkerSearch(content, "\n");
+        MarkerSearch quotes = new MarkerSearch(content, "\"");
+        int lastNewLineIndex = -1;
+        int firstQuoteIndex = -1;
+
+        int position = 0;
+        int commentStartIndex = 0;
+        while (true) {
+            commentStartIndex = content.indexOf(commentBlockStart, commentStartIndex);
+            if (commentStartIndex < 0) {
+                break;
+            }
+            int lengthBefore = cleanedContent.length();
+            cleanedContent.append(content, position, commentStartIndex);
+            position = commentStartIndex;
+            for (int i = cleanedContent.length() - 1; i >= lengthBefore; i--) {
+                if (cleanedContent.charAt(i) == '\n') {
+                    lastNewLineIndex = i;
+                    break;
+                }
+            }
+            for (int i = lengthBefore; i < cleanedContent.length() && firstQuoteIndex < 0; i++) {
+                if (cleanedContent.charAt(i) == '"') {
+                    firstQuoteIndex = i;
+                }
+            }
+
+            int indexOfNewLineAfter = newLines.indexOf(commentStartIndex + 1);
+            int indexOfQuoteAfter = quotes.indexOf(commentStartIndex + 1);
+            if (lastNewLineIndex != -1 && lastNewLineIndex < firstQuoteIndex && indexOfQuoteAfter != -1
+                    && indexOfQuoteAfter < indexOfNewLineAfter) {
+                commentStartIndex = indexOfNewLineAfter + 1;
+                continue;
+            }
+            int commentEndIndex = content.indexOf(commentBlockEnd, commentStartIndex + commentBlockStart.length());
+            if (commentEndIndex < 0) {
+                break;
+            }
+            position = commentEndIndex + commentBlockEnd.length();
+            for (int i = commentStartIndex; i < position; i++) {
+                if (content.charAt(i) == '\n') {
+                    cleanedContent.append('\n');
+                    lastNewLineIndex = cleanedContent.length() - 1;
+                }
+            }
+            commentStartIndex = position;
+        }
+        cleanedContent.append(content, position, content.length());
+
+        return cleanedContent.toString();
+    }
 
+    private static String cleanBlockCommentsOneByOne(String content, String commentBlockStart, String commentBlockEnd) {
+        StringBuilder cleanedContent = new StringBuilder(content);
         int commentStartIndex = 0;
         while (true) {
             commentStartIndex = cleanedContent.indexOf(commentBlockStart, commentStartIndex);
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.cleaners;
+
+/*
+ * Remembers the last found index of a marker in a content. A search from an index between the last search start and
+ * the last found index has the same result, so a sequence of searches from non-decreasing indexes scans each part of
+ * the content at most once, even if the marker does not occur in the rest of the content.
+ */
+class MarkerSearch {
+    private final String content;
+    private final String marker;
+
+    private int searchedFrom = Integer.MAX_VALUE;
+    private int foundIndex = -1;
+
+    MarkerSearch(String content, String marker) {
+        this.content = content;
+        this.marker = marker;
+    }
+
+    // as content.indexOf(marker, fromIndex)
+    int indexOf(int fromIndex) {
+        if (fromIndex < searchedFrom || (foundIndex >= 0 && fromIndex > foundIndex)) {
+            searchedFrom = fromIndex;
+            foundIndex = content.indexOf(marker, fromIndex);
+        }
+        return foundIndex;
+    }
+}
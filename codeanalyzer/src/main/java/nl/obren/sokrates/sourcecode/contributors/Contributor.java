@@ -8,11 +8,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class Contributor {
     public static final int RECENTLY_ACTIVITY_THRESHOLD_DAYS = 30;
@@ -28,6 +29,8 @@ public class Contributor {
     private String latestCommitDate = "";
     private List<String> activeYears = new ArrayList<>();
     private List<String> commitDates = new ArrayList<>();
+    // the commit dates for quick duplicate checks, built on the first added date and reset by setCommitDates
+    private transient Set<String> commitDatesSet = null;
 
     public Contributor() {
     }
@@ -38,9 +41,7 @@ public class Contributor {
 
     @JsonIgnore
     public void addCommit(String date) {
-        if (!commitDates.contains(date)) {
-            commitDates.add(date);
-        }
+        addCommitDate(date);
         if (StringUtils.isBlank(firstCommitDate) || date.compareTo(firstCommitDate) < 0) {
             firstCommitDate = date;
         }
@@ -51,19 +52,20 @@ public class Contributor {
             String year = date.substring(0, 4);
             if (!activeYears.contains(year)) {
                 activeYears.add(year);
+                Collections.sort(activeYears);
             }
-            Collections.sort(activeYears);
 
-            if (DateUtils.isCommittedLessThanDaysAgo(date, RECENTLY_ACTIVITY_THRESHOLD_DAYS)) {
+            int epochDay = DateUtils.toEpochDay(date);
+            if (DateUtils.isCommittedLessThanDaysAgo(epochDay, RECENTLY_ACTIVITY_THRESHOLD_DAYS)) {
                 commitsCount30Days += 1;
             }
-            if (DateUtils.isCommittedLessThanDaysAgo(date, 90)) {
+            if (DateUtils.isCommittedLessThanDaysAgo(epochDay, 90)) {
                 commitsCount90Days += 1;
             }
-            if (DateUtils.isCommittedLessThanDaysAgo(date, 180)) {
+            if (DateUtils.isCommittedLessThanDaysAgo(epochDay, 180)) {
                 commitsCount180Days += 1;
             }
-            if (DateUtils.isCommittedLessThanDaysAgo(date, 365)) {
+            if (DateUtils.isCommittedLessThanDaysAgo(epochDay, 365)) {
                 commitsCount365Days += 1;
             }
         }
@@ -71,6 +73,17 @@ public class Contributor {
         commitsCount += 1;
     }
 
+    // adds the date to the commit dates, unless it is already there
+    @JsonIgnore
+    public void addCommitDate(String date) {
+        if (commitDatesSet == null) {
+            commitDatesSet = new HashSet<>(commitDates);
+        }
+        if (commitDatesSet.add(date)) {
+            commitDates.add(date);
+        }
+    }
+
     public boolean isActive() {
         return isActive(ACTIVITY_THRESHOLD_DAYS);
     }
@@ -85,12 +98,9 @@ public class Contributor {
 
     @JsonIgnore
     public boolean isRookieAtDate(String date) {
-        String elements[] = date.split("-");
-        if (elements.length >= 3) {
-            Calendar cal = DateUtils.getCalendar(date);
-            cal.add(Calendar.YEAR, -1);
-
-            String rookieStartDate = new SimpleDateFormat("yyyy-MM-dd").format(cal.getTime());
+        int epochDay = DateUtils.toEpochDay(date);
+        if (epochDay != DateUtils.NO_DATE) {
+            String rookieStartDate = LocalDate.ofEpochDay(epochDay).minusYears(1).toString();
             return firstCommitDate.compareTo(rookieStartDate) >= 0;
         }
         return false;
@@ -102,10 +112,7 @@ public class Contributor {
             return false;
         }
 
-        Calendar cal = DateUtils.getCalendar();
-        cal.add(Calendar.DATE, -ROOKIE_THRESHOLD_DAYS);
-
-        String thresholdDate = new SimpleDateFormat("yyyy-MM-dd").format(cal.getTime());
+        String thresholdDate = DateUtils.toDate(DateUtils.getAnalysisEpochDay() - ROOKIE_THRESHOLD_DAYS);
 
         return firstCommitDate.compareTo(thresholdDate) > 0;
     }
@@ -188,5 +195,6 @@ public class Contributor {
 
     public void setCommitDates(List<String> commitDates) {
         this.commitDates = commitDates;
+        this.commitDatesSet = null;
     }
 }
@@ -71,19 +71,17 @@ public class GitContributorsUtil {
     public static List<ContributionTimeSlot> getContributorsPerTimeSlot(List<AuthorCommit> authorCommits, Function<AuthorCommit, String> idFunction) {
         List<ContributionTimeSlot> list = new ArrayList<>();
         Map<String, ContributionTimeSlot> map = new HashMap<>();
-        Map<String, List<String>> peopleIds = new HashMap<>();
+        Map<String, Set<String>> peopleIds = new HashMap<>();
 
         authorCommits.forEach(authorCommit -> {
             String timeSlot = idFunction.apply(authorCommit);
             String id = authorCommit.getAuthorEmail();
-            List<String> ids = peopleIds.get(timeSlot);
+            Set<String> ids = peopleIds.get(timeSlot);
             if (ids == null) {
-                ids = new ArrayList<>();
+                ids = new HashSet<>();
                 peopleIds.put(timeSlot, ids);
             }
-            if (!ids.contains(id)) {
-                ids.add(id);
-            }
+            ids.add(id);
             ContributionTimeSlot contributionTimeSlot = map.get(timeSlot);
             if (contributionTimeSlot == null) {
                 contributionTimeSlot = new ContributionTimeSlot(timeSlot);
@@ -29,12 +29,21 @@ public class AnalysisConfig {
     // A maximal number of days in source code history used to calculate temporal file dependencies
     private int maxTemporalDependenciesDepthDays = 365;
 
+    // Commits that changed more than a given number of files (e.g. mass refactorings) are ignored when calculating temporal file dependencies (0 means no limit)
+    private int maxTemporalDependenciesFilesPerCommit = 0;
+
     // Projects with more than a given number of lines of main code will skip duplication analyses even if skipDuplication flag is false
     private int locDuplicationThreshold = 10000000;
 
     // A minimal size of duplicated code block included in duplication analyses
     private int minDuplicationBlockLoc = 6;
 
+    // An algorithm used to find duplicated blocks: "blocks" (default) or "fingerprint" (rolling hashes of numeric line IDs, faster on large code bases)
+    private String duplicationEngine = "blocks";
+
+    // Units with at least a given share of equal lines (Jaccard similarity, e.g. 0.8) are reported as similar units; 0 skips the search for similar units
+    private double minUnitSimilarity = 0;
+
     // A limit for lists of code examples in reports
     private int maxTopListSize = 50;
 
@@ -59,6 +68,12 @@ public class AnalysisConfig {
     // An optional HTML code fragment to be included in a header section of generated HTML reports (e.g. Google Analytics snippet)
     private String customHtmlReportHeaderFragment = "";
 
+    // A maximal amount of memory (in megabytes) used to keep file content and cleaned content in memory during analysis
+    private int fileContentCacheMb = 256;
+
+    // If set to true, file content evicted from the in-memory cache is kept as soft references until the memory is needed
+    private boolean softFileContentCache = true;
+
     // If true, in feature of interest analyses, additional features of interest will be generated if there is an overlap between defined features (i.e. if several features include the same files)
     private boolean analyzeConcernOverlaps = false;
 
@@ -201,4 +216,44 @@ public class AnalysisConfig {
     public boolean isAnalyzeConcernOverlaps() {
         return analyzeConcernOverlaps;
     }
+
+    public int getFileContentCacheMb() {
+        return fileContentCacheMb;
+    }
+
+    public void setFileContentCacheMb(int fileContentCacheMb) {
+        this.fileContentCacheMb = fileContentCacheMb;
+    }
+
+    public boolean isSoftFileContentCache() {
+        return softFileContentCache;
+    }
+
+    public void setSoftFileContentCache(boolean softFileContentCache) {
+        this.softFileContentCache = softFileContentCache;
+    }
+
+    public String getDuplicationEngine() {
+        return duplicationEngine;
+    }
+
+    public void setDuplicationEngine(String duplicationEngine) {
+        this.duplicationEngine = duplicationEngine;
+    }
+
+    public double getMinUnitSimilarity() {
+        return minUnitSimilarity;
+    }
+
+    public void setMinUnitSimilarity(double minUnitSimilarity) {
+        this.minUnitSimilarity = minUnitSimilarity;
+    }
+
+    public int getMaxTemporalDependenciesFilesPerCommit() {
+        return maxTemporalDependenciesFilesPerCommit;
+    }
+
+    public void setMaxTemporalDependenciesFilesPerCommit(int maxTemporalDependenciesFilesPerCommit) {
+        this.maxTemporalDependenciesFilesPerCommit = maxTemporalDependenciesFilesPerCommit;
+    }
 }
@@ -4,7 +4,7 @@
 
 package nl.obren.sokrates.sourcecode.dependencies;
 
-import nl.obren.sokrates.common.utils.RegexUtils;
+import nl.obren.sokrates.common.utils.MultiPatternMatcher;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.SourceFileFilter;
 import nl.obren.sokrates.sourcecode.aspects.*;
@@ -21,6 +21,7 @@ public class DependenciesFinderExtractor {
     private Set<String> fileComponentDependencies = new HashSet<>();
     private Map<String, ComponentDependency> dependenciesMap = new HashMap<>();
     private List<Dependency> allDependencies = new ArrayList<>();
+    private Map<List<String>, MultiPatternMatcher> matchers = new HashMap<>();
 
     public DependenciesFinderExtractor(LogicalDecomposition logicalDecomposition) {
         this.logicalDecomposition = logicalDecomposition;
@@ -52,40 +53,82 @@ public class DependenciesFinderExtractor {
         return dependencies;
     }
 
+    // the content patterns of all rules are evaluated together in one pass over the file lines, and the matches are
+    // then processed rule by rule, in the same order as testing each rule separately
     private void findComponentDependenciesViaSimpleRules(SourceFile sourceFile) {
-        logicalDecomposition.getDependenciesFinder().getRules().forEach(rule -> {
+        List<DependencyFinderPattern> rules = logicalDecomposition.getDependenciesFinder().getRules();
+        BitSet pathMatchingRules = new BitSet();
+        List<String> contentPatterns = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            DependencyFinderPattern rule = rules.get(i);
+            contentPatterns.add(rule.getContentPattern());
             SourceFileFilter sourceFileFilter = new SourceFileFilter(rule.getPathPattern(), "");
-
             if (sourceFileFilter.pathMatches(sourceFile.getRelativePath())) {
-                getSimpleLines(sourceFile).forEach(line -> {
-                    if (RegexUtils.matchesEntirely(rule.getContentPattern(), line)) {
-                        addDependency(dependencies, dependenciesMap, sourceFile, rule.getComponent(), line, rule.getColor(), rule.isReverseDirection());
-                    }
-                });
+                pathMatchingRules.set(i);
+            }
+        }
+        if (pathMatchingRules.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = getSimpleLines(sourceFile);
+        List<List<Integer>> matchingLines = getMatcher(contentPatterns).getMatchingLines(lines, pathMatchingRules);
+        for (int i = pathMatchingRules.nextSetBit(0); i >= 0; i = pathMatchingRules.nextSetBit(i + 1)) {
+            DependencyFinderPattern rule = rules.get(i);
+            for (int lineIndex : matchingLines.get(i)) {
+                addDependency(dependencies, dependenciesMap, sourceFile, rule.getComponent(), lines.get(lineIndex), rule.getColor(), rule.isReverseDirection());
             }
-        });
+        }
     }
 
     private void findComponentDependenciesViaMetaRules(List<MetaDependencyRule> metaRules, SourceFile sourceFile) {
-        metaRules.forEach(metaRule -> {
+        BitSet pathRules = new BitSet();
+        BitSet contentRules = new BitSet();
+        BitSet cleanedContentRules = new BitSet();
+        List<String> contentPatterns = new ArrayList<>();
+        for (int i = 0; i < metaRules.size(); i++) {
+            MetaDependencyRule metaRule = metaRules.get(i);
+            contentPatterns.add(metaRule.getContentPattern());
             SourceFileFilter sourceFileFilter = new SourceFileFilter(metaRule.getPathPattern(), "");
-
             if (sourceFileFilter.pathMatches(sourceFile.getRelativePath())) {
-                getLines(sourceFile, metaRule).forEach(line -> {
-                    if (RegexUtils.matchesEntirely(metaRule.getContentPattern(), line)) {
-                        String component = new ComplexOperation(metaRule.getNameOperations()).exec(line);
-                        addDependency(dependencies, dependenciesMap, sourceFile, component, line, metaRule.getColor(), metaRule.isReverseDirection());
-                    }
-                });
+                (isPathRule(metaRule) ? pathRules : metaRule.isIgnoreComments() ? cleanedContentRules : contentRules).set(i);
             }
-        });
-    }
+        }
+        if (pathRules.isEmpty() && contentRules.isEmpty() && cleanedContentRules.isEmpty()) {
+            return;
+        }
 
-    private List<String> getLines(SourceFile sourceFile, MetaRule metaRule) {
-        if (metaRule.getUse().equalsIgnoreCase("path")) {
-            return Arrays.asList(sourceFile.getRelativePath());
+        MultiPatternMatcher matcher = getMatcher(contentPatterns);
+        List<String> paths = Arrays.asList(sourceFile.getRelativePath());
+        List<String> lines = contentRules.isEmpty() ? new ArrayList<>() : getLines(sourceFile, false);
+        List<String> cleanedLines = cleanedContentRules.isEmpty() ? new ArrayList<>() : getLines(sourceFile, true);
+        List<List<Integer>> matchingPaths = matcher.getMatchingLines(paths, pathRules);
+        List<List<Integer>> matchingLines = matcher.getMatchingLines(lines, contentRules);
+        List<List<Integer>> matchingCleanedLines = matcher.getMatchingLines(cleanedLines, cleanedContentRules);
+
+        for (int i = 0; i < metaRules.size(); i++) {
+            MetaDependencyRule metaRule = metaRules.get(i);
+            List<String> ruleLines = isPathRule(metaRule) ? paths : metaRule.isIgnoreComments() ? cleanedLines : lines;
+            List<Integer> ruleMatchingLines = isPathRule(metaRule) ? matchingPaths.get(i)
+                    : metaRule.isIgnoreComments() ? matchingCleanedLines.get(i) : matchingLines.get(i);
+            for (int lineIndex : ruleMatchingLines) {
+                String line = ruleLines.get(lineIndex);
+                String component = new ComplexOperation(metaRule.getNameOperations()).exec(line);
+                addDependency(dependencies, dependenciesMap, sourceFile, component, line, metaRule.getColor(), metaRule.isReverseDirection());
+            }
         }
-        List<String> lines = metaRule.isIgnoreComments() ? sourceFile.getCleanedLines() : sourceFile.getLines();
+    }
+
+    private MultiPatternMatcher getMatcher(List<String> patterns) {
+        return matchers.computeIfAbsent(patterns, MultiPatternMatcher::new);
+    }
+
+    private boolean isPathRule(MetaRule metaRule) {
+        return metaRule.getUse().equalsIgnoreCase("path");
+    }
+
+    private List<String> getLines(SourceFile sourceFile, boolean ignoreComments) {
+        List<String> lines = ignoreComments ? sourceFile.getCleanedLines() : sourceFile.getLines();
         if (lines.size() > logicalDecomposition.getMaxSearchDepthLines()) {
             lines = lines.subList(0, logicalDecomposition.getMaxSearchDepthLines());
         }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.dependencies;
+
+import nl.obren.sokrates.common.utils.MultiStringMatcher;
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
+
+import java.util.*;
+
+/*
+ * Resolves the links between dependency anchors without comparing every anchor with every other anchor. Each source
+ * file is read and split in lines once, and one scan of its content (see MultiStringMatcher) finds all anchors
+ * mentioned in it. Only these anchors are tested with their dependency patterns, and the resulting code fragments are
+ * kept per file (an inverted index from the file to the anchors it links to). Dependencies are then emitted in the
+ * same order as with a full anchor x anchor loop and collected by (source anchor, target anchor) key.
+ */
+public class HeuristicDependenciesResolver {
+    private List<DependencyAnchor> anchors;
+    private MultiStringMatcher anchorsMatcher;
+    private Map<SourceFile, FileLinks> fileLinks = new IdentityHashMap<>();
+
+    public HeuristicDependenciesResolver(List<DependencyAnchor> anchors) {
+        this.anchors = anchors;
+        List<String> anchorNames = new ArrayList<>();
+        anchors.forEach(anchor -> anchorNames.add(anchor.getAnchor()));
+        this.anchorsMatcher = new MultiStringMatcher(anchorNames);
+    }
+
+    public List<Dependency> resolve(ProgressFeedback progressFeedback) {
+        List<Dependency> dependencies = new ArrayList<>();
+        Map<Long, Dependency> dependenciesMap = new HashMap<>();
+
+        for (int i = 0; i < anchors.size(); i++) {
+            if (progressFeedback.canceled()) {
+                break;
+            }
+            DependencyAnchor sourceAnchor = anchors.get(i);
+            progressFeedback.setText(sourceAnchor.getAnchor());
+
+            BitSet targets = new BitSet(anchors.size());
+            List<FileLinks> sourceFilesLinks = new ArrayList<>();
+            sourceAnchor.getSourceFiles().forEach(sourceFile -> {
+                FileLinks links = getFileLinks(sourceFile);
+                sourceFilesLinks.add(links);
+                targets.or(links.mentionedAnchors);
+            });
+            targets.clear(i);
+
+            for (int target = targets.nextSetBit(0); target >= 0; target = targets.nextSetBit(target + 1)) {
+                DependencyAnchor targetAnchor = anchors.get(target);
+                if (targetAnchor.getAnchor().equalsIgnoreCase(sourceAnchor.getAnchor())) {
+                    continue;
+                }
+                for (FileLinks links : sourceFilesLinks) {
+                    String codeFragment = links.getCodeFragment(target);
+                    if (codeFragment != null) {
+                        long key = ((long) i << 32) | target;
+                        Dependency dependency = dependenciesMap.get(key);
+                        if (dependency == null) {
+                            dependency = new Dependency(sourceAnchor, targetAnchor);
+                            dependenciesMap.put(key, dependency);
+                            dependencies.add(dependency);
+                        }
+                        SourceFileDependency sourceFileDependency = new SourceFileDependency(links.sourceFile);
+                        sourceFileDependency.setCodeFragment(codeFragment);
+                        dependency.getFromFiles().add(sourceFileDependency);
+                    }
+                }
+            }
+
+            progressFeedback.progress(i, anchors.size());
+            if (progressFeedback instanceof DependencyProgressFeedback) {
+                ((DependencyProgressFeedback) progressFeedback).setCurrentDependencies(dependencies);
+            }
+        }
+
+        return dependencies;
+    }
+
+    private FileLinks getFileLinks(SourceFile sourceFile) {
+        FileLinks links = fileLinks.get(sourceFile);
+        if (links == null) {
+            links = new FileLinks(sourceFile);
+            fileLinks.put(sourceFile, links);
+        }
+        return links;
+    }
+
+    private class FileLinks {
+        private SourceFile sourceFile;
+        private BitSet mentionedAnchors;
+        // the first line matching the patterns of each mentioned anchor (null if there is no such line)
+        private Map<Integer, String> codeFragments = new HashMap<>();
+
+        FileLinks(SourceFile sourceFile) {
+            this.sourceFile = sourceFile;
+
+            String content = sourceFile.getContent();
+            mentionedAnchors = anchorsMatcher.findAll(content);
+            if (mentionedAnchors.isEmpty()) {
+                return;
+            }
+
+            List<String> lines = SourceCodeCleanerUtils.splitInLines(content);
+            for (int anchor = mentionedAnchors.nextSetBit(0); anchor >= 0; anchor = mentionedAnchors.nextSetBit(anchor + 1)) {
+                DependencyAnchor dependencyAnchor = anchors.get(anchor);
+                for (String line : lines) {
+                    if (dependencyAnchor.matchesLine(line)) {
+                        codeFragments.put(anchor, line);
+                        break;
+                    }
+                }
+            }
+        }
+
+        String getCodeFragment(int anchor) {
+            return codeFragments.get(anchor);
+        }
+    }
+}
@@ -9,8 +9,6 @@ import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
 import nl.obren.sokrates.sourcecode.duplication.impl.Blocks;
 import nl.obren.sokrates.sourcecode.duplication.impl.Files;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzer;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -21,10 +19,14 @@ import java.util.Map;
 public class DuplicationEngine {
     private static final Log LOG = LogFactory.getLog(DuplicationEngine.class);
 
+    public static final String BLOCKS = "blocks";
+    public static final String FINGERPRINT = "fingerprint";
+
     private List<DuplicationInstance> duplicates = new ArrayList<>();
 
     private int totalCleanedLinesOfCode = 0;
     private int numberOfDuplicatedLines;
+    private int threads = 1;
 
     public List<DuplicationInstance> findDuplicates(List<SourceFile> sourceFiles, int threshold, ProgressFeedback progressFeedback) {
         progressFeedback.setText(System.currentTimeMillis() / 1000 + "");
@@ -33,9 +35,8 @@ public class DuplicationEngine {
         Files files = new Files(progressFeedback);
         files.addAll(sourceFiles);
 
-        Blocks blocks = new Blocks(files, threshold);
         long startTime = System.currentTimeMillis();
-        duplicates = blocks.extractDuplicatedBlocks(progressFeedback);
+        duplicates = extractDuplicatedBlocks(files, threshold, progressFeedback);
         System.out.println("Extracted duplicated blocks in " + (System.currentTimeMillis() - startTime) + "ms.");
 
         totalCleanedLinesOfCode = files.getTotalCleanedLinesOfCode();
@@ -47,11 +48,24 @@ public class DuplicationEngine {
         return duplicates;
     }
 
+    protected List<DuplicationInstance> extractDuplicatedBlocks(Files files, int threshold, ProgressFeedback progressFeedback) {
+        return new Blocks(files, threshold, threads).extractDuplicatedBlocks(progressFeedback);
+    }
+
+    public static DuplicationEngine getInstance(String engine) {
+        if (FINGERPRINT.equalsIgnoreCase(engine)) {
+            return new FingerprintDuplicationEngine();
+        }
+        if (engine != null && !engine.isEmpty() && !BLOCKS.equalsIgnoreCase(engine)) {
+            LOG.warn("Unknown duplication engine '" + engine + "', using '" + BLOCKS + "'.");
+        }
+        return new DuplicationEngine();
+    }
+
     private void populatePathToContentMap(List<SourceFile> files, Map<String, CleanedContent> pathToContent, ProgressFeedback progressFeedback) {
         files.forEach(sourceFile -> {
-            LanguageAnalyzer analyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile);
             progressFeedback.setText("Loading " + sourceFile.getRelativePath() + "...");
-            pathToContent.put(sourceFile.getFile().getPath(), analyzer.cleanForDuplicationCalculations(sourceFile));
+            pathToContent.put(sourceFile.getFile().getPath(), sourceFile.getCleanedContentForDuplication());
         });
     }
 
@@ -70,4 +84,12 @@ public class DuplicationEngine {
     public int getNumberOfDuplicatedLines() {
         return numberOfDuplicatedLines;
     }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
 }
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.duplication;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.duplication.impl.FingerprintBlocks;
+import nl.obren.sokrates.sourcecode.duplication.impl.Files;
+
+import java.util.List;
+
+public class FingerprintDuplicationEngine extends DuplicationEngine {
+    @Override
+    protected List<DuplicationInstance> extractDuplicatedBlocks(Files files, int threshold, ProgressFeedback progressFeedback) {
+        return new FingerprintBlocks(files, threshold).extractDuplicatedBlocks(progressFeedback);
+    }
+}
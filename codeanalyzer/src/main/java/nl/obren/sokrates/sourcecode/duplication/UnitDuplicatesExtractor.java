@@ -1,55 +1,179 @@
 package nl.obren.sokrates.sourcecode.duplication;
 
-import nl.obren.sokrates.sourcecode.duplication.impl.Block;
+import nl.obren.sokrates.sourcecode.duplication.impl.MinHash;
 import nl.obren.sokrates.sourcecode.units.UnitInfo;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
+/*
+ * Finds units with the same body, ignoring the first line (usually the unit signature), blank lines, indentation and
+ * letter case. The body of each unit is normalized once, units are grouped by the body size and a 128-bit hash of the
+ * body, and the equality is verified only within these groups. The result is the same as comparing every unit with
+ * every other unit: one duplication instance per distinct body (in the order in which the pairwise comparison finds
+ * them), with the first two units with an equal body and the other units with an equal body in other files.
+ *
+ * Similar units (near duplicates) are units whose sets of body lines have a Jaccard similarity of at least a given
+ * value. Only units that share a band of their MinHash signatures (see MinHash) are compared.
+ */
 public class UnitDuplicatesExtractor {
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
     public List<DuplicationInstance> findDuplicatedUnits(List<UnitInfo> units, int threshold) {
-        List<DuplicationInstance> duplicates = new ArrayList<>();
-        Map<String, DuplicationInstance> map = new HashMap<>();
-
-        units.forEach(unit1 -> {
-            units.forEach(unit2 -> {
-                List<String> lines1 = getLinesCleanedForDuplication(unit1);
-                int size = lines1.size() - 1;
-                if (size >= threshold && unit1 != unit2) {
-                    List<String> lines2 = getLinesCleanedForDuplication(unit2);
-                    String bodyForDuplication1 = lines1.stream().skip(1).collect(Collectors.joining("\n"));
-                    String bodyForDuplication2 = lines2.stream().skip(1).collect(Collectors.joining("\n"));
-                    if (bodyForDuplication1.equalsIgnoreCase(bodyForDuplication2)) {
-                        DuplicatedFileBlock block1 = getDuplicatedFileBlock(unit1);
-                        DuplicatedFileBlock block2 = getDuplicatedFileBlock(unit2);
-                        if (map.containsKey(bodyForDuplication1)) {
-                            DuplicationInstance instance = map.get(bodyForDuplication1);
-                            if (!containsBlock(instance, block1)) {
-                                instance.getDuplicatedFileBlocks().add(block1);
-                            }
-                            if (!containsBlock(instance, block2)) {
-                                instance.getDuplicatedFileBlocks().add(block2);
-                            }
-                        } else {
-                            DuplicationInstance instance = new DuplicationInstance();
-                            instance.setDisplayContent(unit1.getCleanedBody());
-                            instance.setBlockSize(size);
-
-                            instance.getDuplicatedFileBlocks().add(block1);
-                            instance.getDuplicatedFileBlocks().add(block2);
-                            duplicates.add(instance);
-                            map.put(bodyForDuplication1, instance);
+        Map<Integer, DuplicationInstance> duplicates = new TreeMap<>();
+
+        for (List<NormalizedUnit> group : groupEqualUnits(units, threshold)) {
+            Set<String> bodies = new HashSet<>();
+            for (NormalizedUnit first : group) {
+                // the pairwise comparison creates one instance per exact body, the first time it compares such a unit
+                if (!bodies.add(first.body)) {
+                    continue;
+                }
+                int secondIndex = 0;
+                while (secondIndex < group.size() && group.get(secondIndex).unit == first.unit) {
+                    secondIndex++;
+                }
+                if (secondIndex == group.size()) {
+                    continue;
+                }
+
+                DuplicationInstance instance = new DuplicationInstance();
+                instance.setDisplayContent(first.unit.getCleanedBody());
+                instance.setBlockSize(first.size);
+                Set<String> paths = new HashSet<>();
+                addBlock(instance, paths, first.unit);
+                addBlock(instance, paths, group.get(secondIndex).unit);
+                for (int i = secondIndex + 1; i < group.size(); i++) {
+                    UnitInfo unit = group.get(i).unit;
+                    if (unit != first.unit && !paths.contains(foldCase(unit.getSourceFile().getRelativePath()))) {
+                        addBlock(instance, paths, unit);
+                    }
+                }
+                duplicates.put(first.index, instance);
+            }
+        }
+
+        return new ArrayList<>(duplicates.values());
+    }
+
+    public List<DuplicationInstance> findSimilarUnits(List<UnitInfo> units, int threshold, double minSimilarity) {
+        List<List<NormalizedUnit>> groups = groupEqualUnits(units, threshold);
+        int count = groups.size();
+
+        long[][] shingles = new long[count][];
+        List<Map<Long, List<Integer>>> bands = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            bands.add(new HashMap<>());
+        }
+        for (int i = 0; i < count; i++) {
+            shingles[i] = getLineShingles(groups.get(i).get(0).body);
+            long[] signature = MinHash.getSignature(shingles[i], BANDS * ROWS_PER_BAND);
+            for (int band = 0; band < BANDS; band++) {
+                long bandHash = MinHash.getBandHash(signature, band * ROWS_PER_BAND, (band + 1) * ROWS_PER_BAND);
+                bands.get(band).computeIfAbsent(bandHash, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        int[] components = new int[count];
+        for (int i = 0; i < count; i++) {
+            components[i] = i;
+        }
+        for (Map<Long, List<Integer>> band : bands) {
+            for (List<Integer> candidates : band.values()) {
+                for (int i = 0; i < candidates.size(); i++) {
+                    for (int j = i + 1; j < candidates.size(); j++) {
+                        int component1 = getComponent(components, candidates.get(i));
+                        int component2 = getComponent(components, candidates.get(j));
+                        if (component1 != component2 && MinHash.getJaccardSimilarity(shingles[candidates.get(i)],
+                                shingles[candidates.get(j)]) >= minSimilarity) {
+                            components[Math.max(component1, component2)] = Math.min(component1, component2);
                         }
                     }
                 }
+            }
+        }
+
+        // groups are ordered by their first unit, so each component starts with its first group
+        Map<Integer, DuplicationInstance> similarUnits = new LinkedHashMap<>();
+        Map<Integer, Integer> groupsPerComponent = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int component = getComponent(components, i);
+            groupsPerComponent.merge(component, 1, Integer::sum);
+            NormalizedUnit first = groups.get(i).get(0);
+            DuplicationInstance instance = similarUnits.computeIfAbsent(component, k -> {
+                DuplicationInstance newInstance = new DuplicationInstance();
+                newInstance.setDisplayContent(first.unit.getCleanedBody());
+                newInstance.setBlockSize(first.size);
+                return newInstance;
             });
-        });
+            groups.get(i).forEach(unit -> instance.getDuplicatedFileBlocks().add(getDuplicatedFileBlock(unit.unit)));
+        }
+
+        return similarUnits.entrySet().stream()
+                .filter(entry -> groupsPerComponent.get(entry.getKey()) > 1)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private int getComponent(int[] components, int index) {
+        while (components[index] != index) {
+            components[index] = components[components[index]];
+            index = components[index];
+        }
+        return index;
+    }
+
+    // groups of units with equal bodies (ignoring case), ordered by their first unit
+    private List<List<NormalizedUnit>> groupEqualUnits(List<UnitInfo> units, int threshold) {
+        List<List<NormalizedUnit>> groups = new ArrayList<>();
+        Map<BodyHash, List<List<NormalizedUnit>>> buckets = new HashMap<>();
+        for (int i = 0; i < units.size(); i++) {
+            NormalizedUnit unit = new NormalizedUnit(units.get(i), i);
+            if (unit.size < threshold) {
+                continue;
+            }
+            List<List<NormalizedUnit>> bucket = buckets.computeIfAbsent(new BodyHash(unit), k -> new ArrayList<>());
+            List<NormalizedUnit> group = bucket.stream()
+                    .filter(candidate -> candidate.get(0).body.equalsIgnoreCase(unit.body))
+                    .findFirst().orElse(null);
+            if (group == null) {
+                group = new ArrayList<>();
+                bucket.add(group);
+                groups.add(group);
+            }
+            group.add(unit);
+        }
+        return groups;
+    }
+
+    private long[] getLineShingles(String body) {
+        return Arrays.stream(body.split("\n")).mapToLong(line -> hash(line, FNV_OFFSET)).sorted().distinct().toArray();
+    }
+
+    // consistent with String.equalsIgnoreCase: strings equal ignoring case have the same hash
+    private static long hash(String text, long seed) {
+        long hash = seed;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            hash = (hash ^ Character.toLowerCase(Character.toUpperCase(codePoint))) * FNV_PRIME;
+            i += Character.charCount(codePoint);
+        }
+        return MinHash.mix(hash);
+    }
+
+    private static String foldCase(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+        return folded.toString();
+    }
 
-        return duplicates;
+    private void addBlock(DuplicationInstance instance, Set<String> paths, UnitInfo unit) {
+        instance.getDuplicatedFileBlocks().add(getDuplicatedFileBlock(unit));
+        paths.add(foldCase(unit.getSourceFile().getRelativePath()));
     }
 
     public List<String> getLinesCleanedForDuplication(UnitInfo unit1) {
@@ -74,13 +198,44 @@ public class UnitDuplicatesExtractor {
         return block1;
     }
 
-    private boolean containsBlock(DuplicationInstance instance, DuplicatedFileBlock block) {
-        for (DuplicatedFileBlock duplicatedFileBlock : instance.getDuplicatedFileBlocks()) {
-            if (duplicatedFileBlock.getSourceFile().getRelativePath().equalsIgnoreCase(block.getSourceFile().getRelativePath())) {
-                return true;
+    private class NormalizedUnit {
+        private final UnitInfo unit;
+        private final int index;
+        private final int size;
+        private final String body;
+
+        private NormalizedUnit(UnitInfo unit, int index) {
+            this.unit = unit;
+            this.index = index;
+            List<String> lines = getLinesCleanedForDuplication(unit);
+            this.size = lines.size() - 1;
+            this.body = lines.stream().skip(1).collect(Collectors.joining("\n"));
+        }
+    }
+
+    private static class BodyHash {
+        private final int size;
+        private final long hash1;
+        private final long hash2;
+
+        private BodyHash(NormalizedUnit unit) {
+            this.size = unit.size;
+            this.hash1 = hash(unit.body, FNV_OFFSET);
+            this.hash2 = hash(unit.body, ~FNV_OFFSET);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BodyHash)) {
+                return false;
             }
+            BodyHash bodyHash = (BodyHash) o;
+            return size == bodyHash.size && hash1 == bodyHash.hash1 && hash2 == bodyHash.hash2;
         }
 
-        return false;
+        @Override
+        public int hashCode() {
+            return (int) (hash1 ^ (hash1 >>> 32));
+        }
     }
 }
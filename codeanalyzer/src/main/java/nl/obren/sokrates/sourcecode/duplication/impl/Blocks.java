@@ -4,6 +4,7 @@
 
 package nl.obren.sokrates.sourcecode.duplication.impl;
 
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
@@ -12,7 +13,6 @@ import nl.obren.sokrates.sourcecode.duplication.DuplicationInstance;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -32,7 +32,7 @@ public class Blocks {
     private List<Block> duplicatedFilePairs = new ArrayList<>();
     private List<Block> duplicateBlocks = new ArrayList<>();
     private ProgressFeedback progressFeedback;
-    private Map<String, DuplicateRangePairs> fileRangePairs = new HashMap<>();
+    private ParallelBatches parallelBatches = new ParallelBatches(1);
 
     private Map<String, DuplicationInstance> duplicationInstances = new HashMap<>();
 
@@ -41,19 +41,28 @@ public class Blocks {
         this.minDuplicationBlockSize = minDuplicationBlockSize;
     }
 
+    public Blocks(Files files, int minDuplicationBlockSize, int threads) {
+        this(files, minDuplicationBlockSize);
+        this.parallelBatches = new ParallelBatches(threads);
+    }
+
     public List<DuplicationInstance> extractDuplicatedBlocks(ProgressFeedback progressFeedback) {
         this.progressFeedback = progressFeedback;
-        BlocksExtractor blocksExtractor = new BlocksExtractor(files, minDuplicationBlockSize, progressFeedback);
-        blocksExtractor.extractMinimalBlocks();
+        try {
+            BlocksExtractor blocksExtractor = new BlocksExtractor(files, minDuplicationBlockSize, progressFeedback, parallelBatches);
+            blocksExtractor.extractMinimalBlocks();
 
-        this.duplicateBlocks = new ArrayList<>();
-        blocksExtractor.getDuplicateBlocks().values().forEach(duplicateBlocks::add);
+            this.duplicateBlocks = new ArrayList<>();
+            blocksExtractor.getDuplicateBlocks().values().forEach(duplicateBlocks::add);
 
-        findDuplicatedSharedAmongFiles();
+            findDuplicatedSharedAmongFiles();
 
-        findDuplicatesAmongFiles();
+            findDuplicatesAmongFiles();
 
-        findDuplicatesWithinFiles();
+            findDuplicatesWithinFiles();
+        } finally {
+            parallelBatches.shutdown();
+        }
 
         reportProgress("Populating duplication list");
         List<DuplicationInstance> result = new ArrayList<>();
@@ -120,138 +129,132 @@ public class Blocks {
         resetProgressValues(filePairMap.size());
         reportProgress("Finding duplicates among files");
 
-        filePairMap.values().forEach(pair -> {
-            if (progressFeedback != null && progressFeedback.canceled()) {
-                return;
-            }
+        List<Pair<SourceFile, SourceFile>> pairs = new ArrayList<>(filePairMap.values());
+        parallelBatches.forEachInOrder(pairs, this::findDuplicatesInFilePair, (pair, matches) -> {
             reportProgressNextStep();
-            SourceFile f1 = pair.getLeft();
-            FileInfoForDuplication fileInfoForDuplication1 = files.getFilesMap().get(f1);
-
-            SourceFile f2 = pair.getRight();
-
-
-            FileInfoForDuplication fileInfoForDuplication2Copy = new FileInfoForDuplication();
-            fileInfoForDuplication2Copy.setSourceFile(files.getFilesMap().get(f2).getSourceFile());
-            fileInfoForDuplication2Copy.setBlocks(files.getFilesMap().get(f2).getBlocks());
-            fileInfoForDuplication2Copy.getLineIDs().addAll(files.getFilesMap().get(f2).getLineIDs());
-
-            addDuplicationInstances(fileInfoForDuplication1, fileInfoForDuplication2Copy, minDuplicationBlockSize);
+            matches.forEach(match -> addDuplicationInstance(match, pair.getLeft(), pair.getRight()));
         });
         resetProgressValues(0);
     }
 
-    private void addDuplicationInstances(FileInfoForDuplication fileInfoForDuplication1,
-                                         FileInfoForDuplication fileInfoForDuplication2,
-                                         final int blockSize) {
+    private List<BlockMatch> findDuplicatesInFilePair(Pair<SourceFile, SourceFile> pair) {
+        List<BlockMatch> matches = new ArrayList<>();
+        if (progressFeedback != null && progressFeedback.canceled()) {
+            return matches;
+        }
+        FileInfoForDuplication fileInfoForDuplication1 = copyOf(files.getFilesMap().get(pair.getLeft()));
+        FileInfoForDuplication fileInfoForDuplication2 = copyOf(files.getFilesMap().get(pair.getRight()));
+
+        // a file pair is processed only once, so the ranges already found for the pair can be kept locally
+        DuplicateRangePairs duplicateRangePairs = new DuplicateRangePairs();
+        final int blockSize = minDuplicationBlockSize;
+
         final List<Block> blocks = fileInfoForDuplication1.extractBlocks(blockSize);
         blocks.forEach(block1 -> {
             List<Block> allPossibleSubBlocks = block1.extractAllPossibleSubBlocks(blockSize);
             allPossibleSubBlocks.forEach(subBlock1 -> {
-                DuplicationInstance instance = duplicationInstances.get(subBlock1.getStringKey());
-                if (instance == null) {
-                    instance = new DuplicationInstance();
-                    instance.setBlockSize(blockSize);
-                }
-
-                Integer cleanedStartLine1 = fileInfoForDuplication1.indexesOf(subBlock1).get(0);
-                addFileToDuplicationInstance(instance, fileInfoForDuplication1.getSourceFile(), cleanedStartLine1 + 1, blockSize);
+                BlockMatch match = new BlockMatch(subBlock1.getStringKey(), blockSize);
+                match.cleanedStartLine1 = fileInfoForDuplication1.indexesOf(subBlock1).get(0);
+                matches.add(match);
 
-                final DuplicationInstance currentInstance = instance;
                 List<Integer> foundBlockIDs = fileInfoForDuplication2.indexesOf(subBlock1);
                 if (foundBlockIDs.size() > 0) {
                     Integer cleanedStartLine2 = foundBlockIDs.get(0);
 
-                    DuplicateRange range1 = new DuplicateRange(cleanedStartLine1, cleanedStartLine1 + blockSize - 1);
+                    DuplicateRange range1 = new DuplicateRange(match.cleanedStartLine1, match.cleanedStartLine1 + blockSize - 1);
                     DuplicateRange range2 = new DuplicateRange(cleanedStartLine2, cleanedStartLine2 + blockSize - 1);
+                    DuplicateRangePair rangePair = new DuplicateRangePair(range1, range2);
 
-                    DuplicateRangePair pair1 = new DuplicateRangePair(range1, range2);
-                    DuplicateRangePair pair2 = new DuplicateRangePair(range2, range1);
-
-                    File file1 = fileInfoForDuplication1.getSourceFile().getFile();
-                    File file2 = fileInfoForDuplication2.getSourceFile().getFile();
-                    String key1 = getPairKey(file1.getPath(), file2.getPath());
-                    String key2 = getPairKey(file2.getPath(), file1.getPath());
-
-                    boolean alreadyIncluded = false;
-                    DuplicateRangePairs duplicateRangePairs1 = fileRangePairs.get(key1);
-                    DuplicateRangePairs duplicateRangePairs2 = fileRangePairs.get(key2);
-
-                    if (duplicateRangePairs1 != null && duplicateRangePairs1.includes(pair1)) {
-                        alreadyIncluded = true;
+                    if (!duplicateRangePairs.includes(rangePair)) {
+                        match.cleanedStartLine2 = cleanedStartLine2;
+                        duplicateRangePairs.getRanges().add(rangePair);
                     }
+                }
+            });
+        });
 
-                    if (!alreadyIncluded && duplicateRangePairs2 != null && duplicateRangePairs2.includes(pair2)) {
-                        alreadyIncluded = true;
-                    }
+        return matches;
+    }
 
-                    if (!alreadyIncluded) {
-                        duplicationInstances.put(subBlock1.getStringKey(), currentInstance);
-                        addFileToDuplicationInstance(currentInstance, fileInfoForDuplication2.getSourceFile(), cleanedStartLine2 + 1, blockSize);
+    private void addDuplicationInstance(BlockMatch match, SourceFile sourceFile1, SourceFile sourceFile2) {
+        DuplicationInstance instance = duplicationInstances.get(match.key);
+        if (instance == null) {
+            if (match.cleanedStartLine2 < 0) {
+                return;
+            }
+            instance = new DuplicationInstance();
+            instance.setBlockSize(match.blockSize);
+        }
 
-                        if (duplicateRangePairs1 == null) {
-                            duplicateRangePairs1 = new DuplicateRangePairs();
-                            fileRangePairs.put(key1, duplicateRangePairs1);
-                        }
-                        duplicateRangePairs1.getRanges().add(pair1);
+        addFileToDuplicationInstance(instance, sourceFile1, match.cleanedStartLine1 + 1, match.blockSize);
 
-                        if (duplicateRangePairs2 == null) {
-                            duplicateRangePairs2 = new DuplicateRangePairs();
-                            fileRangePairs.put(key2, duplicateRangePairs2);
-                        }
-                        duplicateRangePairs2.getRanges().add(pair2);
-                    }
-                }
-            });
-        });
+        if (match.cleanedStartLine2 >= 0) {
+            duplicationInstances.put(match.key, instance);
+            addFileToDuplicationInstance(instance, sourceFile2, match.cleanedStartLine2 + 1, match.blockSize);
+        }
     }
 
     private void findDuplicatesWithinFiles() {
         resetProgressValues(files.getFiles().size());
         reportProgress("Finding duplicates within files");
-        files.getFiles().forEach(fileLineIndexes -> {
-            if (progressFeedback != null && progressFeedback.canceled()) {
-                return;
-            }
+        parallelBatches.forEachInOrder(files.getFiles(), this::findDuplicatesWithinFile, (fileLineIndexes, matches) -> {
             reportProgressNextStep();
+            matches.forEach(match -> {
+                DuplicationInstance instance = duplicationInstances.get(match.key);
+                if (instance == null) {
+                    instance = new DuplicationInstance();
+                    instance.setBlockSize(match.blockSize);
+                }
+                final DuplicationInstance currentInstance = instance;
+                match.indexes.forEach(index -> addFileToDuplicationInstance(currentInstance, fileLineIndexes.getSourceFile(), index + 1, match.blockSize));
+                if (instance.getDuplicatedFileBlocks().size() > 1) {
+                    duplicationInstances.put(match.key, instance);
+                }
+            });
+        });
+        resetProgressValues(0);
+    }
 
-            List<DuplicateRange> ranges = new ArrayList<>();
-
-            FileInfoForDuplication copy = new FileInfoForDuplication();
-            copy.setSourceFile(fileLineIndexes.getSourceFile());
-            copy.setBlocks(fileLineIndexes.getBlocks());
-            copy.getLineIDs().addAll(fileLineIndexes.getLineIDs());
-
-            for (int blockSize = optimize ? minDuplicationBlockSize : copy.getBiggestBlockSize(); blockSize >= minDuplicationBlockSize; blockSize--) {
-                final int currentBlockSize = blockSize;
-                final List<Block> blocks = copy.extractBlocks(currentBlockSize);
-                blocks.forEach(block -> {
-                    block.extractAllPossibleSubBlocks(currentBlockSize).forEach(subBlock -> {
-                        List<Integer> indexesOf = copy.indexesOf(subBlock);
-                        if (indexesOf.size() > 1) {
-                            DuplicationInstance instance = duplicationInstances.get(subBlock.getStringKey());
-                            if (instance == null) {
-                                instance = new DuplicationInstance();
-                                instance.setBlockSize(currentBlockSize);
-                            }
-                            final DuplicationInstance currentInstance = instance;
-                            indexesOf.forEach(index -> {
-                                DuplicateRange range = new DuplicateRange(index, index + currentBlockSize - 1);
-                                if (!alreadyIncludedInRange(ranges, range)) {
-                                    addFileToDuplicationInstance(currentInstance, copy.getSourceFile(), index + 1, currentBlockSize);
-                                    ranges.add(range);
-                                }
-                            });
-                            if (instance.getDuplicatedFileBlocks().size() > 1) {
-                                duplicationInstances.put(subBlock.getStringKey(), instance);
+    private List<BlockMatch> findDuplicatesWithinFile(FileInfoForDuplication fileLineIndexes) {
+        List<BlockMatch> matches = new ArrayList<>();
+        if (progressFeedback != null && progressFeedback.canceled()) {
+            return matches;
+        }
+
+        List<DuplicateRange> ranges = new ArrayList<>();
+
+        FileInfoForDuplication copy = copyOf(fileLineIndexes);
+
+        for (int blockSize = optimize ? minDuplicationBlockSize : copy.getBiggestBlockSize(); blockSize >= minDuplicationBlockSize; blockSize--) {
+            final int currentBlockSize = blockSize;
+            final List<Block> blocks = copy.extractBlocks(currentBlockSize);
+            blocks.forEach(block -> {
+                block.extractAllPossibleSubBlocks(currentBlockSize).forEach(subBlock -> {
+                    List<Integer> indexesOf = copy.indexesOf(subBlock);
+                    if (indexesOf.size() > 1) {
+                        BlockMatch match = new BlockMatch(subBlock.getStringKey(), currentBlockSize);
+                        indexesOf.forEach(index -> {
+                            DuplicateRange range = new DuplicateRange(index, index + currentBlockSize - 1);
+                            if (!alreadyIncludedInRange(ranges, range)) {
+                                match.indexes.add(index);
+                                ranges.add(range);
                             }
-                        }
-                        // copy.clearSubBlock(subBlock);
-                    });
+                        });
+                        matches.add(match);
+                    }
                 });
-            }
-        });
-        resetProgressValues(0);
+            });
+        }
+
+        return matches;
+    }
+
+    private FileInfoForDuplication copyOf(FileInfoForDuplication fileInfoForDuplication) {
+        FileInfoForDuplication copy = new FileInfoForDuplication();
+        copy.setSourceFile(fileInfoForDuplication.getSourceFile());
+        copy.setBlocks(new ArrayList<>(fileInfoForDuplication.getBlocks()));
+        copy.getLineIDs().addAll(fileInfoForDuplication.getLineIDs());
+        return copy;
     }
 
     private boolean alreadyIncludedInRange(List<DuplicateRange> ranges, DuplicateRange range) {
@@ -310,4 +313,17 @@ public class Blocks {
         endProgressValue = endValue;
         reportProgress("");
     }
+
+    private static class BlockMatch {
+        private String key;
+        private int blockSize;
+        private int cleanedStartLine1;
+        private int cleanedStartLine2 = -1;
+        private List<Integer> indexes = new ArrayList<>();
+
+        BlockMatch(String key, int blockSize) {
+            this.key = key;
+            this.blockSize = blockSize;
+        }
+    }
 }
@@ -4,9 +4,12 @@
 
 package nl.obren.sokrates.sourcecode.duplication.impl;
 
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class BlocksExtractor {
@@ -15,6 +18,7 @@ public class BlocksExtractor {
     private Map<String, Block> duplicateBlocks = new HashMap<>();
     private int minDuplicationBlockSize;
     private ProgressFeedback progressFeedback;
+    private ParallelBatches parallelBatches = new ParallelBatches(1);
 
     public BlocksExtractor(Files files, int minDuplicationBlockSize, ProgressFeedback progressFeedback) {
         this.files = files;
@@ -22,26 +26,40 @@ public class BlocksExtractor {
         this.progressFeedback = progressFeedback;
     }
 
+    public BlocksExtractor(Files files, int minDuplicationBlockSize, ProgressFeedback progressFeedback, ParallelBatches parallelBatches) {
+        this(files, minDuplicationBlockSize, progressFeedback);
+        this.parallelBatches = parallelBatches;
+    }
+
     public void extractMinimalBlocks() {
         if (progressFeedback != null) {
             progressFeedback.setText("Extracting minimal duplication blocks");
         }
         int progressValue[] = {0};
-        files.getFiles().forEach(file -> {
+        // sub-blocks and their keys are computed per file (in parallel if configured), the maps are updated in file order
+        parallelBatches.forEachInOrder(files.getFiles(), this::extractSubBlocks, (file, subBlocks) -> {
             if (progressFeedback != null) {
                 progressFeedback.progress(progressValue[0]++, files.getFiles().size());
             }
-            file.extractBlocks(minDuplicationBlockSize).forEach(blockInFile -> {
-                blockInFile.extractAllPossibleSubBlocks(minDuplicationBlockSize).forEach(b -> {
-                    addBlockToMaps(b, file);
-                });
-            });
+            subBlocks.forEach(b -> addBlockToMaps(b, file));
         });
         if (progressFeedback != null) {
             progressFeedback.progress(0, 0);
         }
     }
 
+    private List<Block> extractSubBlocks(FileInfoForDuplication file) {
+        List<Block> subBlocks = new ArrayList<>();
+        file.extractBlocks(minDuplicationBlockSize).forEach(blockInFile -> {
+            blockInFile.extractAllPossibleSubBlocks(minDuplicationBlockSize).forEach(b -> {
+                // the key and its hash code are cached, so the map updates do not recompute them
+                b.getStringKey().hashCode();
+                subBlocks.add(b);
+            });
+        });
+        return subBlocks;
+    }
+
     private void addBlockToMaps(Block block, FileInfoForDuplication fileInfoForDuplication) {
         if (!uniqueBlocks.containsKey(block.getStringKey())) {
             if (!block.getFiles().contains(fileInfoForDuplication.getSourceFile())) {
@@ -7,8 +7,6 @@ package nl.obren.sokrates.sourcecode.duplication.impl;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzer;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -77,8 +75,7 @@ public class Files {
     }
 
     private List<Integer> getLinesAsNumbers(SourceFile sourceFile) throws IOException {
-        LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile);
-        CleanedContent cleanedContent = languageAnalyzer.cleanForDuplicationCalculations(sourceFile);
+        CleanedContent cleanedContent = sourceFile.getCleanedContentForDuplication();
 
         pathToCleanedContent.put(sourceFile, cleanedContent);
         totalCleanedLinesOfCode += cleanedContent.getFileLineIndexes().size();
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.duplication.impl;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import nl.obren.sokrates.sourcecode.duplication.DuplicatedFileBlock;
+import nl.obren.sokrates.sourcecode.duplication.DuplicationInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Finds the same duplicated blocks as {@link Blocks}, but without string keys and linear block searches. Every window of
+ * minDuplicationBlockSize consecutive non-unique lines gets a rolling 64-bit fingerprint, windows with the same content
+ * are grouped through a primitive open-addressing table (fingerprint collisions are verified against the line IDs),
+ * and all occurrences of a window are then visited once via a compact (file, position) index.
+ */
+public class FingerprintBlocks {
+    private static final long BASE = 0x100000001B3L;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+    private static final int EMPTY = -1;
+
+    private Files files;
+    private int minDuplicationBlockSize;
+
+    private int[][] lineIDs;
+    private int[][] windowIDs;
+
+    private long[] tableFingerprints;
+    private int[] tableWindowIDs;
+    private int tableSize = 0;
+
+    private int[] windowFile = new int[1024];
+    private int[] windowPosition = new int[1024];
+    private int[] windowCount = new int[1024];
+    private int numberOfWindows = 0;
+
+    public FingerprintBlocks(Files files, int minDuplicationBlockSize) {
+        this.files = files;
+        this.minDuplicationBlockSize = minDuplicationBlockSize;
+    }
+
+    public List<DuplicationInstance> extractDuplicatedBlocks(ProgressFeedback progressFeedback) {
+        List<FileInfoForDuplication> fileInfos = files.getFiles();
+
+        if (progressFeedback != null) {
+            progressFeedback.setText("Computing line block fingerprints");
+        }
+        lineIDs = new int[fileInfos.size()][];
+        windowIDs = new int[fileInfos.size()][];
+        int totalLines = 0;
+        for (int i = 0; i < fileInfos.size(); i++) {
+            List<Integer> ids = fileInfos.get(i).getLineIDs();
+            lineIDs[i] = new int[ids.size()];
+            for (int j = 0; j < ids.size(); j++) {
+                lineIDs[i][j] = ids.get(j);
+            }
+            totalLines += ids.size();
+        }
+
+        initTable(Math.max(16, totalLines));
+        for (int i = 0; i < fileInfos.size(); i++) {
+            if (progressFeedback != null) {
+                progressFeedback.progress(i, fileInfos.size());
+            }
+            windowIDs[i] = fingerprintWindows(i);
+        }
+        tableFingerprints = null;
+        tableWindowIDs = null;
+
+        if (progressFeedback != null) {
+            progressFeedback.setText("Collecting duplicated blocks");
+        }
+        List<DuplicationInstance> result = collectInstances(fileInfos);
+
+        if (progressFeedback != null) {
+            progressFeedback.progress(0, 0);
+        }
+
+        return result;
+    }
+
+    private int[] fingerprintWindows(int fileIndex) {
+        int[] ids = lineIDs[fileIndex];
+        int size = minDuplicationBlockSize;
+        int[] windows = new int[Math.max(0, ids.length - size + 1)];
+        Arrays.fill(windows, EMPTY);
+
+        long highestPower = 1;
+        for (int i = 0; i < size; i++) {
+            highestPower *= BASE;
+        }
+
+        long fingerprint = 0;
+        int run = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == FileInfoForDuplication.IGNORE_LINE_INDEX) {
+                fingerprint = 0;
+                run = 0;
+                continue;
+            }
+            fingerprint = fingerprint * BASE + mix(ids[i]);
+            run++;
+            if (run > size) {
+                fingerprint -= mix(ids[i - size]) * highestPower;
+            }
+            if (run >= size) {
+                int windowID = getWindowID(fingerprint, fileIndex, i - size + 1);
+                windows[i - size + 1] = windowID;
+                windowCount[windowID]++;
+            }
+        }
+
+        return windows;
+    }
+
+    private static long mix(int id) {
+        return (id + 1L) * MIX;
+    }
+
+    private void initTable(int expectedWindows) {
+        int capacity = Integer.highestOneBit(expectedWindows * 2 - 1) << 1;
+        tableFingerprints = new long[capacity];
+        tableWindowIDs = new int[capacity];
+        Arrays.fill(tableWindowIDs, EMPTY);
+        tableSize = 0;
+    }
+
+    private int getWindowID(long fingerprint, int fileIndex, int position) {
+        int mask = tableWindowIDs.length - 1;
+        int slot = spread(fingerprint) & mask;
+        while (tableWindowIDs[slot] != EMPTY) {
+            int windowID = tableWindowIDs[slot];
+            if (tableFingerprints[slot] == fingerprint && sameLines(windowID, fileIndex, position)) {
+                return windowID;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int windowID = addWindow(fileIndex, position);
+        tableFingerprints[slot] = fingerprint;
+        tableWindowIDs[slot] = windowID;
+        if (++tableSize * 2 > tableWindowIDs.length) {
+            growTable();
+        }
+
+        return windowID;
+    }
+
+    private static int spread(long fingerprint) {
+        long h = fingerprint ^ (fingerprint >>> 29);
+        h *= MIX;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private boolean sameLines(int windowID, int fileIndex, int position) {
+        int[] ids1 = lineIDs[windowFile[windowID]];
+        int start1 = windowPosition[windowID];
+        int[] ids2 = lineIDs[fileIndex];
+        for (int i = 0; i < minDuplicationBlockSize; i++) {
+            if (ids1[start1 + i] != ids2[position + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addWindow(int fileIndex, int position) {
+        if (numberOfWindows == windowFile.length) {
+            int newLength = windowFile.length * 2;
+            windowFile = Arrays.copyOf(windowFile, newLength);
+            windowPosition = Arrays.copyOf(windowPosition, newLength);
+            windowCount = Arrays.copyOf(windowCount, newLength);
+        }
+        windowFile[numberOfWindows] = fileIndex;
+        windowPosition[numberOfWindows] = position;
+        return numberOfWindows++;
+    }
+
+    private void growTable() {
+        long[] oldFingerprints = tableFingerprints;
+        int[] oldWindowIDs = tableWindowIDs;
+        tableFingerprints = new long[oldFingerprints.length * 2];
+        tableWindowIDs = new int[oldWindowIDs.length * 2];
+        Arrays.fill(tableWindowIDs, EMPTY);
+        int mask = tableWindowIDs.length - 1;
+        for (int i = 0; i < oldWindowIDs.length; i++) {
+            if (oldWindowIDs[i] != EMPTY) {
+                int slot = spread(oldFingerprints[i]) & mask;
+                while (tableWindowIDs[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                tableFingerprints[slot] = oldFingerprints[i];
+                tableWindowIDs[slot] = oldWindowIDs[i];
+            }
+        }
+    }
+
+    private List<DuplicationInstance> collectInstances(List<FileInfoForDuplication> fileInfos) {
+        // occurrences of each repeated window, ordered by file and position
+        int[] offsets = new int[numberOfWindows + 1];
+        for (int i = 0; i < numberOfWindows; i++) {
+            offsets[i + 1] = offsets[i] + (windowCount[i] > 1 ? windowCount[i] : 0);
+        }
+        int[] occurrenceFile = new int[offsets[numberOfWindows]];
+        int[] occurrencePosition = new int[offsets[numberOfWindows]];
+        int[] next = Arrays.copyOf(offsets, numberOfWindows);
+        for (int fileIndex = 0; fileIndex < windowIDs.length; fileIndex++) {
+            int[] windows = windowIDs[fileIndex];
+            for (int position = 0; position < windows.length; position++) {
+                int windowID = windows[position];
+                if (windowID != EMPTY && windowCount[windowID] > 1) {
+                    occurrenceFile[next[windowID]] = fileIndex;
+                    occurrencePosition[next[windowID]] = position;
+                    next[windowID]++;
+                }
+            }
+        }
+
+        List<DuplicationInstance> result = new ArrayList<>();
+        for (int windowID = 0; windowID < numberOfWindows; windowID++) {
+            int from = offsets[windowID];
+            int to = offsets[windowID + 1];
+            if (to - from < 2) {
+                continue;
+            }
+            boolean sharedAmongFiles = occurrenceFile[from] != occurrenceFile[to - 1];
+
+            DuplicationInstance instance = new DuplicationInstance();
+            instance.setBlockSize(minDuplicationBlockSize);
+
+            int groupStart = from;
+            while (groupStart < to) {
+                int fileIndex = occurrenceFile[groupStart];
+                int groupEnd = groupStart;
+                while (groupEnd < to && occurrenceFile[groupEnd] == fileIndex) {
+                    groupEnd++;
+                }
+                addFileBlocks(instance, fileInfos.get(fileIndex).getSourceFile(), occurrencePosition, groupStart, groupEnd, sharedAmongFiles);
+                groupStart = groupEnd;
+            }
+
+            if (instance.getDuplicatedFileBlocks().size() > 1) {
+                result.add(instance);
+            }
+        }
+
+        return result;
+    }
+
+    private void addFileBlocks(DuplicationInstance instance, SourceFile sourceFile, int[] positions, int from, int to, boolean sharedAmongFiles) {
+        // non-overlapping occurrences within the file, the same way FileInfoForDuplication.indexesOf finds them
+        List<Integer> nonOverlapping = new ArrayList<>();
+        int nextFree = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            if (positions[i] >= nextFree) {
+                nonOverlapping.add(positions[i]);
+                nextFree = positions[i] + minDuplicationBlockSize;
+            }
+        }
+
+        if (nonOverlapping.size() > 1) {
+            nonOverlapping.forEach(position -> addFileBlock(instance, sourceFile, position + 1));
+        } else if (sharedAmongFiles) {
+            addFileBlock(instance, sourceFile, positions[from] + 1);
+        }
+    }
+
+    private void addFileBlock(DuplicationInstance instance, SourceFile sourceFile, int cleanedStartLine) {
+        DuplicatedFileBlock duplicatedFileBlock = new DuplicatedFileBlock();
+        duplicatedFileBlock.setSourceFile(sourceFile);
+
+        duplicatedFileBlock.setCleanedStartLine(cleanedStartLine);
+        int cleanedEndLine = cleanedStartLine + minDuplicationBlockSize - 1;
+        duplicatedFileBlock.setCleanedEndLine(cleanedEndLine);
+
+        CleanedContent cleanedContent = files.getPathToCleanedContent().get(sourceFile);
+        duplicatedFileBlock.setStartLine(cleanedContent.getFileLineIndexes().get(cleanedStartLine - 1) + 1);
+        duplicatedFileBlock.setEndLine(cleanedContent.getFileLineIndexes().get(cleanedEndLine - 1) + 1);
+
+        duplicatedFileBlock.setSourceFileCleanedLinesOfCode(cleanedContent.getFileLineIndexes().size());
+
+        instance.getDuplicatedFileBlocks().add(duplicatedFileBlock);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.duplication.impl;
+
+import java.util.Arrays;
+
+/*
+ * MinHash signatures of sets of 64-bit shingle hashes. The share of equal values in the signatures of two sets
+ * estimates their Jaccard similarity (the size of the intersection divided by the size of the union), so sets that
+ * share a band of signature values are likely to be similar, and only those need to be compared exactly.
+ */
+public class MinHash {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    public static long[] getSignature(long[] shingles, int numberOfHashes) {
+        long[] signature = new long[numberOfHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int i = 0; i < numberOfHashes; i++) {
+            long seed = SEED * (i + 1);
+            for (long shingle : shingles) {
+                long hash = mix(shingle ^ seed);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // the hash of the signature values from (inclusive) to (exclusive), e.g. of one band
+    public static long getBandHash(long[] signature, int from, int to) {
+        long hash = from;
+        for (int i = from; i < to; i++) {
+            hash = mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+
+    // both arrays have to be sorted and without repeated values
+    public static double getJaccardSimilarity(long[] shingles1, long[] shingles2) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < shingles1.length && j < shingles2.length) {
+            if (shingles1[i] == shingles2[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (shingles1[i] < shingles2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = shingles1.length + shingles2.length - intersection;
+        return union == 0 ? 1.0 : (double) intersection / union;
+    }
+
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -9,26 +9,32 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/*
+ * Dates are "yyyy-MM-dd" strings in the analysis results and reports. For date checks, dates are converted to epoch
+ * days (days since 1970-01-01) without creating any objects, so checking if a date is within a time window is an
+ * integer comparison. The analysis date ("today", the date param, the SOKRATES_SOURCE_CODE_DATE environment variable
+ * or the latest commit date) is computed once, and again only when the date param or the latest commit date change.
+ */
 public class DateUtils {
     public static final String ENV_SOKRATES_SOURCE_CODE_DATE = "SOKRATES_SOURCE_CODE_DATE";
     public static final String DATE_FORMAT = "yyyy-MM-dd";
+    public static final int NO_DATE = Integer.MIN_VALUE;
     public static String dateParam = null;
     private static String latestCommitDate = "";
+    private static final String sourceCodeDate = System.getenv(ENV_SOKRATES_SOURCE_CODE_DATE);
+    private static volatile AnalysisDay analysisDay = null;
 
     public static boolean isDateWithinRange(String date, int rangeInDays) {
         if (StringUtils.isBlank(date)) {
             return true;
         }
 
-        Calendar cal = getCalendar();
-
-        cal.add(Calendar.DATE, -rangeInDays);
-
-        String thresholdDate = new SimpleDateFormat(DATE_FORMAT).format(cal.getTime());
-
-        return date.compareTo(thresholdDate) >= 0;
+        return toEpochDay(date) >= getAnalysisEpochDay() - rangeInDays;
     }
 
     public static List<String> getPastDays(int numberOfDays, String latestCommitDate) {
@@ -77,9 +83,25 @@ public class DateUtils {
         return isCommittedBetween(date, 0, daysAgo);
     }
 
+    public static boolean isCommittedLessThanDaysAgo(int epochDay, int daysAgo) {
+        return isCommittedBetween(epochDay, 0, daysAgo);
+    }
+
     public static boolean isAnyDateCommittedBetween(List<String> dates, int daysAgo1, int daysAgo2) {
+        int today = getAnalysisEpochDay();
         for (String date : dates) {
-            if (isCommittedBetween(date, daysAgo1, daysAgo2)) {
+            int epochDay = toEpochDay(date);
+            if (epochDay >= today - daysAgo2 && epochDay <= today - daysAgo1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isAnyDateCommittedBetween(int[] epochDays, int daysAgo1, int daysAgo2) {
+        int today = getAnalysisEpochDay();
+        for (int epochDay : epochDays) {
+            if (epochDay >= today - daysAgo2 && epochDay <= today - daysAgo1) {
                 return true;
             }
         }
@@ -87,31 +109,124 @@ public class DateUtils {
     }
 
     public static boolean isCommittedBetween(String date, int daysAgo1, int daysAgo2) {
-        Calendar cal1 = DateUtils.getCalendar();
-        cal1.add(Calendar.DATE, -daysAgo1);
-        String thresholdDate1 = new SimpleDateFormat(DATE_FORMAT).format(cal1.getTime());
+        return isCommittedBetween(toEpochDay(date), daysAgo1, daysAgo2);
+    }
 
-        Calendar cal2 = DateUtils.getCalendar();
-        cal2.add(Calendar.DATE, -daysAgo2);
-        String thresholdDate2 = new SimpleDateFormat(DATE_FORMAT).format(cal2.getTime());
+    public static boolean isCommittedBetween(int epochDay, int daysAgo1, int daysAgo2) {
+        int today = getAnalysisEpochDay();
+        return epochDay >= today - daysAgo2 && epochDay <= today - daysAgo1;
+    }
 
-        return date.compareTo(thresholdDate2) >= 0 && date.compareTo(thresholdDate1) <= 0;
+    // returns the number of days since 1970-01-01 of a "yyyy-MM-dd" date (characters after the day are ignored),
+    // or NO_DATE if the date is blank or not in that format
+    public static int toEpochDay(String date) {
+        if (date == null || date.length() < 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NO_DATE;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NO_DATE;
+        }
+        return toEpochDay(year, month, day);
     }
 
-    public static Calendar getCalendar() {
-        Calendar calendar = Calendar.getInstance();
+    // like toEpochDay, but also accepts months and days without a leading zero (e.g. "2021-5-3"), as in dates typed
+    // by hand; returns NO_DATE if the text is not a valid date
+    public static int parseEpochDay(String date) {
+        int epochDay = toEpochDay(date);
+        if (epochDay != NO_DATE || date == null) {
+            return epochDay;
+        }
+        String[] parts = date.trim().split("-");
+        if (parts.length != 3) {
+            return NO_DATE;
+        }
+        try {
+            return (int) LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])).toEpochDay();
+        } catch (NumberFormatException | DateTimeException e) {
+            return NO_DATE;
+        }
+    }
 
-        updateWithDateParams(calendar);
+    // the same calculation as java.time.LocalDate.toEpochDay()
+    private static int toEpochDay(int year, int month, int day) {
+        long total = 365L * year;
+        total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            boolean leapYear = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+            if (!leapYear) {
+                total--;
+            }
+        }
+        return (int) (total - 719528);
+    }
 
-        return calendar;
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
-    public static String getAnalysisDate() {
+    public static String toDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    public static int[] toEpochDays(List<String> dates) {
+        int[] epochDays = new int[dates.size()];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = toEpochDay(dates.get(i));
+        }
+        return epochDays;
+    }
+
+    // the epoch day of the analysis date, recalculated only when the date param or the latest commit date change
+    // (compared by reference, as both are set rather than modified)
+    public static int getAnalysisEpochDay() {
+        AnalysisDay current = analysisDay;
+        String param = dateParam;
+        String latest = latestCommitDate;
+        if (current == null || current.dateParam != param || current.latestCommitDate != latest) {
+            current = new AnalysisDay(param, latest, calculateAnalysisEpochDay(param, latest));
+            analysisDay = current;
+        }
+        return current.epochDay;
+    }
+
+    private static int calculateAnalysisEpochDay(String param, String latest) {
+        for (String date : new String[]{param, sourceCodeDate, latest}) {
+            if (StringUtils.isNotBlank(date)) {
+                int epochDay = parseEpochDay(date);
+                if (epochDay == NO_DATE) {
+                    System.err.println("Unparseable date: \"" + date + "\"");
+                    break;
+                }
+                return epochDay;
+            }
+        }
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    public static Calendar getCalendar() {
+        LocalDate date = LocalDate.ofEpochDay(getAnalysisEpochDay());
         Calendar calendar = Calendar.getInstance();
+        calendar.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
 
-        updateWithDateParams(calendar);
+        return calendar;
+    }
 
-        return new SimpleDateFormat(DATE_FORMAT).format(calendar.getTime());
+    public static String getAnalysisDate() {
+        return toDate(getAnalysisEpochDay());
     }
 
     public static Calendar getCalendar(String date) {
@@ -129,24 +244,6 @@ public class DateUtils {
         return calendar;
     }
 
-    private static void updateWithDateParams(Calendar cal) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT);
-            if (StringUtils.isNotBlank(DateUtils.dateParam)) {
-                cal.setTime(sdf.parse(DateUtils.dateParam));
-            } else {
-                String sourceCodeDate = System.getenv(ENV_SOKRATES_SOURCE_CODE_DATE);
-                if (StringUtils.isNotBlank(sourceCodeDate)) {
-                    cal.setTime(sdf.parse(sourceCodeDate));
-                } else if (StringUtils.isNotBlank(latestCommitDate)) {
-                    cal.setTime(sdf.parse(latestCommitDate));
-                }
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-    }
-
     public static String getDateParam() {
         return dateParam;
     }
@@ -163,7 +260,7 @@ public class DateUtils {
         DateUtils.latestCommitDate = latestCommitDate;
     }
 
-    private static Map<String,String> mondays = new HashMap<>();
+    private static Map<String,String> mondays = new ConcurrentHashMap<>();
     public static String getWeekMonday(String date) {
         if (mondays.containsKey(date)) {
             return mondays.get(date);
@@ -189,4 +286,16 @@ public class DateUtils {
     public static String getYear(String date) {
         return date.substring(0, 4);
     }
+
+    private static class AnalysisDay {
+        private final String dateParam;
+        private final String latestCommitDate;
+        private final int epochDay;
+
+        private AnalysisDay(String dateParam, String latestCommitDate, int epochDay) {
+            this.dateParam = dateParam;
+            this.latestCommitDate = latestCommitDate;
+            this.epochDay = epochDay;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.filehistory;
+
+import nl.obren.sokrates.common.utils.LongIntMap;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
+import nl.obren.sokrates.sourcecode.githistory.StringDictionary;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/*
+ * Finds pairs of files changed in the same commits for several time windows (e.g. the whole history, the past 30, 90
+ * and 180 days) in one pass over the file histories. Commits are grouped once by an int ID, each distinct commit date
+ * is checked once against all windows, and pairs are looked up in per-window primitive hash tables keyed by the
+ * (lowercase) path IDs of both files. Commits that changed more than maxFilesPerCommit files are skipped, if set.
+ */
+public class FilePairsChangedTogetherCalculator {
+    private int[] rangesInDays;
+    private int maxFilesPerCommit;
+
+    private List<FileModificationHistory> files = new ArrayList<>();
+    private List<SourceFile> sourceFiles = new ArrayList<>();
+    private int[] pathIds;
+
+    private String[] thresholdDates;
+    private Map<String, Integer> dateMasks = new HashMap<>();
+
+    private StringDictionary commitIds = new StringDictionary();
+    private int[][] commitFiles = new int[1024][];
+    private int[] commitFilesCounts = new int[1024];
+
+    private List<List<FilePairChangedTogether>> filePairs = new ArrayList<>();
+    private List<LongIntMap> pairIndexes = new ArrayList<>();
+
+    public FilePairsChangedTogetherCalculator(int maxFilesPerCommit, int... rangesInDays) {
+        this.maxFilesPerCommit = maxFilesPerCommit;
+        this.rangesInDays = rangesInDays;
+        if (rangesInDays.length > 31) {
+            throw new IllegalArgumentException("At most 31 time windows are supported");
+        }
+    }
+
+    public void populate(NamedSourceCodeAspect aspect, List<FileModificationHistory> fileHistories) {
+        StringDictionary lowerCasePaths = new StringDictionary();
+        List<Integer> ids = new ArrayList<>();
+        fileHistories.forEach(fileHistory -> {
+            SourceFile sourceFile = aspect.getSourceFileByPath(fileHistory.getPath());
+            if (sourceFile != null) {
+                files.add(fileHistory);
+                sourceFiles.add(sourceFile);
+                ids.add(lowerCasePaths.getId(sourceFile.getRelativePath().toLowerCase()));
+            }
+        });
+        pathIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+        thresholdDates = new String[rangesInDays.length];
+        for (int i = 0; i < rangesInDays.length; i++) {
+            filePairs.add(new ArrayList<>());
+            pairIndexes.add(new LongIntMap());
+            if (rangesInDays[i] > 0) {
+                thresholdDates[i] = DateUtils.toDate(DateUtils.getAnalysisEpochDay() - rangesInDays[i]);
+            }
+        }
+
+        int[] filesPerCommit = maxFilesPerCommit > 0 ? countFilesPerCommit() : null;
+
+        for (int file = 0; file < files.size(); file++) {
+            for (CommitInfo commitInfo : files.get(file).getCommits()) {
+                int mask = getDateMask(commitInfo.getDate());
+                if (mask == 0) {
+                    continue;
+                }
+                int commit = getCommit(commitInfo.getId());
+                if (filesPerCommit != null && filesPerCommit[commit] > maxFilesPerCommit) {
+                    continue;
+                }
+                int count = commitFilesCounts[commit];
+                int[] filesInCommit = commitFiles[commit];
+                if (count > 0 && filesInCommit[count - 1] == file) {
+                    // the same file listed twice in one commit
+                    continue;
+                }
+                for (int i = 0; i < count; i++) {
+                    addFilePair(file, filesInCommit[i], commitInfo, mask);
+                }
+                addFileToCommit(commit, file);
+            }
+        }
+
+        filePairs.forEach(pairs -> Collections.sort(pairs, (a, b) -> b.getCommits().size() - a.getCommits().size()));
+    }
+
+    private int[] countFilesPerCommit() {
+        int[] counts = new int[1024];
+        int[] lastFile = new int[1024];
+        for (int file = 0; file < files.size(); file++) {
+            for (CommitInfo commitInfo : files.get(file).getCommits()) {
+                int commit = getCommit(commitInfo.getId());
+                if (commit >= counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                    lastFile = Arrays.copyOf(lastFile, lastFile.length * 2);
+                }
+                if (counts[commit] == 0 || lastFile[commit] != file) {
+                    counts[commit]++;
+                    lastFile[commit] = file;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private int getDateMask(String date) {
+        Integer mask = dateMasks.get(date);
+        if (mask == null) {
+            mask = 0;
+            for (int i = 0; i < thresholdDates.length; i++) {
+                if (thresholdDates[i] == null || StringUtils.isBlank(date) || date.compareTo(thresholdDates[i]) >= 0) {
+                    mask |= 1 << i;
+                }
+            }
+            dateMasks.put(date, mask);
+        }
+        return mask;
+    }
+
+    private int getCommit(String commitId) {
+        int commit = commitIds.getId(commitId);
+        if (commit >= commitFiles.length) {
+            commitFiles = Arrays.copyOf(commitFiles, commitFiles.length * 2);
+            commitFilesCounts = Arrays.copyOf(commitFilesCounts, commitFilesCounts.length * 2);
+        }
+        return commit;
+    }
+
+    private void addFileToCommit(int commit, int file) {
+        int[] filesInCommit = commitFiles[commit];
+        int count = commitFilesCounts[commit];
+        if (filesInCommit == null) {
+            filesInCommit = new int[4];
+        } else if (count == filesInCommit.length) {
+            filesInCommit = Arrays.copyOf(filesInCommit, count * 2);
+        }
+        filesInCommit[count] = file;
+        commitFiles[commit] = filesInCommit;
+        commitFilesCounts[commit] = count + 1;
+    }
+
+    private void addFilePair(int file1, int file2, CommitInfo commitInfo, int mask) {
+        long key = getPairKey(pathIds[file1], pathIds[file2]);
+        for (int window = 0; window < rangesInDays.length; window++) {
+            if ((mask & (1 << window)) == 0) {
+                continue;
+            }
+            List<FilePairChangedTogether> pairs = filePairs.get(window);
+            LongIntMap pairIndex = pairIndexes.get(window);
+            int index = pairIndex.get(key);
+            FilePairChangedTogether filePair;
+            if (index < 0) {
+                filePair = new FilePairChangedTogether(sourceFiles.get(file1), sourceFiles.get(file2));
+                filePair.setCommitsCountFile1(files.get(file1).getCommits().size());
+                filePair.setCommitsCountFile2(files.get(file2).getCommits().size());
+                pairIndex.put(key, pairs.size());
+                pairs.add(filePair);
+            } else {
+                filePair = pairs.get(index);
+            }
+
+            filePair.getCommits().add(commitInfo.getId());
+            String date = commitInfo.getDate();
+            if (StringUtils.isBlank(filePair.getLatestCommit()) || date.compareTo(filePair.getLatestCommit()) > 0) {
+                filePair.setLatestCommit(date);
+            }
+        }
+    }
+
+    private static long getPairKey(int pathId1, int pathId2) {
+        return LongIntMap.getKey(Math.min(pathId1, pathId2), Math.max(pathId1, pathId2));
+    }
+
+    public List<FilePairChangedTogether> getFilePairs(int window) {
+        return filePairs.get(window);
+    }
+}
@@ -5,46 +5,50 @@
 package nl.obren.sokrates.sourcecode.filehistory;
 
 import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
-import nl.obren.sokrates.sourcecode.githistory.AuthorCommit;
-import nl.obren.sokrates.sourcecode.githistory.FileUpdate;
+import nl.obren.sokrates.sourcecode.githistory.GitHistory;
 import nl.obren.sokrates.sourcecode.githistory.GitHistoryUtils;
+import nl.obren.sokrates.sourcecode.githistory.IdSet;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class GitHistoryUtil {
     List<FileModificationHistory> files = new ArrayList<>();
-    Map<String, FileModificationHistory> map = new HashMap<>();
+    FileModificationHistory[] filesByPathId = new FileModificationHistory[0];
+    IdSet[] datesByPathId = new IdSet[0];
 
     public List<FileModificationHistory> importGitLsFilesExport(File file, FileHistoryAnalysisConfig config) {
+        return importHistory(GitHistoryUtils.getHistoryFromFile(file, config));
+    }
+
+    public List<FileModificationHistory> importHistory(GitHistory history) {
         files = new ArrayList<>();
-        map = new HashMap<>();
-        GitHistoryUtils.getHistoryFromFile(file, config).forEach(fileUpdate -> {
-            processUpdate(fileUpdate);
-        });
+        filesByPathId = new FileModificationHistory[history.getPaths().size()];
+        datesByPathId = new IdSet[history.getPaths().size()];
+        for (int i = 0; i < history.size(); i++) {
+            processUpdate(history, i);
+        }
         return files;
     }
 
-    private void processUpdate(FileUpdate fileUpdate) {
-        String path = fileUpdate.getPath();
-        FileModificationHistory fileInfo = map.get(path);
+    private void processUpdate(GitHistory history, int index) {
+        int pathId = history.getPathId(index);
+        FileModificationHistory fileInfo = filesByPathId[pathId];
         if (fileInfo == null) {
-            fileInfo = new FileModificationHistory(path);
+            fileInfo = new FileModificationHistory(history.getPath(index));
             files.add(fileInfo);
-            map.put(path, fileInfo);
+            filesByPathId[pathId] = fileInfo;
+            datesByPathId[pathId] = new IdSet();
         }
 
-        CommitInfo commitInfo = new CommitInfo(fileUpdate.getCommitId(), fileUpdate.getDate());
-        String authorEmail = fileUpdate.getAuthorEmail();
-        commitInfo.setEmail(authorEmail);
+        String date = history.getDate(index);
+        CommitInfo commitInfo = new CommitInfo(history.getCommitIds().getValue(history.getCommitId(index)), date);
+        commitInfo.setEmail(history.getEmail(index));
         fileInfo.getCommits().add(commitInfo);
 
-        String lastModifiedDate = fileUpdate.getDate();
-        if (!fileInfo.getDates().contains(lastModifiedDate)) {
-            fileInfo.getDates().add(lastModifiedDate);
+        if (datesByPathId[pathId].add(history.getDateId(index))) {
+            fileInfo.getDates().add(date);
         }
     }
 }
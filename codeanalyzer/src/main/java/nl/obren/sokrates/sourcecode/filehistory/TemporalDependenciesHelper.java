@@ -12,7 +12,7 @@ import java.util.*;
 public class TemporalDependenciesHelper {
     private List<ComponentDependency> componentDependencies = new ArrayList<>();
     private Map<String, ComponentDependency> componentDependenciesMap = new HashMap<>();
-    private Map<ComponentDependency, List<String>> datesMap = new HashMap<>();
+    private Map<ComponentDependency, Set<String>> datesMap = new HashMap<>();
 
     private String group = "";
 
@@ -42,19 +42,14 @@ public class TemporalDependenciesHelper {
 
         dependency.setCount(dependency.getCount() + 1);
 
-        List<String> commits = datesMap.get(dependency);
+        Set<String> commits = datesMap.get(dependency);
         if (commits == null) {
-            commits = new ArrayList<>();
+            commits = new HashSet<>();
             datesMap.put(dependency, commits);
         }
 
-        List<String> finalCommits = commits;
-        filePairChangedTogether.getCommits().forEach(commit -> {
-            if (!finalCommits.contains(commit)) {
-                finalCommits.add(commit);
-            }
-        });
-        dependency.setCount(finalCommits.size());
+        commits.addAll(filePairChangedTogether.getCommits());
+        dependency.setCount(commits.size());
     }
 
     private ComponentDependency getDependency(String name1, String name2) {
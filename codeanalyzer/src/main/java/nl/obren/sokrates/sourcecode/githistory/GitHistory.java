@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * File updates read from a git history export. Dates, emails, commit IDs and paths are dictionary encoded, and each
+ * update is stored as four int IDs in primitive column arrays. Iterating creates light FileUpdate views that share the
+ * dictionary strings.
+ */
+public class GitHistory implements Iterable<FileUpdate> {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private StringDictionary dates = new StringDictionary();
+    private StringDictionary emails = new StringDictionary();
+    private StringDictionary commitIds = new StringDictionary();
+    private StringDictionary paths = new StringDictionary();
+
+    private int[] dateColumn = new int[INITIAL_CAPACITY];
+    private int[] emailColumn = new int[INITIAL_CAPACITY];
+    private int[] commitIdColumn = new int[INITIAL_CAPACITY];
+    private int[] pathColumn = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public void add(String date, String email, String commitId, String path) {
+        add(dates.getId(date), emails.getId(email), commitIds.getId(commitId), paths.getId(path));
+    }
+
+    // adds the updates of the other history after the updates of this one; the IDs of the other dictionaries are
+    // translated on first use, so the IDs are the same as if all updates were added one by one
+    public void addAll(GitHistory other) {
+        int[] dateIds = newTranslation(other.dates);
+        int[] emailIds = newTranslation(other.emails);
+        int[] commitIdIds = newTranslation(other.commitIds);
+        int[] pathIds = newTranslation(other.paths);
+        for (int i = 0; i < other.size; i++) {
+            add(translate(dateIds, other.dates, dates, other.dateColumn[i]),
+                    translate(emailIds, other.emails, emails, other.emailColumn[i]),
+                    translate(commitIdIds, other.commitIds, commitIds, other.commitIdColumn[i]),
+                    translate(pathIds, other.paths, paths, other.pathColumn[i]));
+        }
+    }
+
+    private static int[] newTranslation(StringDictionary dictionary) {
+        int[] ids = new int[dictionary.size()];
+        Arrays.fill(ids, -1);
+        return ids;
+    }
+
+    private static int translate(int[] ids, StringDictionary from, StringDictionary to, int id) {
+        if (ids[id] < 0) {
+            ids[id] = to.getId(from.getValue(id));
+        }
+        return ids[id];
+    }
+
+    private void add(int dateId, int emailId, int commitId, int pathId) {
+        if (size == dateColumn.length) {
+            int capacity = size * 2;
+            dateColumn = Arrays.copyOf(dateColumn, capacity);
+            emailColumn = Arrays.copyOf(emailColumn, capacity);
+            commitIdColumn = Arrays.copyOf(commitIdColumn, capacity);
+            pathColumn = Arrays.copyOf(pathColumn, capacity);
+        }
+        dateColumn[size] = dateId;
+        emailColumn[size] = emailId;
+        commitIdColumn[size] = commitId;
+        pathColumn[size] = pathId;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDateId(int index) {
+        return dateColumn[index];
+    }
+
+    public int getEmailId(int index) {
+        return emailColumn[index];
+    }
+
+    public int getCommitId(int index) {
+        return commitIdColumn[index];
+    }
+
+    public int getPathId(int index) {
+        return pathColumn[index];
+    }
+
+    public String getDate(int index) {
+        return dates.getValue(dateColumn[index]);
+    }
+
+    public String getEmail(int index) {
+        return emails.getValue(emailColumn[index]);
+    }
+
+    public String getPath(int index) {
+        return paths.getValue(pathColumn[index]);
+    }
+
+    public FileUpdate get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return new FileUpdate(dates.getValue(dateColumn[index]), emails.getValue(emailColumn[index]),
+                commitIds.getValue(commitIdColumn[index]), paths.getValue(pathColumn[index]));
+    }
+
+    @Override
+    public Iterator<FileUpdate> iterator() {
+        return new Iterator<FileUpdate>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public FileUpdate next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    public void write(DataOutput out) throws IOException {
+        dates.write(out);
+        emails.write(out);
+        commitIds.write(out);
+        paths.write(out);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(dateColumn[i]);
+            out.writeInt(emailColumn[i]);
+            out.writeInt(commitIdColumn[i]);
+            out.writeInt(pathColumn[i]);
+        }
+    }
+
+    public static GitHistory read(DataInput in) throws IOException {
+        GitHistory history = new GitHistory();
+        history.dates = StringDictionary.read(in);
+        history.emails = StringDictionary.read(in);
+        history.commitIds = StringDictionary.read(in);
+        history.paths = StringDictionary.read(in);
+        history.size = in.readInt();
+        int capacity = Math.max(INITIAL_CAPACITY, history.size);
+        history.dateColumn = new int[capacity];
+        history.emailColumn = new int[capacity];
+        history.commitIdColumn = new int[capacity];
+        history.pathColumn = new int[capacity];
+        for (int i = 0; i < history.size; i++) {
+            history.dateColumn[i] = in.readInt();
+            history.emailColumn[i] = in.readInt();
+            history.commitIdColumn[i] = in.readInt();
+            history.pathColumn[i] = in.readInt();
+        }
+        return history;
+    }
+
+    public StringDictionary getDates() {
+        return dates;
+    }
+
+    public StringDictionary getEmails() {
+        return emails;
+    }
+
+    public StringDictionary getCommitIds() {
+        return commitIds;
+    }
+
+    public StringDictionary getPaths() {
+        return paths;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/*
+ * A binary, dictionary-encoded copy of the (untransformed) updates in a git history file, stored next to it. The git
+ * history extractor updates it together with the watermark (the last extracted commit) so that later runs can load
+ * the history without parsing the text file. The index is used only if its watermark and the recorded length of the
+ * text file still match, so a history file that was regenerated or edited by other tools is always parsed again.
+ */
+public class GitHistoryIndexFile {
+    private static final Log LOG = LogFactory.getLog(GitHistoryIndexFile.class);
+
+    public static final String INDEX_FILE_NAME = "git-history.idx";
+    public static final String WATERMARK_PREFIX = "#watermark ";
+
+    private static final int MAGIC = 0x534B4748;
+    private static final int VERSION = 1;
+
+    public static File getIndexFile(File historyFile) {
+        return new File(historyFile.getAbsoluteFile().getParentFile(), INDEX_FILE_NAME);
+    }
+
+    public static String getWatermarkLine(String commitId) {
+        return WATERMARK_PREFIX + commitId;
+    }
+
+    public static String readWatermark(File historyFile) {
+        if (!historyFile.exists()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(historyFile.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith(WATERMARK_PREFIX)) {
+                return line.substring(WATERMARK_PREFIX.length()).trim();
+            }
+        } catch (IOException e) {
+            LOG.warn(e);
+        }
+        return null;
+    }
+
+    public static void save(File historyFile, GitHistory history, String watermark) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(historyFile))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(watermark);
+            out.writeLong(historyFile.length());
+            history.write(out);
+        }
+    }
+
+    public static GitHistory load(File historyFile) {
+        File indexFile = getIndexFile(historyFile);
+        String watermark = readWatermark(historyFile);
+        if (watermark == null || !indexFile.exists()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            if (!in.readUTF().equals(watermark) || in.readLong() != historyFile.length()) {
+                LOG.info("The git history index " + indexFile.getPath() + " is out of date");
+                return null;
+            }
+            return GitHistory.read(in);
+        } catch (IOException e) {
+            LOG.warn("Could not read the git history index " + indexFile.getPath(), e);
+            return null;
+        }
+    }
+}
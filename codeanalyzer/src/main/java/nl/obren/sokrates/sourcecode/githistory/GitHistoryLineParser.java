@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
+import nl.obren.sokrates.sourcecode.operations.ComplexOperation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Parses lines of a git history export ("<date> <email> <commit id> <path>"), skipping the lines starting with "#".
+ * Email transformations and ignore rules are evaluated once per distinct email.
+ */
+public class GitHistoryLineParser {
+    private final List<String> ignoreContributors;
+    private final ComplexOperation emailTransformation;
+    private final Map<String, String> transformedEmails = new HashMap<>();
+    private final Map<String, Boolean> ignoredEmails = new HashMap<>();
+
+    public GitHistoryLineParser(FileHistoryAnalysisConfig config) {
+        this.ignoreContributors = config.getIgnoreContributors();
+        this.emailTransformation = config.getTransformContributorEmails().size() > 0
+                ? new ComplexOperation(config.getTransformContributorEmails()) : null;
+    }
+
+    public FileUpdate parse(String line) {
+        FileUpdate[] result = {null};
+        parse(line, (date, author, commitId, path) -> result[0] = new FileUpdate(date, author, commitId, path));
+        return result[0];
+    }
+
+    public boolean parse(String line, GitHistory history) {
+        return parse(line, history::add);
+    }
+
+    public boolean add(GitHistory history, String date, String email, String commitId, String path) {
+        String author = getAuthor(email);
+        if (isIgnored(author)) {
+            return false;
+        }
+        history.add(date, author, commitId, path);
+        return true;
+    }
+
+    private boolean parse(String line, UpdateConsumer consumer) {
+        // comment lines, such as the #watermark line written by the history extractor
+        if (line.startsWith("#")) {
+            return false;
+        }
+
+        int index1 = line.indexOf(" ");
+        if (index1 >= 10) {
+            int index2 = line.indexOf(" ", index1 + 1);
+            if (index2 > 0) {
+                int index3 = line.indexOf(" ", index2 + 1);
+                if (index3 > 0) {
+                    String author = getAuthor(line.substring(index1 + 1, index2).trim());
+                    if (isIgnored(author)) {
+                        return false;
+                    }
+
+                    String date = line.substring(0, 10).trim();
+                    String commitId = line.substring(index2 + 1, index3).trim();
+                    String path = line.substring(index3 + 1).trim();
+
+                    consumer.accept(date, author, commitId, path);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private String getAuthor(String email) {
+        if (emailTransformation == null) {
+            return email;
+        }
+        String author = transformedEmails.get(email);
+        if (author == null) {
+            author = emailTransformation.exec(email);
+            transformedEmails.put(email, author);
+        }
+        return author;
+    }
+
+    private boolean isIgnored(String author) {
+        Boolean ignored = ignoredEmails.get(author);
+        if (ignored == null) {
+            ignored = GitHistoryUtils.shouldIgnore(author, ignoreContributors);
+            ignoredEmails.put(author, ignored);
+        }
+        return ignored;
+    }
+
+    private interface UpdateConsumer {
+        void accept(String date, String author, String commitId, String path);
+    }
+}
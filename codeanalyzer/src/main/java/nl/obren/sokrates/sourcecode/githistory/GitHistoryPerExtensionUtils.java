@@ -9,12 +9,12 @@ import java.util.*;
 
 public class GitHistoryPerExtensionUtils {
     private Map<String, CommitsPerExtension> map = new HashMap<>();
-    private Map<String, List<String>> emails = new HashMap<>();
-    private Map<String, List<String>> emails30Days = new HashMap<>();
-    private Map<String, List<String>> emails90Days = new HashMap<>();
-    private Map<String, List<String>> paths = new HashMap<>();
-    private Map<String, List<String>> paths30Days = new HashMap<>();
-    private Map<String, List<String>> paths90Days = new HashMap<>();
+    private Map<String, DistinctValues> emails = new HashMap<>();
+    private Map<String, DistinctValues> emails30Days = new HashMap<>();
+    private Map<String, DistinctValues> emails90Days = new HashMap<>();
+    private Map<String, DistinctValues> paths = new HashMap<>();
+    private Map<String, DistinctValues> paths30Days = new HashMap<>();
+    private Map<String, DistinctValues> paths90Days = new HashMap<>();
 
     public List<CommitsPerExtension> getCommitsPerExtensions(File file, FileHistoryAnalysisConfig config) {
         GitHistoryUtils.getHistoryFromFile(file, config).forEach(fileUpdate -> {
@@ -22,8 +22,9 @@ public class GitHistoryPerExtensionUtils {
             String path = fileUpdate.getPath();
             String email = fileUpdate.getAuthorEmail();
             String date = fileUpdate.getDate();
-            boolean isLessThan30DaysAgo = DateUtils.isCommittedLessThanDaysAgo(date, 30);
-            boolean isLessThan90DaysAgo = DateUtils.isCommittedLessThanDaysAgo(date, 90);
+            int epochDay = DateUtils.toEpochDay(date);
+            boolean isLessThan30DaysAgo = DateUtils.isCommittedLessThanDaysAgo(epochDay, 30);
+            boolean isLessThan90DaysAgo = DateUtils.isCommittedLessThanDaysAgo(epochDay, 90);
 
             CommitsPerExtension commitsPerExtension = getCommitsPerExtension(extension);
 
@@ -53,8 +54,8 @@ public class GitHistoryPerExtensionUtils {
         updateMaps(extension, email, emails90Days);
         updateMaps(extension, path, paths90Days);
 
-        commitsPerExtension.setCommitters90Days(emails90Days.get(extension));
-        commitsPerExtension.setFilesCount90Days(paths90Days.get(extension).size());
+        commitsPerExtension.setCommitters90Days(emails90Days.get(extension).getValues());
+        commitsPerExtension.setFilesCount90Days(paths90Days.get(extension).getValues().size());
     }
 
     public void update30DaysCounts(String extension, String path, String email, CommitsPerExtension commitsPerExtension) {
@@ -63,8 +64,8 @@ public class GitHistoryPerExtensionUtils {
         updateMaps(extension, email, emails30Days);
         updateMaps(extension, path, paths30Days);
 
-        commitsPerExtension.setCommitters30Days(emails30Days.get(extension));
-        commitsPerExtension.setFilesCount30Days(paths30Days.get(extension).size());
+        commitsPerExtension.setCommitters30Days(emails30Days.get(extension).getValues());
+        commitsPerExtension.setFilesCount30Days(paths30Days.get(extension).getValues().size());
     }
 
     public void updateTotalCounts(String extension, String path, String email, CommitsPerExtension commitsPerExtension) {
@@ -73,8 +74,8 @@ public class GitHistoryPerExtensionUtils {
         updateMaps(extension, email, emails);
         updateMaps(extension, path, paths);
 
-        commitsPerExtension.setCommitters(emails.get(extension));
-        commitsPerExtension.setFilesCount(paths.get(extension).size());
+        commitsPerExtension.setCommitters(emails.get(extension).getValues());
+        commitsPerExtension.setFilesCount(paths.get(extension).getValues().size());
     }
 
     public CommitsPerExtension getCommitsPerExtension(String extension) {
@@ -86,14 +87,27 @@ public class GitHistoryPerExtensionUtils {
         return commitsPerExtension;
     }
 
-    private static void updateMaps(String extension, String value, Map<String, List<String>> map) {
-        List<String> extList = map.get(extension);
-        if (extList == null) {
-            extList = new ArrayList<>();
-            map.put(extension, extList);
+    private static void updateMaps(String extension, String value, Map<String, DistinctValues> map) {
+        DistinctValues extValues = map.get(extension);
+        if (extValues == null) {
+            extValues = new DistinctValues();
+            map.put(extension, extValues);
         }
-        if (!extList.contains(value)) {
-            extList.add(value);
+        extValues.add(value);
+    }
+
+    private static class DistinctValues {
+        private List<String> values = new ArrayList<>();
+        private Set<String> set = new HashSet<>();
+
+        void add(String value) {
+            if (set.add(value)) {
+                values.add(value);
+            }
+        }
+
+        List<String> getValues() {
+            return values;
         }
     }
 }
@@ -8,34 +8,40 @@ package nl.obren.sokrates.sourcecode.githistory;
 
 import nl.obren.sokrates.common.utils.RegexUtils;
 import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
-import nl.obren.sokrates.sourcecode.operations.ComplexOperation;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GitHistoryUtils {
+    private static final Log LOG = LogFactory.getLog(GitHistoryUtils.class);
+
     public static final String GIT_HISTORY_FILE_NAME = "git-history.txt";
-    private static List<FileUpdate> updates = null;
+    private static GitHistory history = null;
 
     public static String printContributorsCommand() {
         return "git ls-files -z | xargs -0 -n1 -I{} -- git log --date=short --format=\"%ad %ae %H {}\" {} > " + GIT_HISTORY_FILE_NAME;
     }
 
     public static List<AuthorCommit> getAuthorCommits(File file, FileHistoryAnalysisConfig config) {
+        return getAuthorCommits(getHistoryFromFile(file, config));
+    }
+
+    public static List<AuthorCommit> getAuthorCommits(GitHistory history) {
         List<AuthorCommit> commits = new ArrayList<>();
-        List<String> commitIds = new ArrayList<>();
+        IdSet commitIds = new IdSet();
 
-        getHistoryFromFile(file, config).forEach(fileUpdate -> {
-            String commitId = fileUpdate.getCommitId();
-            if (!commitIds.contains(commitId)) {
-                commitIds.add(commitId);
-                commits.add(new AuthorCommit(fileUpdate.getDate(), fileUpdate.getAuthorEmail()));
+        for (int i = 0; i < history.size(); i++) {
+            if (commitIds.add(history.getCommitId(i))) {
+                commits.add(new AuthorCommit(history.getDate(i), history.getEmail(i)));
             }
-        });
+        }
 
         return commits;
     }
@@ -49,60 +55,43 @@ public class GitHistoryUtils {
         return false;
     }
 
-    public static List<FileUpdate> getHistoryFromFile(File file, FileHistoryAnalysisConfig config) {
-        if (updates != null) {
-            return updates;
+    public static synchronized GitHistory getHistoryFromFile(File file, FileHistoryAnalysisConfig config) {
+        if (history != null) {
+            return history;
         }
-        updates = new ArrayList<>();
-        System.out.println("Reading history from file");
-        List<String> lines;
-        try {
-            lines = FileUtils.readLines(file, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            System.out.println(e.getMessage());
-            return updates;
-        }
-
-        lines.forEach(line -> {
-            System.out.println(line);
-            FileUpdate fileUpdate = GitHistoryUtils.parseLine(line, config);
-            if (fileUpdate != null) {
-                updates.add(fileUpdate);
-            }
-        });
-
-        return updates;
+        history = readHistory(file, config);
+        return history;
     }
 
-    public static FileUpdate parseLine(String line, FileHistoryAnalysisConfig config) {
-        List<String> ignoreContributors = config.getIgnoreContributors();
-        int index1 = line.indexOf(" ");
-        if (index1 >= 10) {
-            int index2 = line.indexOf(" ", index1 + 1);
-            if (index2 > 0) {
-                int index3 = line.indexOf(" ", index2 + 1);
-                if (index3 > 0) {
-                    String date = line.substring(0, 10).trim();
-                    String author = line.substring(index1 + 1, index2).trim();
-                    if (config.getTransformContributorEmails().size() > 0) {
-                        ComplexOperation operation = new ComplexOperation(config.getTransformContributorEmails());
-                        String original = author;
-                        author = operation.exec(author);
-                        System.out.println(original + " -> " + author);
-                    }
-
-                    if (shouldIgnore(author, ignoreContributors)) {
-                        return null;
-                    }
-
-                    String commitId = line.substring(index2 + 1, index3).trim();
-                    String path = line.substring(index3 + 1).trim();
-
-                    return new FileUpdate(date, author, commitId, path);
+    public static GitHistory readHistory(File file, FileHistoryAnalysisConfig config) {
+        GitHistory gitHistory = new GitHistory();
+        GitHistoryLineParser parser = new GitHistoryLineParser(config);
+        GitHistory indexedHistory = GitHistoryIndexFile.load(file);
+        if (indexedHistory != null) {
+            LOG.info("Reading the git history from the index of " + file.getPath());
+            for (int i = 0; i < indexedHistory.size(); i++) {
+                parser.add(gitHistory, indexedHistory.getDate(i), indexedHistory.getEmail(i),
+                        indexedHistory.getCommitIds().getValue(indexedHistory.getCommitId(i)), indexedHistory.getPath(i));
+            }
+        } else {
+            LOG.info("Reading the git history from " + file.getPath());
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parser.parse(line, gitHistory);
                 }
+            } catch (IOException e) {
+                LOG.warn(e);
+                return gitHistory;
             }
         }
+        LOG.info("Read " + gitHistory.size() + " file updates (" + gitHistory.getCommitIds().size() + " commits, "
+                + gitHistory.getPaths().size() + " files, " + gitHistory.getEmails().size() + " contributors)");
+
+        return gitHistory;
+    }
 
-        return null;
+    public static FileUpdate parseLine(String line, FileHistoryAnalysisConfig config) {
+        return new GitHistoryLineParser(config).parse(line);
     }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import java.util.BitSet;
+
+/*
+ * A set of dense int IDs (e.g. dictionary IDs from {@link GitHistory}) backed by a bitmap, used to replace
+ * List.contains checks in history aggregations with constant-time lookups.
+ */
+public class IdSet {
+    private BitSet bits = new BitSet();
+    private int size = 0;
+
+    public boolean add(int id) {
+        if (bits.get(id)) {
+            return false;
+        }
+        bits.set(id);
+        size++;
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && bits.get(id);
+    }
+
+    public int size() {
+        return size;
+    }
+}
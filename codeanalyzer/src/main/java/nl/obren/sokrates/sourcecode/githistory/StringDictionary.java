@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Maps each distinct string to a dense int ID (in order of first appearance), so that repeated values are stored once.
+ */
+public class StringDictionary {
+    private Map<String, Integer> ids = new HashMap<>();
+    private List<String> values = new ArrayList<>();
+
+    public int getId(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    public int findId(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : -1;
+    }
+
+    public String getValue(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static StringDictionary read(DataInput in) throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            dictionary.getId(in.readUTF());
+        }
+        return dictionary;
+    }
+}
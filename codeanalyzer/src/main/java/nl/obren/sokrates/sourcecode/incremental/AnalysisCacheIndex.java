@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnalysisCacheIndex {
+    private int version;
+    private String configurationHash = "";
+    private String analyzerFingerprint = "";
+    private List<FileAnalysisFacts> files = new ArrayList<>();
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getConfigurationHash() {
+        return configurationHash;
+    }
+
+    public void setConfigurationHash(String configurationHash) {
+        this.configurationHash = configurationHash;
+    }
+
+    public String getAnalyzerFingerprint() {
+        return analyzerFingerprint;
+    }
+
+    public void setAnalyzerFingerprint(String analyzerFingerprint) {
+        this.analyzerFingerprint = analyzerFingerprint;
+    }
+
+    public List<FileAnalysisFacts> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileAnalysisFacts> files) {
+        this.files = files;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.dependencies.DependencyAnchor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// a dependency anchor extracted from one file; the source file is set again when the anchor is restored
+public class CachedDependencyAnchor {
+    private String anchor;
+    private String codeFragment;
+    private List<String> dependencyPatterns = new ArrayList<>();
+
+    public CachedDependencyAnchor() {
+    }
+
+    public CachedDependencyAnchor(DependencyAnchor dependencyAnchor) {
+        this.anchor = dependencyAnchor.getAnchor();
+        this.codeFragment = dependencyAnchor.getCodeFragment();
+        this.dependencyPatterns = new ArrayList<>(dependencyAnchor.getDependencyPatterns());
+    }
+
+    public DependencyAnchor toDependencyAnchor(SourceFile sourceFile) {
+        DependencyAnchor dependencyAnchor = new DependencyAnchor(anchor);
+        dependencyAnchor.setCodeFragment(codeFragment);
+        dependencyAnchor.getDependencyPatterns().addAll(dependencyPatterns);
+        dependencyAnchor.getSourceFiles().add(sourceFile);
+        return dependencyAnchor;
+    }
+
+    public String getAnchor() {
+        return anchor;
+    }
+
+    public void setAnchor(String anchor) {
+        this.anchor = anchor;
+    }
+
+    public String getCodeFragment() {
+        return codeFragment;
+    }
+
+    public void setCodeFragment(String codeFragment) {
+        this.codeFragment = codeFragment;
+    }
+
+    public List<String> getDependencyPatterns() {
+        return dependencyPatterns;
+    }
+
+    public void setDependencyPatterns(List<String> dependencyPatterns) {
+        this.dependencyPatterns = dependencyPatterns;
+    }
+}
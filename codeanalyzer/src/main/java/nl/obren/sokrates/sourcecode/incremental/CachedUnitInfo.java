@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.units.UnitInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CachedUnitInfo {
+    private String shortName = "";
+    private String longName = "";
+    private int startLine = 0;
+    private int endLine = 0;
+    private int linesOfCode = 0;
+    private int mcCabeIndex = 1;
+    private int numberOfParameters = 0;
+    private int numberOfLiterals = 0;
+    private int numberOfStatements = 0;
+    private int numberOfExpressions = 0;
+    private String cleanedBody;
+    private String body = "";
+    private List<CachedUnitInfo> children = new ArrayList<>();
+
+    public CachedUnitInfo() {
+    }
+
+    public CachedUnitInfo(UnitInfo unit) {
+        this.shortName = unit.getShortName();
+        this.longName = unit.getLongName();
+        this.startLine = unit.getStartLine();
+        this.endLine = unit.getEndLine();
+        this.linesOfCode = unit.getLinesOfCode();
+        this.mcCabeIndex = unit.getMcCabeIndex();
+        this.numberOfParameters = unit.getNumberOfParameters();
+        this.numberOfLiterals = unit.getNumberOfLiterals();
+        this.numberOfStatements = unit.getNumberOfStatements();
+        this.numberOfExpressions = unit.getNumberOfExpressions();
+        this.cleanedBody = unit.getCleanedBody();
+        this.body = unit.getBody();
+        unit.getChildren().forEach(child -> children.add(new CachedUnitInfo(child)));
+    }
+
+    public UnitInfo toUnitInfo(SourceFile sourceFile) {
+        UnitInfo unit = new UnitInfo();
+        unit.setSourceFile(sourceFile);
+        unit.setShortName(shortName);
+        unit.setLongName(longName);
+        unit.setStartLine(startLine);
+        unit.setEndLine(endLine);
+        unit.setLinesOfCode(linesOfCode);
+        unit.setMcCabeIndex(mcCabeIndex);
+        unit.setNumberOfParameters(numberOfParameters);
+        unit.setNumberOfLiterals(numberOfLiterals);
+        unit.setNumberOfStatements(numberOfStatements);
+        unit.setNumberOfExpressions(numberOfExpressions);
+        unit.setCleanedBody(cleanedBody);
+        unit.setBody(body);
+        children.forEach(child -> unit.getChildren().add(child.toUnitInfo(sourceFile)));
+        return unit;
+    }
+
+    public String getShortName() {
+        return shortName;
+    }
+
+    public void setShortName(String shortName) {
+        this.shortName = shortName;
+    }
+
+    public String getLongName() {
+        return longName;
+    }
+
+    public void setLongName(String longName) {
+        this.longName = longName;
+    }
+
+    public int getStartLine() {
+        return startLine;
+    }
+
+    public void setStartLine(int startLine) {
+        this.startLine = startLine;
+    }
+
+    public int getEndLine() {
+        return endLine;
+    }
+
+    public void setEndLine(int endLine) {
+        this.endLine = endLine;
+    }
+
+    public int getLinesOfCode() {
+        return linesOfCode;
+    }
+
+    public void setLinesOfCode(int linesOfCode) {
+        this.linesOfCode = linesOfCode;
+    }
+
+    public int getMcCabeIndex() {
+        return mcCabeIndex;
+    }
+
+    public void setMcCabeIndex(int mcCabeIndex) {
+        this.mcCabeIndex = mcCabeIndex;
+    }
+
+    public int getNumberOfParameters() {
+        return numberOfParameters;
+    }
+
+    public void setNumberOfParameters(int numberOfParameters) {
+        this.numberOfParameters = numberOfParameters;
+    }
+
+    public int getNumberOfLiterals() {
+        return numberOfLiterals;
+    }
+
+    public void setNumberOfLiterals(int numberOfLiterals) {
+        this.numberOfLiterals = numberOfLiterals;
+    }
+
+    public int getNumberOfStatements() {
+        return numberOfStatements;
+    }
+
+    public void setNumberOfStatements(int numberOfStatements) {
+        this.numberOfStatements = numberOfStatements;
+    }
+
+    public int getNumberOfExpressions() {
+        return numberOfExpressions;
+    }
+
+    public void setNumberOfExpressions(int numberOfExpressions) {
+        this.numberOfExpressions = numberOfExpressions;
+    }
+
+    public String getCleanedBody() {
+        return cleanedBody;
+    }
+
+    public void setCleanedBody(String cleanedBody) {
+        this.cleanedBody = cleanedBody;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public List<CachedUnitInfo> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<CachedUnitInfo> children) {
+        this.children = children;
+    }
+}
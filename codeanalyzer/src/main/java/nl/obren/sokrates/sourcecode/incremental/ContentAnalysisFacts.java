@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import nl.obren.sokrates.sourcecode.search.FoundLine;
+
+import java.util.List;
+import java.util.Map;
+
+public class ContentAnalysisFacts {
+    private Integer linesOfCode;
+    private Integer longestLineLength;
+    private List<CachedUnitInfo> units;
+    private String duplicationContent;
+    private List<Integer> duplicationLineIndexes;
+    // the lines found with each concern content expression the content was searched for
+    private Map<String, List<FoundLine>> concernMatches;
+
+    @JsonIgnore
+    private boolean changed = false;
+
+    public Integer getLinesOfCode() {
+        return linesOfCode;
+    }
+
+    public void setLinesOfCode(Integer linesOfCode) {
+        this.linesOfCode = linesOfCode;
+    }
+
+    public Integer getLongestLineLength() {
+        return longestLineLength;
+    }
+
+    public void setLongestLineLength(Integer longestLineLength) {
+        this.longestLineLength = longestLineLength;
+    }
+
+    public List<CachedUnitInfo> getUnits() {
+        return units;
+    }
+
+    public void setUnits(List<CachedUnitInfo> units) {
+        this.units = units;
+    }
+
+    public String getDuplicationContent() {
+        return duplicationContent;
+    }
+
+    public void setDuplicationContent(String duplicationContent) {
+        this.duplicationContent = duplicationContent;
+    }
+
+    public List<Integer> getDuplicationLineIndexes() {
+        return duplicationLineIndexes;
+    }
+
+    public void setDuplicationLineIndexes(List<Integer> duplicationLineIndexes) {
+        this.duplicationLineIndexes = duplicationLineIndexes;
+    }
+
+    public Map<String, List<FoundLine>> getConcernMatches() {
+        return concernMatches;
+    }
+
+    public void setConcernMatches(Map<String, List<FoundLine>> concernMatches) {
+        this.concernMatches = concernMatches;
+    }
+
+    @JsonIgnore
+    public boolean isChanged() {
+        return changed;
+    }
+
+    @JsonIgnore
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+}
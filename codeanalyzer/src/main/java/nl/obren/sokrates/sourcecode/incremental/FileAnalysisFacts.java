@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.List;
+import java.util.Map;
+
+public class FileAnalysisFacts {
+    private String path;
+    private long lastModified;
+    private long size;
+    private String contentHash;
+    // dependency anchors per extractor; kept per file and not per content, as some extractors use the file path
+    private Map<String, List<CachedDependencyAnchor>> dependencyAnchors;
+
+    public FileAnalysisFacts() {
+    }
+
+    public FileAnalysisFacts(String path, long lastModified, long size, String contentHash) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Map<String, List<CachedDependencyAnchor>> getDependencyAnchors() {
+        return dependencyAnchors;
+    }
+
+    public void setDependencyAnchors(Map<String, List<CachedDependencyAnchor>> dependencyAnchors) {
+        this.dependencyAnchors = dependencyAnchors;
+    }
+
+    // the facts of a file depend on its content and, via the language analyzer, on its extension
+    @JsonIgnore
+    public String getContentKey() {
+        String extension = FilenameUtils.getExtension(path).toLowerCase();
+        return extension.isEmpty() ? contentHash : contentHash + "." + extension;
+    }
+}
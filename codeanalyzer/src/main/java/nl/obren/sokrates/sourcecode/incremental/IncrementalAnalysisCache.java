@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.obren.sokrates.common.io.JsonGenerator;
+import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import nl.obren.sokrates.sourcecode.dependencies.DependencyAnchor;
+import nl.obren.sokrates.sourcecode.search.FoundLine;
+import nl.obren.sokrates.sourcecode.units.UnitInfo;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/*
+ * Keeps per-file analysis facts (lines of code, the longest line, extracted units, the content cleaned for duplication,
+ * the lines found with concern content expressions and the dependency anchors) between analysis runs in a cache folder next to the _sokrates folder. A file is considered unchanged if
+ * its modification time and size, or its content hash, are the same as in the previous run; only new and changed files
+ * are analysed again. The index file lists the files with their content hashes, and the facts are saved per content
+ * (hash and extension) in separate files under facts/, which are read only when needed. Dependency anchors may depend on
+ * the file path, so they are kept with the file in the index. Facts no longer used by any
+ * file are deleted when the cache is saved. The whole cache is invalidated when the configuration changes, or when the
+ * facts were computed by another build of the analyzer (see getAnalyzerFingerprint).
+ */
+public class IncrementalAnalysisCache {
+    private static final Log LOG = LogFactory.getLog(IncrementalAnalysisCache.class);
+
+    public static final int VERSION = 3;
+    public static final String CACHE_FOLDER_NAME = "_sokrates_cache";
+    public static final String INDEX_FILE_NAME = "analysis-cache.json";
+    public static final String FACTS_FOLDER_NAME = "facts";
+
+    private static final String ANALYZER_PACKAGE_PATH = "nl/obren/sokrates/sourcecode/";
+
+    private static IncrementalAnalysisCache instance = new IncrementalAnalysisCache();
+    private static String analyzerFingerprint;
+
+    // creating an object mapper is expensive compared to reading the facts of one file
+    private final ObjectMapper objectMapper = new JsonMapper().getObjectMapper();
+
+    private boolean enabled = false;
+    private File cacheFolder;
+    private String configurationHash = "";
+    private Map<String, FileAnalysisFacts> previousFacts = new HashMap<>();
+    private Map<String, FileAnalysisFacts> currentFacts = new HashMap<>();
+    private Set<String> previousContentKeys = new HashSet<>();
+    private Map<String, ContentAnalysisFacts> contentFacts = new HashMap<>();
+    private int unchangedFiles = 0;
+    private int changedFiles = 0;
+
+    public static IncrementalAnalysisCache getInstance() {
+        return instance;
+    }
+
+    public static File getCacheFolder(File codeConfigurationFile) {
+        File sokratesFolder = codeConfigurationFile.getAbsoluteFile().getParentFile();
+        return new File(sokratesFolder.getParentFile(), CACHE_FOLDER_NAME);
+    }
+
+    public synchronized void load(File codeConfigurationFile) {
+        clear();
+        enabled = true;
+        cacheFolder = getCacheFolder(codeConfigurationFile);
+        try {
+            configurationHash = getHash(FileUtils.readFileToString(codeConfigurationFile, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.warn(e);
+        }
+
+        File indexFile = new File(cacheFolder, INDEX_FILE_NAME);
+        if (!indexFile.exists()) {
+            LOG.info("No incremental analysis cache found in " + cacheFolder.getPath() + ", analysing all files");
+            FileUtils.deleteQuietly(getFactsFolder());
+            return;
+        }
+
+        try {
+            String json = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
+            AnalysisCacheIndex index = (AnalysisCacheIndex) new JsonMapper().getObject(json, AnalysisCacheIndex.class);
+            if (index.getVersion() != VERSION || !configurationHash.equals(index.getConfigurationHash())) {
+                LOG.info("The configuration has changed since the last run, analysing all files");
+                FileUtils.deleteQuietly(getFactsFolder());
+                return;
+            }
+            if (!getAnalyzerFingerprint().equals(index.getAnalyzerFingerprint())) {
+                LOG.info("The analyzer has changed since the last run, analysing all files");
+                FileUtils.deleteQuietly(getFactsFolder());
+                return;
+            }
+            index.getFiles().forEach(facts -> {
+                previousFacts.put(facts.getPath(), facts);
+                previousContentKeys.add(facts.getContentKey());
+            });
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not read the incremental analysis cache, analysing all files", e);
+            FileUtils.deleteQuietly(getFactsFolder());
+        }
+    }
+
+    public synchronized void save() {
+        if (!enabled) {
+            return;
+        }
+
+        AnalysisCacheIndex index = new AnalysisCacheIndex();
+        index.setVersion(VERSION);
+        index.setConfigurationHash(configurationHash);
+        index.setAnalyzerFingerprint(getAnalyzerFingerprint());
+        List<FileAnalysisFacts> files = new ArrayList<>(currentFacts.values());
+        files.sort(Comparator.comparing(FileAnalysisFacts::getPath));
+        index.setFiles(files);
+
+        try {
+            // the facts are written before the index, so that the index never refers to facts that are not saved
+            for (Map.Entry<String, ContentAnalysisFacts> entry : contentFacts.entrySet()) {
+                if (entry.getValue().isChanged()) {
+                    File factsFile = getFactsFile(entry.getKey());
+                    factsFile.getParentFile().mkdirs();
+                    objectMapper.writeValue(factsFile, entry.getValue());
+                    entry.getValue().setChanged(false);
+                }
+            }
+            deleteUnusedFacts();
+            cacheFolder.mkdirs();
+            FileUtils.write(new File(cacheFolder, INDEX_FILE_NAME), new JsonGenerator().generate(index), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Could not save the incremental analysis cache", e);
+        }
+    }
+
+    private void deleteUnusedFacts() {
+        Set<String> usedKeys = new HashSet<>();
+        currentFacts.values().forEach(facts -> usedKeys.add(facts.getContentKey()));
+        File[] folders = getFactsFolder().listFiles(File::isDirectory);
+        if (folders == null) {
+            return;
+        }
+        for (File folder : folders) {
+            File[] factsFiles = folder.listFiles();
+            if (factsFiles != null) {
+                for (File factsFile : factsFiles) {
+                    if (!usedKeys.contains(factsFile.getName().replaceAll("\\.json$", ""))) {
+                        factsFile.delete();
+                    }
+                }
+            }
+            folder.delete();
+        }
+    }
+
+    private File getFactsFolder() {
+        return new File(cacheFolder, FACTS_FOLDER_NAME);
+    }
+
+    // facts files are spread over sub folders named by the first two characters of the content hash
+    private File getFactsFile(String contentKey) {
+        return new File(new File(getFactsFolder(), contentKey.substring(0, 2)), contentKey + ".json");
+    }
+
+    public synchronized void disable() {
+        clear();
+        enabled = false;
+    }
+
+    private void clear() {
+        previousFacts.clear();
+        currentFacts.clear();
+        previousContentKeys.clear();
+        contentFacts.clear();
+        unchangedFiles = 0;
+        changedFiles = 0;
+    }
+
+    public int getLinesOfCode(SourceFile sourceFile, Supplier<Integer> analysis) {
+        ContentAnalysisFacts facts = getContentFacts(sourceFile);
+        if (facts == null) {
+            return analysis.get();
+        }
+        synchronized (facts) {
+            if (facts.getLinesOfCode() == null) {
+                facts.setLinesOfCode(analysis.get());
+                facts.setChanged(true);
+            }
+            return facts.getLinesOfCode();
+        }
+    }
+
+    public int getLongestLineLength(SourceFile sourceFile, Supplier<Integer> analysis) {
+        ContentAnalysisFacts facts = getContentFacts(sourceFile);
+        if (facts == null) {
+            return analysis.get();
+        }
+        synchronized (facts) {
+            if (facts.getLongestLineLength() == null) {
+                facts.setLongestLineLength(analysis.get());
+                facts.setChanged(true);
+            }
+            return facts.getLongestLineLength();
+        }
+    }
+
+    public List<UnitInfo> getUnits(SourceFile sourceFile, Supplier<List<UnitInfo>> analysis) {
+        ContentAnalysisFacts facts = getContentFacts(sourceFile);
+        if (facts == null) {
+            return analysis.get();
+        }
+        synchronized (facts) {
+            if (facts.getUnits() == null) {
+                List<UnitInfo> units = analysis.get();
+                List<CachedUnitInfo> cachedUnits = new ArrayList<>();
+                units.forEach(unit -> cachedUnits.add(new CachedUnitInfo(unit)));
+                facts.setUnits(cachedUnits);
+                facts.setChanged(true);
+                return units;
+            }
+            List<UnitInfo> units = new ArrayList<>();
+            facts.getUnits().forEach(cachedUnit -> units.add(cachedUnit.toUnitInfo(sourceFile)));
+            return units;
+        }
+    }
+
+    public CleanedContent getCleanedContentForDuplication(SourceFile sourceFile, Supplier<CleanedContent> analysis) {
+        ContentAnalysisFacts facts = getContentFacts(sourceFile);
+        if (facts == null) {
+            return analysis.get();
+        }
+        synchronized (facts) {
+            if (facts.getDuplicationContent() == null) {
+                CleanedContent cleanedContent = analysis.get();
+                facts.setDuplicationContent(cleanedContent.getCleanedContent());
+                facts.setDuplicationLineIndexes(new ArrayList<>(cleanedContent.getFileLineIndexes()));
+                facts.setChanged(true);
+                return cleanedContent;
+            }
+            CleanedContent cleanedContent = new CleanedContent(facts.getDuplicationContent());
+            cleanedContent.setFileLineIndexes(new ArrayList<>(facts.getDuplicationLineIndexes()));
+            return cleanedContent;
+        }
+    }
+
+    // returns the lines found with each of the content expressions; the analysis is given the expressions the content
+    // has not been searched for yet
+    public Map<String, List<FoundLine>> getConcernMatches(SourceFile sourceFile, Collection<String> expressions,
+                                                          Function<Collection<String>, Map<String, List<FoundLine>>> analysis) {
+        ContentAnalysisFacts facts = getContentFacts(sourceFile);
+        if (facts == null) {
+            return analysis.apply(expressions);
+        }
+        synchronized (facts) {
+            if (facts.getConcernMatches() == null) {
+                facts.setConcernMatches(new HashMap<>());
+            }
+            Map<String, List<FoundLine>> matches = facts.getConcernMatches();
+            List<String> missingExpressions = new ArrayList<>();
+            expressions.stream().filter(expression -> !matches.containsKey(expression)).forEach(missingExpressions::add);
+            if (missingExpressions.size() > 0) {
+                Map<String, List<FoundLine>> foundLines = analysis.apply(missingExpressions);
+                missingExpressions.forEach(expression -> matches.put(expression, foundLines.getOrDefault(expression, new ArrayList<>())));
+                facts.setChanged(true);
+            }
+            Map<String, List<FoundLine>> result = new HashMap<>();
+            expressions.forEach(expression -> result.put(expression, matches.get(expression)));
+            return result;
+        }
+    }
+
+    public List<DependencyAnchor> getDependencyAnchors(SourceFile sourceFile, String extractor, Supplier<List<DependencyAnchor>> analysis) {
+        FileAnalysisFacts facts = getFacts(sourceFile);
+        if (facts == null) {
+            return analysis.get();
+        }
+        synchronized (facts) {
+            if (facts.getDependencyAnchors() == null) {
+                facts.setDependencyAnchors(new HashMap<>());
+            }
+            List<CachedDependencyAnchor> cachedAnchors = facts.getDependencyAnchors().get(extractor);
+            if (cachedAnchors == null) {
+                List<DependencyAnchor> anchors = analysis.get();
+                cachedAnchors = new ArrayList<>();
+                for (DependencyAnchor anchor : anchors) {
+                    cachedAnchors.add(new CachedDependencyAnchor(anchor));
+                }
+                facts.getDependencyAnchors().put(extractor, cachedAnchors);
+                return anchors;
+            }
+            List<DependencyAnchor> anchors = new ArrayList<>();
+            cachedAnchors.forEach(cachedAnchor -> anchors.add(cachedAnchor.toDependencyAnchor(sourceFile)));
+            return anchors;
+        }
+    }
+
+    private ContentAnalysisFacts getContentFacts(SourceFile sourceFile) {
+        FileAnalysisFacts fileFacts = getFacts(sourceFile);
+        if (fileFacts == null) {
+            return null;
+        }
+
+        String contentKey = fileFacts.getContentKey();
+        boolean saved;
+        synchronized (this) {
+            ContentAnalysisFacts facts = contentFacts.get(contentKey);
+            if (facts != null) {
+                return facts;
+            }
+            saved = previousContentKeys.contains(contentKey);
+        }
+
+        ContentAnalysisFacts facts = saved ? readContentFacts(contentKey) : null;
+
+        synchronized (this) {
+            ContentAnalysisFacts current = contentFacts.get(contentKey);
+            if (current != null) {
+                return current;
+            }
+            if (facts == null) {
+                facts = new ContentAnalysisFacts();
+            }
+            contentFacts.put(contentKey, facts);
+            return facts;
+        }
+    }
+
+    private ContentAnalysisFacts readContentFacts(String contentKey) {
+        File factsFile = getFactsFile(contentKey);
+        if (!factsFile.exists()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(factsFile, ContentAnalysisFacts.class);
+        } catch (IOException e) {
+            LOG.warn("Could not read the incremental analysis facts " + factsFile.getPath(), e);
+            return null;
+        }
+    }
+
+    private FileAnalysisFacts getFacts(SourceFile sourceFile) {
+        if (!enabled || sourceFile.getFile() == null) {
+            return null;
+        }
+
+        String path = sourceFile.getRelativePath() != null ? sourceFile.getRelativePath() : sourceFile.getFile().getPath();
+        FileAnalysisFacts previous;
+        synchronized (this) {
+            FileAnalysisFacts current = currentFacts.get(path);
+            if (current != null) {
+                return current;
+            }
+            previous = previousFacts.get(path);
+        }
+
+        File file = sourceFile.getFile();
+        long lastModified = file.lastModified();
+        long size = file.length();
+
+        FileAnalysisFacts facts;
+        boolean unchanged = false;
+        if (previous != null && previous.getLastModified() == lastModified && previous.getSize() == size) {
+            facts = previous;
+            unchanged = true;
+        } else {
+            String contentHash = getHash(sourceFile.getContent());
+            if (previous != null && contentHash.equals(previous.getContentHash())) {
+                previous.setLastModified(lastModified);
+                previous.setSize(size);
+                facts = previous;
+                unchanged = true;
+            } else {
+                facts = new FileAnalysisFacts(path, lastModified, size, contentHash);
+            }
+        }
+
+        synchronized (this) {
+            FileAnalysisFacts current = currentFacts.get(path);
+            if (current != null) {
+                return current;
+            }
+            currentFacts.put(path, facts);
+            if (unchanged) {
+                unchangedFiles++;
+            } else {
+                changedFiles++;
+            }
+            return facts;
+        }
+    }
+
+    public static String getHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return toHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // a hash of the class files of the analyzer (the classes under nl.obren.sokrates.sourcecode in the jar or the folder
+    // this class is loaded from); in a jar, the CRCs of the entries are used, so the classes do not have to be read
+    public static synchronized String getAnalyzerFingerprint() {
+        if (analyzerFingerprint == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                File location = new File(IncrementalAnalysisCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+                if (location.isDirectory()) {
+                    updateFingerprint(digest, new File(location, ANALYZER_PACKAGE_PATH), ANALYZER_PACKAGE_PATH);
+                } else {
+                    try (ZipFile jar = new ZipFile(location)) {
+                        List<ZipEntry> entries = new ArrayList<>();
+                        jar.stream().filter(entry -> entry.getName().startsWith(ANALYZER_PACKAGE_PATH)).forEach(entries::add);
+                        entries.sort(Comparator.comparing(ZipEntry::getName));
+                        for (ZipEntry entry : entries) {
+                            digest.update((entry.getName() + " " + entry.getCrc() + "\n").getBytes(StandardCharsets.UTF_8));
+                        }
+                    }
+                }
+                analyzerFingerprint = toHex(digest.digest());
+            } catch (Exception e) {
+                // a fingerprint that never matches, so that facts of unknown analyzers are not reused
+                LOG.warn("Could not fingerprint the analyzer classes, the incremental analysis cache will not be reused", e);
+                analyzerFingerprint = "unknown-" + System.currentTimeMillis();
+            }
+        }
+        return analyzerFingerprint;
+    }
+
+    private static void updateFingerprint(MessageDigest digest, File folder, String path) throws IOException {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        for (File file : files) {
+            if (file.isDirectory()) {
+                updateFingerprint(digest, file, path + file.getName() + "/");
+            } else {
+                digest.update((path + file.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+                digest.update(FileUtils.readFileToByteArray(file));
+            }
+        }
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int getUnchangedFiles() {
+        return unchangedFiles;
+    }
+
+    public synchronized int getChangedFiles() {
+        return changedFiles;
+    }
+
+    public synchronized String getStats() {
+        int removedFiles = 0;
+        for (String path : previousFacts.keySet()) {
+            if (!currentFacts.containsKey(path)) {
+                removedFiles++;
+            }
+        }
+        return "incremental analysis cache: " + unchangedFiles + " unchanged, " + changedFiles + " new or changed, "
+                + removedFiles + " removed files";
+    }
+}
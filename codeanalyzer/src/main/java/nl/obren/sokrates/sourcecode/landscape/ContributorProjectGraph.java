@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape;
+
+import nl.obren.sokrates.common.utils.LongIntMap;
+import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import nl.obren.sokrates.sourcecode.githistory.StringDictionary;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjectInfo;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+
+import java.util.*;
+
+/*
+ * An index of the contributors of a landscape and the projects they contributed to. Contributors (in the order of the
+ * list), case insensitive emails and project names get int IDs. The contributor -> project edges and the case
+ * insensitive email -> contributors lists are stored as CSR arrays (offsets into one array of targets). For each time
+ * window, a bitset of active edges (with at least one commit in the window) and a bitset of active contributors are
+ * calculated once, so the project counts, active contributors and project dependencies of a window do not rescan the
+ * commit dates or compare emails.
+ */
+public class ContributorProjectGraph {
+    private int contributorsCount;
+
+    private StringDictionary projects = new StringDictionary();
+    private int[] contributorEdges;
+    private int[] edgeProjects;
+    private int[][] edgeCommitDays;
+
+    private StringDictionary caseInsensitiveEmails = new StringDictionary();
+    private int[] caseInsensitiveEmailContributors;
+    private int[] caseInsensitiveEmailContributorIds;
+
+    private List<int[]> windows = new ArrayList<>();
+    private List<BitSet> activeEdges = new ArrayList<>();
+    private List<BitSet> activeContributors = new ArrayList<>();
+    private List<int[]> projectCounts = new ArrayList<>();
+
+    public ContributorProjectGraph(List<ContributorProjects> contributors) {
+        contributorsCount = contributors.size();
+        contributorEdges = new int[contributorsCount + 1];
+
+        int[] caseInsensitiveEmailIds = new int[contributorsCount];
+        int edgesCount = 0;
+        for (int i = 0; i < contributorsCount; i++) {
+            String email = contributors.get(i).getContributor().getEmail();
+            caseInsensitiveEmailIds[i] = caseInsensitiveEmails.getId(PeopleDependenciesCalculator.getCaseInsensitiveEmail(email));
+            edgesCount += contributors.get(i).getProjects().size();
+        }
+
+        edgeProjects = new int[edgesCount];
+        edgeCommitDays = new int[edgesCount][];
+        int edge = 0;
+        for (int i = 0; i < contributorsCount; i++) {
+            contributorEdges[i] = edge;
+            for (ContributorProjectInfo project : contributors.get(i).getProjects()) {
+                edgeProjects[edge] = projects.getId(project.getProjectAnalysisResults().getAnalysisResults().getMetadata().getName());
+                edgeCommitDays[edge] = project.getCommitEpochDays();
+                edge++;
+            }
+        }
+        contributorEdges[contributorsCount] = edge;
+
+        // counting sort of contributors by their case insensitive email
+        caseInsensitiveEmailContributors = new int[caseInsensitiveEmails.size() + 1];
+        for (int id : caseInsensitiveEmailIds) {
+            caseInsensitiveEmailContributors[id + 1]++;
+        }
+        for (int i = 0; i < caseInsensitiveEmails.size(); i++) {
+            caseInsensitiveEmailContributors[i + 1] += caseInsensitiveEmailContributors[i];
+        }
+        caseInsensitiveEmailContributorIds = new int[contributorsCount];
+        int[] next = Arrays.copyOf(caseInsensitiveEmailContributors, caseInsensitiveEmails.size());
+        for (int i = 0; i < contributorsCount; i++) {
+            caseInsensitiveEmailContributorIds[next[caseInsensitiveEmailIds[i]]++] = i;
+        }
+    }
+
+    // adds a window of commits made between daysAgo1 and daysAgo2 (inclusive) before the analysis date, and returns its index
+    public int addWindow(int daysAgo1, int daysAgo2) {
+        for (int i = 0; i < windows.size(); i++) {
+            if (windows.get(i)[0] == daysAgo1 && windows.get(i)[1] == daysAgo2) {
+                return i;
+            }
+        }
+
+        int today = DateUtils.getAnalysisEpochDay();
+        int from = today - daysAgo2;
+        int to = today - daysAgo1;
+        BitSet edges = new BitSet(edgeProjects.length);
+        BitSet contributors = new BitSet(contributorsCount);
+        for (int contributor = 0; contributor < contributorsCount; contributor++) {
+            for (int edge = contributorEdges[contributor]; edge < contributorEdges[contributor + 1]; edge++) {
+                for (int epochDay : edgeCommitDays[edge]) {
+                    if (epochDay >= from && epochDay <= to) {
+                        edges.set(edge);
+                        contributors.set(contributor);
+                        break;
+                    }
+                }
+            }
+        }
+
+        windows.add(new int[]{daysAgo1, daysAgo2});
+        activeEdges.add(edges);
+        activeContributors.add(contributors);
+        projectCounts.add(getProjectCounts(edges));
+        return windows.size() - 1;
+    }
+
+    // the number of distinct projects per case insensitive email
+    private int[] getProjectCounts(BitSet edges) {
+        int[] counts = new int[caseInsensitiveEmails.size()];
+        int[] lastEmail = new int[projects.size()];
+        Arrays.fill(lastEmail, -1);
+        for (int email = 0; email < counts.length; email++) {
+            for (int i = caseInsensitiveEmailContributors[email]; i < caseInsensitiveEmailContributors[email + 1]; i++) {
+                int contributor = caseInsensitiveEmailContributorIds[i];
+                for (int edge = edges.nextSetBit(contributorEdges[contributor]); edge >= 0 && edge < contributorEdges[contributor + 1]; edge = edges.nextSetBit(edge + 1)) {
+                    int project = edgeProjects[edge];
+                    if (lastEmail[project] != email) {
+                        lastEmail[project] = email;
+                        counts[email]++;
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    // the number of projects a contributor (with a case insensitive email) contributed to in the window
+    public int getProjectCount(int window, String email) {
+        int id = caseInsensitiveEmails.findId(PeopleDependenciesCalculator.getCaseInsensitiveEmail(email));
+        return id >= 0 ? projectCounts.get(window)[id] : 0;
+    }
+
+    public int getActiveContributorsCount(int window) {
+        return activeContributors.get(window).cardinality();
+    }
+
+    // pairs of projects with the same contributors in the window, counted for each contributor in both directions
+    public List<ComponentDependency> getProjectDependenciesViaPeople(int window) {
+        BitSet edges = activeEdges.get(window);
+        List<ComponentDependency> dependencies = new ArrayList<>();
+        LongIntMap dependencyIndexes = new LongIntMap();
+        int[] contributorProjects = new int[16];
+
+        for (int contributor = activeContributors.get(window).nextSetBit(0); contributor >= 0; contributor = activeContributors.get(window).nextSetBit(contributor + 1)) {
+            int count = 0;
+            for (int edge = edges.nextSetBit(contributorEdges[contributor]); edge >= 0 && edge < contributorEdges[contributor + 1]; edge = edges.nextSetBit(edge + 1)) {
+                if (count == contributorProjects.length) {
+                    contributorProjects = Arrays.copyOf(contributorProjects, count * 2);
+                }
+                contributorProjects[count++] = edgeProjects[edge];
+            }
+            for (int i = 0; i < count; i++) {
+                for (int j = 0; j < count; j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    int project1 = contributorProjects[i];
+                    int project2 = contributorProjects[j];
+                    long key = LongIntMap.getKey(Math.min(project1, project2), Math.max(project1, project2));
+                    int index = dependencyIndexes.get(key);
+                    if (index < 0) {
+                        dependencyIndexes.put(key, dependencies.size());
+                        dependencies.add(new ComponentDependency(projects.getValue(project1), projects.getValue(project2)));
+                    } else {
+                        dependencies.get(index).increment(1);
+                    }
+                }
+            }
+        }
+
+        // in the iteration order of a map of names, as it used to be
+        Map<String, ComponentDependency> dependenciesByName = new HashMap<>();
+        dependencies.forEach(dependency -> dependenciesByName.put(dependency.getFromComponent() + "::" + dependency.getToComponent(), dependency));
+        List<ComponentDependency> projectDependencies = new ArrayList<>(dependenciesByName.values());
+        projectDependencies.sort((a, b) -> b.getCount() - a.getCount());
+
+        return projectDependencies;
+    }
+
+    public int getContributorsCount() {
+        return contributorsCount;
+    }
+
+    public int getProjectsCount() {
+        return projects.size();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape;
+
+import nl.obren.sokrates.common.utils.LongIntMap;
+import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
+import nl.obren.sokrates.sourcecode.filehistory.CommitInfo;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
+import nl.obren.sokrates.sourcecode.githistory.StringDictionary;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjectInfo;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+
+import java.util.*;
+
+/*
+ * Calculates people dependencies (pairs of contributors who changed the same files, or contributed to the same
+ * projects) for several time windows in one pass over the commits. Contributors, files and projects get int IDs, each
+ * commit date is checked once against all windows (giving a bit mask of windows), and each (file or project,
+ * contributor) touch is added to all its windows at once. Pairs of contributors are looked up by a long key packed
+ * from both IDs.
+ *
+ * The dependencies of each window are the same, and in the same order, as the ones of the single window methods in
+ * ContributorConnectionUtils used to be. For that, commits are visited in the order of the history (not sorted by
+ * date), and files and projects are visited in the iteration order of a HashMap of their names.
+ */
+public class PeopleDependenciesCalculator {
+    private List<int[]> windows = new ArrayList<>();
+
+    private StringDictionary emails = new StringDictionary();
+    private StringDictionary caseInsensitiveEmails = new StringDictionary();
+    private int[] caseInsensitiveEmailIds = new int[1024];
+    private int emailsCount = 0;
+    private StringDictionary items = new StringDictionary();
+
+    // windows in which a contributor has already been added to a file or a project
+    private LongIntMap touchedWindows = new LongIntMap();
+
+    private List<WindowContributions> contributions = new ArrayList<>();
+
+    // adds a window of commits made between daysAgo1 and daysAgo2 (inclusive) before the analysis date, and returns its index
+    public int addWindow(int daysAgo1, int daysAgo2) {
+        for (int i = 0; i < windows.size(); i++) {
+            if (windows.get(i)[0] == daysAgo1 && windows.get(i)[1] == daysAgo2) {
+                return i;
+            }
+        }
+        if (windows.size() == 32) {
+            throw new IllegalStateException("At most 32 windows are supported.");
+        }
+        windows.add(new int[]{daysAgo1, daysAgo2});
+        contributions.add(new WindowContributions());
+        return windows.size() - 1;
+    }
+
+    public void addFileHistories(List<FileModificationHistory> history) {
+        for (FileModificationHistory fileModificationHistory : history) {
+            int path = items.getId(fileModificationHistory.getPath());
+            for (CommitInfo commit : fileModificationHistory.getCommits()) {
+                int mask = getWindowsMask(DateUtils.toEpochDay(commit.getDate()));
+                if (mask != 0) {
+                    addTouch(path, getEmailId(commit.getEmail()), mask);
+                }
+            }
+        }
+    }
+
+    public void addContributorProjects(List<ContributorProjects> contributors) {
+        for (ContributorProjects contributorProjects : contributors) {
+            int email = getEmailId(contributorProjects.getContributor().getEmail());
+            for (ContributorProjectInfo project : contributorProjects.getProjects()) {
+                int mask = 0;
+                for (int epochDay : project.getCommitEpochDays()) {
+                    mask |= getWindowsMask(epochDay);
+                }
+                if (mask == 0) {
+                    continue;
+                }
+                int projectId = items.getId(project.getProjectAnalysisResults().getAnalysisResults().getMetadata().getName());
+                addTouch(projectId, email, mask);
+            }
+        }
+    }
+
+    // people dependencies via files: the paths of shared files are in the data of dependencies, sorted by the count of shared files
+    public List<ComponentDependency> getFileDependencies(int window) {
+        List<ComponentDependency> dependencies = getDependencies(window, true);
+        dependencies.sort((a, b) -> b.getCount() - a.getCount());
+        return dependencies;
+    }
+
+    // people dependencies via projects, in the order in which they are found
+    public List<ComponentDependency> getProjectDependencies(int window) {
+        return getDependencies(window, false);
+    }
+
+    private List<ComponentDependency> getDependencies(int window, boolean withData) {
+        WindowContributions windowContributions = contributions.get(window);
+
+        Map<String, Integer> itemsByName = new HashMap<>();
+        for (int i = 0; i < windowContributions.itemsCount; i++) {
+            int item = windowContributions.items[i];
+            itemsByName.put(items.getValue(item), item);
+        }
+
+        List<ComponentDependency> dependencies = new ArrayList<>();
+        int[] lastItems = new int[1024];
+        LongIntMap dependencyIndexes = new LongIntMap();
+
+        for (int item : itemsByName.values()) {
+            int[] itemEmails = windowContributions.emails[item];
+            int count = windowContributions.emailsCounts[item];
+            for (int i = 0; i < count; i++) {
+                int email1 = itemEmails[i];
+                for (int j = 0; j < count; j++) {
+                    int email2 = itemEmails[j];
+                    if (caseInsensitiveEmailIds[email1] == caseInsensitiveEmailIds[email2]) {
+                        continue;
+                    }
+                    long key = LongIntMap.getKey(Math.min(email1, email2), Math.max(email1, email2));
+                    int index = dependencyIndexes.get(key);
+                    if (index < 0) {
+                        ComponentDependency dependency = new ComponentDependency(emails.getValue(email1), emails.getValue(email2));
+                        if (withData) {
+                            dependency.getData().add(items.getValue(item));
+                        }
+                        index = dependencies.size();
+                        dependencyIndexes.put(key, index);
+                        dependencies.add(dependency);
+                        if (index == lastItems.length) {
+                            lastItems = Arrays.copyOf(lastItems, index * 2);
+                        }
+                        lastItems[index] = item;
+                    } else if (lastItems[index] != item) {
+                        ComponentDependency dependency = dependencies.get(index);
+                        if (withData) {
+                            dependency.getData().add(items.getValue(item));
+                        }
+                        dependency.increment(1);
+                        lastItems[index] = item;
+                    }
+                }
+            }
+        }
+
+        return dependencies;
+    }
+
+    private void addTouch(int item, int email, int mask) {
+        long key = LongIntMap.getKey(item, email);
+        int touched = Math.max(0, touchedWindows.get(key));
+        int newWindows = mask & ~touched;
+        if (newWindows != 0) {
+            touchedWindows.put(key, touched | mask);
+            forEachWindow(newWindows, window -> contributions.get(window).add(item, email));
+        }
+    }
+
+    private int getWindowsMask(int epochDay) {
+        int today = DateUtils.getAnalysisEpochDay();
+        int mask = 0;
+        for (int i = 0; i < windows.size(); i++) {
+            int[] window = windows.get(i);
+            if (epochDay >= today - window[1] && epochDay <= today - window[0]) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private int getEmailId(String email) {
+        int id = emails.getId(email);
+        if (id == emailsCount) {
+            if (id == caseInsensitiveEmailIds.length) {
+                caseInsensitiveEmailIds = Arrays.copyOf(caseInsensitiveEmailIds, id * 2);
+            }
+            caseInsensitiveEmailIds[id] = caseInsensitiveEmails.getId(getCaseInsensitiveEmail(email));
+            emailsCount++;
+        }
+        return id;
+    }
+
+    // two emails are the same (ignoring case) in the same way as with String.equalsIgnoreCase
+    static String getCaseInsensitiveEmail(String email) {
+        char[] chars = email.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static void forEachWindow(int mask, WindowConsumer consumer) {
+        while (mask != 0) {
+            consumer.accept(Integer.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+    }
+
+    private interface WindowConsumer {
+        void accept(int window);
+    }
+
+    // the files or projects touched in a window, in the order of the first touch, with their contributors in the same order
+    private static class WindowContributions {
+        private int[] items = new int[1024];
+        private int itemsCount = 0;
+        private int[][] emails = new int[1024][];
+        private int[] emailsCounts = new int[1024];
+
+        private void add(int item, int email) {
+            if (item >= emails.length) {
+                int length = Math.max(item + 1, emails.length * 2);
+                emails = Arrays.copyOf(emails, length);
+                emailsCounts = Arrays.copyOf(emailsCounts, length);
+            }
+            int[] itemEmails = emails[item];
+            if (itemEmails == null) {
+                itemEmails = new int[4];
+                emails[item] = itemEmails;
+                if (itemsCount == items.length) {
+                    items = Arrays.copyOf(items, itemsCount * 2);
+                }
+                items[itemsCount++] = item;
+            }
+            int count = emailsCounts[item];
+            if (count == itemEmails.length) {
+                itemEmails = Arrays.copyOf(itemEmails, count * 2);
+                emails[item] = itemEmails;
+            }
+            itemEmails[count] = email;
+            emailsCounts[item] = count + 1;
+        }
+    }
+}
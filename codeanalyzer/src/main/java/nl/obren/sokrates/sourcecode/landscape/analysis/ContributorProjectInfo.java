@@ -1,5 +1,8 @@
 package nl.obren.sokrates.sourcecode.landscape.analysis;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +14,7 @@ public class ContributorProjectInfo {
     private int commits30Days;
     private int commits90Days;
     private List<String> commitDates = new ArrayList<>();
+    private transient int[] commitEpochDays = null;
 
     public ContributorProjectInfo() {
     }
@@ -64,6 +68,25 @@ public class ContributorProjectInfo {
 
     public void setCommitDates(List<String> commitDates) {
         this.commitDates = commitDates;
+        this.commitEpochDays = null;
+    }
+
+    @JsonIgnore
+    public void addCommitDate(String date) {
+        if (!commitDates.contains(date)) {
+            commitDates.add(date);
+            commitEpochDays = null;
+        }
+    }
+
+    // the commit dates as epoch days, parsed once and again only after the commit dates are set or added
+    // (with setCommitDates or addCommitDate)
+    @JsonIgnore
+    public int[] getCommitEpochDays() {
+        if (commitEpochDays == null) {
+            commitEpochDays = DateUtils.toEpochDays(commitDates);
+        }
+        return commitEpochDays;
     }
 
     public int getCommits30Days() {
@@ -28,11 +28,7 @@ public class ContributorProjects {
             projectByPath.setCommits30Days(projectByPath.getCommits30Days() + commits30Days);
             projectByPath.setCommits90Days(projectByPath.getCommits90Days() + commits90Days);
             projectByPath.setCommitsCount(projectByPath.getCommitsCount() + commitsCount);
-            commitDates.forEach(date -> {
-                if (!projectByPath.getCommitDates().contains(date)) {
-                    projectByPath.getCommitDates().add(date);
-                }
-            });
+            commitDates.forEach(projectByPath::addCommitDate);
         } else {
             projects.add(new ContributorProjectInfo(projectAnalysisResults, firstCommitDate, latestCommitDate,
                     commitsCount, commits30Days, commits90Days, commitDates));
@@ -341,6 +341,7 @@ public class LandscapeAnalysisResults {
     public List<CommitsPerExtension> getContributorsPerExtension() {
         int thresholdCommits = configuration.getContributorThresholdCommits();
         Map<String, CommitsPerExtension> commitsPerExtensions = new HashMap<>();
+        Map<List<String>, Set<String>> committerSets = new IdentityHashMap<>();
 
         getAllExtension().forEach(extension -> {
             commitsPerExtensions.put(extension, new CommitsPerExtension(extension));
@@ -362,21 +363,9 @@ public class LandscapeAnalysisResults {
                     commitsPerExtension.setFilesCount30Days(commitsPerExtension.getFilesCount30Days() + projectExtData.getFilesCount30Days());
                     commitsPerExtension.setFilesCount90Days(commitsPerExtension.getFilesCount90Days() + projectExtData.getFilesCount90Days());
 
-                    projectExtData.getCommitters().forEach(email -> {
-                        if (!commitsPerExtension.getCommitters().contains(email)) {
-                            commitsPerExtension.getCommitters().add(email);
-                        }
-                    });
-                    projectExtData.getCommitters30Days().forEach(email -> {
-                        if (!commitsPerExtension.getCommitters30Days().contains(email)) {
-                            commitsPerExtension.getCommitters30Days().add(email);
-                        }
-                    });
-                    projectExtData.getCommitters90Days().forEach(email -> {
-                        if (!commitsPerExtension.getCommitters90Days().contains(email)) {
-                            commitsPerExtension.getCommitters90Days().add(email);
-                        }
-                    });
+                    addDistinct(committerSets, commitsPerExtension.getCommitters(), projectExtData.getCommitters());
+                    addDistinct(committerSets, commitsPerExtension.getCommitters30Days(), projectExtData.getCommitters30Days());
+                    addDistinct(committerSets, commitsPerExtension.getCommitters90Days(), projectExtData.getCommitters90Days());
                 }
             });
         });
@@ -394,15 +383,9 @@ public class LandscapeAnalysisResults {
                 primary.setFilesCount(primary.getFilesCount() + secondary.getFilesCount());
                 primary.setFilesCount30Days(primary.getFilesCount30Days() + secondary.getFilesCount30Days());
                 primary.setFilesCount90Days(primary.getFilesCount90Days() + secondary.getFilesCount90Days());
-                secondary.getCommitters().stream()
-                        .filter(c -> !primary.getCommitters().contains(c))
-                        .forEach(commiter -> primary.getCommitters().add(commiter));
-                secondary.getCommitters30Days().stream()
-                        .filter(c -> !primary.getCommitters30Days().contains(c))
-                        .forEach(commiter -> primary.getCommitters30Days().add(commiter));
-                secondary.getCommitters90Days().stream()
-                        .filter(c -> !primary.getCommitters90Days().contains(c))
-                        .forEach(commiter -> primary.getCommitters90Days().add(commiter));
+                addDistinct(committerSets, primary.getCommitters(), secondary.getCommitters());
+                addDistinct(committerSets, primary.getCommitters30Days(), secondary.getCommitters30Days());
+                addDistinct(committerSets, primary.getCommitters90Days(), secondary.getCommitters90Days());
 
                 commitsPerExtensions.remove(merge.getSecondary());
             }
@@ -414,6 +397,11 @@ public class LandscapeAnalysisResults {
         return list;
     }
 
+    private static void addDistinct(Map<List<String>, Set<String>> sets, List<String> target, List<String> values) {
+        Set<String> existing = sets.computeIfAbsent(target, list -> new HashSet<>(list));
+        values.stream().filter(existing::add).forEach(target::add);
+    }
+
     @JsonIgnore
     private List<ContributorProjects> getAllContributors() {
         List<ContributorProjects> list = new ArrayList<>();
@@ -464,11 +452,7 @@ public class LandscapeAnalysisResults {
                             contributorInfo.getActiveYears().add(activeYear);
                         }
                     });
-                    contributor.getCommitDates().forEach(commitDate -> {
-                        if (!contributorInfo.getCommitDates().contains(commitDate)) {
-                            contributorInfo.getCommitDates().add(commitDate);
-                        }
-                    });
+                    contributor.getCommitDates().forEach(contributorInfo::addCommitDate);
 
                     existingContributor.addProject(projectAnalysisResults,
                             firstCommitDate, latestCommitDate,
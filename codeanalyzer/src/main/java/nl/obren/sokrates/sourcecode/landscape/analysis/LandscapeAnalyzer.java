@@ -5,14 +5,15 @@
 package nl.obren.sokrates.sourcecode.landscape.analysis;
 
 import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
-import nl.obren.sokrates.sourcecode.analysis.results.FilesAnalysisResults;
-import nl.obren.sokrates.sourcecode.analysis.results.UnitsAnalysisResults;
 import nl.obren.sokrates.sourcecode.contributors.Contributor;
 import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
 import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
 import nl.obren.sokrates.sourcecode.landscape.ContributorConnectionUtils;
+import nl.obren.sokrates.sourcecode.landscape.ContributorProjectGraph;
 import nl.obren.sokrates.sourcecode.landscape.LandscapeConfiguration;
+import nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesCalculator;
 import nl.obren.sokrates.sourcecode.landscape.SokratesProjectLink;
 import org.apache.commons.io.FileUtils;
 
@@ -20,13 +21,29 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+/*
+ * Loads the analysis results of all projects of a landscape and aggregates them. Projects are loaded in parallel (see
+ * ProjectAnalysisResultsLoader), and added to the landscape in the order of the configuration. People dependencies of
+ * all time windows (the past 30, 90 and 180 days, and each of the past 12 months) are calculated in one pass over the
+ * contributors (see PeopleDependenciesCalculator), and the project counts and active contributors of the windows come
+ * from an indexed contributor -> project graph (see ContributorProjectGraph).
+ */
 public class LandscapeAnalyzer {
+    private static final int HISTORY_MONTHS = 12;
+
     private File landscapeConfigurationFile;
     private LandscapeConfiguration landscapeConfiguration;
+    private int threads = 1;
+
+    public LandscapeAnalyzer() {
+    }
+
+    public LandscapeAnalyzer(int threads) {
+        this.threads = threads;
+    }
 
     public LandscapeAnalysisResults analyze(File landscapeConfigFile) {
         this.landscapeConfigurationFile = landscapeConfigFile;
@@ -38,21 +55,27 @@ public class LandscapeAnalyzer {
             System.out.println(json);
             this.landscapeConfiguration = (LandscapeConfiguration) new JsonMapper().getObject(json, LandscapeConfiguration.class);
             landscapeAnalysisResults.setConfiguration(landscapeConfiguration);
-            landscapeConfiguration.getProjects().forEach(link -> {
-                System.out.println("Analysing " + link.getAnalysisResultsPath() + "...");
-                CodeAnalysisResults projectAnalysisResults = this.getProjectAnalysisResults(link);
-                if (projectAnalysisResults != null) {
+            ProjectAnalysisResultsLoader loader = new ProjectAnalysisResultsLoader();
+            ParallelBatches batches = new ParallelBatches(threads);
+            try {
+                batches.forEachInOrder(landscapeConfiguration.getProjects(), link -> this.getProjectAnalysisResults(loader, link), (link, projectAnalysisResults) -> {
+                    System.out.println("Analysing " + link.getAnalysisResultsPath() + "...");
+                    if (projectAnalysisResults == null) {
+                        return;
+                    }
                     landscapeAnalysisResults.getProjectAnalysisResults().add(new ProjectAnalysisResults(link, projectAnalysisResults));
-                }
-                projectAnalysisResults.getContributorsAnalysisResults().getContributors().forEach(contributor -> {
-                    contributor.getCommitDates().forEach(commitDate -> {
-                        if (landscapeAnalysisResults.getLatestCommitDate() == "" || commitDate.compareTo(landscapeAnalysisResults.getLatestCommitDate()) > 0) {
-                            landscapeAnalysisResults.setLatestCommitDate(commitDate);
-                            DateUtils.setLatestCommitDate(commitDate);
-                        }
+                    projectAnalysisResults.getContributorsAnalysisResults().getContributors().forEach(contributor -> {
+                        contributor.getCommitDates().forEach(commitDate -> {
+                            if (landscapeAnalysisResults.getLatestCommitDate() == "" || commitDate.compareTo(landscapeAnalysisResults.getLatestCommitDate()) > 0) {
+                                landscapeAnalysisResults.setLatestCommitDate(commitDate);
+                                DateUtils.setLatestCommitDate(commitDate);
+                            }
+                        });
                     });
                 });
-            });
+            } finally {
+                batches.shutdown();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -65,19 +88,30 @@ public class LandscapeAnalyzer {
     private void updatePeopleDependencies(LandscapeAnalysisResults landscapeAnalysisResults) {
         System.out.println("Updating people dependencies....");
         List<ContributorProjects> contributors = landscapeAnalysisResults.getContributors();
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        ContributorProjectGraph graph = new ContributorProjectGraph(contributors);
+        int window30Days = addWindow(calculator, graph, 0, 30);
+        int window90Days = addWindow(calculator, graph, 0, 90);
+        int window180Days = addWindow(calculator, graph, 0, 180);
+        int[] historyWindows = new int[HISTORY_MONTHS];
+        for (int i = 0; i < HISTORY_MONTHS; i++) {
+            historyWindows[i] = addWindow(calculator, graph, i * 30, (i + 1) * 30);
+        }
+        calculator.addContributorProjects(contributors);
+
         System.out.println("Updating people dependencies in past 30d....");
-        List<ComponentDependency> peopleDependencies30Days = ContributorConnectionUtils.getPeopleDependencies(contributors, 0, 30);
+        List<ComponentDependency> peopleDependencies30Days = calculator.getProjectDependencies(window30Days);
         landscapeAnalysisResults.setPeopleDependencies30Days(peopleDependencies30Days);
         System.out.println("Updating people dependencies in past 90d....");
-        List<ComponentDependency> peopleDependencies90Days = ContributorConnectionUtils.getPeopleDependencies(contributors, 0, 90);
+        List<ComponentDependency> peopleDependencies90Days = calculator.getProjectDependencies(window90Days);
         landscapeAnalysisResults.setPeopleDependencies90Days(peopleDependencies90Days);
         System.out.println("Updating people dependencies in past 180d....");
-        List<ComponentDependency> peopleDependencies180Days = ContributorConnectionUtils.getPeopleDependencies(contributors, 0, 180);
+        List<ComponentDependency> peopleDependencies180Days = calculator.getProjectDependencies(window180Days);
         landscapeAnalysisResults.setPeopleDependencies180Days(peopleDependencies180Days);
 
-        List<ContributorConnections> connectionsViaProjects30Days = ContributorConnectionUtils.getConnectionsViaProjects(contributors, peopleDependencies30Days, 0, 30);
-        List<ContributorConnections> connectionsViaProjects90Days = ContributorConnectionUtils.getConnectionsViaProjects(contributors, peopleDependencies90Days, 0, 90);
-        List<ContributorConnections> connectionsViaProjects180Days = ContributorConnectionUtils.getConnectionsViaProjects(contributors, peopleDependencies180Days, 0, 180);
+        List<ContributorConnections> connectionsViaProjects30Days = ContributorConnectionUtils.getConnectionsViaProjects(graph, window30Days, peopleDependencies30Days);
+        List<ContributorConnections> connectionsViaProjects90Days = ContributorConnectionUtils.getConnectionsViaProjects(graph, window90Days, peopleDependencies90Days);
+        List<ContributorConnections> connectionsViaProjects180Days = ContributorConnectionUtils.getConnectionsViaProjects(graph, window180Days, peopleDependencies180Days);
 
         landscapeAnalysisResults.setConnectionsViaProjects30Days(connectionsViaProjects30Days);
         landscapeAnalysisResults.setConnectionsViaProjects90Days(connectionsViaProjects90Days);
@@ -114,17 +148,21 @@ public class LandscapeAnalyzer {
         landscapeAnalysisResults.setC2pConnectionsCount30Days(connectionsViaProjects30Days.stream().mapToInt(c -> c.getConnectionsCount()).sum());
 
         System.out.println("Adding history....");
-        addHistory(landscapeAnalysisResults);
+        addHistory(landscapeAnalysisResults, calculator, graph, historyWindows);
         System.out.println("Done updating people dependencies.");
     }
 
-    private void addHistory(LandscapeAnalysisResults landscapeAnalysisResults) {
-        List<ContributorProjects> contributors = landscapeAnalysisResults.getContributors();
-        for (int i = 0; i < 12; i++) {
-            int daysAgo1 = i * 30;
-            int daysAgo2 = (i + 1) * 30;
-            List<ComponentDependency> peopleDependencies30Days = ContributorConnectionUtils.getPeopleDependencies(contributors, daysAgo1, daysAgo2);
-            List<ContributorConnections> connectionsViaProjects30Days = ContributorConnectionUtils.getConnectionsViaProjects(contributors, peopleDependencies30Days, daysAgo1, daysAgo2);
+    // the windows of the calculator and of the graph have the same indexes
+    private static int addWindow(PeopleDependenciesCalculator calculator, ContributorProjectGraph graph, int daysAgo1, int daysAgo2) {
+        int window = calculator.addWindow(daysAgo1, daysAgo2);
+        graph.addWindow(daysAgo1, daysAgo2);
+        return window;
+    }
+
+    private void addHistory(LandscapeAnalysisResults landscapeAnalysisResults, PeopleDependenciesCalculator calculator, ContributorProjectGraph graph, int[] historyWindows) {
+        for (int window : historyWindows) {
+            List<ComponentDependency> peopleDependencies30Days = calculator.getProjectDependencies(window);
+            List<ContributorConnections> connectionsViaProjects30Days = ContributorConnectionUtils.getConnectionsViaProjects(graph, window, peopleDependencies30Days);
             landscapeAnalysisResults.getcIndex30DaysHistory().add(ContributorConnectionUtils.getCIndex(connectionsViaProjects30Days));
             landscapeAnalysisResults.getpIndex30DaysHistory().add(ContributorConnectionUtils.getPIndex(connectionsViaProjects30Days));
             landscapeAnalysisResults.getcMean30DaysHistory().add(ContributorConnectionUtils.getCMean(connectionsViaProjects30Days));
@@ -134,12 +172,18 @@ public class LandscapeAnalyzer {
             int connectionSum = connectionsViaProjects30Days.stream().mapToInt(c -> c.getConnectionsCount()).sum();
             landscapeAnalysisResults.getConnectionsViaProjects30DaysCountHistory().add((double) connectionSum);
             landscapeAnalysisResults.getPeopleDependenciesCount30DaysHistory().add((double) peopleDependencies30Days.size());
-            landscapeAnalysisResults.getActiveContributors30DaysHistory().add((double) ContributorConnectionUtils.getContributorsActiveInPeriodCount(contributors, daysAgo1, daysAgo2));
+            landscapeAnalysisResults.getActiveContributors30DaysHistory().add((double) graph.getActiveContributorsCount(window));
         }
     }
 
-    private CodeAnalysisResults getProjectAnalysisResults(SokratesProjectLink sokratesProjectLink) {
-        return getProjectAnalysisResults(getProjectAnalysisFile(sokratesProjectLink));
+    private CodeAnalysisResults getProjectAnalysisResults(ProjectAnalysisResultsLoader loader, SokratesProjectLink sokratesProjectLink) {
+        try {
+            return loader.load(getProjectAnalysisFile(sokratesProjectLink));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return null;
     }
 
     private File getProjectAnalysisFile(SokratesProjectLink sokratesProjectLink) {
@@ -149,28 +193,4 @@ public class LandscapeAnalyzer {
         }
         return Paths.get(analysisRoot, sokratesProjectLink.getAnalysisResultsPath()).toFile();
     }
-
-    private CodeAnalysisResults getProjectAnalysisResults(File projectAnalysisResultsFile) {
-        try {
-            String json = FileUtils.readFileToString(projectAnalysisResultsFile, StandardCharsets.UTF_8);
-            CodeAnalysisResults codeAnalysisResults = (CodeAnalysisResults) new JsonMapper().getObject(json, CodeAnalysisResults.class);
-            codeAnalysisResults.setUnitsAnalysisResults(new UnitsAnalysisResults());
-            codeAnalysisResults.setFilesAnalysisResults(new FilesAnalysisResults());
-            codeAnalysisResults.setAllDependencies(new ArrayList<>());
-            codeAnalysisResults.setFilesExcludedByExtension(new ArrayList<>());
-            if (codeAnalysisResults.getMainAspectAnalysisResults().getAspect() != null) {
-                codeAnalysisResults.getMainAspectAnalysisResults().getAspect().getSourceFiles().clear();
-                codeAnalysisResults.getTestAspectAnalysisResults().getAspect().getSourceFiles().clear();
-                codeAnalysisResults.getGeneratedAspectAnalysisResults().getAspect().getSourceFiles().clear();
-                codeAnalysisResults.getBuildAndDeployAspectAnalysisResults().getAspect().getSourceFiles().clear();
-                codeAnalysisResults.getOtherAspectAnalysisResults().getAspect().getSourceFiles().clear();
-            }
-
-            return codeAnalysisResults;
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return null;
-    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape.analysis;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.sourcecode.Metadata;
+import nl.obren.sokrates.sourcecode.analysis.results.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+ * Loads the parts of a project's analysisResults.json that the landscape analysis and reports use: the metadata, the
+ * goals and controls, the size of the aspects, the contributors and the summary of the file history. The file is read
+ * with a streaming parser, and all other fields (units, duplicates, file lists, metrics, components...) are skipped
+ * without creating any objects, so the memory and the time needed to load a project do not depend on these details.
+ */
+public class ProjectAnalysisResultsLoader {
+    private static final Set<String> ASPECT_FIELDS = new HashSet<>(Arrays.asList(
+            "name", "filesCount", "linesOfCode", "numberOfRegexLineMatches", "fileCountPerExtension", "linesOfCodePerExtension"));
+    private static final Set<String> FILES_HISTORY_FIELDS = new HashSet<>(Arrays.asList(
+            "overallFileLastModifiedDistribution", "overallFileFirstModifiedDistribution", "overallFileChangeDistribution",
+            "firstDate", "latestDate", "daysBetweenFirstAndLastDate", "weeks", "estimatedWorkindDays", "activeDays", "ageInDays"));
+
+    private ObjectMapper mapper = new JsonMapper().getObjectMapper();
+
+    public CodeAnalysisResults load(File analysisResultsFile) throws IOException {
+        CodeAnalysisResults results = new CodeAnalysisResults();
+
+        try (JsonParser parser = mapper.getFactory().createParser(analysisResultsFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The analysis results file " + analysisResultsFile.getPath() + " does not contain a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "metadata":
+                        results.setMetadata(mapper.readValue(parser, Metadata.class));
+                        break;
+                    case "controlResults":
+                        results.setControlResults(mapper.readValue(parser, ControlsAnalysisResults.class));
+                        break;
+                    case "mainAspectAnalysisResults":
+                        results.setMainAspectAnalysisResults(readFields(parser, new AspectAnalysisResults(), ASPECT_FIELDS));
+                        break;
+                    case "testAspectAnalysisResults":
+                        results.setTestAspectAnalysisResults(readFields(parser, new AspectAnalysisResults(), ASPECT_FIELDS));
+                        break;
+                    case "generatedAspectAnalysisResults":
+                        results.setGeneratedAspectAnalysisResults(readFields(parser, new AspectAnalysisResults(), ASPECT_FIELDS));
+                        break;
+                    case "buildAndDeployAspectAnalysisResults":
+                        results.setBuildAndDeployAspectAnalysisResults(readFields(parser, new AspectAnalysisResults(), ASPECT_FIELDS));
+                        break;
+                    case "otherAspectAnalysisResults":
+                        results.setOtherAspectAnalysisResults(readFields(parser, new AspectAnalysisResults(), ASPECT_FIELDS));
+                        break;
+                    case "filesHistoryAnalysisResults":
+                        results.setFilesHistoryAnalysisResults(readFields(parser, new FilesHistoryAnalysisResults(), FILES_HISTORY_FIELDS));
+                        break;
+                    case "contributorsAnalysisResults":
+                        results.setContributorsAnalysisResults(mapper.readValue(parser, ContributorsAnalysisResults.class));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        return results;
+    }
+
+    // reads only the given fields of the current JSON object into the target object, and skips the others
+    private <T> T readFields(JsonParser parser, T target, Set<String> fields) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return target;
+        }
+        ObjectNode selectedFields = mapper.createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (fields.contains(field)) {
+                selectedFields.set(field, mapper.readTree(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return mapper.readerForUpdating(target).readValue(selectedFields);
+    }
+}
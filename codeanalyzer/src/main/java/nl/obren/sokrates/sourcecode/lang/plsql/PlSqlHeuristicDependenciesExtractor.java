@@ -5,7 +5,6 @@ import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
 import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
 import nl.obren.sokrates.sourcecode.dependencies.DependencyAnchor;
 import nl.obren.sokrates.sourcecode.dependencies.HeuristicDependenciesExtractor;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import org.apache.commons.io.FilenameUtils;
 
 import java.util.ArrayList;
@@ -89,8 +88,7 @@ public class PlSqlHeuristicDependenciesExtractor extends HeuristicDependenciesEx
     }
 
     private CleanedContent getCleanContent(SourceFile sourceFile) {
-        CleanedContent normallyCleanedContent = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile)
-                .cleanForLinesOfCodeCalculations(sourceFile);
+        CleanedContent normallyCleanedContent = sourceFile.getCleanedContentForLinesOfCode();
         normallyCleanedContent.setCleanedContent(extraCleanContent(normallyCleanedContent.getCleanedContent()));
 
         return normallyCleanedContent;
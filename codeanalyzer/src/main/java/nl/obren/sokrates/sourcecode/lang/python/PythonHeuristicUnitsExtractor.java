@@ -7,7 +7,6 @@ package nl.obren.sokrates.sourcecode.lang.python;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
 import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import nl.obren.sokrates.sourcecode.units.UnitInfo;
 import org.apache.commons.lang3.StringUtils;
 
@@ -66,8 +65,7 @@ public class PythonHeuristicUnitsExtractor {
     }
 
     private CleanedContent getCleanContent(SourceFile sourceFile) {
-        CleanedContent normallyCleanedContent = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile)
-                .cleanForLinesOfCodeCalculations(sourceFile);
+        CleanedContent normallyCleanedContent = sourceFile.getCleanedContentForLinesOfCode();
         normallyCleanedContent.setCleanedContent(extraCleanContent(normallyCleanedContent.getCleanedContent()));
         return normallyCleanedContent;
     }
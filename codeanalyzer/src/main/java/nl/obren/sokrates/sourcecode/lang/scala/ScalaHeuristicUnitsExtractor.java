@@ -10,14 +10,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ScalaHeuristicUnitsExtractor extends CStyleHeuristicUnitsExtractor {
+    private static final Pattern START_UNIT_PATTERN = Pattern.compile("(.* |)def .*");
+
     @Override
     public boolean isUnitSignature(String line) {
         line = extraCleanContent(line);
         if (hasMinimalRequirementsForUnitStart(line)) {
             line = line.substring(0, line.indexOf("(") + 1);
-            String startUnitRegex = "(.* |)def .*";
-            Pattern pattern = Pattern.compile(startUnitRegex);
-            Matcher matcher = pattern.matcher(line);
+            Matcher matcher = START_UNIT_PATTERN.matcher(line);
             if (matcher.matches()) {
                 return true;
             }
@@ -10,13 +10,13 @@ import java.util.List;
 public class MetricsList {
     private List<Metric> metrics = new ArrayList<>();
 
-    public Metric addMetric() {
+    public synchronized Metric addMetric() {
         Metric metric = new Metric();
         metrics.add(metric);
         return metric;
     }
 
-    public void remove(String id) {
+    public synchronized void remove(String id) {
         int index = 0;
 
         for (int i = 0; i < metrics.size(); i++) {
@@ -27,7 +27,7 @@ public class MetricsList {
         }
     }
 
-    public Metric addSystemMetric() {
+    public synchronized Metric addSystemMetric() {
         Metric metric = new Metric();
         metrics.add(metric);
         return metric;
@@ -37,11 +37,11 @@ public class MetricsList {
         return metrics;
     }
 
-    public void setMetrics(List<Metric> metrics) {
+    public synchronized void setMetrics(List<Metric> metrics) {
         this.metrics = metrics;
     }
 
-    public Metric getMetricById(String id) {
+    public synchronized Metric getMetricById(String id) {
         for (Metric metric : metrics) {
             if (metric.getId().equalsIgnoreCase(id)) {
                 return metric;
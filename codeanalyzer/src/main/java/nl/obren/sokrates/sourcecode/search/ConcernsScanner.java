@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.search;
+
+import nl.obren.sokrates.common.utils.MultiPatternMatcher;
+import nl.obren.sokrates.common.utils.ParallelBatches;
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.common.utils.RegexUtils;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.SourceFileFilter;
+import nl.obren.sokrates.sourcecode.SourceFileWithSearchData;
+import nl.obren.sokrates.sourcecode.aspects.Concern;
+import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.util.*;
+
+/*
+ * Searches the files of many concerns at once. Each file is read once, its path is tested against the distinct path
+ * expressions of the filters of all concerns that include it, and each line is tested against all distinct content
+ * expressions in one pass (see MultiPatternMatcher). Files are scanned in parallel. The search results per concern
+ * filter are then assembled from the per-file matches and are the same as searching the concern files with
+ * SearcheableFilesCache one filter at a time. If the search index is enabled, files that cannot contain a match of a
+ * content expression (see TrigramIndex) are not searched for it. With the incremental analysis, the lines found in
+ * unchanged files are taken from the previous run (see IncrementalAnalysisCache.getConcernMatches).
+ */
+public class ConcernsScanner {
+    private static final Log LOG = LogFactory.getLog(ConcernsScanner.class);
+
+    private List<Concern> concerns;
+    private int threads;
+
+    private List<String> pathExpressions = new ArrayList<>();
+    private List<String> contentExpressions = new ArrayList<>();
+    private Map<String, Integer> pathIndexes = new HashMap<>();
+    private Map<String, Integer> contentIndexes = new HashMap<>();
+    // the (path expression, content expression) indexes of the filters of each concern
+    private Map<Concern, int[][]> concernFilters = new IdentityHashMap<>();
+
+    private Map<File, SourceFile> files = new LinkedHashMap<>();
+    private Map<File, BitSet> fileFilters = new HashMap<>();
+    private Map<File, FileScan> scans = new HashMap<>();
+
+    private MultiPatternMatcher contentMatcher;
+    private List<TrigramIndex.Query> indexQueries = new ArrayList<>();
+
+    public ConcernsScanner(List<Concern> concerns, int threads) {
+        this.concerns = concerns;
+        this.threads = threads;
+    }
+
+    public void scan(ProgressFeedback progressFeedback) {
+        indexFilters();
+        contentMatcher = new MultiPatternMatcher(contentExpressions);
+        contentExpressions.forEach(expression -> indexQueries.add(TrigramIndex.getInstance().query(expression)));
+
+        LOG.info("Scanning " + files.size() + " files for " + concerns.size() + " concerns (" + pathExpressions.size()
+                + " path and " + contentExpressions.size() + " content expressions) on " + threads + " threads");
+
+        List<File> filesToScan = new ArrayList<>(files.keySet());
+        int scanned[] = {0};
+        ParallelBatches parallelBatches = new ParallelBatches(threads);
+        try {
+            parallelBatches.forEachInOrder(filesToScan, this::scanFile, (file, fileScan) -> {
+                scans.put(file, fileScan);
+                progressFeedback.progress(++scanned[0], filesToScan.size());
+            });
+        } finally {
+            parallelBatches.shutdown();
+        }
+    }
+
+    private void indexFilters() {
+        int filtersCount = 0;
+        for (Concern concern : concerns) {
+            List<SourceFileFilter> filters = concern.getSourceFileFilters();
+            int[][] indexes = new int[filters.size()][];
+            for (int i = 0; i < filters.size(); i++) {
+                indexes[i] = new int[]{getIndex(pathExpressions, pathIndexes, filters.get(i).getPathPattern()),
+                        getIndex(contentExpressions, contentIndexes, filters.get(i).getContentPattern())};
+            }
+            concernFilters.put(concern, indexes);
+
+            for (SourceFile sourceFile : concern.getSourceFiles()) {
+                files.put(sourceFile.getFile(), sourceFile);
+                fileFilters.computeIfAbsent(sourceFile.getFile(), k -> new BitSet()).set(filtersCount, filtersCount + indexes.length);
+            }
+            filtersCount += indexes.length;
+        }
+    }
+
+    private int getIndex(List<String> expressions, Map<String, Integer> indexes, String expression) {
+        String key = StringUtils.defaultString(expression);
+        Integer index = indexes.get(key);
+        if (index == null) {
+            index = expressions.size();
+            expressions.add(key);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    private FileScan scanFile(File file) {
+        FileScan fileScan = new FileScan();
+
+        BitSet paths = new BitSet();
+        BitSet filters = fileFilters.get(file);
+        int filterIndex = 0;
+        for (Concern concern : concerns) {
+            for (int[] indexes : concernFilters.get(concern)) {
+                if (filters.get(filterIndex++)) {
+                    paths.set(indexes[0]);
+                }
+            }
+        }
+        for (int path = paths.nextSetBit(0); path >= 0; path = paths.nextSetBit(path + 1)) {
+            if (pathMatches(pathExpressions.get(path), file)) {
+                fileScan.matchingPaths.set(path);
+            }
+        }
+
+        BitSet contents = new BitSet();
+        filterIndex = 0;
+        for (Concern concern : concerns) {
+            for (int[] indexes : concernFilters.get(concern)) {
+                if (filters.get(filterIndex++) && fileScan.matchingPaths.get(indexes[0])
+                        && StringUtils.isNotBlank(contentExpressions.get(indexes[1]))
+                        && indexQueries.get(indexes[1]).mayMatch(files.get(file))) {
+                    contents.set(indexes[1]);
+                }
+            }
+        }
+        if (contents.isEmpty()) {
+            return fileScan;
+        }
+
+        List<String> expressions = new ArrayList<>();
+        contents.stream().forEach(i -> expressions.add(contentExpressions.get(i)));
+        SourceFile sourceFile = files.get(file);
+        Map<String, List<FoundLine>> foundLines = IncrementalAnalysisCache.getInstance().getConcernMatches(sourceFile,
+                expressions, missingExpressions -> searchContent(sourceFile, missingExpressions));
+        foundLines.forEach((expression, lines) -> {
+            if (lines.size() > 0) {
+                fileScan.foundLines.put(contentIndexes.get(expression), lines);
+            }
+        });
+
+        return fileScan;
+    }
+
+    // returns the lines of the file content found with each of the expressions
+    private Map<String, List<FoundLine>> searchContent(SourceFile sourceFile, Collection<String> expressions) {
+        BitSet contents = new BitSet();
+        expressions.forEach(expression -> contents.set(contentIndexes.get(expression)));
+        Map<String, List<FoundLine>> foundLines = new HashMap<>();
+
+        String content = sourceFile.getContent();
+        List<String> lines = StringUtils.isNotBlank(content) ? SourceCodeCleanerUtils.splitInLines(content) : new ArrayList<>();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            String line = lines.get(lineIndex);
+            BitSet candidates = contentMatcher.getCandidatePatterns(line);
+            candidates.and(contents);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                String foundText = RegexUtils.getMatchedRegex(line, contentExpressions.get(i));
+                if (foundText != null) {
+                    foundLines.computeIfAbsent(contentExpressions.get(i), k -> new ArrayList<>()).add(new FoundLine(lineIndex + 1, line, foundText));
+                }
+            }
+        }
+
+        return foundLines;
+    }
+
+    private boolean pathMatches(String pathExpression, File file) {
+        return StringUtils.isBlank(pathExpression) || RegexUtils.getMatchedRegex(file.getPath(), pathExpression) != null
+                || RegexUtils.getMatchedRegex(file.getPath().replace("\\", "/"), pathExpression) != null
+                || RegexUtils.getMatchedRegex(file.getPath().replace("/", "\\"), pathExpression) != null;
+    }
+
+    // returns the search results of the concern filters, in the order of the filters
+    public List<SearchResult> getSearchResults(Concern concern) {
+        Map<File, SourceFile> concernFiles = new HashMap<>();
+        concern.getSourceFiles().forEach(sourceFile -> concernFiles.put(sourceFile.getFile(), sourceFile));
+        List<File> orderedFiles = new ArrayList<>(concernFiles.keySet());
+        int totalLinesCount = 0;
+        for (SourceFile sourceFile : concernFiles.values()) {
+            totalLinesCount += sourceFile.getLinesOfCode();
+        }
+
+        List<SearchResult> searchResults = new ArrayList<>();
+        List<SourceFileFilter> filters = concern.getSourceFileFilters();
+        int[][] indexes = concernFilters.get(concern);
+        for (int i = 0; i < filters.size(); i++) {
+            SourceFileFilter filter = filters.get(i);
+            SearchResult searchResult = new SearchResult(new SearchRequest(new SearchExpression(filter.getPathPattern()),
+                    new SearchExpression(filter.getContentPattern())));
+            searchResult.setTotalLinesCount(totalLinesCount);
+            searchResult.setTotalNumberOfFiles(concernFiles.size());
+            boolean blankContent = StringUtils.isBlank(contentExpressions.get(indexes[i][1]));
+
+            for (File file : orderedFiles) {
+                FileScan fileScan = scans.get(file);
+                if (!fileScan.matchingPaths.get(indexes[i][0])) {
+                    continue;
+                }
+                SourceFile sourceFile = concernFiles.get(file);
+                List<FoundLine> foundLines = fileScan.foundLines.getOrDefault(indexes[i][1], Collections.emptyList());
+                if (!blankContent) {
+                    searchResult.setMaxNumberOfFoundInstances(Math.max(sourceFile.getLinesOfCode(), searchResult.getMaxNumberOfFoundInstances()));
+                }
+                if (blankContent || foundLines.size() > 0) {
+                    SourceFileWithSearchData sourceFileWithSearchData = new SourceFileWithSearchData(sourceFile);
+                    sourceFileWithSearchData.setFoundInstancesCount(foundLines.size());
+                    sourceFileWithSearchData.getLinesWithSearchedContent().addAll(foundLines);
+                    searchResult.getFoundFiles().put(file, sourceFileWithSearchData);
+                    searchResult.setMaxLines(Math.max(sourceFileWithSearchData.getLineCount(), searchResult.getMaxLines()));
+                    searchResult.setFoundLinesCount(searchResult.getFoundLinesCount() + sourceFileWithSearchData.getLineCount());
+                }
+            }
+
+            searchResults.add(searchResult);
+        }
+
+        return searchResults;
+    }
+
+    private static class FileScan {
+        private BitSet matchingPaths = new BitSet();
+        // the lines found with each content expression
+        private Map<Integer, List<FoundLine>> foundLines = new HashMap<>();
+    }
+}
@@ -4,17 +4,10 @@
 
 package nl.obren.sokrates.sourcecode.search;
 
+import nl.obren.sokrates.common.utils.PatternCache;
 import nl.obren.sokrates.common.utils.RegexUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class SearchExpression {
-    private static final Log LOG = LogFactory.getLog(SearchExpression.class);
-
     private String expression = "";
 
     public SearchExpression(String expression) {
@@ -30,14 +23,7 @@ public class SearchExpression {
     }
 
     public boolean matches(String content) {
-        try {
-            Pattern pattern = Pattern.compile(expression);
-            Matcher matcher = pattern.matcher(content);
-            return matcher.matches();
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
-        }
-        return false;
+        return PatternCache.compile(expression).matchesEntirely(content);
     }
 
     public String getMatchedRegex(String text) {
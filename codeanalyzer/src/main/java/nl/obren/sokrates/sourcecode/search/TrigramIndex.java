@@ -0,0 +1,633 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.search;
+
+import nl.obren.sokrates.common.utils.PatternCache;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/*
+ * A trigram index of the analyzed files, used to find the files that may contain a match of a regular expression
+ * without reading them. Each file is indexed by the (lower case) three character sequences in its content. A query
+ * takes the literal that every match of the expression must contain (see PatternCache) and returns the files that
+ * have all trigrams of that literal; only these files then need to be searched line by line with java.util.regex,
+ * so the search results do not change.
+ *
+ * The index is saved in the "_sokrates" folder. A saved index is read into memory as a whole, in its compact
+ * (varint encoded) form, so that the index file is not kept open and can be replaced by save(). Files that are new or
+ * changed since (by size and modification time, or else by content hash) are indexed in memory and replace their old
+ * entries, and save() writes the merged index back.
+ */
+public class TrigramIndex {
+    private static final Log LOG = LogFactory.getLog(TrigramIndex.class);
+
+    public static final String INDEX_FILE_NAME = "search-index.bin";
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x534b5449;
+    private static final int HEADER_SIZE = 20;
+    private static final int ASCII_TRIGRAMS = 1 << 21;
+    private static final int[] NO_TRIGRAMS = new int[0];
+
+    private static TrigramIndex instance = new TrigramIndex();
+
+    private boolean enabled = false;
+    private boolean changed = false;
+    private File indexFile;
+
+    // all files by id, first the files loaded from the index file and then the files indexed since
+    private List<IndexedFile> files = new ArrayList<>();
+    private Map<String, Integer> fileIds = new HashMap<>();
+    // an unmodifiable copy of fileIds shared by the queries, made again only after the files have changed
+    private Map<String, Integer> queryFileIds;
+    private BitSet removedFiles = new BitSet();
+
+    // the loaded index file: sorted trigrams, their postings offsets and the varint encoded postings
+    private ByteBuffer loadedIndex;
+    private int loadedTrigramsCount = 0;
+    private int keysStart;
+    private int offsetsStart;
+    private int postingsStart;
+
+    private PostingsBuilder addedPostings = new PostingsBuilder();
+
+    private int unchangedFiles = 0;
+    private int indexedFiles = 0;
+    private long queries = 0;
+    private long narrowedQueries = 0;
+    private long queriesNanos = 0;
+    private long candidateFiles = 0;
+    private long queriedFiles = 0;
+
+    public static TrigramIndex getInstance() {
+        return instance;
+    }
+
+    public static File getIndexFile(File codeConfigurationFile) {
+        return new File(codeConfigurationFile.getAbsoluteFile().getParentFile(), INDEX_FILE_NAME);
+    }
+
+    public static String getPath(SourceFile sourceFile) {
+        return sourceFile.getRelativePath() != null ? sourceFile.getRelativePath() : sourceFile.getFile().getPath();
+    }
+
+    public synchronized void load(File codeConfigurationFile) {
+        clear();
+        enabled = true;
+        indexFile = getIndexFile(codeConfigurationFile);
+        if (!indexFile.exists()) {
+            LOG.info("No search index found in " + indexFile.getPath() + ", indexing all files");
+            return;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                LOG.info("The search index format has changed, indexing all files");
+                return;
+            }
+            int filesCount = buffer.getInt(8);
+            int trigramsCount = buffer.getInt(12);
+            int filesSectionLength = buffer.getInt(16);
+
+            byte[] filesSection = new byte[filesSectionLength];
+            buffer.position(HEADER_SIZE);
+            buffer.get(filesSection);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(filesSection));
+            for (int i = 0; i < filesCount; i++) {
+                String path = in.readUTF();
+                long lastModified = in.readLong();
+                long size = in.readLong();
+                String contentHash = in.readUTF();
+                fileIds.put(path, files.size());
+                files.add(new IndexedFile(path, lastModified, size, contentHash));
+            }
+
+            keysStart = HEADER_SIZE + filesSectionLength;
+            offsetsStart = keysStart + 4 * trigramsCount;
+            postingsStart = offsetsStart + 4 * (trigramsCount + 1);
+            if (postingsStart > buffer.limit()) {
+                throw new IOException("The search index file is truncated");
+            }
+            loadedIndex = buffer;
+            loadedTrigramsCount = trigramsCount;
+            addedPostings = new PostingsBuilder();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not read the search index, indexing all files", e);
+            clear();
+        }
+    }
+
+    public synchronized void disable() {
+        clear();
+        enabled = false;
+    }
+
+    private void clear() {
+        files.clear();
+        fileIds.clear();
+        removedFiles.clear();
+        queryFileIds = null;
+        loadedIndex = null;
+        loadedTrigramsCount = 0;
+        addedPostings = new PostingsBuilder();
+        changed = false;
+        unchangedFiles = 0;
+        indexedFiles = 0;
+        queries = 0;
+        narrowedQueries = 0;
+        queriesNanos = 0;
+        candidateFiles = 0;
+        queriedFiles = 0;
+    }
+
+    // indexes the new and changed files; with removeOtherFiles, the files that are not in the list are removed
+    public synchronized void update(List<SourceFile> sourceFiles, boolean removeOtherFiles) {
+        if (!enabled) {
+            return;
+        }
+
+        BitSet updatedFiles = new BitSet();
+        for (SourceFile sourceFile : sourceFiles) {
+            String path = getPath(sourceFile);
+            Integer id = fileIds.get(path);
+            if (id != null && updatedFiles.get(id)) {
+                continue;
+            }
+
+            long lastModified = sourceFile.getFile().lastModified();
+            long size = sourceFile.getFile().length();
+            String content = null;
+            String contentHash = null;
+            if (id != null) {
+                IndexedFile indexedFile = files.get(id);
+                if (lastModified != 0 && indexedFile.lastModified == lastModified && indexedFile.size == size) {
+                    updatedFiles.set(id);
+                    unchangedFiles++;
+                    continue;
+                }
+                content = sourceFile.getContent();
+                contentHash = IncrementalAnalysisCache.getHash(content);
+                if (contentHash.equals(indexedFile.contentHash)) {
+                    indexedFile.lastModified = lastModified;
+                    indexedFile.size = size;
+                    updatedFiles.set(id);
+                    unchangedFiles++;
+                    changed = true;
+                    continue;
+                }
+                removedFiles.set(id);
+            }
+
+            if (content == null) {
+                content = sourceFile.getContent();
+                contentHash = IncrementalAnalysisCache.getHash(content);
+            }
+            int newId = files.size();
+            files.add(new IndexedFile(path, lastModified, size, contentHash));
+            fileIds.put(path, newId);
+            queryFileIds = null;
+            addedPostings.add(newId, getTrigrams(content));
+            updatedFiles.set(newId);
+            indexedFiles++;
+            changed = true;
+        }
+
+        if (removeOtherFiles) {
+            for (int id = 0; id < files.size(); id++) {
+                if (!updatedFiles.get(id) && !removedFiles.get(id)) {
+                    removedFiles.set(id);
+                    fileIds.remove(files.get(id).path);
+                    queryFileIds = null;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    public synchronized void save() {
+        if (!enabled || (!changed && indexFile.exists())) {
+            return;
+        }
+
+        int[] newIds = new int[files.size()];
+        List<IndexedFile> savedFiles = new ArrayList<>();
+        for (int id = 0; id < files.size(); id++) {
+            newIds[id] = removedFiles.get(id) ? -1 : savedFiles.size();
+            if (!removedFiles.get(id)) {
+                savedFiles.add(files.get(id));
+            }
+        }
+
+        int[] addedKeys = addedPostings.getSortedKeys();
+        int[] keys = new int[loadedTrigramsCount + addedKeys.length];
+        int[] loadedIndexes = new int[keys.length];
+        int[] postingsLengths = new int[keys.length];
+        int keysCount = 0;
+        int loadedIndex = 0;
+        int addedIndex = 0;
+        while (loadedIndex < loadedTrigramsCount || addedIndex < addedKeys.length) {
+            int loadedKey = loadedIndex < loadedTrigramsCount ? getLoadedKey(loadedIndex) : Integer.MAX_VALUE;
+            int addedKey = addedIndex < addedKeys.length ? addedKeys[addedIndex] : Integer.MAX_VALUE;
+            int key = Math.min(loadedKey, addedKey);
+            int keyLoadedIndex = loadedKey == key ? loadedIndex++ : -1;
+            if (addedKey == key) {
+                addedIndex++;
+            }
+            int[] length = {0};
+            encodePostings(keyLoadedIndex, key, newIds, bytes -> length[0]++);
+            if (length[0] > 0) {
+                keys[keysCount] = key;
+                loadedIndexes[keysCount] = keyLoadedIndex;
+                postingsLengths[keysCount] = length[0];
+                keysCount++;
+            }
+        }
+
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        indexFile.getAbsoluteFile().getParentFile().mkdirs();
+        try {
+            ByteArrayOutputStream filesSection = new ByteArrayOutputStream();
+            DataOutputStream filesOut = new DataOutputStream(filesSection);
+            for (IndexedFile indexedFile : savedFiles) {
+                filesOut.writeUTF(indexedFile.path);
+                filesOut.writeLong(indexedFile.lastModified);
+                filesOut.writeLong(indexedFile.size);
+                filesOut.writeUTF(indexedFile.contentHash);
+            }
+            filesOut.flush();
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(savedFiles.size());
+                out.writeInt(keysCount);
+                out.writeInt(filesSection.size());
+                filesSection.writeTo(out);
+                for (int i = 0; i < keysCount; i++) {
+                    out.writeInt(keys[i]);
+                }
+                int offset = 0;
+                out.writeInt(offset);
+                for (int i = 0; i < keysCount; i++) {
+                    offset += postingsLengths[i];
+                    out.writeInt(offset);
+                }
+                for (int i = 0; i < keysCount; i++) {
+                    encodePostings(loadedIndexes[i], keys[i], newIds, value -> {
+                        try {
+                            out.write(value);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            changed = false;
+        } catch (IOException | UncheckedIOException e) {
+            LOG.warn("Could not save the search index", e);
+        }
+    }
+
+    // writes the varint encoded gaps between the (new) ids of the files that have the trigram
+    private void encodePostings(int loadedIndex, int key, int[] newIds, IntConsumer bytes) {
+        int[] last = {-1};
+        IntConsumer encoder = id -> {
+            int newId = newIds[id];
+            if (newId >= 0) {
+                writeVarInt(newId - last[0], bytes);
+                last[0] = newId;
+            }
+        };
+        if (loadedIndex >= 0) {
+            decodeLoadedPostings(loadedIndex, encoder);
+        }
+        addedPostings.decode(key, encoder);
+    }
+
+    // returns the files that may contain a match of the expression (see Query)
+    public synchronized Query query(String regex) {
+        if (!enabled || StringUtils.isBlank(regex)) {
+            return new Query(null, null);
+        }
+
+        long start = System.nanoTime();
+        queries++;
+        PatternCache.CompiledPattern compiledPattern = PatternCache.compile(regex);
+        String literal = compiledPattern.getRequiredLiteral();
+        if (compiledPattern.isValid() && (literal == null || literal.length() < 3)) {
+            queriesNanos += System.nanoTime() - start;
+            return new Query(null, null);
+        }
+
+        BitSet candidates = null;
+        if (compiledPattern.isValid()) {
+            for (int trigram : getTrigrams(literal)) {
+                BitSet trigramFiles = getPostings(trigram);
+                if (candidates == null) {
+                    candidates = trigramFiles;
+                } else {
+                    candidates.and(trigramFiles);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+        } else {
+            candidates = new BitSet();
+        }
+        candidates.andNot(removedFiles);
+
+        narrowedQueries++;
+        candidateFiles += candidates.cardinality();
+        queriedFiles += fileIds.size();
+        if (queryFileIds == null) {
+            queryFileIds = Collections.unmodifiableMap(new HashMap<>(fileIds));
+        }
+        queriesNanos += System.nanoTime() - start;
+        return new Query(candidates, queryFileIds);
+    }
+
+    private BitSet getPostings(int trigram) {
+        BitSet postings = new BitSet();
+        int low = 0;
+        int high = loadedTrigramsCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int key = getLoadedKey(middle);
+            if (key < trigram) {
+                low = middle + 1;
+            } else if (key > trigram) {
+                high = middle - 1;
+            } else {
+                decodeLoadedPostings(middle, postings::set);
+                break;
+            }
+        }
+        addedPostings.decode(trigram, postings::set);
+        return postings;
+    }
+
+    private int getLoadedKey(int index) {
+        return loadedIndex.getInt(keysStart + 4 * index);
+    }
+
+    private void decodeLoadedPostings(int index, IntConsumer ids) {
+        int position = postingsStart + loadedIndex.getInt(offsetsStart + 4 * index);
+        int end = postingsStart + loadedIndex.getInt(offsetsStart + 4 * (index + 1));
+        int id = -1;
+        while (position < end) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = loadedIndex.get(position++);
+                gap |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += gap;
+            ids.accept(id);
+        }
+    }
+
+    private static void writeVarInt(int value, IntConsumer bytes) {
+        while ((value & ~0x7f) != 0) {
+            bytes.accept((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes.accept(value);
+    }
+
+    // returns the sorted distinct trigrams of the lower case text
+    static int[] getTrigrams(CharSequence text) {
+        if (text.length() < 3) {
+            return NO_TRIGRAMS;
+        }
+        int[] trigrams = new int[text.length() - 2];
+        char a = Character.toLowerCase(text.charAt(0));
+        char b = Character.toLowerCase(text.charAt(1));
+        for (int i = 2; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            trigrams[i - 2] = getTrigram(a, b, c);
+            a = b;
+            b = c;
+        }
+        Arrays.sort(trigrams);
+        int count = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[count++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, count);
+    }
+
+    // ASCII trigrams are stored exactly, others are hashed (a collision only adds candidate files)
+    private static int getTrigram(char a, char b, char c) {
+        if ((a | b | c) < 128) {
+            return (a << 14) | (b << 7) | c;
+        }
+        int hash = (a * 31 + b) * 31 + c;
+        return ASCII_TRIGRAMS + (hash & 0x7fffffff) % (Integer.MAX_VALUE - ASCII_TRIGRAMS);
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int getFilesCount() {
+        return fileIds.size();
+    }
+
+    public synchronized long getQueries() {
+        return queries;
+    }
+
+    public synchronized long getNarrowedQueries() {
+        return narrowedQueries;
+    }
+
+    // the share of the indexed files returned as candidates by the queries that could use the index
+    public synchronized double getCandidateRatio() {
+        return queriedFiles > 0 ? (double) candidateFiles / queriedFiles : 1.0;
+    }
+
+    public synchronized double getAverageQueryTimeMs() {
+        return queries > 0 ? queriesNanos / 1000000.0 / queries : 0;
+    }
+
+    public synchronized String getStats() {
+        return "search index: " + fileIds.size() + " files (" + indexedFiles + " indexed, " + unchangedFiles + " unchanged), "
+                + queries + " queries (" + narrowedQueries + " using the index, "
+                + String.format("%.3f", getAverageQueryTimeMs()) + " ms on average), candidate files "
+                + String.format("%.1f", getCandidateRatio() * 100) + "% of the indexed files";
+    }
+
+    /*
+     * The result of an index query. Files that are not in the index (or not known to the index when the query was
+     * made) may always match.
+     */
+    public static class Query {
+        private BitSet candidates;
+        private Map<String, Integer> fileIds;
+
+        Query(BitSet candidates, Map<String, Integer> fileIds) {
+            this.candidates = candidates;
+            this.fileIds = fileIds;
+        }
+
+        // false if the index does not help with the expression
+        public boolean isNarrowing() {
+            return candidates != null;
+        }
+
+        public int getCandidatesCount() {
+            return candidates != null ? candidates.cardinality() : -1;
+        }
+
+        public boolean mayMatch(SourceFile sourceFile) {
+            if (candidates == null) {
+                return true;
+            }
+            Integer id = fileIds.get(getPath(sourceFile));
+            return id == null || candidates.get(id);
+        }
+    }
+
+    private static class IndexedFile {
+        private String path;
+        private long lastModified;
+        private long size;
+        private String contentHash;
+
+        IndexedFile(String path, long lastModified, long size, String contentHash) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /*
+     * In-memory postings of the files indexed since the index was loaded: an open addressing hash table from a
+     * trigram to the varint encoded gaps between the (increasing) ids of the files that have it.
+     */
+    private static class PostingsBuilder {
+        private int[] keys = new int[1024];
+        private byte[][] postings = new byte[1024][];
+        private int[] lengths = new int[1024];
+        private int[] lastIds = new int[1024];
+        private int size = 0;
+
+        PostingsBuilder() {
+            Arrays.fill(keys, -1);
+        }
+
+        void add(int fileId, int[] trigrams) {
+            for (int trigram : trigrams) {
+                int slot = getSlot(trigram);
+                if (keys[slot] < 0) {
+                    keys[slot] = trigram;
+                    postings[slot] = new byte[4];
+                    lastIds[slot] = -1;
+                    size++;
+                    if (size * 2 > keys.length) {
+                        resize();
+                        slot = getSlot(trigram);
+                    }
+                }
+                int gap = fileId - lastIds[slot];
+                lastIds[slot] = fileId;
+                int finalSlot = slot;
+                writeVarInt(gap, value -> append(finalSlot, (byte) value));
+            }
+        }
+
+        private void append(int slot, byte value) {
+            if (lengths[slot] == postings[slot].length) {
+                postings[slot] = Arrays.copyOf(postings[slot], postings[slot].length * 2);
+            }
+            postings[slot][lengths[slot]++] = value;
+        }
+
+        void decode(int trigram, IntConsumer ids) {
+            if (size == 0) {
+                return;
+            }
+            int slot = getSlot(trigram);
+            if (keys[slot] < 0) {
+                return;
+            }
+            byte[] data = postings[slot];
+            int id = -1;
+            int position = 0;
+            while (position < lengths[slot]) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id += gap;
+                ids.accept(id);
+            }
+        }
+
+        int[] getSortedKeys() {
+            int[] sortedKeys = new int[size];
+            int count = 0;
+            for (int key : keys) {
+                if (key >= 0) {
+                    sortedKeys[count++] = key;
+                }
+            }
+            Arrays.sort(sortedKeys);
+            return sortedKeys;
+        }
+
+        private int getSlot(int trigram) {
+            int mask = keys.length - 1;
+            int slot = (trigram * 0x9E3779B9 >>> 7) & mask;
+            while (keys[slot] >= 0 && keys[slot] != trigram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            byte[][] oldPostings = postings;
+            int[] oldLengths = lengths;
+            int[] oldLastIds = lastIds;
+            keys = new int[oldKeys.length * 2];
+            Arrays.fill(keys, -1);
+            postings = new byte[keys.length][];
+            lengths = new int[keys.length];
+            lastIds = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] >= 0) {
+                    int slot = getSlot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    postings[slot] = oldPostings[i];
+                    lengths[slot] = oldLengths[i];
+                    lastIds[slot] = oldLastIds[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.units;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Hand-written scanners for the C-style unit heuristics (see CStyleHeuristicUnitsExtractor). They give the same
+ * results as the chains of String.replace / replaceAll calls and regular expressions they replace, but scan each
+ * line once per step without compiling patterns or creating intermediate strings for lines that do not need them.
+ *
+ * All replaced patterns are limited to one line (in regex terms, "." does not match line terminators), so content is
+ * processed line by line, and the line ends are normalized in the final pass.
+ */
+public class CStyleCodeScanner {
+    private static final String IDENTIFIER_CHARS = "_$?:~";
+
+    private CStyleCodeScanner() {
+    }
+
+    // removes string, char and regex literals and generics, as the original replace chain:
+    // \" -> "", :// -> :/ /, @".*?" -> "", ".*?" -> "", '.*?' -> '', /.+?/ -> "", :// -> :/ /, <.*?> -> "", \t -> " "
+    // followed by SourceCodeCleanerUtils.normalizeLineEnds
+    public static String clean(String content) {
+        StringBuilder cleaned = new StringBuilder(content.length());
+        StringBuilder line = new StringBuilder();
+        StringBuilder buffer = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i <= content.length(); i++) {
+            if (i == content.length() || isLineTerminator(content.charAt(i))) {
+                line.setLength(0);
+                line.append(content, start, i);
+                cleanLine(line, buffer);
+                cleaned.append(line);
+                if (i < content.length()) {
+                    cleaned.append(content.charAt(i));
+                }
+                start = i + 1;
+            }
+        }
+        return normalizeLineEnds(cleaned);
+    }
+
+    private static void cleanLine(StringBuilder line, StringBuilder buffer) {
+        boolean quotes = false;
+        boolean apostrophes = false;
+        boolean slashes = false;
+        boolean angleBrackets = false;
+        boolean tabs = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            quotes |= c == '"';
+            apostrophes |= c == '\'';
+            slashes |= c == '/';
+            angleBrackets |= c == '<';
+            tabs |= c == '\t';
+        }
+
+        if (quotes) {
+            replaceAll(line, "\\\"", "", buffer);
+        }
+        if (slashes) {
+            replaceAll(line, "://", ":/ /", buffer);
+        }
+        if (quotes) {
+            replaceDelimited(line, "@\"", '"', 0, "\"\"", buffer);
+            replaceDelimited(line, "\"", '"', 0, "\"\"", buffer);
+        }
+        if (apostrophes) {
+            replaceDelimited(line, "'", '\'', 0, "''", buffer);
+        }
+        if (slashes) {
+            replaceDelimited(line, "/", '/', 1, "\"\"", buffer);
+            replaceAll(line, "://", ":/ /", buffer);
+        }
+        if (angleBrackets) {
+            replaceDelimited(line, "<", '>', 0, "", buffer);
+        }
+        if (tabs) {
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '\t') {
+                    line.setCharAt(i, ' ');
+                }
+            }
+        }
+    }
+
+    // as String.replace(target, replacement)
+    private static void replaceAll(StringBuilder line, String target, String replacement, StringBuilder buffer) {
+        int index = line.indexOf(target);
+        if (index < 0) {
+            return;
+        }
+        buffer.setLength(0);
+        int from = 0;
+        while (index >= 0) {
+            buffer.append(line, from, index).append(replacement);
+            from = index + target.length();
+            index = line.indexOf(target, from);
+        }
+        buffer.append(line, from, line.length());
+        line.setLength(0);
+        line.append(buffer);
+    }
+
+    // as replaceAll(open + ".{minLength,}?" + end, replacement) within one line; if an opening has no end, no later
+    // opening has one either
+    private static void replaceDelimited(StringBuilder line, String open, char end, int minLength, String replacement, StringBuilder buffer) {
+        int index = line.indexOf(open);
+        if (index < 0) {
+            return;
+        }
+        buffer.setLength(0);
+        int from = 0;
+        while (index >= 0) {
+            int endIndex = indexOf(line, end, index + open.length() + minLength);
+            if (endIndex < 0) {
+                break;
+            }
+            buffer.append(line, from, index).append(replacement);
+            from = endIndex + 1;
+            index = line.indexOf(open, from);
+        }
+        buffer.append(line, from, line.length());
+        line.setLength(0);
+        line.append(buffer);
+    }
+
+    private static int indexOf(StringBuilder line, char c, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // as SourceCodeCleanerUtils.normalizeLineEnds (tabs are already replaced)
+    private static String normalizeLineEnds(StringBuilder content) {
+        StringBuilder normalized = new StringBuilder(content.length());
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\r') {
+                normalized.append('\n');
+                if (i + 1 < content.length() && content.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            } else if (c == '\t') {
+                normalized.append("    ");
+            } else if (c != '\b' && c != '\f') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // as matching "(ID[ ]+)+ID[ ]*[(]" against the line up to (and including) its first "(", where ID is
+    // "[a-zA-Z0-9_$?:~]+": two or more identifiers separated only by spaces
+    public static boolean startsWithUnitSignature(String line) {
+        int end = line.indexOf('(');
+        if (end <= 0 || !isIdentifierChar(line.charAt(0))) {
+            return false;
+        }
+        int identifiers = 0;
+        boolean inIdentifier = false;
+        for (int i = 0; i < end; i++) {
+            char c = line.charAt(i);
+            if (isIdentifierChar(c)) {
+                if (!inIdentifier) {
+                    identifiers++;
+                    inIdentifier = true;
+                }
+            } else if (c == ' ') {
+                inIdentifier = false;
+            } else {
+                return false;
+            }
+        }
+        return identifiers >= 2;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || IDENTIFIER_CHARS.indexOf(c) >= 0;
+    }
+
+    // 1 + the number of non-overlapping occurrences of the literals in " " + body, with new lines replaced by spaces
+    // and a space added before each "(" and "{"; that text is not created, and all literals are matched in one scan
+    // of the body (see McCabeIndexCounter)
+    public static int getMcCabeIndex(String body, List<String> literals) {
+        McCabeIndexCounter counter = new McCabeIndexCounter(body, literals);
+        counter.visit(-1, ' ');
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '(' || c == '{') {
+                counter.visit(2 * i, ' ');
+            } else if (c == '\n') {
+                c = ' ';
+            }
+            counter.visit(2 * i + 1, c);
+        }
+        return 1 + counter.matches;
+    }
+
+    // checks the literals only at the characters that end a one character literal or are the second character of a
+    // longer one (most characters, such as indentation spaces, are neither)
+    private static class McCabeIndexCounter {
+        private final String body;
+        private final String[] literals;
+        private final boolean[] asciiCheckChars = new boolean[128];
+        private final int[] nextMatchPositions;
+        private int matches = 0;
+        private char previousChar;
+        private int previousPosition = -2;
+
+        private McCabeIndexCounter(String body, List<String> literals) {
+            this.body = body;
+            this.literals = literals.stream().filter(literal -> !literal.isEmpty()).toArray(String[]::new);
+            for (String literal : this.literals) {
+                char c = literal.charAt(Math.min(1, literal.length() - 1));
+                if (c < 128) {
+                    asciiCheckChars[c] = true;
+                }
+            }
+            nextMatchPositions = new int[this.literals.length];
+            Arrays.fill(nextMatchPositions, -1);
+        }
+
+        private void visit(int position, char c) {
+            if (c >= 128 || asciiCheckChars[c]) {
+                for (int i = 0; i < literals.length; i++) {
+                    String literal = literals[i];
+                    int start;
+                    if (literal.length() == 1) {
+                        start = literal.charAt(0) == c ? position : -2;
+                    } else {
+                        start = literal.charAt(1) == c && literal.charAt(0) == previousChar ? previousPosition : -2;
+                    }
+                    if (start >= -1 && start >= nextMatchPositions[i]) {
+                        int matchEnd = getMatchEnd(body, start, literal);
+                        if (matchEnd >= 0) {
+                            matches++;
+                            nextMatchPositions[i] = matchEnd;
+                        }
+                    }
+                }
+            }
+            previousChar = c;
+            previousPosition = position;
+        }
+    }
+
+    // the position after the literal if the searched text has it at the position, or -1
+    private static int getMatchEnd(String body, int position, String literal) {
+        int end = 2 * body.length();
+        for (int i = 0; i < literal.length(); i++) {
+            if (position >= end || getSearchChar(body, position) != literal.charAt(i)) {
+                return -1;
+            }
+            position = getNextSearchPosition(body, position);
+        }
+        return position;
+    }
+
+    // positions in the searched text: -1 is the leading space, 2 * i the space added before the body character i, and
+    // 2 * i + 1 the body character i
+    private static char getSearchChar(String body, int position) {
+        if (position < 0 || (position & 1) == 0) {
+            return ' ';
+        }
+        char c = body.charAt(position >> 1);
+        return c == '\n' ? ' ' : c;
+    }
+
+    private static int getNextSearchPosition(String body, int position) {
+        if (position >= 0 && (position & 1) == 0) {
+            return position + 1;
+        }
+        int index = (position >> 1) + 1;
+        if (index >= body.length()) {
+            return 2 * body.length();
+        }
+        char c = body.charAt(index);
+        return c == '(' || c == '{' ? 2 * index : 2 * index + 1;
+    }
+
+    // as splitting the trimmed text between the first "(" and the next ")" of the body by ","
+    public static int getNumberOfParameters(String body) {
+        int startIndex = body.indexOf('(');
+        int endIndex = startIndex >= 0 ? body.indexOf(')', startIndex + 1) : -1;
+        if (endIndex < 0) {
+            return 0;
+        }
+
+        int first = startIndex + 1;
+        int last = endIndex - 1;
+        while (first <= last && body.charAt(first) <= ' ') {
+            first++;
+        }
+        while (last >= first && body.charAt(last) <= ' ') {
+            last--;
+        }
+        boolean blank = true;
+        for (int i = first; i <= last && blank; i++) {
+            blank = Character.isWhitespace(body.charAt(i));
+        }
+        if (blank) {
+            return 0;
+        }
+
+        // String.split drops the trailing empty parameters
+        int parameters = 0;
+        int lastNonEmptyParameter = 0;
+        int parameterStart = first;
+        for (int i = first; i <= last + 1; i++) {
+            if (i == last + 1 || body.charAt(i) == ',') {
+                parameters++;
+                if (i > parameterStart) {
+                    lastNonEmptyParameter = parameters;
+                }
+                parameterStart = i + 1;
+            }
+        }
+        return lastNonEmptyParameter;
+    }
+}
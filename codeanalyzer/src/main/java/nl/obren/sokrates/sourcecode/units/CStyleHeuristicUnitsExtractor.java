@@ -7,16 +7,16 @@ package nl.obren.sokrates.sourcecode.units;
 import nl.obren.sokrates.sourcecode.SourceFile;
 import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
 import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzer;
-import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/*
+ * Finds units by their signature lines and the balance of the curly braces that follow them. Content is first cleaned
+ * of literals and generics, and lines, bodies and parameters are then scanned with CStyleCodeScanner.
+ */
 public class CStyleHeuristicUnitsExtractor {
     private boolean extractRecursively = false;
 
@@ -181,71 +181,36 @@ public class CStyleHeuristicUnitsExtractor {
     }
 
     private CleanedContent getCleanContent(SourceFile sourceFile) {
-        LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile);
-
-        CleanedContent normallyCleanedContent = languageAnalyzer.cleanForLinesOfCodeCalculations(sourceFile);
+        CleanedContent normallyCleanedContent = sourceFile.getCleanedContentForLinesOfCode();
         normallyCleanedContent.setCleanedContent(extraCleanContent(normallyCleanedContent.getCleanedContent()));
 
         return normallyCleanedContent;
     }
 
     private int getNumberOfParameters(String body) {
-        String bodyForSearch = " " + body.replace("\n", " ");
-
-        int startIndex = bodyForSearch.indexOf("(");
-        if (startIndex >= 0) {
-            int endIndex = bodyForSearch.indexOf(")", startIndex + 1);
-            if (endIndex > startIndex) {
-                String paramString = bodyForSearch.substring(startIndex + 1, endIndex).trim();
-                if (StringUtils.isNotBlank(paramString)) {
-                    String params[] = paramString.split(",");
-                    return params.length;
-                } else {
-                    return 0;
-                }
-            }
-        }
-
-        return 0;
+        return CStyleCodeScanner.getNumberOfParameters(body);
     }
 
     private int getMcCabeIndex(String body) {
-        String bodyForSearch = " " + body.replace("\n", " ");
-        bodyForSearch = bodyForSearch.replace("(", " (");
-        bodyForSearch = bodyForSearch.replace("{", " {");
-
-        int mcCabeIndex = 1;
-        for (String mcCabeIndexLiteral : getMcCabeIndexLiterals()) {
-            mcCabeIndex += StringUtils.countMatches(bodyForSearch, mcCabeIndexLiteral);
-        }
-
-        return mcCabeIndex;
+        return CStyleCodeScanner.getMcCabeIndex(body, getMcCabeIndexLiterals());
     }
 
     protected String extraCleanContent(String content) {
-        String cleanedContent = content.replace("\\\"", "");
-        cleanedContent = cleanedContent.replace("://", ":/ /");
-        cleanedContent = cleanedContent.replaceAll("@\".*?\"", "\"\"");
-        cleanedContent = cleanedContent.replaceAll("\".*?\"", "\"\"");
-        cleanedContent = cleanedContent.replaceAll("'.*?'", "''");
-        cleanedContent = cleanedContent.replaceAll("/.+?/", "\"\"");
-        cleanedContent = cleanedContent.replace("://", ":/ /");
-        cleanedContent = cleanedContent.replaceAll("[<].*?[>]", "");
-        cleanedContent = cleanedContent.replace("\t", " ");
-        cleanedContent = SourceCodeCleanerUtils.normalizeLineEnds(cleanedContent);
-
-        return cleanedContent;
+        return CStyleCodeScanner.clean(content);
     }
 
     protected int getEndOfUnitBodyIndex(List<String> lines, int startIndex) {
-        StringBuilder unitBody = new StringBuilder();
         int startCount = 0;
         int endCount = 0;
         for (int i = startIndex; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
-            unitBody.append(line + "\n");
-            startCount += StringUtils.countMatches(line, "{");
-            endCount += StringUtils.countMatches(line, "}");
+            String line = lines.get(i);
+            for (int c = 0; c < line.length(); c++) {
+                if (line.charAt(c) == '{') {
+                    startCount++;
+                } else if (line.charAt(c) == '}') {
+                    endCount++;
+                }
+            }
 
             boolean hasValidBody = startCount > 0 && startCount == endCount;
 
@@ -261,14 +226,7 @@ public class CStyleHeuristicUnitsExtractor {
         line = extraCleanContent(line);
         if (line.contains("(") && !line.contains(";") && !line.contains("new ") && !line.trim().startsWith("else ")
                 && !line.contains("return ") && !line.trim().startsWith("?") && !line.trim().startsWith(":")) {
-            line = line.substring(0, line.indexOf("(") + 1);
-            String identifierPattern = "[a-zA-Z0-9_$?:~]+";
-            String startUnitRegex = "(" + identifierPattern + "[ ]+)+" + identifierPattern + "[ ]*[(]";
-            Pattern pattern = Pattern.compile(startUnitRegex);
-            Matcher matcher = pattern.matcher(line);
-            if (matcher.matches()) {
-                return true;
-            }
+            return CStyleCodeScanner.startsWithUnitSignature(line);
         }
         return false;
     }
@@ -4,30 +4,60 @@
 
 package nl.obren.sokrates.sourcecode.units;
 
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.incremental.IncrementalAnalysisCache;
 import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzer;
 import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/*
+ * Extracts the units of files on several threads. Each file gets its own language analyzer and units extractor (the
+ * extractors keep per-file state), so nothing is shared between the threads, and the units are collected in the order
+ * of the files, as with a sequential loop. Files that have not been started when the progress feedback is canceled
+ * are skipped.
+ */
 public class UnitsExtractor {
+    private int threads = 1;
+
+    public UnitsExtractor() {
+    }
+
+    public UnitsExtractor(int threads) {
+        this.threads = threads;
+    }
+
     public List<UnitInfo> getUnits(List<SourceFile> sourceFiles, ProgressFeedback progressFeedback) {
         List<UnitInfo> units = new ArrayList<>();
 
         int index[] = {0};
 
-        sourceFiles.forEach(sourceFile -> {
-            if (progressFeedback.canceled()) {
-                return;
-            }
-            progressFeedback.setDetailedText(sourceFile.getRelativePath());
-            progressFeedback.progress(++index[0], sourceFiles.size());
-            LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile);
-            units.addAll(languageAnalyzer.extractUnits(sourceFile));
-        });
+        ParallelBatches parallelBatches = new ParallelBatches(threads);
+        try {
+            parallelBatches.forEachInOrder(sourceFiles, sourceFile -> extractUnits(sourceFile, progressFeedback), (sourceFile, fileUnits) -> {
+                if (progressFeedback.canceled()) {
+                    return;
+                }
+                progressFeedback.setDetailedText(sourceFile.getRelativePath());
+                progressFeedback.progress(++index[0], sourceFiles.size());
+                units.addAll(fileUnits);
+            });
+        } finally {
+            parallelBatches.shutdown();
+        }
 
         return units;
     }
+
+    private List<UnitInfo> extractUnits(SourceFile sourceFile, ProgressFeedback progressFeedback) {
+        if (progressFeedback.canceled()) {
+            return Collections.emptyList();
+        }
+        LanguageAnalyzer languageAnalyzer = LanguageAnalyzerFactory.getInstance().getLanguageAnalyzer(sourceFile);
+        return IncrementalAnalysisCache.getInstance().getUnits(sourceFile, () -> languageAnalyzer.extractUnits(sourceFile));
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode;
+
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class SourceFileContentCacheTest {
+    @Test
+    public void getContent() throws Exception {
+        File file = Files.createTempFile("sokrates", ".java").toFile();
+        file.deleteOnExit();
+        FileUtils.write(file, "class A {\n}\n", StandardCharsets.UTF_8);
+
+        SourceFileContentCache cache = new SourceFileContentCache();
+
+        assertEquals(cache.getContent(file), "class A {\n}\n");
+        assertEquals(cache.getContent(file), "class A {\n}\n");
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getHits(), 1);
+
+        FileUtils.write(file, "class B {\n    int b;\n}\n", StandardCharsets.UTF_8);
+        file.setLastModified(file.lastModified() + 2000);
+
+        assertEquals(cache.getContent(file), "class B {\n    int b;\n}\n");
+        assertEquals(cache.getMisses(), 2);
+    }
+
+    @Test
+    public void getCleanedContent() throws Exception {
+        File file = Files.createTempFile("sokrates", ".java").toFile();
+        file.deleteOnExit();
+        FileUtils.write(file, "class A {\n\n    // comment\n}\n", StandardCharsets.UTF_8);
+
+        SourceFileContentCache cache = new SourceFileContentCache();
+        cache.getContent(file);
+
+        int calls[] = {0};
+        CleanedContent first = cache.getCleanedContent(file, SourceFileContentCache.LINES_OF_CODE, () -> {
+            calls[0]++;
+            return new CleanedContent("class A {\n}");
+        });
+        first.setCleanedContent("changed by caller");
+
+        CleanedContent second = cache.getCleanedContent(file, SourceFileContentCache.LINES_OF_CODE, () -> {
+            calls[0]++;
+            return new CleanedContent("");
+        });
+
+        assertEquals(calls[0], 1);
+        assertEquals(second.getCleanedContent(), "class A {\n}");
+        assertEquals(cache.getCleanedMisses(), 1);
+        assertEquals(cache.getCleanedHits(), 1);
+
+        cache.getCleanedContent(file, SourceFileContentCache.DUPLICATION, () -> new CleanedContent(""));
+        assertEquals(cache.getCleanedMisses(), 2);
+        assertEquals(cache.getHits(), 0);
+        assertEquals(cache.getMisses(), 1);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        File file1 = Files.createTempFile("sokrates", ".java").toFile();
+        File file2 = Files.createTempFile("sokrates", ".java").toFile();
+        file1.deleteOnExit();
+        file2.deleteOnExit();
+        FileUtils.write(file1, "0123456789", StandardCharsets.UTF_8);
+        FileUtils.write(file2, "abcdefghij", StandardCharsets.UTF_8);
+
+        SourceFileContentCache cache = new SourceFileContentCache();
+        cache.reset(30, false);
+
+        cache.getContent(file1);
+        cache.getContent(file2);
+
+        assertEquals(cache.getUsedBytes(), 20);
+
+        cache.getContent(file1);
+        assertEquals(cache.getMisses(), 3);
+    }
+
+    @Test
+    public void getLines() throws Exception {
+        File file = Files.createTempFile("sokrates", ".txt").toFile();
+        file.deleteOnExit();
+        FileUtils.write(file, "a\r\nb\nc", StandardCharsets.UTF_8);
+
+        SourceFile sourceFile = new SourceFile(file);
+
+        assertEquals(sourceFile.getLines().size(), 3);
+        assertEquals(sourceFile.getLines().get(1), "b");
+        assertEquals(sourceFile.getContent(), "a\r\nb\nc");
+    }
+}
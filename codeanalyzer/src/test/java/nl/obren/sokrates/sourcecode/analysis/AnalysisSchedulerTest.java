@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.analysis;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AnalysisSchedulerTest {
+
+    @Test
+    public void runSequentially() {
+        List<String> executed = new ArrayList<>();
+        AnalysisScheduler scheduler = new AnalysisScheduler(1);
+        scheduler.addStage("a", () -> executed.add("a")).produces("x");
+        scheduler.addStage("b", () -> executed.add("b")).requires("x");
+        scheduler.addStage("c", () -> executed.add("c"));
+
+        scheduler.run();
+
+        assertEquals("[a, b, c]", executed.toString());
+    }
+
+    @Test
+    public void runInParallelRespectsDependencies() {
+        for (int i = 0; i < 20; i++) {
+            List<String> executed = Collections.synchronizedList(new ArrayList<>());
+            AnalysisScheduler scheduler = new AnalysisScheduler(4);
+            scheduler.addStage("basics", () -> executed.add("basics")).produces("scopes", "metrics");
+            scheduler.addStage("files", () -> executed.add("files")).requires("scopes").produces("files", "metrics");
+            scheduler.addStage("concerns", () -> executed.add("concerns")).requires("scopes").produces("metrics");
+            scheduler.addStage("units", () -> executed.add("units")).requires("scopes", "files").produces("units", "metrics");
+            scheduler.addStage("duplication", () -> executed.add("duplication")).requires("units", "history").produces("metrics");
+            scheduler.addStage("controls", () -> executed.add("controls")).requires("metrics");
+
+            scheduler.run();
+
+            assertEquals(6, executed.size());
+            assertEquals("basics", executed.get(0));
+            assertTrue(executed.indexOf("files") < executed.indexOf("units"));
+            assertTrue(executed.indexOf("units") < executed.indexOf("duplication"));
+            assertEquals("controls", executed.get(5));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void runPropagatesStageFailure() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(2);
+        scheduler.addStage("a", () -> {
+            throw new IllegalStateException("failed");
+        });
+        scheduler.addStage("b", () -> {
+        });
+
+        scheduler.run();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.cleaners;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+public class CodeBlocksScannerTest {
+    private static final String ALPHABET = "/*\"'\\#-=<>![]%q({)}@`\n\n  ab\t\r;";
+
+    @Test
+    public void clean() {
+        CommentsAndEmptyLinesCleaner cleaner = javaCleaner();
+        assertEquals("int a = 1; \n\nString s = \"/* \\\" // \";\n\nint b;\n",
+                cleaner.cleanKeepEmptyLines("int a = 1; // one\n/* two\n */String s = \"/* \\\" // \";\r\n\nint b;\n"));
+
+        CleanedContent cleanedContent = cleaner.clean("a\n\n// b\n  /* c */ d\n");
+        assertEquals("a\n   d", cleanedContent.getCleanedContent());
+        assertEquals(Arrays.asList(0, 3), cleanedContent.getFileLineIndexes());
+
+        // an unclosed block cuts off the rest of the content
+        assertEquals("a = ", cleaner.cleanKeepEmptyLines("a = \"b\nc"));
+    }
+
+    @Test
+    public void sameResultsAsCleaningOneBlockAtATime() {
+        List<Supplier<CommentsAndEmptyLinesCleaner>> cleaners = Arrays.asList(
+                this::javaCleaner,
+                () -> new CommentsAndEmptyLinesCleaner("//", "/*", "*/", "\"", "\\"),
+                () -> {
+                    CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+                    cleaner.addCommentBlockHelper("\"\"\"", "\"\"\"");
+                    cleaner.addCommentBlockHelper("#", "\n");
+                    cleaner.addStringBlockHelper("'''", "'''");
+                    cleaner.addStringBlockHelper("\"", "\\");
+                    cleaner.addStringBlockHelper("'", "\\");
+                    return cleaner;
+                },
+                () -> {
+                    CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+                    cleaner.addCommentBlockHelper("\n=begin", "\n=end");
+                    cleaner.addCommentBlockHelper("#", "\n");
+                    cleaner.addStringBlockHelper("%q(", ")", "");
+                    cleaner.addStringBlockHelper("\"", "\\");
+                    cleaner.addStringBlockHelper("`", "`", "\\");
+                    return cleaner;
+                },
+                () -> {
+                    CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+                    cleaner.addCommentBlockHelper("<!--", "-->");
+                    cleaner.addCommentBlockHelper("--[[", "]]");
+                    cleaner.addCommentBlockHelper("--", "\n");
+                    cleaner.addStringBlockHelper("@\"", "\"", "\"");
+                    cleaner.addStringBlockHelper("<![CDATA[", "]]>");
+                    return cleaner;
+                },
+                () -> {
+                    CommentsAndEmptyLinesCleaner cleaner = javaCleaner();
+                    cleaner.getCodeBlockParsers().forEach(codeBlockParser -> codeBlockParser.setRemoveWhenCleaning(true));
+                    return cleaner;
+                });
+
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String content = randomString(random, 60);
+            CommentsAndEmptyLinesCleaner cleaner = cleaners.get(i % cleaners.size()).get();
+            String expected = CommentsCleanersReference.cleanKeepEmptyLines(cleaner.getCodeBlockParsers(), content);
+            assertEquals(content, expected, cleaner.cleanKeepEmptyLines(content));
+
+            CleanedContent expectedCleanedContent = CommentsCleanersReference.clean(cleaner.getCodeBlockParsers(), content);
+            CleanedContent cleanedContent = cleaner.clean(content);
+            assertEquals(content, expectedCleanedContent.getCleanedContent(), cleanedContent.getCleanedContent());
+            assertEquals(content, expectedCleanedContent.getFileLineIndexes(), cleanedContent.getFileLineIndexes());
+        }
+    }
+
+    @Test
+    public void sameCommentsCleaningAsRemovingOneCommentAtATime() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            String content = SourceCodeCleanerUtils.normalizeLineEnds(randomString(random, 60));
+            for (String lineCommentStart : Arrays.asList("//", "#", "'", "\n#")) {
+                assertEquals(content, CommentsCleanersReference.cleanLineComments(content, lineCommentStart),
+                        CommentsCleanerUtils.cleanLineComments(content, lineCommentStart));
+            }
+            assertEquals(content, CommentsCleanersReference.cleanBlockComments(content, "/*", "*/"),
+                    CommentsCleanerUtils.cleanBlockComments(content, "/*", "*/"));
+            assertEquals(content, CommentsCleanersReference.cleanBlockComments(content, "<!--", "-->"),
+                    CommentsCleanerUtils.cleanBlockComments(content, "<!--", "-->"));
+        }
+    }
+
+    private CommentsAndEmptyLinesCleaner javaCleaner() {
+        CommentsAndEmptyLinesCleaner cleaner = new CommentsAndEmptyLinesCleaner();
+        cleaner.addCommentBlockHelper("/*", "*/");
+        cleaner.addCommentBlockHelper("//", "\n");
+        cleaner.addStringBlockHelper("\"", "\\");
+        cleaner.addStringBlockHelper("'", "\\");
+        return cleaner;
+    }
+
+    private String randomString(Random random, int maxLength) {
+        StringBuilder string = new StringBuilder();
+        for (int i = random.nextInt(maxLength); i > 0; i--) {
+            string.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return string.toString();
+    }
+}
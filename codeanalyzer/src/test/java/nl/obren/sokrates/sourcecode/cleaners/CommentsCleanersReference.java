@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.cleaners;
+
+import nl.obren.sokrates.sourcecode.CleaningResult;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+/*
+ * The former comment cleaning algorithms, which clean one block at a time and copy the content for each of them. The
+ * tests and the benchmarks compare the scanning cleaners with them.
+ */
+public class CommentsCleanersReference {
+    public static String cleanKeepEmptyLines(List<CodeBlockParser> codeBlockParsers, String originalContent) {
+        String content = SourceCodeCleanerUtils.normalizeLineEnds(originalContent);
+        int currentIndex = 0;
+
+        while (true) {
+            CodeBlockParser activeHelper = null;
+            int index = -1;
+            for (CodeBlockParser helper : codeBlockParsers) {
+                int helperIndex = helper.getStringStartIndex(content, currentIndex);
+                if (helperIndex >= 0 && (index == -1 || helperIndex < index)) {
+                    index = helperIndex;
+                    activeHelper = helper;
+                }
+            }
+
+            if (activeHelper != null) {
+                CleaningResult cleaningResult = activeHelper.cleanOrSkip(content, index);
+                content = cleaningResult.getContent();
+                currentIndex = cleaningResult.getCurrentIndex();
+            } else {
+                break;
+            }
+        }
+
+        return content;
+    }
+
+    public static CleanedContent clean(List<CodeBlockParser> codeBlockParsers, String originalContent) {
+        return SourceCodeCleanerUtils.cleanEmptyLinesWithLineIndexes(cleanKeepEmptyLines(codeBlockParsers, originalContent));
+    }
+
+    public static String cleanLineComments(String content, String lineCommentStart) {
+        StringBuilder cleanedContent = new StringBuilder(SourceCodeCleanerUtils.normalizeLineEnds(content));
+
+        while (true) {
+            int commentStartIndex = cleanedContent.indexOf(lineCommentStart);
+            if (commentStartIndex >= 0) {
+                int commentEndIndex = cleanedContent.indexOf("\n", commentStartIndex + 1);
+                if (commentEndIndex < 0) {
+                    commentEndIndex = cleanedContent.length();
+                }
+                cleanedContent.replace(commentStartIndex, commentEndIndex, "");
+            } else {
+                break;
+            }
+        }
+
+        return cleanedContent.toString();
+    }
+
+    public static String cleanBlockComments(String content, String commentBlockStart, String commentBlockEnd) {
+        StringBuilder cleanedContent = new StringBuilder(content);
+
+        int commentStartIndex = 0;
+        while (true) {
+            commentStartIndex = cleanedContent.indexOf(commentBlockStart, commentStartIndex);
+            if (commentStartIndex >= 0) {
+                int indexOfNewLineBefore = cleanedContent.substring(0, commentStartIndex).lastIndexOf("\n");
+                int indexOfQuoteBefore = cleanedContent.substring(0, commentStartIndex).indexOf("\"");
+                int indexOfNewLineAfter = cleanedContent.indexOf("\n", commentStartIndex + 1);
+                int indexOfQuoteAfter = cleanedContent.indexOf("\"", commentStartIndex + 1);
+                if (indexOfNewLineBefore != -1 && indexOfNewLineBefore < indexOfQuoteBefore && indexOfQuoteAfter != -1
+                        && indexOfQuoteAfter < indexOfNewLineAfter) {
+                    commentStartIndex = indexOfNewLineAfter + 1;
+                    continue;
+                }
+                int commentEndIndex = cleanedContent.indexOf(commentBlockEnd, commentStartIndex + commentBlockStart.length());
+                if (commentEndIndex > commentStartIndex) {
+                    String comment = cleanedContent.substring(commentStartIndex, commentEndIndex + commentBlockEnd.length());
+                    String replacement = StringUtils.repeat("\n", StringUtils.countMatches(comment, "\n"));
+                    cleanedContent.replace(commentStartIndex, commentEndIndex + commentBlockEnd.length(), replacement);
+                } else {
+                    break;
+                }
+            } else {
+                break;
+            }
+        }
+
+        return cleanedContent.toString();
+    }
+}
@@ -2,6 +2,9 @@ package nl.obren.sokrates.sourcecode.contributors;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ContributorTest {
@@ -22,4 +25,17 @@ class ContributorTest {
         assertFalse(c.isRookieAtDate("2020-02-15"));
         assertFalse(c.isRookieAtDate("2021-03-11"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void addCommitAfterCommitDatesAreReplaced() {
+        Contributor c = new Contributor();
+        c.addCommit("2021-01-01");
+        c.addCommit("2021-01-02");
+
+        c.setCommitDates(new ArrayList<>(Arrays.asList("2021-02-01", "2021-02-02")));
+        c.addCommit("2021-02-01");
+        c.addCommit("2021-01-01");
+
+        assertEquals(Arrays.asList("2021-02-01", "2021-02-02", "2021-01-01"), c.getCommitDates());
+    }
+}
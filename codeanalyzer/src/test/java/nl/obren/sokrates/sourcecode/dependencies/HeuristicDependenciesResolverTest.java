@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.dependencies;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.lang.java.JavaHeuristicDependenciesExtractor;
+import nl.obren.sokrates.sourcecode.lang.python.PythonDependenciesExtractor;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class HeuristicDependenciesResolverTest {
+    @Test
+    public void resolveJavaDependencies() {
+        List<SourceFile> files = Arrays.asList(
+                new SourceFile(new File("a/A.java"), "package a;\nimport b.B;\nimport c.*;\nclass A {}"),
+                new SourceFile(new File("a/A2.java"), "package a;\nimport c.C;\nclass A2 {}"),
+                new SourceFile(new File("b/B.java"), "package b;\n// uses a, but does not import it\nclass B {}"),
+                new SourceFile(new File("c/C.java"), "package c;\nimport b.B;\nclass C {}"));
+
+        JavaHeuristicDependenciesExtractor extractor = new JavaHeuristicDependenciesExtractor();
+        List<Dependency> dependencies = extractor.extractDependencies(files, new ProgressFeedback()).getDependencies();
+
+        assertEquals(Arrays.asList("a -> b [a/A.java: import b.B;]", "a -> c [a/A.java: import c.*;, a/A2.java: import c.C;]", "c -> b [c/C.java: import b.B;]"),
+                describe(dependencies));
+        assertEquals(describe(resolveAllPairs(extractor.getDependencyAnchors(files))), describe(dependencies));
+    }
+
+    @Test
+    public void resolvePythonDependencies() {
+        List<SourceFile> files = Arrays.asList(
+                new SourceFile(new File("app/main.py"), "import app.util\nfrom app.model import Item\n"),
+                new SourceFile(new File("app/util.py"), "from app import model\n"),
+                new SourceFile(new File("app/model.py"), "import os\n"));
+
+        PythonDependenciesExtractor extractor = new PythonDependenciesExtractor();
+        List<Dependency> dependencies = extractor.extractDependencies(files, new ProgressFeedback()).getDependencies();
+
+        assertEquals(describe(resolveAllPairs(extractor.getDependencyAnchors(files))), describe(dependencies));
+        assertEquals("main -> util [app/main.py: import app.util, app/main.py: import app.util]",
+                describe(dependencies).get(0));
+    }
+
+    // the straightforward anchor x anchor x file resolution
+    private List<Dependency> resolveAllPairs(List<DependencyAnchor> anchors) {
+        List<Dependency> dependencies = new ArrayList<>();
+        for (DependencyAnchor sourceAnchor : anchors) {
+            for (DependencyAnchor targetAnchor : anchors) {
+                if (sourceAnchor != targetAnchor) {
+                    sourceAnchor.getSourceFiles().forEach(sourceFile -> {
+                        String content = sourceFile.getContent();
+                        if (content.contains(targetAnchor.getAnchor())) {
+                            String codeFragment = targetAnchor.getDependencyCodeFragment(content);
+                            if (codeFragment != null) {
+                                SourceFileDependency sourceFileDependency = new SourceFileDependency(sourceFile);
+                                sourceFileDependency.setCodeFragment(codeFragment);
+                                DependencyUtils.addDependency(dependencies, sourceFileDependency, sourceAnchor, targetAnchor);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private List<String> describe(List<Dependency> dependencies) {
+        List<String> descriptions = new ArrayList<>();
+        dependencies.forEach(dependency -> {
+            List<String> fromFiles = new ArrayList<>();
+            dependency.getFromFiles().forEach(fromFile -> fromFiles.add(fromFile.getSourceFile().getFile().getPath() + ": " + fromFile.getCodeFragment()));
+            descriptions.add(dependency.getDependencyString() + " " + fromFiles);
+        });
+        return descriptions;
+    }
+}
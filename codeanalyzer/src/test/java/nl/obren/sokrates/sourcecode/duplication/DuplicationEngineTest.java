@@ -6,13 +6,16 @@ package nl.obren.sokrates.sourcecode.duplication;
 
 import nl.obren.sokrates.common.utils.ProgressFeedback;
 import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.duplication.impl.LineInfo;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static junit.framework.TestCase.assertEquals;
 
@@ -87,4 +90,38 @@ public class DuplicationEngineTest {
 
     }
 
+    @Test
+    public void findDuplicatesInParallel() {
+        Random random = new Random(11);
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            StringBuilder content = new StringBuilder();
+            int lines = 30 + random.nextInt(100);
+            for (int j = 0; j < lines; j++) {
+                content.append("line ").append(random.nextInt(15)).append("\n");
+            }
+            sourceFiles.add(new SourceFile(new File("file" + i + ".unknown"), content.toString()));
+        }
+
+        DuplicationEngine parallelEngine = new DuplicationEngine();
+        parallelEngine.setThreads(4);
+
+        // line IDs come from a global counter and determine the order of found duplicates
+        LineInfo.resetCounter();
+        String expected = describe(new DuplicationEngine().findDuplicates(sourceFiles, 3, new ProgressFeedback()));
+        LineInfo.resetCounter();
+        assertEquals(expected, describe(parallelEngine.findDuplicates(sourceFiles, 3, new ProgressFeedback())));
+    }
+
+    private String describe(List<DuplicationInstance> duplicates) {
+        StringBuilder description = new StringBuilder();
+        duplicates.forEach(duplicate -> {
+            description.append(duplicate.getBlockSize()).append(":");
+            duplicate.getDuplicatedFileBlocks().forEach(block -> description.append(" ")
+                    .append(block.getSourceFile().getFile().getName()).append("[")
+                    .append(block.getCleanedStartLine()).append("-").append(block.getCleanedEndLine()).append("]"));
+            description.append("\n");
+        });
+        return description.toString();
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.duplication;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class FingerprintDuplicationEngineTest {
+    @Test
+    public void getInstance() {
+        assertTrue(DuplicationEngine.getInstance("fingerprint") instanceof FingerprintDuplicationEngine);
+        assertFalse(DuplicationEngine.getInstance("blocks") instanceof FingerprintDuplicationEngine);
+        assertFalse(DuplicationEngine.getInstance(null) instanceof FingerprintDuplicationEngine);
+    }
+
+    @Test
+    public void findDuplicates() {
+        SourceFile sourceFile1 = new SourceFile(new File("file1.unknown"), "a\nb\nc\nd\ne\nf\ng\nh\ni\nj\nk\nl\nm\nn\no\nj\nj\nj\nk\n");
+        SourceFile sourceFile2 = new SourceFile(new File("file2.unknown"), "a\nb\nc\nd\ne\nf\ng\nbreak here\ni\nj\nk\nl\nm\nn\no\nj\nj\nj\nk\n");
+        List<SourceFile> sourceFiles = Arrays.asList(sourceFile1, sourceFile2);
+
+        DuplicationEngine engine = new FingerprintDuplicationEngine();
+        List<DuplicationInstance> duplicates = engine.findDuplicates(sourceFiles, 6, new ProgressFeedback());
+
+        assertEquals(8, duplicates.size());
+        assertEquals(describe(new DuplicationEngine().findDuplicates(sourceFiles, 6, new ProgressFeedback())), describe(duplicates));
+        assertEquals(38, engine.getTotalCleanedLinesOfCode());
+    }
+
+    @Test
+    public void findDuplicatesWithinFile() {
+        SourceFile sourceFile = new SourceFile(new File("file.unknown"), "x\nx\nx\nx\nx\nx\nx\nunique\na\nb\nc\na\nb\nc\na\nb\n");
+        List<SourceFile> sourceFiles = Arrays.asList(sourceFile);
+
+        List<DuplicationInstance> expected = new DuplicationEngine().findDuplicates(sourceFiles, 3, new ProgressFeedback());
+        List<DuplicationInstance> duplicates = new FingerprintDuplicationEngine().findDuplicates(sourceFiles, 3, new ProgressFeedback());
+
+        assertEquals(describe(expected), describe(duplicates));
+    }
+
+    @Test
+    public void sameResultsAsBlocksEngine() {
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 10; iteration++) {
+            List<SourceFile> sourceFiles = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                StringBuilder content = new StringBuilder();
+                int lines = 20 + random.nextInt(80);
+                for (int j = 0; j < lines; j++) {
+                    content.append("line ").append(random.nextInt(12)).append("\n");
+                }
+                sourceFiles.add(new SourceFile(new File("file" + i + ".unknown"), content.toString()));
+            }
+
+            for (int threshold = 2; threshold <= 4; threshold++) {
+                List<DuplicationInstance> expected = new DuplicationEngine().findDuplicates(sourceFiles, threshold, new ProgressFeedback());
+                List<DuplicationInstance> duplicates = new FingerprintDuplicationEngine().findDuplicates(sourceFiles, threshold, new ProgressFeedback());
+
+                assertEquals(describe(expected), describe(duplicates));
+            }
+        }
+    }
+
+    private TreeSet<String> describe(List<DuplicationInstance> duplicates) {
+        TreeSet<String> descriptions = new TreeSet<>();
+        duplicates.forEach(duplicate -> {
+            TreeSet<String> blocks = new TreeSet<>();
+            duplicate.getDuplicatedFileBlocks().forEach(block -> blocks.add(block.getSourceFile().getFile().getName()
+                    + ":" + block.getCleanedStartLine() + "-" + block.getCleanedEndLine()
+                    + " (" + block.getStartLine() + "-" + block.getEndLine() + ")"));
+            descriptions.add(duplicate.getBlockSize() + " " + blocks);
+        });
+        return descriptions;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.duplication;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.units.UnitInfo;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class UnitDuplicatesExtractorTest {
+    @Test
+    public void sameResultsAsComparingAllPairs() {
+        List<String> bodies = Arrays.asList(
+                "void a() {\nint x = 1;\nint y = 2;\nreturn x + y;\n}\n",
+                "void b() {\nint x = 1;\n\n  int y = 2;\nreturn x + y;\n}\n",
+                "void c() {\nINT X = 1;\nint y = 2;\nreturn x + y;\n}\n",
+                "void d() {\nint x = 3;\nint y = 2;\nreturn x + y;\n}\n",
+                "void e() {\nreturn 1;\n}\n");
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            SourceFile sourceFile = new SourceFile(new File("src/File" + i + ".java"), "");
+            sourceFile.setRelativePath(i == 5 ? "src/FILE0.java" : "src/File" + i + ".java");
+            sourceFiles.add(sourceFile);
+        }
+
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<UnitInfo> units = new ArrayList<>();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                if (units.size() > 0 && random.nextInt(10) == 0) {
+                    units.add(units.get(random.nextInt(units.size())));
+                } else {
+                    units.add(unit(sourceFiles.get(random.nextInt(sourceFiles.size())), i, bodies.get(random.nextInt(bodies.size()))));
+                }
+            }
+            int threshold = random.nextInt(4);
+            assertEquals(describe(findDuplicatedUnitsByComparingAllPairs(units, threshold)),
+                    describe(new UnitDuplicatesExtractor().findDuplicatedUnits(units, threshold)));
+        }
+    }
+
+    @Test
+    public void findSimilarUnits() {
+        SourceFile sourceFile = new SourceFile(new File("src/A.java"), "");
+        sourceFile.setRelativePath("src/A.java");
+        StringBuilder body = new StringBuilder("void a() {\n");
+        for (int i = 0; i < 20; i++) {
+            body.append("call").append(i).append("();\n");
+        }
+        String body1 = body.toString() + "}\n";
+        String body2 = body1.replace("call7();", "call7(x);");
+        String body3 = body1.replace("call", "other");
+
+        List<UnitInfo> units = Arrays.asList(unit(sourceFile, 1, body1), unit(sourceFile, 30, body3),
+                unit(sourceFile, 60, body2), unit(sourceFile, 90, body1));
+        List<DuplicationInstance> similarUnits = new UnitDuplicatesExtractor().findSimilarUnits(units, 6, 0.8);
+
+        assertEquals(1, similarUnits.size());
+        assertEquals(Arrays.asList(1, 90, 60), similarUnits.get(0).getDuplicatedFileBlocks().stream()
+                .map(DuplicatedFileBlock::getStartLine).collect(Collectors.toList()));
+        assertEquals(0, new UnitDuplicatesExtractor().findSimilarUnits(units, 6, 0.99).size());
+    }
+
+    private UnitInfo unit(SourceFile sourceFile, int startLine, String cleanedBody) {
+        UnitInfo unit = new UnitInfo();
+        unit.setSourceFile(sourceFile);
+        unit.setStartLine(startLine);
+        unit.setEndLine(startLine + 5);
+        unit.setCleanedBody(cleanedBody);
+        return unit;
+    }
+
+    private String describe(List<DuplicationInstance> duplicates) {
+        return duplicates.stream().map(instance -> instance.getBlockSize() + " " + instance.getDisplayContent().hashCode() + " "
+                + instance.getDuplicatedFileBlocks().stream()
+                .map(block -> block.getSourceFile().getRelativePath() + ":" + block.getStartLine())
+                .collect(Collectors.joining(", ")))
+                .collect(Collectors.joining("\n"));
+    }
+
+    // the former implementation, which compares every unit with every other unit
+    private List<DuplicationInstance> findDuplicatedUnitsByComparingAllPairs(List<UnitInfo> units, int threshold) {
+        UnitDuplicatesExtractor extractor = new UnitDuplicatesExtractor();
+        List<DuplicationInstance> duplicates = new ArrayList<>();
+        Map<String, DuplicationInstance> map = new HashMap<>();
+
+        units.forEach(unit1 -> {
+            units.forEach(unit2 -> {
+                List<String> lines1 = extractor.getLinesCleanedForDuplication(unit1);
+                int size = lines1.size() - 1;
+                if (size >= threshold && unit1 != unit2) {
+                    List<String> lines2 = extractor.getLinesCleanedForDuplication(unit2);
+                    String bodyForDuplication1 = lines1.stream().skip(1).collect(Collectors.joining("\n"));
+                    String bodyForDuplication2 = lines2.stream().skip(1).collect(Collectors.joining("\n"));
+                    if (bodyForDuplication1.equalsIgnoreCase(bodyForDuplication2)) {
+                        DuplicatedFileBlock block1 = extractor.getDuplicatedFileBlock(unit1);
+                        DuplicatedFileBlock block2 = extractor.getDuplicatedFileBlock(unit2);
+                        if (map.containsKey(bodyForDuplication1)) {
+                            DuplicationInstance instance = map.get(bodyForDuplication1);
+                            if (!containsBlock(instance, block1)) {
+                                instance.getDuplicatedFileBlocks().add(block1);
+                            }
+                            if (!containsBlock(instance, block2)) {
+                                instance.getDuplicatedFileBlocks().add(block2);
+                            }
+                        } else {
+                            DuplicationInstance instance = new DuplicationInstance();
+                            instance.setDisplayContent(unit1.getCleanedBody());
+                            instance.setBlockSize(size);
+                            instance.getDuplicatedFileBlocks().add(block1);
+                            instance.getDuplicatedFileBlocks().add(block2);
+                            duplicates.add(instance);
+                            map.put(bodyForDuplication1, instance);
+                        }
+                    }
+                }
+            });
+        });
+
+        return duplicates;
+    }
+
+    private boolean containsBlock(DuplicationInstance instance, DuplicatedFileBlock block) {
+        return instance.getDuplicatedFileBlocks().stream().anyMatch(duplicatedFileBlock -> duplicatedFileBlock.getSourceFile()
+                .getRelativePath().equalsIgnoreCase(block.getSourceFile().getRelativePath()));
+    }
+}
@@ -2,6 +2,9 @@ package nl.obren.sokrates.sourcecode.filehistory;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DateUtilsTest {
@@ -29,4 +32,54 @@ class DateUtilsTest {
         assertFalse(DateUtils.isCommittedLessThanDaysAgo("2020-09-19", 10));
         assertFalse(DateUtils.isCommittedLessThanDaysAgo("2020-09-18", 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    void toEpochDay() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), DateUtils.toEpochDay(date.toString()));
+            assertEquals(date.toString(), DateUtils.toDate(DateUtils.toEpochDay(date.toString())));
+        }
+        assertEquals(LocalDate.of(2020, 9, 22).toEpochDay(), DateUtils.toEpochDay("2020-09-22 10:11:12"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.toEpochDay(""));
+        assertEquals(DateUtils.NO_DATE, DateUtils.toEpochDay(null));
+        assertEquals(DateUtils.NO_DATE, DateUtils.toEpochDay("2020-9-22"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.toEpochDay("2020-13-01"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.toEpochDay("2020/09/22"));
+    }
+
+    @Test
+    void getAnalysisEpochDay() {
+        DateUtils.dateParam = "2020-10-01";
+        assertEquals(LocalDate.of(2020, 10, 1).toEpochDay(), DateUtils.getAnalysisEpochDay());
+        assertEquals("2020-10-01", DateUtils.getAnalysisDate());
+
+        DateUtils.dateParam = "2021-03-01";
+        assertEquals(LocalDate.of(2021, 3, 1).toEpochDay(), DateUtils.getAnalysisEpochDay());
+        assertEquals("2021-03-01", DateUtils.getAnalysisDate());
+
+        DateUtils.dateParam = "2021-5-3";
+        assertEquals("2021-05-03", DateUtils.getAnalysisDate());
+    }
+
+    @Test
+    void parseEpochDay() {
+        assertEquals(LocalDate.of(2021, 5, 3).toEpochDay(), DateUtils.parseEpochDay("2021-05-03"));
+        assertEquals(LocalDate.of(2021, 5, 3).toEpochDay(), DateUtils.parseEpochDay("2021-5-3"));
+        assertEquals(LocalDate.of(2021, 12, 3).toEpochDay(), DateUtils.parseEpochDay("2021-12-3"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.parseEpochDay("2021-2-30"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.parseEpochDay("2021/5/3"));
+        assertEquals(DateUtils.NO_DATE, DateUtils.parseEpochDay(""));
+        assertEquals(DateUtils.NO_DATE, DateUtils.parseEpochDay(null));
+    }
+
+    @Test
+    void isAnyDateCommittedBetween() {
+        DateUtils.dateParam = "2020-10-01";
+        int[] epochDays = DateUtils.toEpochDays(Arrays.asList("2020-08-01", "2020-09-10", ""));
+
+        assertFalse(DateUtils.isAnyDateCommittedBetween(epochDays, 10, 20));
+        assertTrue(DateUtils.isAnyDateCommittedBetween(epochDays, 10, 21));
+        assertTrue(DateUtils.isAnyDateCommittedBetween(Arrays.asList("2020-08-01", "2020-09-10", ""), 10, 21));
+        assertFalse(DateUtils.isAnyDateCommittedBetween(new int[0], 0, 30));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.filehistory;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FilePairsChangedTogetherCalculatorTest {
+    private NamedSourceCodeAspect aspect = new NamedSourceCodeAspect("main");
+    private List<FileModificationHistory> histories = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        DateUtils.setDateParam("2021-06-30");
+
+        addFile("A.java", "c1 2000-01-01", "c2 2021-06-20", "c3 2021-06-25");
+        addFile("B.java", "c1 2000-01-01", "c2 2021-06-20");
+        addFile("C.java", "c2 2021-06-20", "c3 2021-06-25");
+        addFile("NotInAspect.java", "c2 2021-06-20");
+        aspect.getSourceFiles().remove(3);
+    }
+
+    @After
+    public void tearDown() {
+        DateUtils.setDateParam(null);
+    }
+
+    @Test
+    public void populateMultipleWindows() {
+        FilePairsChangedTogetherCalculator calculator = new FilePairsChangedTogetherCalculator(0, 0, 30);
+        calculator.populate(aspect, histories);
+
+        assertEquals(Arrays.asList("B.java-A.java [c1, c2] 2021-06-20", "C.java-A.java [c2, c3] 2021-06-25", "C.java-B.java [c2] 2021-06-20"),
+                describe(calculator.getFilePairs(0)));
+        assertEquals(Arrays.asList("C.java-A.java [c2, c3] 2021-06-25", "B.java-A.java [c2] 2021-06-20", "C.java-B.java [c2] 2021-06-20"),
+                describe(calculator.getFilePairs(1)));
+        assertEquals(2, calculator.getFilePairs(0).get(0).getCommitsCountFile1());
+        assertEquals(3, calculator.getFilePairs(0).get(0).getCommitsCountFile2());
+
+        FilePairsChangedTogether filePairsChangedTogether = new FilePairsChangedTogether(30);
+        filePairsChangedTogether.populate(aspect, histories);
+        assertEquals(describe(calculator.getFilePairs(1)), describe(filePairsChangedTogether.getFilePairs()));
+    }
+
+    @Test
+    public void skipLargeCommits() {
+        FilePairsChangedTogetherCalculator calculator = new FilePairsChangedTogetherCalculator(2, 0);
+        calculator.populate(aspect, histories);
+
+        assertEquals(Arrays.asList("B.java-A.java [c1] 2000-01-01", "C.java-A.java [c3] 2021-06-25"),
+                describe(calculator.getFilePairs(0)));
+    }
+
+    private void addFile(String path, String... commits) {
+        SourceFile sourceFile = new SourceFile(new File(path), "");
+        sourceFile.setRelativePath(path);
+        aspect.getSourceFiles().add(sourceFile);
+
+        FileModificationHistory history = new FileModificationHistory(path);
+        for (String commit : commits) {
+            String elements[] = commit.split(" ");
+            history.getCommits().add(new CommitInfo(elements[0], elements[1]));
+        }
+        histories.add(history);
+    }
+
+    private List<String> describe(List<FilePairChangedTogether> pairs) {
+        List<String> descriptions = new ArrayList<>();
+        pairs.forEach(pair -> descriptions.add(pair.getSourceFile1().getRelativePath() + "-" + pair.getSourceFile2().getRelativePath()
+                + " " + pair.getCommits() + " " + pair.getLatestCommit()));
+        return descriptions;
+    }
+}
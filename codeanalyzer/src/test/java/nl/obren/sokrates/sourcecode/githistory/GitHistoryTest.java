@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.githistory;
+
+import nl.obren.sokrates.sourcecode.analysis.FileHistoryAnalysisConfig;
+import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
+import nl.obren.sokrates.sourcecode.filehistory.GitHistoryUtil;
+import nl.obren.sokrates.sourcecode.operations.OperationStatement;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GitHistoryTest {
+    @Test
+    public void readHistory() throws Exception {
+        File file = Files.createTempFile("git-history", ".txt").toFile();
+        file.deleteOnExit();
+        FileUtils.write(file, "2020-01-02 a@org.com c1 src/A.java\n" +
+                "2020-01-02 a@org.com c1 src/B.java\n" +
+                "invalid line\n" +
+                "2020-01-03 bot@org.com c2 src/A.java\n" +
+                "2020-01-04 b@org.com c3 src/A.java\n", StandardCharsets.UTF_8);
+
+        FileHistoryAnalysisConfig config = new FileHistoryAnalysisConfig();
+        config.setIgnoreContributors(Arrays.asList("bot@.*"));
+
+        GitHistory history = GitHistoryUtils.readHistory(file, config);
+
+        assertEquals(3, history.size());
+        assertEquals(2, history.getCommitIds().size());
+        assertEquals(2, history.getPaths().size());
+        assertEquals(2, history.getEmails().size());
+        assertEquals(history.getPathId(0), history.getPathId(2));
+        assertEquals(history.getCommitId(0), history.getCommitId(1));
+
+        List<String> lines = new ArrayList<>();
+        history.forEach(update -> lines.add(update.getDate() + " " + update.getAuthorEmail() + " " + update.getCommitId() + " " + update.getPath()));
+        assertEquals(Arrays.asList("2020-01-02 a@org.com c1 src/A.java", "2020-01-02 a@org.com c1 src/B.java",
+                "2020-01-04 b@org.com c3 src/A.java"), lines);
+
+        assertSame(history.get(0).getPath(), history.get(2).getPath());
+    }
+
+    @Test
+    public void addAll() {
+        GitHistory history = new GitHistory();
+        history.add("2020-01-03", "b@org.com", "c2", "src/B.java");
+        GitHistory previous = new GitHistory();
+        previous.add("2020-01-02", "a@org.com", "c1", "src/A.java");
+        previous.add("2020-01-02", "b@org.com", "c1", "src/B.java");
+
+        history.addAll(previous);
+
+        GitHistory expected = new GitHistory();
+        expected.add("2020-01-03", "b@org.com", "c2", "src/B.java");
+        expected.add("2020-01-02", "a@org.com", "c1", "src/A.java");
+        expected.add("2020-01-02", "b@org.com", "c1", "src/B.java");
+        assertEquals(3, history.size());
+        assertEquals(expected.getEmails().getValues(), history.getEmails().getValues());
+        assertEquals(expected.getPaths().getValues(), history.getPaths().getValues());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getDateId(i), history.getDateId(i));
+            assertEquals(expected.getEmailId(i), history.getEmailId(i));
+            assertEquals(expected.getCommitId(i), history.getCommitId(i));
+            assertEquals(expected.getPathId(i), history.getPathId(i));
+        }
+    }
+
+    @Test
+    public void transformEmails() {
+        FileHistoryAnalysisConfig config = new FileHistoryAnalysisConfig();
+        config.setTransformContributorEmails(Arrays.asList(new OperationStatement("replace", Arrays.asList("@old[.]org", "@org.com"))));
+        GitHistoryLineParser parser = new GitHistoryLineParser(config);
+
+        GitHistory history = new GitHistory();
+        assertTrue(parser.parse("2020-01-02 a@old.org c1 src/A.java", history));
+        assertTrue(parser.parse("2020-01-03 a@org.com c2 src/A.java", history));
+        assertFalse(parser.parse("2020-01-03", history));
+
+        assertEquals(1, history.getEmails().size());
+        assertEquals("a@org.com", history.get(0).getAuthorEmail());
+    }
+
+    @Test
+    public void skipCommentLines() {
+        GitHistoryLineParser parser = new GitHistoryLineParser(new FileHistoryAnalysisConfig());
+
+        GitHistory history = new GitHistory();
+        assertFalse(parser.parse(GitHistoryIndexFile.getWatermarkLine("0bc5d0318b3814ebd5b52605668756a8d5598e24"), history));
+        assertFalse(parser.parse("#2020-01-02 a@org.com c1 src/A.java", history));
+        assertNull(parser.parse("#watermark a b c"));
+        assertTrue(parser.parse("2020-01-02 a@org.com c1 src/A.java", history));
+
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    public void aggregations() {
+        GitHistory history = new GitHistory();
+        history.add("2020-01-02", "a@org.com", "c1", "src/A.java");
+        history.add("2020-01-02", "a@org.com", "c1", "src/B.java");
+        history.add("2020-01-03", "b@org.com", "c2", "src/A.java");
+        history.add("2020-01-02", "b@org.com", "c3", "src/A.java");
+
+        List<AuthorCommit> commits = GitHistoryUtils.getAuthorCommits(history);
+        assertEquals(3, commits.size());
+        assertEquals("b@org.com", commits.get(2).getAuthorEmail());
+
+        List<FileModificationHistory> files = new GitHistoryUtil().importHistory(history);
+        assertEquals(2, files.size());
+        assertEquals("src/A.java", files.get(0).getPath());
+        assertEquals(3, files.get(0).getCommits().size());
+        assertEquals(Arrays.asList("2020-01-02", "2020-01-03"), files.get(0).getDates());
+    }
+
+    @Test
+    public void readHistoryFromIndex() throws Exception {
+        File folder = Files.createTempDirectory("git-history").toFile();
+        File file = new File(folder, GitHistoryUtils.GIT_HISTORY_FILE_NAME);
+        FileUtils.write(file, GitHistoryIndexFile.getWatermarkLine("c3") + "\n" +
+                "2020-01-04 b@org.com c3 src/A.java\n" +
+                "2020-01-03 bot@org.com c2 src/A.java\n" +
+                "2020-01-02 a@org.com c1 src/B.java\n", StandardCharsets.UTF_8);
+        FileHistoryAnalysisConfig rawConfig = new FileHistoryAnalysisConfig();
+        GitHistory rawHistory = GitHistoryUtils.readHistory(file, rawConfig);
+        assertEquals(3, rawHistory.size());
+        assertEquals("c3", GitHistoryIndexFile.readWatermark(file));
+
+        GitHistoryIndexFile.save(file, rawHistory, "c3");
+        GitHistory indexedHistory = GitHistoryIndexFile.load(file);
+        assertNotNull(indexedHistory);
+        assertEquals(3, indexedHistory.size());
+        assertEquals("src/B.java", indexedHistory.getPath(2));
+        assertEquals("bot@org.com", indexedHistory.getEmail(1));
+
+        FileHistoryAnalysisConfig config = new FileHistoryAnalysisConfig();
+        config.setIgnoreContributors(Arrays.asList("bot@.*"));
+        GitHistory history = GitHistoryUtils.readHistory(file, config);
+        assertEquals(2, history.size());
+        assertEquals("b@org.com", history.getEmail(0));
+
+        FileUtils.write(file, "2020-01-05 b@org.com c4 src/C.java\n", StandardCharsets.UTF_8, true);
+        assertNull(GitHistoryIndexFile.load(file));
+
+        FileUtils.deleteDirectory(folder);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.incremental;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.cleaners.CleanedContent;
+import nl.obren.sokrates.sourcecode.dependencies.DependencyAnchor;
+import nl.obren.sokrates.sourcecode.search.FoundLine;
+import nl.obren.sokrates.sourcecode.units.UnitInfo;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class IncrementalAnalysisCacheTest {
+    @Test
+    public void reuseFactsOfUnchangedFiles() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file1 = new File(root, "A.java");
+        File file2 = new File(root, "B.java");
+        FileUtils.write(file1, "class A {\n}\n", StandardCharsets.UTF_8);
+        FileUtils.write(file2, "class B {\n}\n", StandardCharsets.UTF_8);
+
+        int calls[] = {0};
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 2)));
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file2), counting(calls, 2)));
+        assertEquals(2, calls[0]);
+        cache.save();
+
+        assertTrue(new File(root, "_sokrates_cache/" + IncrementalAnalysisCache.INDEX_FILE_NAME).exists());
+
+        FileUtils.write(file2, "class B {\n    int b;\n}\n", StandardCharsets.UTF_8);
+        file2.setLastModified(file2.lastModified() + 2000);
+
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 100)));
+        assertEquals(3, cache.getLinesOfCode(sourceFile(root, file2), counting(calls, 3)));
+        assertEquals(3, calls[0]);
+        assertEquals(1, cache.getUnchangedFiles());
+        assertEquals(1, cache.getChangedFiles());
+
+        // touching a file without changing its content keeps the cached facts
+        cache.save();
+        file1.setLastModified(file1.lastModified() + 4000);
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 100)));
+        assertEquals(3, calls[0]);
+
+        // a configuration change invalidates all facts
+        cache.save();
+        FileUtils.write(configFile, "{\"name\": \"changed\"}", StandardCharsets.UTF_8);
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(100, cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 100)));
+        assertEquals(4, calls[0]);
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void analyzerChangeInvalidatesFacts() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file = new File(root, "A.java");
+        FileUtils.write(file, "class A {\n}\n", StandardCharsets.UTF_8);
+
+        String fingerprint = IncrementalAnalysisCache.getAnalyzerFingerprint();
+        assertFalse(fingerprint.startsWith("unknown"));
+        assertEquals(fingerprint, IncrementalAnalysisCache.getAnalyzerFingerprint());
+
+        int calls[] = {0};
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file), counting(calls, 2)));
+        cache.save();
+
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(2, cache.getLinesOfCode(sourceFile(root, file), counting(calls, 100)));
+        assertEquals(1, calls[0]);
+
+        // facts saved by another build of the analyzer are not reused
+        File indexFile = new File(root, "_sokrates_cache/" + IncrementalAnalysisCache.INDEX_FILE_NAME);
+        String index = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
+        assertTrue(index.contains(fingerprint));
+        FileUtils.write(indexFile, index.replace(fingerprint, "another build"), StandardCharsets.UTF_8);
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        assertEquals(100, cache.getLinesOfCode(sourceFile(root, file), counting(calls, 100)));
+        assertEquals(2, calls[0]);
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void reuseUnits() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file = new File(root, "A.java");
+        FileUtils.write(file, "class A {\n    void a() {\n    }\n}\n", StandardCharsets.UTF_8);
+
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getUnits(sourceFile(root, file), () -> {
+            List<UnitInfo> units = new ArrayList<>();
+            UnitInfo unit = new UnitInfo();
+            unit.setShortName("a()");
+            unit.setStartLine(2);
+            unit.setEndLine(3);
+            unit.setLinesOfCode(2);
+            unit.setMcCabeIndex(3);
+            unit.setBody("    void a() {\n    }");
+            units.add(unit);
+            return units;
+        });
+        cache.save();
+
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        SourceFile sourceFile = sourceFile(root, file);
+        List<UnitInfo> units = cache.getUnits(sourceFile, () -> {
+            throw new IllegalStateException("units should come from the cache");
+        });
+
+        assertEquals(1, units.size());
+        assertEquals("a()", units.get(0).getShortName());
+        assertEquals(3, units.get(0).getMcCabeIndex());
+        assertEquals(2, units.get(0).getLinesOfCode());
+        assertEquals("    void a() {\n    }", units.get(0).getBody());
+        assertSame(sourceFile, units.get(0).getSourceFile());
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void reuseContentCleanedForDuplication() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file = new File(root, "A.java");
+        FileUtils.write(file, "class A {\n    // comment\n    int a;\n}\n", StandardCharsets.UTF_8);
+
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getCleanedContentForDuplication(sourceFile(root, file), () -> {
+            CleanedContent cleanedContent = new CleanedContent("class A {\nint a;\n}");
+            cleanedContent.getFileLineIndexes().addAll(Arrays.asList(0, 2, 3));
+            return cleanedContent;
+        });
+        cache.save();
+
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        CleanedContent cleanedContent = cache.getCleanedContentForDuplication(sourceFile(root, file), () -> {
+            throw new IllegalStateException("the cleaned content should come from the cache");
+        });
+
+        assertEquals("class A {\nint a;\n}", cleanedContent.getCleanedContent());
+        assertEquals(Arrays.asList(0, 2, 3), cleanedContent.getFileLineIndexes());
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void reuseConcernMatches() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file = new File(root, "A.java");
+        FileUtils.write(file, "class A {\n    // TODO\n}\n", StandardCharsets.UTF_8);
+
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getConcernMatches(sourceFile(root, file), Arrays.asList(".*TODO.*", ".*FIXME.*"), expressions -> {
+            assertEquals(Arrays.asList(".*TODO.*", ".*FIXME.*"), expressions);
+            Map<String, List<FoundLine>> foundLines = new HashMap<>();
+            foundLines.put(".*TODO.*", new ArrayList<>(Arrays.asList(new FoundLine(2, "    // TODO", "    // TODO"))));
+            return foundLines;
+        });
+        cache.save();
+
+        // only the expressions the content was not searched for before are searched
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        Map<String, List<FoundLine>> foundLines = cache.getConcernMatches(sourceFile(root, file),
+                Arrays.asList(".*TODO.*", ".*FIXME.*", ".*class.*"), expressions -> {
+                    assertEquals(Arrays.asList(".*class.*"), expressions);
+                    Map<String, List<FoundLine>> classLines = new HashMap<>();
+                    classLines.put(".*class.*", new ArrayList<>(Arrays.asList(new FoundLine(1, "class A {", "class A {"))));
+                    return classLines;
+                });
+
+        assertEquals(3, foundLines.size());
+        assertEquals(1, foundLines.get(".*TODO.*").size());
+        assertEquals(2, foundLines.get(".*TODO.*").get(0).getLineNumber());
+        assertEquals("    // TODO", foundLines.get(".*TODO.*").get(0).getFoundText());
+        assertEquals(0, foundLines.get(".*FIXME.*").size());
+        assertEquals(1, foundLines.get(".*class.*").get(0).getLineNumber());
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void reuseDependencyAnchorsPerFile() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file1 = new File(root, "a/m.py");
+        File file2 = new File(root, "b/m.py");
+        FileUtils.write(file1, "x = 1\n", StandardCharsets.UTF_8);
+        FileUtils.write(file2, "x = 1\n", StandardCharsets.UTF_8);
+
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getDependencyAnchors(sourceFile(root, file1), "extractor", () -> anchors("a.m"));
+        cache.getDependencyAnchors(sourceFile(root, file2), "extractor", () -> anchors("b.m"));
+        cache.save();
+
+        // files with the same content keep their own anchors, as anchors may depend on the path
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        SourceFile sourceFile = sourceFile(root, file2);
+        List<DependencyAnchor> anchors = cache.getDependencyAnchors(sourceFile, "extractor", () -> {
+            throw new IllegalStateException("the anchors should come from the cache");
+        });
+
+        assertEquals(1, anchors.size());
+        assertEquals("b.m", anchors.get(0).getAnchor());
+        assertEquals("import b.m", anchors.get(0).getCodeFragment());
+        assertEquals(Arrays.asList("import b[.]m"), anchors.get(0).getDependencyPatterns());
+        assertEquals(1, anchors.get(0).getSourceFiles().size());
+        assertSame(sourceFile, anchors.get(0).getSourceFiles().get(0));
+        assertEquals("c.m", cache.getDependencyAnchors(sourceFile, "another extractor", () -> anchors("c.m")).get(0).getAnchor());
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    private List<DependencyAnchor> anchors(String name) {
+        DependencyAnchor anchor = new DependencyAnchor(name);
+        anchor.setCodeFragment("import " + name);
+        anchor.getDependencyPatterns().add("import " + name.replace(".", "[.]"));
+        return new ArrayList<>(Arrays.asList(anchor));
+    }
+
+    @Test
+    public void saveFactsPerContent() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        File file1 = new File(root, "A.java");
+        File file2 = new File(root, "copy/A.java");
+        File file3 = new File(root, "B.java");
+        FileUtils.write(file1, "class A {\n}\n", StandardCharsets.UTF_8);
+        FileUtils.write(file2, "class A {\n}\n", StandardCharsets.UTF_8);
+        FileUtils.write(file3, "class B {\n}\n", StandardCharsets.UTF_8);
+
+        int calls[] = {0};
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 2));
+        cache.getLinesOfCode(sourceFile(root, file2), counting(calls, 2));
+        cache.getLinesOfCode(sourceFile(root, file3), counting(calls, 2));
+        cache.save();
+
+        // files with the same content share their facts
+        assertEquals(2, calls[0]);
+        File factsFolder = new File(root, "_sokrates_cache/" + IncrementalAnalysisCache.FACTS_FOLDER_NAME);
+        assertEquals(2, FileUtils.listFiles(factsFolder, new String[]{"json"}, true).size());
+
+        // facts of deleted files are removed
+        FileUtils.forceDelete(file3);
+        cache = new IncrementalAnalysisCache();
+        cache.load(configFile);
+        cache.getLinesOfCode(sourceFile(root, file1), counting(calls, 100));
+        cache.getLinesOfCode(sourceFile(root, file2), counting(calls, 100));
+        cache.save();
+
+        assertEquals(2, calls[0]);
+        assertEquals(1, FileUtils.listFiles(factsFolder, new String[]{"json"}, true).size());
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void disabled() {
+        IncrementalAnalysisCache cache = new IncrementalAnalysisCache();
+        int calls[] = {0};
+        cache.getLinesOfCode(new SourceFile(new File("A.java"), "class A {}"), () -> ++calls[0]);
+        cache.getLinesOfCode(new SourceFile(new File("A.java"), "class A {}"), () -> ++calls[0]);
+        assertEquals(2, calls[0]);
+        assertFalse(cache.isEnabled());
+    }
+
+    private Supplier<Integer> counting(int calls[], int value) {
+        return () -> {
+            calls[0]++;
+            return value;
+        };
+    }
+
+    private SourceFile sourceFile(File root, File file) {
+        SourceFile sourceFile = new SourceFile(file);
+        sourceFile.setRelativePath(root.toPath().relativize(file.toPath()).toString());
+        return sourceFile;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape;
+
+import nl.obren.sokrates.common.io.JsonGenerator;
+import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorConnections;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesSamples.*;
+import static org.junit.Assert.assertEquals;
+
+public class ContributorProjectGraphTest {
+    @Before
+    public void setDate() {
+        DateUtils.setDateParam(ANALYSIS_DATE);
+    }
+
+    @After
+    public void resetDate() {
+        DateUtils.setDateParam(null);
+    }
+
+    @Test
+    public void projectCountsIgnoreTheCaseOfEmails() {
+        List<ContributorProjects> contributors = createContributorProjects(300, 40, 7);
+
+        ContributorProjectGraph graph = new ContributorProjectGraph(contributors);
+        int window = graph.addWindow(0, 180);
+
+        for (ContributorProjects contributor : contributors) {
+            String email = contributor.getContributor().getEmail();
+            int expected = PeopleDependenciesReference.getProjectCount(contributors, email, 0, 180);
+            assertEquals(expected, graph.getProjectCount(window, email));
+            assertEquals(expected, graph.getProjectCount(window, email.toUpperCase()));
+        }
+        assertEquals(0, graph.getProjectCount(window, "nobody@example.com"));
+        assertEquals(300, graph.getContributorsCount());
+        assertEquals(40, graph.getProjectsCount());
+    }
+
+    @Test
+    public void windowsAreTheSameAsWithTheFormerImplementation() throws IOException {
+        List<ContributorProjects> contributors = createContributorProjects(300, 40, 7);
+
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        ContributorProjectGraph graph = new ContributorProjectGraph(contributors);
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            assertEquals(calculator.addWindow(window[0], window[1]), graph.addWindow(window[0], window[1]));
+        }
+        calculator.addContributorProjects(contributors);
+
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            int index = graph.addWindow(window[0], window[1]);
+
+            assertEquals(PeopleDependenciesReference.getContributorsActiveInPeriodCount(contributors, window[0], window[1]),
+                    graph.getActiveContributorsCount(index));
+            assertEquals(toJson(PeopleDependenciesReference.getProjectDependenciesViaPeople(contributors, window[0], window[1])),
+                    toJson(graph.getProjectDependenciesViaPeople(index)));
+
+            List<ComponentDependency> peopleDependencies = calculator.getProjectDependencies(index);
+            List<ContributorConnections> expected = PeopleDependenciesReference.getConnectionsViaProjects(contributors, peopleDependencies, window[0], window[1]);
+            List<ContributorConnections> connections = ContributorConnectionUtils.getConnectionsViaProjects(graph, index, peopleDependencies);
+            assertEquals(toJson(expected), toJson(connections));
+
+            assertEquals(PeopleDependenciesReference.getCIndex(expected), ContributorConnectionUtils.getCIndex(connections), 0);
+            assertEquals(PeopleDependenciesReference.getCMedian(expected), ContributorConnectionUtils.getCMedian(connections), 0);
+            assertEquals(PeopleDependenciesReference.getCMean(expected), ContributorConnectionUtils.getCMean(connections), 0);
+            assertEquals(PeopleDependenciesReference.getPIndex(expected), ContributorConnectionUtils.getPIndex(connections), 0);
+            assertEquals(PeopleDependenciesReference.getPMedian(expected), ContributorConnectionUtils.getPMedian(connections), 0);
+            assertEquals(PeopleDependenciesReference.getPMean(expected), ContributorConnectionUtils.getPMean(connections), 0);
+        }
+    }
+
+    @Test
+    public void indexOfCountsIsThePositionAtWhichCountsDropBelowIt() {
+        assertEquals(0, ContributorConnectionUtils.getIndex(new int[0]), 0);
+        assertEquals(2, ContributorConnectionUtils.getIndex(new int[]{1, 5, 2, 7}), 0);
+        assertEquals(3, ContributorConnectionUtils.getIndex(new int[]{3, 9, 4, 5, 3}), 0);
+        assertEquals(2.5, ContributorConnectionUtils.getMedian(new int[]{1, 5, 2, 3}), 0);
+        assertEquals(3, ContributorConnectionUtils.getMean(new int[]{1, 5, 3}), 0);
+    }
+
+    private String toJson(Object object) throws IOException {
+        return new JsonGenerator().generate(object);
+    }
+}
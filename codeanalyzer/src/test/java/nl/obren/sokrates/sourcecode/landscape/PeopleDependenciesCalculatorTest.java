@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape;
+
+import nl.obren.sokrates.common.io.JsonGenerator;
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
+import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static nl.obren.sokrates.sourcecode.landscape.PeopleDependenciesSamples.*;
+import static org.junit.Assert.assertEquals;
+
+public class PeopleDependenciesCalculatorTest {
+    @Before
+    public void setDate() {
+        DateUtils.setDateParam(ANALYSIS_DATE);
+    }
+
+    @After
+    public void resetDate() {
+        DateUtils.setDateParam(null);
+    }
+
+    @Test
+    public void fileDependenciesAreTheSameAsWindowByWindow() throws IOException {
+        CodeAnalysisResults codeAnalysisResults = createCodeAnalysisResults(60, 400, 7);
+
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        for (int daysAgo : PROJECT_WINDOWS) {
+            calculator.addWindow(0, daysAgo);
+        }
+        calculator.addFileHistories(codeAnalysisResults.getFilesHistoryAnalysisResults().getHistory());
+
+        for (int window = 0; window < PROJECT_WINDOWS.length; window++) {
+            List<ComponentDependency> expected = PeopleDependenciesReference.getPeopleDependencies(codeAnalysisResults, PROJECT_WINDOWS[window]);
+            List<ComponentDependency> dependencies = calculator.getFileDependencies(window);
+            assertEquals(toJson(expected), toJson(dependencies));
+            assertEquals(getData(expected), getData(dependencies));
+        }
+    }
+
+    @Test
+    public void projectDependenciesAreTheSameAsWindowByWindow() throws IOException {
+        List<ContributorProjects> contributors = createContributorProjects(300, 40, 7);
+
+        PeopleDependenciesCalculator calculator = new PeopleDependenciesCalculator();
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            calculator.addWindow(window[0], window[1]);
+        }
+        calculator.addContributorProjects(contributors);
+
+        for (int[] window : LANDSCAPE_WINDOWS) {
+            int index = calculator.addWindow(window[0], window[1]);
+            List<ComponentDependency> expected = PeopleDependenciesReference.getPeopleDependencies(contributors, window[0], window[1]);
+            assertEquals(toJson(expected), toJson(calculator.getProjectDependencies(index)));
+        }
+    }
+
+    private String toJson(Object object) throws IOException {
+        return new JsonGenerator().generate(object);
+    }
+
+    private List<List<String>> getData(List<ComponentDependency> dependencies) {
+        return dependencies.stream().map(ComponentDependency::getData).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape;
+
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.contributors.Contributor;
+import nl.obren.sokrates.sourcecode.filehistory.CommitInfo;
+import nl.obren.sokrates.sourcecode.filehistory.FileModificationHistory;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ContributorProjects;
+import nl.obren.sokrates.sourcecode.landscape.analysis.ProjectAnalysisResults;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Synthetic file histories and contributor projects, with the time windows of a project analysis and of a landscape
+ * analysis, used by the people dependencies tests and benchmarks.
+ */
+public class PeopleDependenciesSamples {
+    public static final String ANALYSIS_DATE = "2021-03-01";
+    public static final int[] PROJECT_WINDOWS = {30, 90, 180, 365, 36500};
+    public static final int[][] LANDSCAPE_WINDOWS = getLandscapeWindows();
+
+    // the past 30, 90 and 180 days, and each of the past 12 months
+    private static int[][] getLandscapeWindows() {
+        int[][] windows = new int[15][];
+        windows[0] = new int[]{0, 30};
+        windows[1] = new int[]{0, 90};
+        windows[2] = new int[]{0, 180};
+        for (int i = 0; i < 12; i++) {
+            windows[3 + i] = new int[]{i * 30, (i + 1) * 30};
+        }
+        return windows;
+    }
+
+    // emails differ in case for some commits, as they do in real histories
+    private static String getEmail(Random random, int contributors) {
+        int index = random.nextInt(contributors);
+        return (random.nextInt(20) == 0 ? "Developer" : "developer") + index + "@example.com";
+    }
+
+    private static String getDate(Random random) {
+        return LocalDate.parse(ANALYSIS_DATE).minusDays(random.nextInt(800) - 5).toString();
+    }
+
+    public static CodeAnalysisResults createCodeAnalysisResults(int contributors, int files, long seed) {
+        Random random = new Random(seed);
+        CodeAnalysisResults results = new CodeAnalysisResults();
+        for (int i = 0; i < files; i++) {
+            // a few paths are listed twice
+            String path = "src/main/java/pkg" + (i % 20) + "/File" + (random.nextInt(50) == 0 ? 0 : i) + ".java";
+            FileModificationHistory history = new FileModificationHistory(path);
+            int commits = 1 + random.nextInt(10);
+            int team = random.nextInt(contributors);
+            for (int j = 0; j < commits; j++) {
+                CommitInfo commit = new CommitInfo("c" + random.nextInt(files * 3), getDate(random));
+                commit.setEmail(random.nextBoolean() ? getEmail(random, contributors) : "developer" + (team + j % 3) % contributors + "@example.com");
+                history.getCommits().add(commit);
+            }
+            results.getFilesHistoryAnalysisResults().getHistory().add(history);
+        }
+        return results;
+    }
+
+    public static List<ContributorProjects> createContributorProjects(int contributors, int projects, long seed) {
+        Random random = new Random(seed);
+        List<ProjectAnalysisResults> projectResults = new ArrayList<>();
+        for (int i = 0; i < projects; i++) {
+            CodeAnalysisResults results = new CodeAnalysisResults();
+            results.getMetadata().setName("project" + i);
+            projectResults.add(new ProjectAnalysisResults(null, results));
+        }
+
+        List<ContributorProjects> contributorProjects = new ArrayList<>();
+        for (int i = 0; i < contributors; i++) {
+            ContributorProjects contributor = new ContributorProjects(new Contributor(i % 25 == 1 ? getEmail(random, contributors) : "developer" + i + "@example.com"));
+            int count = 1 + random.nextInt(5);
+            for (int j = 0; j < count; j++) {
+                List<String> dates = new ArrayList<>();
+                int commits = 1 + random.nextInt(20);
+                for (int k = 0; k < commits; k++) {
+                    dates.add(getDate(random));
+                }
+                ProjectAnalysisResults project = projectResults.get(random.nextInt(projects));
+                contributor.addProject(project, dates.get(0), dates.get(0), commits, 0, 0, dates);
+            }
+            contributorProjects.add(contributor);
+        }
+        return contributorProjects;
+    }
+}
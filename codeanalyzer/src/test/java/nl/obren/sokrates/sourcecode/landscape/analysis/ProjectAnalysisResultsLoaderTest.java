@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape.analysis;
+
+import nl.obren.sokrates.common.io.JsonGenerator;
+import nl.obren.sokrates.common.io.JsonMapper;
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.analysis.results.FilesHistoryAnalysisResults;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class ProjectAnalysisResultsLoaderTest {
+    @Test
+    public void loadsTheFieldsUsedInLandscapes() throws IOException {
+        File file = File.createTempFile("analysisResults", ".json");
+        try {
+            String json = new JsonGenerator().generate(ProjectAnalysisResultsSamples.createAnalysisResults(7));
+            FileUtils.write(file, json, StandardCharsets.UTF_8);
+
+            CodeAnalysisResults expected = (CodeAnalysisResults) new JsonMapper().getObject(json, CodeAnalysisResults.class);
+            CodeAnalysisResults loaded = new ProjectAnalysisResultsLoader().load(file);
+
+            assertEquals(toJson(expected.getMetadata()), toJson(loaded.getMetadata()));
+            assertEquals(toJson(expected.getControlResults()), toJson(loaded.getControlResults()));
+            assertEquals(toJson(expected.getMainAspectAnalysisResults()), toJson(loaded.getMainAspectAnalysisResults()));
+            assertEquals(toJson(expected.getTestAspectAnalysisResults()), toJson(loaded.getTestAspectAnalysisResults()));
+            assertEquals(toJson(expected.getOtherAspectAnalysisResults()), toJson(loaded.getOtherAspectAnalysisResults()));
+            assertEquals(toJson(expected.getContributorsAnalysisResults()), toJson(loaded.getContributorsAnalysisResults()));
+
+            FilesHistoryAnalysisResults expectedHistory = expected.getFilesHistoryAnalysisResults();
+            FilesHistoryAnalysisResults loadedHistory = loaded.getFilesHistoryAnalysisResults();
+            assertEquals(expectedHistory.getAgeInDays(), loadedHistory.getAgeInDays());
+            assertEquals(expectedHistory.getFirstDate(), loadedHistory.getFirstDate());
+            assertEquals(toJson(expectedHistory.getOverallFileLastModifiedDistribution()), toJson(loadedHistory.getOverallFileLastModifiedDistribution()));
+            assertEquals(300, expectedHistory.getMostChangedFiles().size());
+            assertEquals(0, loadedHistory.getMostChangedFiles().size());
+
+            assertEquals(0, loaded.getUnitsAnalysisResults().getLongestUnits().size());
+            assertEquals(0, loaded.getDuplicationAnalysisResults().getLongestDuplicates().size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private String toJson(Object object) throws IOException {
+        return new JsonGenerator().generate(object);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.landscape.analysis;
+
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.analysis.results.CodeAnalysisResults;
+import nl.obren.sokrates.sourcecode.contributors.Contributor;
+import nl.obren.sokrates.sourcecode.duplication.DuplicatedFileBlock;
+import nl.obren.sokrates.sourcecode.duplication.DuplicationInstance;
+import nl.obren.sokrates.sourcecode.metrics.NumericMetric;
+import nl.obren.sokrates.sourcecode.stats.SourceFileAgeDistribution;
+import nl.obren.sokrates.sourcecode.units.UnitInfo;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Synthetic project analysis results, with units, duplicates, file lists and contributors, used by the landscape
+ * loading tests and benchmarks.
+ */
+public class ProjectAnalysisResultsSamples {
+    public static CodeAnalysisResults createAnalysisResults(int index) {
+        Random random = new Random(index);
+        CodeAnalysisResults results = new CodeAnalysisResults();
+        results.getMetadata().setName("project" + index);
+
+        results.getMainAspectAnalysisResults().setName("main");
+        results.getMainAspectAnalysisResults().setLinesOfCode(1000 + random.nextInt(100000));
+        results.getMainAspectAnalysisResults().setFilesCount(10 + random.nextInt(1000));
+        results.getMainAspectAnalysisResults().getLinesOfCodePerExtension().add(new NumericMetric("*.java", 1000 + random.nextInt(50000)));
+        results.getMainAspectAnalysisResults().getLinesOfCodePerExtension().add(new NumericMetric("*.js", random.nextInt(50000)));
+        results.getTestAspectAnalysisResults().setName("test");
+        results.getTestAspectAnalysisResults().setLinesOfCode(random.nextInt(50000));
+
+        results.getFilesHistoryAnalysisResults().setAgeInDays(random.nextInt(3000));
+        results.getFilesHistoryAnalysisResults().setFirstDate("2015-01-01");
+        SourceFileAgeDistribution distribution = new SourceFileAgeDistribution();
+        distribution.update(random.nextInt(1000), random.nextInt(1000));
+        results.getFilesHistoryAnalysisResults().setOverallFileLastModifiedDistribution(distribution);
+
+        for (int i = 0; i < 30; i++) {
+            Contributor contributor = new Contributor("developer" + random.nextInt(200) + "@example.com");
+            for (int j = 0; j < 40; j++) {
+                contributor.addCommit(String.format("20%02d-%02d-%02d", 15 + random.nextInt(7), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            }
+            results.getContributorsAnalysisResults().getContributors().add(contributor);
+        }
+
+        List<UnitInfo> units = new ArrayList<>();
+        List<SourceFile> files = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            SourceFile sourceFile = new SourceFile(new File("src/main/java/pkg" + (i % 20) + "/File" + i + ".java"), "");
+            sourceFile.setRelativePath("src/main/java/pkg" + (i % 20) + "/File" + i + ".java");
+            sourceFile.setLinesOfCode(random.nextInt(2000));
+            files.add(sourceFile);
+
+            UnitInfo unit = new UnitInfo();
+            unit.setShortName("method" + i + "()");
+            unit.setLongName("public void method" + i + "(String argument" + i + ")");
+            unit.setSourceFile(sourceFile);
+            unit.setStartLine(random.nextInt(1000));
+            unit.setLinesOfCode(random.nextInt(200));
+            unit.setMcCabeIndex(random.nextInt(50));
+            units.add(unit);
+        }
+        results.getUnitsAnalysisResults().setLongestUnits(units);
+        results.getUnitsAnalysisResults().setMostComplexUnits(units);
+        results.getFilesAnalysisResults().setLongestFiles(files);
+        results.getFilesHistoryAnalysisResults().setMostChangedFiles(files);
+        results.getFilesHistoryAnalysisResults().setOldestFiles(files);
+
+        for (int i = 0; i < 100; i++) {
+            DuplicationInstance instance = new DuplicationInstance();
+            instance.setBlockSize(6 + random.nextInt(50));
+            instance.setDisplayContent("int a" + i + " = 1;\nint b = a" + i + " + 2;\nreturn a" + i + " * b;\n");
+            for (int j = 0; j < 2; j++) {
+                DuplicatedFileBlock block = new DuplicatedFileBlock();
+                block.setSourceFile(files.get(random.nextInt(files.size())));
+                block.setStartLine(random.nextInt(1000));
+                block.setEndLine(block.getStartLine() + instance.getBlockSize());
+                instance.getDuplicatedFileBlocks().add(block);
+            }
+            results.getDuplicationAnalysisResults().getLongestDuplicates().add(instance);
+            results.getDuplicationAnalysisResults().getMostFrequentDuplicates().add(instance);
+        }
+
+        return results;
+    }
+}
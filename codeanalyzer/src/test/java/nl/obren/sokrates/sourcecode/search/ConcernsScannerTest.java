@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.search;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SearcheableFilesCache;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import nl.obren.sokrates.sourcecode.SourceFileFilter;
+import nl.obren.sokrates.sourcecode.SourceFileWithSearchData;
+import nl.obren.sokrates.sourcecode.aspects.Concern;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConcernsScannerTest {
+    @Test
+    public void sameResultsAsSearchingOneFilterAtATime() {
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int line = 0; line < 30; line++) {
+                content.append(line % (i % 5 + 2) == 0 ? "log.info(\"value " + line + "\");" : "int x" + line + " = " + i + ";");
+                content.append(line % 7 == 0 ? " // TODO fix\n" : "\n");
+            }
+            SourceFile sourceFile = new SourceFile(new File("src/" + (i % 3 == 0 ? "test" : "main") + "/File" + i + ".java"), content.toString());
+            sourceFile.setLinesOfCode(30);
+            sourceFiles.add(sourceFile);
+        }
+
+        Concern logging = new Concern("logging");
+        logging.setSourceFiles(sourceFiles);
+        logging.setSourceFileFilters(Arrays.asList(new SourceFileFilter("", ".*log[.](info|debug)[(].*"),
+                new SourceFileFilter(".*/main/.*", ".*TODO.*")));
+        Concern tests = new Concern("tests");
+        tests.setSourceFiles(sourceFiles.subList(10, 30));
+        tests.setSourceFileFilters(Arrays.asList(new SourceFileFilter(".*/test/.*", ""),
+                new SourceFileFilter(".*File1.*", ".*x2[0-9] = .*")));
+        Concern invalid = new Concern("invalid");
+        invalid.setSourceFiles(sourceFiles);
+        invalid.setSourceFileFilters(Arrays.asList(new SourceFileFilter("", ".*log[(.*")));
+
+        List<Concern> concerns = Arrays.asList(logging, tests, invalid);
+        ConcernsScanner concernsScanner = new ConcernsScanner(concerns, 3);
+        concernsScanner.scan(new ProgressFeedback());
+
+        for (Concern concern : concerns) {
+            List<SearchResult> searchResults = concernsScanner.getSearchResults(concern);
+            assertEquals(concern.getSourceFileFilters().size(), searchResults.size());
+            SearcheableFilesCache searcheableFilesCache = SearcheableFilesCache.getInstance(concern.getSourceFiles());
+            for (int i = 0; i < searchResults.size(); i++) {
+                SourceFileFilter filter = concern.getSourceFileFilters().get(i);
+                SearchResult expected = searcheableFilesCache.search(new SearchRequest(new SearchExpression(filter.getPathPattern()),
+                        new SearchExpression(filter.getContentPattern())), new ProgressFeedback());
+                assertSameResult(expected, searchResults.get(i));
+            }
+        }
+    }
+
+    private void assertSameResult(SearchResult expected, SearchResult actual) {
+        assertEquals(expected.getFoundFiles().keySet(), actual.getFoundFiles().keySet());
+        assertEquals(expected.getTotalNumberOfFiles(), actual.getTotalNumberOfFiles());
+        assertEquals(expected.getTotalLinesCount(), actual.getTotalLinesCount());
+        assertEquals(expected.getFoundLinesCount(), actual.getFoundLinesCount());
+        assertEquals(expected.getMaxLines(), actual.getMaxLines());
+        assertEquals(expected.getMaxNumberOfFoundInstances(), actual.getMaxNumberOfFoundInstances());
+        assertEquals(expected.getTotalNumberOfMatchingLines(), actual.getTotalNumberOfMatchingLines());
+        expected.getFoundFiles().forEach((file, expectedData) -> {
+            SourceFileWithSearchData actualData = actual.getFoundFiles().get(file);
+            assertEquals(expectedData.getFoundInstancesCount(), actualData.getFoundInstancesCount());
+            assertEquals(toString(expectedData.getLinesWithSearchedContent()), toString(actualData.getLinesWithSearchedContent()));
+        });
+    }
+
+    private String toString(List<FoundLine> foundLines) {
+        StringBuilder string = new StringBuilder();
+        foundLines.forEach(foundLine -> string.append(foundLine.getLineNumber()).append(":")
+                .append(foundLine.getLine()).append(":").append(foundLine.getFoundText()).append("\n"));
+        return string.toString();
+    }
+}
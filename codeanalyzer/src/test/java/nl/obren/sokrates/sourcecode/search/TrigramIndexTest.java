@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.search;
+
+import nl.obren.sokrates.common.utils.ProgressFeedback;
+import nl.obren.sokrates.sourcecode.SearcheableFilesCache;
+import nl.obren.sokrates.sourcecode.SourceFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TrigramIndexTest {
+    @Test
+    public void getTrigrams() {
+        assertEquals(0, TrigramIndex.getTrigrams("ab").length);
+        assertEquals(1, TrigramIndex.getTrigrams("abc").length);
+        assertArrayEquals(TrigramIndex.getTrigrams("abcabc"), TrigramIndex.getTrigrams("ABCabc"));
+        assertEquals(3, TrigramIndex.getTrigrams("abcabc").length);
+        assertEquals(2, TrigramIndex.getTrigrams("čćžč").length);
+    }
+
+    @Test
+    public void queryAndUpdate() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        SourceFile a = sourceFile(root, "A.java", "class A {\n    Logger log;\n}\n");
+        SourceFile b = sourceFile(root, "B.java", "class B {\n    // TODO remove\n}\n");
+        SourceFile c = sourceFile(root, "C.java", "class C {\n    log.info(\"todo\");\n}\n");
+
+        TrigramIndex index = new TrigramIndex();
+        index.load(configFile);
+        index.update(Arrays.asList(a, b, c), true);
+        assertEquals(3, index.getFilesCount());
+
+        assertCandidates(index.query(".*TODO.*"), Arrays.asList(a, b, c), false, true, true);
+        assertCandidates(index.query(".*log[.]info.*"), Arrays.asList(a, b, c), false, false, true);
+        assertCandidates(index.query(".*(Logger|log[.]info).*"), Arrays.asList(a, b, c), true, true, true);
+        assertCandidates(index.query(".*class.*"), Arrays.asList(a, b, c), true, true, true);
+        assertCandidates(index.query(".*[a-z]+.*"), Arrays.asList(a, b, c), true, true, true);
+        assertFalse(index.query(".*[a-z]+.*").isNarrowing());
+        assertTrue(index.query(".*TODO.*").isNarrowing());
+        assertEquals(2, index.query(".*TODO.*").getCandidatesCount());
+
+        index.save();
+        assertTrue(TrigramIndex.getIndexFile(configFile).exists());
+
+        // the saved postings are read back from the index file, and only the changed and new files are indexed again
+        b = sourceFile(root, "B.java", "class B {\n    // done\n}\n");
+        b.getFile().setLastModified(b.getFile().lastModified() + 2000);
+        SourceFile d = sourceFile(root, "D.java", "class D {\n    // TODO add\n}\n");
+        index = new TrigramIndex();
+        index.load(configFile);
+        assertEquals(3, index.getFilesCount());
+        assertCandidates(index.query(".*TODO.*"), Arrays.asList(a, b, c), false, true, true);
+
+        index.update(Arrays.asList(a, b, d), true);
+        assertEquals(3, index.getFilesCount());
+        assertCandidates(index.query(".*TODO.*"), Arrays.asList(a, b, d), false, false, true);
+        assertTrue(index.query(".*todo.*").mayMatch(c));
+        assertCandidates(index.query(".*class.*"), Arrays.asList(a, b, d), true, true, true);
+
+        index.save();
+        index = new TrigramIndex();
+        index.load(configFile);
+        assertEquals(3, index.getFilesCount());
+        assertCandidates(index.query(".*TODO.*"), Arrays.asList(a, b, d), false, false, true);
+        assertCandidates(index.query(".*Logger.*"), Arrays.asList(a, b, d), true, false, false);
+        assertTrue(index.getCandidateRatio() < 1.0);
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void updateAndSaveLoadedIndexAgain() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        SourceFile a = sourceFile(root, "A.java", "class A {\n    // TODO remove\n}\n");
+        SourceFile b = sourceFile(root, "B.java", "class B {\n}\n");
+
+        TrigramIndex index = new TrigramIndex();
+        index.load(configFile);
+        index.update(Arrays.asList(a), true);
+        index.save();
+
+        // the loaded index file is replaced while the index is in use
+        index = new TrigramIndex();
+        index.load(configFile);
+        TrigramIndex.Query query = index.query(".*TODO.*");
+        index.update(Arrays.asList(a, b), true);
+        index.save();
+        b = sourceFile(root, "B.java", "class B {\n    // TODO add\n}\n");
+        b.getFile().setLastModified(b.getFile().lastModified() + 2000);
+        index.update(Arrays.asList(a, b), true);
+        index.save();
+
+        // a query is not changed by later updates: files it does not know may always match
+        assertTrue(query.mayMatch(a));
+        assertTrue(query.mayMatch(b));
+
+        index = new TrigramIndex();
+        index.load(configFile);
+        assertEquals(2, index.getFilesCount());
+        assertCandidates(index.query(".*TODO.*"), Arrays.asList(a, b), true, true);
+        assertCandidates(index.query(".*remove.*"), Arrays.asList(a, b), true, false);
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void sameSearchResultsWithIndex() throws Exception {
+        File root = Files.createTempDirectory("sokrates").toFile();
+        File configFile = new File(root, "_sokrates/config.json");
+        FileUtils.write(configFile, "{}", StandardCharsets.UTF_8);
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sourceFiles.add(sourceFile(root, "File" + i + ".java", "class File" + i + " {\n"
+                    + (i % 3 == 0 ? "    log.info(\"x\");\n" : "") + (i % 4 == 0 ? "    // FIXME\n" : "") + "}\n"));
+        }
+
+        List<String> expressions = Arrays.asList(".*log[.]info.*", ".*FIXME.*", ".*File1[0-9].*", ".*[{].*", "", ".*log[(.*");
+        List<SearchResult> expected = new ArrayList<>();
+        for (String expression : expressions) {
+            expected.add(search(sourceFiles, expression));
+        }
+
+        TrigramIndex.getInstance().load(configFile);
+        try {
+            TrigramIndex.getInstance().update(sourceFiles, true);
+            for (int i = 0; i < expressions.size(); i++) {
+                SearchResult searchResult = search(sourceFiles, expressions.get(i));
+                assertEquals(expected.get(i).getFoundFiles().keySet(), searchResult.getFoundFiles().keySet());
+                assertEquals(expected.get(i).getTotalNumberOfMatchingLines(), searchResult.getTotalNumberOfMatchingLines());
+                assertEquals(expected.get(i).getMaxNumberOfFoundInstances(), searchResult.getMaxNumberOfFoundInstances());
+            }
+        } finally {
+            TrigramIndex.getInstance().disable();
+        }
+
+        FileUtils.deleteDirectory(root);
+    }
+
+    private SearchResult search(List<SourceFile> sourceFiles, String contentExpression) {
+        return SearcheableFilesCache.getInstance(sourceFiles).search(new SearchRequest(new SearchExpression(""),
+                new SearchExpression(contentExpression)), new ProgressFeedback());
+    }
+
+    private void assertCandidates(TrigramIndex.Query query, List<SourceFile> sourceFiles, boolean... mayMatch) {
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            assertEquals(sourceFiles.get(i).getRelativePath(), mayMatch[i], query.mayMatch(sourceFiles.get(i)));
+        }
+    }
+
+    private SourceFile sourceFile(File root, String path, String content) throws Exception {
+        File file = new File(root, path);
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+        SourceFile sourceFile = new SourceFile(file, content);
+        sourceFile.setRelativePath(path);
+        sourceFile.setLinesOfCode(content.split("\n").length);
+        return sourceFile;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.sourcecode.units;
+
+import nl.obren.sokrates.sourcecode.cleaners.SourceCodeCleanerUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+public class CStyleCodeScannerTest {
+    private static final String ALPHABET = "\"'/<>@:\\ \t\r\n ({),;ab_1$";
+    private static final Pattern START_UNIT_PATTERN = Pattern.compile("([a-zA-Z0-9_$?:~]+[ ]+)+[a-zA-Z0-9_$?:~]+[ ]*[(]");
+    private static final List<String> LITERALS = Arrays.asList(" if ", " while ", " for ", "case ", "&&", "||", " ? ", " catch ");
+    // one character literals, repeated characters and the spaces added before "(" and "{"
+    private static final List<String> OTHER_LITERALS = Arrays.asList("?", "&&&", " (", "{", "  ", "", "i f");
+
+    @Test
+    public void clean() {
+        assertEquals("String url = \"\";\n", CStyleCodeScanner.clean("String url = \"http://\\\"x\\\"\";\r\n"));
+        assertEquals("char c = ''; List l;", CStyleCodeScanner.clean("char c = 'x';\tList<String> l;"));
+        assertEquals("x = \"\"g;", CStyleCodeScanner.clean("x = /a+b/g;"));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String content = randomString(random, 40);
+            assertEquals(content, cleanWithRegex(content), CStyleCodeScanner.clean(content));
+        }
+    }
+
+    @Test
+    public void startsWithUnitSignature() {
+        assertEquals(true, CStyleCodeScanner.startsWithUnitSignature("public void run() {"));
+        assertEquals(true, CStyleCodeScanner.startsWithUnitSignature("int  main (int argc"));
+        assertEquals(false, CStyleCodeScanner.startsWithUnitSignature("run() {"));
+        assertEquals(false, CStyleCodeScanner.startsWithUnitSignature(" public void run() {"));
+        assertEquals(false, CStyleCodeScanner.startsWithUnitSignature("if (a) {"));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            String line = randomString(random, 12).replace("\n", "").replace("\r", "");
+            boolean expected = line.contains("(") && START_UNIT_PATTERN.matcher(line.substring(0, line.indexOf("(") + 1)).matches();
+            assertEquals(line, expected, CStyleCodeScanner.startsWithUnitSignature(line));
+        }
+    }
+
+    @Test
+    public void getMcCabeIndexAndNumberOfParameters() {
+        assertEquals(4, CStyleCodeScanner.getMcCabeIndex("void f() {\nif(a && b) {\n} else if(c) {}\n}\n", LITERALS));
+        assertEquals(0, CStyleCodeScanner.getNumberOfParameters("void f( ) {}"));
+        assertEquals(3, CStyleCodeScanner.getNumberOfParameters("void f(a,,b) {}"));
+        assertEquals(1, CStyleCodeScanner.getNumberOfParameters("void f(a,) {}"));
+        assertEquals(2, CStyleCodeScanner.getNumberOfParameters("void f(,a) {}"));
+        assertEquals(0, CStyleCodeScanner.getNumberOfParameters("void f(,,) {}"));
+
+        Random random = new Random(3);
+        String alphabet = "ifwhle ?&|(){},\n xa";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder body = new StringBuilder();
+            for (int c = random.nextInt(30); c > 0; c--) {
+                body.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = body.toString();
+            assertEquals(text, getMcCabeIndexWithReplace(text, LITERALS), CStyleCodeScanner.getMcCabeIndex(text, LITERALS));
+            assertEquals(text, getMcCabeIndexWithReplace(text, OTHER_LITERALS), CStyleCodeScanner.getMcCabeIndex(text, OTHER_LITERALS));
+            assertEquals(text, getNumberOfParametersWithSplit(text), CStyleCodeScanner.getNumberOfParameters(text));
+        }
+    }
+
+    private String randomString(Random random, int maxLength) {
+        StringBuilder string = new StringBuilder();
+        for (int i = random.nextInt(maxLength); i > 0; i--) {
+            string.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return string.toString();
+    }
+
+    // the replace chain the scanner replaces
+    private String cleanWithRegex(String content) {
+        String cleanedContent = content.replace("\\\"", "");
+        cleanedContent = cleanedContent.replace("://", ":/ /");
+        cleanedContent = cleanedContent.replaceAll("@\".*?\"", "\"\"");
+        cleanedContent = cleanedContent.replaceAll("\".*?\"", "\"\"");
+        cleanedContent = cleanedContent.replaceAll("'.*?'", "''");
+        cleanedContent = cleanedContent.replaceAll("/.+?/", "\"\"");
+        cleanedContent = cleanedContent.replace("://", ":/ /");
+        cleanedContent = cleanedContent.replaceAll("[<].*?[>]", "");
+        cleanedContent = cleanedContent.replace("\t", " ");
+        return SourceCodeCleanerUtils.normalizeLineEnds(cleanedContent);
+    }
+
+    private int getMcCabeIndexWithReplace(String body, List<String> literals) {
+        String bodyForSearch = " " + body.replace("\n", " ");
+        bodyForSearch = bodyForSearch.replace("(", " (");
+        bodyForSearch = bodyForSearch.replace("{", " {");
+        int mcCabeIndex = 1;
+        for (String literal : literals) {
+            mcCabeIndex += StringUtils.countMatches(bodyForSearch, literal);
+        }
+        return mcCabeIndex;
+    }
+
+    private int getNumberOfParametersWithSplit(String body) {
+        String bodyForSearch = " " + body.replace("\n", " ");
+        int startIndex = bodyForSearch.indexOf("(");
+        if (startIndex >= 0) {
+            int endIndex = bodyForSearch.indexOf(")", startIndex + 1);
+            if (endIndex > startIndex) {
+                String paramString = bodyForSearch.substring(startIndex + 1, endIndex).trim();
+                return StringUtils.isNotBlank(paramString) ? paramString.split(",").length : 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -10,6 +10,7 @@ import nl.obren.sokrates.sourcecode.lang.LanguageAnalyzerFactory;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -69,4 +70,41 @@ public class UnitsExtractorTest {
         assertEquals(units.get(3).getShortName(), "public static void methodRankPoints()");
     }
 
+    @Test
+    public void getUnitsInParallel() throws Exception {
+        List<SourceFile> sourceFiles = new ArrayList<>();
+        String[] extensions = {"java", "js", "py", "cs", "kt", "go"};
+        for (int i = 0; i < 60; i++) {
+            String extension = extensions[i % extensions.length];
+            StringBuilder code = new StringBuilder();
+            for (int unit = 0; unit < i % 7 + 1; unit++) {
+                if (extension.equals("py")) {
+                    code.append("def unit").append(unit).append("(a, b):\n    if a > b:\n        return a\n    return b\n\n");
+                } else {
+                    code.append("public int unit").append(unit).append("(int a, int b) {\n    if (a > b && b > 0) {\n        return a;\n    }\n    return b;\n}\n\n");
+                }
+            }
+            sourceFiles.add(new SourceFile(new File("file" + i + "." + extension), code.toString()));
+        }
+
+        List<UnitInfo> expected = new UnitsExtractor().getUnits(sourceFiles, new ProgressFeedback());
+        List<UnitInfo> units = new UnitsExtractor(4).getUnits(sourceFiles, new ProgressFeedback());
+
+        assertEquals(expected.size(), units.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getSourceFile(), units.get(i).getSourceFile());
+            assertEquals(expected.get(i).getShortName(), units.get(i).getShortName());
+            assertEquals(expected.get(i).getStartLine(), units.get(i).getStartLine());
+            assertEquals(expected.get(i).getLinesOfCode(), units.get(i).getLinesOfCode());
+            assertEquals(expected.get(i).getMcCabeIndex(), units.get(i).getMcCabeIndex());
+        }
+
+        ProgressFeedback canceled = new ProgressFeedback() {
+            @Override
+            public boolean canceled() {
+                return true;
+            }
+        };
+        assertEquals(0, new UnitsExtractor(4).getUnits(sourceFiles, canceled).size());
+    }
 }
@@ -23,6 +23,7 @@ import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
 import nl.obren.sokrates.sourcecode.core.CodeConfiguration;
 import nl.obren.sokrates.sourcecode.core.CodeConfigurationUtils;
 import nl.obren.sokrates.sourcecode.findings.Findings;
+import nl.obren.sokrates.sourcecode.search.TrigramIndex;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -193,6 +194,11 @@ public class CodeBrowserPane extends SplitPane {
         sourceCodeFiles = new SourceCodeFiles();
         sourceCodeFiles.load(new File(CodeConfiguration.getAbsoluteSrcRoot(codeConfiguration.getSrcRoot(), codeConfigurationFile)), progressFeedback);
         codeConfiguration.load(sourceCodeFiles, codeConfigurationFile);
+        if (TrigramIndex.getIndexFile(codeConfigurationFile).exists()) {
+            TrigramIndex.getInstance().load(codeConfigurationFile);
+        } else {
+            TrigramIndex.getInstance().disable();
+        }
 
         List<NamedSourceCodeAspect> scopesWithExtensions = codeConfiguration.getScopesWithExtensions();
 
@@ -25,6 +25,7 @@ import nl.obren.sokrates.sourcecode.aspects.NamedSourceCodeAspect;
 import nl.obren.sokrates.sourcecode.search.SearchExpression;
 import nl.obren.sokrates.sourcecode.search.SearchRequest;
 import nl.obren.sokrates.sourcecode.search.SearchResult;
+import nl.obren.sokrates.sourcecode.search.TrigramIndex;
 
 import java.util.concurrent.Executors;
 
@@ -126,6 +127,8 @@ public class SearchPane extends BorderPane {
         }
 
         searcheableFilesCache = SearcheableFilesCache.getInstance(aspect.getSourceFiles());
+        TrigramIndex.getInstance().update(aspect.getSourceFiles(), false);
+        TrigramIndex.getInstance().save();
 
         ObservableList<SourceFileWithSearchData> items = FXCollections.observableArrayList();
         searcheableFilesCache.search().entrySet().stream().forEach(item -> items.add(item.getValue()));
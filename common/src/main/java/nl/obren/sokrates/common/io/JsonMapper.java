@@ -31,7 +31,7 @@ public class JsonMapper {
         }
     }
 
-    private ObjectMapper getObjectMapper() {
+    public ObjectMapper getObjectMapper() {
         ObjectMapper mapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(DeserializationFeature.FAIL_ON_INVALID_SUBTYPE, false)
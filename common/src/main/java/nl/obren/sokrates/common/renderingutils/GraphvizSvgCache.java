@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.renderingutils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/*
+ * Renders Graphviz graphs to SVG at most once per distinct graph. Graphs are identified by the SHA-256 hash of the
+ * rendering engine and the DOT code. Rendered SVGs are kept in memory until release is called and, if a cache folder is
+ * given, saved in that folder as <hash>.svg, so graphs that did not change since the previous run are not rendered again.
+ * Report exporters call release after each export, which also deletes the saved SVGs of graphs the export did not use,
+ * so neither the memory nor the cache folder keeps graphs that are no longer in the reports.
+ *
+ * Uncached graphs are rendered on a bounded pool (at most GraphvizUtil.maxDotProcesses graphs at the same time), so a
+ * report can start rendering all its graphs before it writes the first one. Callers wait for a graph at most
+ * GraphvizUtil.dotTimeoutSeconds after its rendering has started, so graphs waiting in the queue do not time out.
+ * Failed renderings, and any content that is not an SVG, are not cached.
+ */
+public class GraphvizSvgCache {
+    private static final Log LOG = LogFactory.getLog(GraphvizSvgCache.class);
+
+    private static GraphvizSvgCache instance = new GraphvizSvgCache();
+
+    private Map<String, Rendering> svgs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong fileHits = new AtomicLong();
+    private AtomicLong renderings = new AtomicLong();
+    private AtomicLong failures = new AtomicLong();
+
+    public static GraphvizSvgCache getInstance() {
+        return instance;
+    }
+
+    public static String getKey(String engine, String dotCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((engine + "\n" + dotCode).getBytes(UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // starts rendering the graph (unless it is already cached or being rendered) and returns the future SVG
+    public Future<String> renderAsync(String dotCode, File cacheFolder) {
+        String key = getKey(GraphvizUtil.getRenderingEngine(), dotCode);
+        Rendering svg = svgs.get(key);
+        if (svg == null) {
+            Rendering newSvg = new Rendering();
+            svg = svgs.putIfAbsent(key, newSvg);
+            if (svg == null) {
+                getExecutor().execute(() -> render(key, dotCode, cacheFolder, newSvg));
+                return newSvg;
+            }
+        }
+        hits.incrementAndGet();
+        return svg;
+    }
+
+    // returns the SVG of the graph, or null if the rendering fails or takes longer than GraphvizUtil.dotTimeoutSeconds
+    public String render(String dotCode, File cacheFolder) {
+        return get(renderAsync(dotCode, cacheFolder));
+    }
+
+    public String get(Future<String> svg) {
+        try {
+            long timeoutMs = svg instanceof Rendering
+                    ? ((Rendering) svg).awaitTimeLeftMs()
+                    : TimeUnit.SECONDS.toMillis(GraphvizUtil.dotTimeoutSeconds);
+            return svg.get(Math.max(0, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.error(e.getCause());
+        } catch (TimeoutException e) {
+            LOG.error("Rendering of a Graphviz graph took more than " + GraphvizUtil.dotTimeoutSeconds + " seconds.");
+        }
+        return null;
+    }
+
+    private void render(String key, String dotCode, File cacheFolder, Rendering svg) {
+        svg.start();
+        String content = null;
+        try {
+            File cacheFile = cacheFolder != null ? new File(cacheFolder, key + ".svg") : null;
+            if (cacheFile != null && cacheFile.exists()) {
+                content = FileUtils.readFileToString(cacheFile, UTF_8);
+                fileHits.incrementAndGet();
+            }
+            if (!isSvg(content)) {
+                renderings.incrementAndGet();
+                content = GraphvizUtil.getSvgFromDot(dotCode);
+                if (!isSvg(content)) {
+                    content = null;
+                } else if (cacheFile != null) {
+                    save(cacheFile, content);
+                }
+            }
+        } catch (Throwable e) {
+            LOG.error(e);
+        } finally {
+            if (content == null) {
+                failures.incrementAndGet();
+                svgs.remove(key, svg);
+            }
+            svg.complete(content);
+        }
+    }
+
+    public static boolean isSvg(String content) {
+        return content != null && content.contains("<svg");
+    }
+
+    // writes a temporary file first, so that concurrent runs never read a partially written SVG
+    private void save(File cacheFile, String content) throws IOException {
+        cacheFile.getParentFile().mkdirs();
+        File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getParentFile());
+        FileUtils.write(tempFile, content, UTF_8);
+        try {
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.max(1, GraphvizUtil.maxDotProcesses), runnable -> {
+                Thread thread = new Thread(runnable, "graphviz-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    // deletes the SVG files in the cache folder of graphs that were not rendered since the last release, and releases
+    // the SVGs kept in memory; all renderings of the export should be done (or given up on) before this is called
+    public void release(File cacheFolder) {
+        if (cacheFolder != null) {
+            File[] files = cacheFolder.listFiles((dir, name) -> name.endsWith(".svg"));
+            if (files != null) {
+                for (File file : files) {
+                    String key = file.getName().substring(0, file.getName().length() - ".svg".length());
+                    if (!svgs.containsKey(key) && !file.delete()) {
+                        LOG.warn("Could not delete the unused cached SVG " + file.getPath());
+                    }
+                }
+            }
+        }
+        svgs.clear();
+    }
+
+    public void clear() {
+        svgs.clear();
+        hits.set(0);
+        fileHits.set(0);
+        renderings.set(0);
+        failures.set(0);
+    }
+
+    public long getRenderings() {
+        return renderings.get();
+    }
+
+    public String getStats() {
+        return "graphviz svg cache: " + hits.get() + " hits, " + fileHits.get() + " file hits, "
+                + renderings.get() + " renderings, " + failures.get() + " failures";
+    }
+
+    private static class Rendering extends CompletableFuture<String> {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile long startTimeMs;
+
+        private void start() {
+            startTimeMs = System.currentTimeMillis();
+            started.countDown();
+        }
+
+        // waits until the rendering has started, and returns how much longer the rendering may take
+        private long awaitTimeLeftMs() throws InterruptedException {
+            started.await();
+            return startTimeMs + TimeUnit.SECONDS.toMillis(GraphvizUtil.dotTimeoutSeconds) - System.currentTimeMillis();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -26,6 +27,8 @@ public final class GraphvizUtil {
     private static final Log LOG = LogFactory.getLog(GraphvizUtil.class);
 
     public static boolean useExternalGraphviz = true;
+    public static int maxDotProcesses = Runtime.getRuntime().availableProcessors();
+    public static long dotTimeoutSeconds = 300;
 
     static {
         Graphviz.useEngine(new GraphvizJdkEngine());
@@ -48,6 +51,12 @@ public final class GraphvizUtil {
         return useExternalGraphviz && GraphvizSettings.getGraphVizDotPath() != null;
     }
 
+    // identifies the program that renders the graphs, as the SVG of the same graph differs between engines
+    public static String getRenderingEngine() {
+        String dotPath = useExternalGraphviz ? GraphvizSettings.getGraphVizDotPath() : null;
+        return dotPath != null ? "dot -Tsvg " + dotPath : "internal";
+    }
+
     public static String getSvgFromDot(String dotCode, String extraDotArguments[]) {
         File dotFile = null;
         double start = System.currentTimeMillis();
@@ -56,11 +65,10 @@ public final class GraphvizUtil {
             dotFile = File.createTempFile("grapviz_dot_graph", ".dot");
             FileUtils.writeStringToFile(dotFile, dotCode, UTF_8);
             String svgFromDotFile = getSvgFromDotFileExternal(dotFile, extraDotArguments);
-            int svgBeginIndex = svgFromDotFile.indexOf("<svg");
+            int svgBeginIndex = svgFromDotFile != null ? svgFromDotFile.indexOf("<svg") : -1;
             if (svgBeginIndex >= 0) {
-                svgFromDotFile = svgFromDotFile.substring(svgBeginIndex);
+                return svgFromDotFile.substring(svgBeginIndex);
             }
-            return svgFromDotFile;
         } catch (IOException e) {
             LOG.error(e);
         } finally {
@@ -73,15 +81,15 @@ public final class GraphvizUtil {
         return null;
     }
 
+    // returns null if dot fails or is stopped after dotTimeoutSeconds, as the output file may then be empty or partial
     public static String getSvgFromDotFileExternal(File dotFile, String extraDotArguments[]) {
         File svgFile = null;
         try {
             svgFile = File.createTempFile("dependencies_dot_image", ".svg");
             List<String> dotArguments = getDotParameters(dotFile, svgFile);
             Collections.addAll(dotArguments, extraDotArguments);
-            runDot(dotArguments);
 
-            if (svgFile.exists()) {
+            if (runDot(dotArguments)) {
                 return FileUtils.readFileToString(svgFile, UTF_8);
             } else {
                 return null;
@@ -98,7 +106,8 @@ public final class GraphvizUtil {
     }
 
 
-    private static String getSvgInternal(String dotCode) {
+    // the JavaScript engine used by the internal renderer is not thread-safe
+    private static synchronized String getSvgInternal(String dotCode) {
         try {
             Parser parser = new Parser();
             MutableGraph g = parser.read(dotCode);
@@ -148,14 +157,25 @@ public final class GraphvizUtil {
         return null;
     }
 
-    private static void runDot(List<String> dotArguments) throws IOException, InterruptedException {
+    // returns true if the dot process completed successfully within dotTimeoutSeconds
+    private static boolean runDot(List<String> dotArguments) throws IOException, InterruptedException {
         ProcessBuilder processBuilder = new ProcessBuilder(dotArguments.toArray(new String[dotArguments.size()]));
         String graphVizDotPath = GraphvizSettings.getGraphVizDotPath();
-        if (graphVizDotPath != null) {
-            processBuilder.directory(new File(graphVizDotPath).getParentFile());
-            Process theProcess = processBuilder.start();
-            theProcess.waitFor();
+        if (graphVizDotPath == null) {
+            return false;
+        }
+        processBuilder.directory(new File(graphVizDotPath).getParentFile());
+        Process theProcess = processBuilder.start();
+        if (!theProcess.waitFor(dotTimeoutSeconds, TimeUnit.SECONDS)) {
+            theProcess.destroyForcibly();
+            LOG.error("The dot process was stopped after " + dotTimeoutSeconds + " seconds.");
+            return false;
+        }
+        if (theProcess.exitValue() != 0) {
+            LOG.error("The dot process failed with the exit code " + theProcess.exitValue() + ".");
+            return false;
         }
+        return true;
     }
 
     private static List<String> getDotParameters(File dotFile, File imgFile) {
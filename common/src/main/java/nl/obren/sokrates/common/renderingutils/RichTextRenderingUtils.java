@@ -7,10 +7,12 @@ package nl.obren.sokrates.common.renderingutils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RichTextRenderingUtils {
+    // reports may be rendered on several threads at the same time (see ReportFileExporter)
     @JsonIgnore
-    private static int showMoreBlockId = 1;
+    private static final AtomicInteger showMoreBlockId = new AtomicInteger(1);
 
     public static double getPercentage(double total, double count) {
         return (int) (count * 100 * 100 / total) / 100.0;
@@ -47,7 +49,7 @@ public class RichTextRenderingUtils {
 
     public static String getShowMoreParagraph(String visibleContent, String hiddenContent, String linkLabel) {
         StringBuilder content = new StringBuilder();
-        String id = "showMoreBlock_" + showMoreBlockId++;
+        String id = "showMoreBlock_" + showMoreBlockId.getAndIncrement();
         content.append(visibleContent + " " + "<a href=\"javascript:showHide('" + id + "');\")>" + linkLabel + "</a>");
         content.append("<span id=\"" + id + "\" style=\"display: none;\">");
         content.append(hiddenContent);
@@ -58,7 +60,7 @@ public class RichTextRenderingUtils {
 
     public static String getStartShowMoreParagraph(String visibleContent, String linkLabel) {
         StringBuilder content = new StringBuilder();
-        String id = "showMoreBlock_" + showMoreBlockId++;
+        String id = "showMoreBlock_" + showMoreBlockId.getAndIncrement();
         content.append(visibleContent + " " + "<a href=\"javascript:showHide('" + id + "');\")>" + linkLabel + "</a>");
         content.append("<span id=\"" + id + "\" style=\"display: none;\">");
 
@@ -67,7 +69,7 @@ public class RichTextRenderingUtils {
 
     public static String getStartShowMoreParagraphDisappear(String visibleContent, String linkLabel) {
         StringBuilder content = new StringBuilder();
-        String id = "showMoreBlock_" + showMoreBlockId++;
+        String id = "showMoreBlock_" + showMoreBlockId.getAndIncrement();
         content.append("<span id='" + id + "_trigger' style='display: inline-block;'>"
                 + visibleContent + " " + "<a href=\"javascript:showHideDisappear('" + id + "');\")>"
                 + linkLabel + "</a></span>");
@@ -8,9 +8,10 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BarChart {
-    private static int chartCounter = 1;
+    private static final AtomicInteger chartCounter = new AtomicInteger(1);
     private String title;
     private int width = 900;
     private int height = 500;
@@ -97,7 +98,7 @@ public class BarChart {
     }
 
     private String getScriptString(StringBuilder dataString, StringBuilder colorsString) {
-        String id = "bar" + chartCounter++;
+        String id = "bar" + chartCounter.getAndIncrement();
         String functionId = "draw_" + id;
         return "<script type=\"text/javascript\">\n" +
                 "      google.charts.load(\"current\", {packages:[\"corechart\"]});\n" +
@@ -8,9 +8,10 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PieChart {
-    private static int chartCounter = 1;
+    private static final AtomicInteger chartCounter = new AtomicInteger(1);
     private String title;
     private List<String> labels = new ArrayList<>();
     private List<Number> values = new ArrayList<>();
@@ -92,7 +93,7 @@ public class PieChart {
     }
 
     private String getScriptString(StringBuilder dataString, StringBuilder colorsString) {
-        String id = "pie" + chartCounter++;
+        String id = "pie" + chartCounter.getAndIncrement();
         String functionId = "draw_" + id;
         return "<script type=\"text/javascript\">\n" +
                 "      google.charts.load(\"current\", {packages:[\"corechart\"]});\n" +
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/*
+ * Tests a line against a list of regular expressions in one pass. The literal substrings required by the expressions
+ * (see PatternCache) are searched for together with one scan of the line, and only the expressions whose literal was
+ * found (or that have no such literal) are then evaluated with java.util.regex. Invalid expressions never match.
+ */
+public class MultiPatternMatcher {
+    private List<PatternCache.CompiledPattern> patterns = new ArrayList<>();
+    private BitSet alwaysCandidates = new BitSet();
+    private int[] literalOwners;
+    private MultiStringMatcher literalsMatcher;
+
+    public MultiPatternMatcher(List<String> regexes) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < regexes.size(); i++) {
+            String regex = regexes.get(i);
+            PatternCache.CompiledPattern compiledPattern = regex != null ? PatternCache.compile(regex) : null;
+            patterns.add(compiledPattern);
+            if (compiledPattern == null || !compiledPattern.isValid()) {
+                continue;
+            }
+            if (compiledPattern.getRequiredLiteral() != null) {
+                literals.add(compiledPattern.getRequiredLiteral());
+                owners.add(i);
+            } else {
+                alwaysCandidates.set(i);
+            }
+        }
+        literalOwners = owners.stream().mapToInt(Integer::intValue).toArray();
+        literalsMatcher = new MultiStringMatcher(literals);
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    // returns the indexes of the expressions that match the whole line
+    public BitSet getMatchingPatterns(String line) {
+        return getMatchingPatterns(line, null);
+    }
+
+    private BitSet getMatchingPatterns(String line, BitSet selectedPatterns) {
+        BitSet candidates = getCandidatePatterns(line);
+        if (selectedPatterns != null) {
+            candidates.and(selectedPatterns);
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (!patterns.get(i).getPattern().matcher(line).matches()) {
+                candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    public boolean matchesAny(String line) {
+        BitSet candidates = getCandidatePatterns(line);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (patterns.get(i).getPattern().matcher(line).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // returns, for each of the selected expressions, the indexes of the lines it matches entirely (the lists of the
+    // other expressions are empty)
+    public List<List<Integer>> getMatchingLines(List<String> lines, BitSet selectedPatterns) {
+        List<List<Integer>> matchingLines = new ArrayList<>();
+        patterns.forEach(pattern -> matchingLines.add(new ArrayList<>()));
+        if (selectedPatterns.isEmpty()) {
+            return matchingLines;
+        }
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            BitSet matches = getMatchingPatterns(lines.get(lineIndex), selectedPatterns);
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                matchingLines.get(i).add(lineIndex);
+            }
+        }
+        return matchingLines;
+    }
+
+    // returns the indexes of the expressions that may match (a part of) the line, i.e. the valid expressions whose
+    // required literal is in the line or that do not have one
+    public BitSet getCandidatePatterns(String line) {
+        BitSet candidates = (BitSet) alwaysCandidates.clone();
+        if (literalOwners.length > 0) {
+            BitSet literals = literalsMatcher.findAll(line);
+            for (int i = literals.nextSetBit(0); i >= 0; i = literals.nextSetBit(i + 1)) {
+                candidates.set(literalOwners[i]);
+            }
+        }
+        return candidates;
+    }
+}
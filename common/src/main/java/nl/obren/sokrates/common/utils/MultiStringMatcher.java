@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import java.util.*;
+
+/*
+ * Finds which of a (large) set of strings occur in a text with one scan of the text (Aho-Corasick automaton). The
+ * result is the same as calling text.contains(string) for every string, but the cost does not grow with the number
+ * of strings. The automaton is immutable after construction and can be shared between threads.
+ */
+public class MultiStringMatcher {
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_INTS = new int[0];
+
+    private int stringsCount;
+    // sorted transition characters and target states per state
+    private char[][] transitionChars;
+    private int[][] transitionStates;
+    private int[] failure;
+    // indexes of the strings ending in a state, and the nearest state on the failure chain that ends any string
+    private int[][] outputs;
+    private int[] outputLink;
+    private int[] emptyStrings;
+
+    public MultiStringMatcher(List<String> strings) {
+        this.stringsCount = strings.size();
+
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> trieOutputs = new ArrayList<>();
+        List<Integer> empty = new ArrayList<>();
+        trie.add(new HashMap<>());
+        trieOutputs.add(new ArrayList<>());
+
+        for (int i = 0; i < strings.size(); i++) {
+            String string = strings.get(i);
+            if (string == null) {
+                continue;
+            }
+            if (string.isEmpty()) {
+                empty.add(i);
+                continue;
+            }
+            int state = 0;
+            for (int c = 0; c < string.length(); c++) {
+                Integer next = trie.get(state).get(string.charAt(c));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    trieOutputs.add(new ArrayList<>());
+                    trie.get(state).put(string.charAt(c), next);
+                }
+                state = next;
+            }
+            trieOutputs.get(state).add(i);
+        }
+
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionStates = new int[states][];
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            Map<Character, Integer> transitions = trie.get(state);
+            List<Character> chars = new ArrayList<>(transitions.keySet());
+            Collections.sort(chars);
+            transitionChars[state] = chars.isEmpty() ? NO_CHARS : new char[chars.size()];
+            transitionStates[state] = chars.isEmpty() ? NO_INTS : new int[chars.size()];
+            for (int i = 0; i < chars.size(); i++) {
+                transitionChars[state][i] = chars.get(i);
+                transitionStates[state][i] = transitions.get(chars.get(i));
+            }
+            outputs[state] = toArray(trieOutputs.get(state));
+        }
+        emptyStrings = toArray(empty);
+
+        buildFailureLinks(states);
+    }
+
+    private void buildFailureLinks(int states) {
+        failure = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int child : transitionStates[0]) {
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                char c = transitionChars[state][i];
+                int child = transitionStates[state][i];
+                int fallback = failure[state];
+                int next;
+                while ((next = getTransition(fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = next >= 0 ? next : 0;
+                int failureState = failure[child];
+                outputLink[child] = outputs[failureState].length > 0 ? failureState : outputLink[failureState];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private int getTransition(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionStates[state][index] : -1;
+    }
+
+    // returns the indexes of all strings that occur in the text
+    public BitSet findAll(CharSequence text) {
+        BitSet found = new BitSet(stringsCount);
+        for (int index : emptyStrings) {
+            found.set(index);
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = getTransition(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = next >= 0 ? next : 0;
+
+            for (int match = outputs[state].length > 0 ? state : outputLink[state]; match > 0; match = outputLink[match]) {
+                for (int index : outputs[match]) {
+                    found.set(index);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? NO_INTS : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
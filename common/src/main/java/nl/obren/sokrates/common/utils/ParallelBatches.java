@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ * Computes per-item results on several threads, but applies them strictly in the order of the items, so that the
+ * shared state updated in the apply step ends up exactly as with a sequential loop. Items are processed in batches
+ * to keep the number of pending results bounded.
+ */
+public class ParallelBatches {
+    private static final int ITEMS_PER_THREAD = 8;
+
+    private int threads;
+    private ExecutorService executor;
+
+    public ParallelBatches(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public <T, R> void forEachInOrder(List<T> items, Function<T, R> compute, BiConsumer<T, R> apply) {
+        if (threads == 1 || items.size() <= 1) {
+            items.forEach(item -> apply.accept(item, compute.apply(item)));
+            return;
+        }
+
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads);
+        }
+
+        int batchSize = threads * ITEMS_PER_THREAD;
+        for (int batchStart = 0; batchStart < items.size(); batchStart += batchSize) {
+            List<T> batch = items.subList(batchStart, Math.min(items.size(), batchStart + batchSize));
+            List<Callable<R>> tasks = new ArrayList<>();
+            batch.forEach(item -> tasks.add(() -> compute.apply(item)));
+            try {
+                List<Future<R>> results = executor.invokeAll(tasks);
+                for (int i = 0; i < batch.size(); i++) {
+                    apply.accept(batch.get(i), results.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
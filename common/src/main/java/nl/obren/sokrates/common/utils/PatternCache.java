@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/*
+ * A shared cache of compiled regular expressions, so that the patterns from the analysis configuration (filters,
+ * concerns, meta rules, dependency anchors...) are compiled once instead of once per tested line. Invalid expressions
+ * are cached too (and never match). Each entry also keeps a literal substring that any match must contain, if the
+ * expression has one, so that most non-matching lines are rejected with String.contains before running the regex.
+ * The cache is thread-safe and bounded: when it grows over the maximal size it is emptied and filled again.
+ */
+public class PatternCache {
+    private static final Log LOG = LogFactory.getLog(PatternCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 20000;
+
+    private static PatternCache instance = new PatternCache();
+
+    private Map<String, CompiledPattern> patterns = new ConcurrentHashMap<>();
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+
+    public static PatternCache getInstance() {
+        return instance;
+    }
+
+    public static CompiledPattern compile(String regex) {
+        return instance.get(regex);
+    }
+
+    public CompiledPattern get(String regex) {
+        CompiledPattern compiledPattern = patterns.get(regex);
+        if (compiledPattern != null) {
+            hits.incrementAndGet();
+            return compiledPattern;
+        }
+
+        misses.incrementAndGet();
+        compiledPattern = new CompiledPattern(regex);
+        if (patterns.size() >= maxSize) {
+            patterns.clear();
+            evictions.incrementAndGet();
+        }
+        patterns.put(regex, compiledPattern);
+        return compiledPattern;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    public void clear() {
+        patterns.clear();
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public String getStats() {
+        return "pattern cache: " + hits.get() + " hits, " + misses.get() + " misses, "
+                + evictions.get() + " evictions, " + patterns.size() + " patterns";
+    }
+
+    // returns a substring that is part of every match of the expression, or null if the expression is not simple
+    // enough to find one safely (top level alternatives and flags; groups and character classes are skipped)
+    static String getRequiredLiteral(String regex) {
+        if (regex.contains("(?") || regex.contains("\\Q")) {
+            return null;
+        }
+
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            Character literal = null;
+            if (c == '\\') {
+                if (next >= regex.length()) {
+                    return null;
+                }
+                char escaped = regex.charAt(next);
+                next++;
+                if (Character.isDigit(escaped) || "xucpPNk".indexOf(escaped) >= 0) {
+                    // escapes followed by codes, names or back references
+                    return null;
+                }
+                if (!Character.isLetter(escaped)) {
+                    literal = escaped;
+                }
+            } else if (c == '[') {
+                next = skipCharacterClass(regex, i);
+            } else if (c == '{') {
+                int end = regex.indexOf('}', i);
+                next = end < 0 ? regex.length() : end + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return null;
+            } else if (".^$*+?".indexOf(c) < 0) {
+                literal = c;
+            }
+
+            boolean optional = next < regex.length() && "*?{".indexOf(regex.charAt(next)) >= 0;
+            if (literal != null && depth == 0 && !optional) {
+                current.append(literal.charValue());
+            } else {
+                if (current.length() > longest.length()) {
+                    longest = current.toString();
+                }
+                current.setLength(0);
+            }
+            i = next;
+        }
+        if (current.length() > longest.length()) {
+            longest = current.toString();
+        }
+
+        return longest.isEmpty() ? null : longest;
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        int i = start + 1;
+        int depth = 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        while (i < regex.length() && depth > 0) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    public static class CompiledPattern {
+        private final String regex;
+        private final Pattern pattern;
+        private final String requiredLiteral;
+
+        CompiledPattern(String regex) {
+            this.regex = regex;
+            Pattern compiled = null;
+            try {
+                compiled = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                LOG.debug(e);
+            }
+            this.pattern = compiled;
+            this.requiredLiteral = compiled != null ? PatternCache.getRequiredLiteral(regex) : null;
+        }
+
+        public String getRegex() {
+            return regex;
+        }
+
+        // null if the expression is not valid
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        public String getRequiredLiteral() {
+            return requiredLiteral;
+        }
+
+        public boolean isValid() {
+            return pattern != null;
+        }
+
+        public boolean mayMatch(String text) {
+            return pattern != null && (requiredLiteral == null || text.contains(requiredLiteral));
+        }
+
+        public boolean matchesEntirely(String text) {
+            return mayMatch(text) && pattern.matcher(text).matches();
+        }
+    }
+}
@@ -11,20 +11,13 @@ import org.apache.commons.logging.LogFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class RegexUtils {
     private static final Log LOG = LogFactory.getLog(RegexUtils.class);
     public static final int MAX_TEXT_LENGTH = 1000;
 
     public static boolean matchesEntirely(String regexPattern, String content) {
-        try {
-            return Pattern.compile(regexPattern).matcher(content).matches();
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
-            return false;
-        }
+        return PatternCache.compile(regexPattern).matchesEntirely(content);
     }
 
     public static boolean doesNotMatchAnyPattern(String line, List<String> patterns) {
@@ -33,12 +26,8 @@ public class RegexUtils {
 
     public static boolean matchesAnyPattern(String line, List<String> patterns) {
         for (String patternString : patterns) {
-            try {
-                if (Pattern.compile(patternString).matcher(line).matches()) {
-                    return true;
-                }
-            } catch (PatternSyntaxException e) {
-                LOG.debug(e);
+            if (PatternCache.compile(patternString).matchesEntirely(line)) {
+                return true;
             }
         }
         return false;
@@ -46,16 +35,17 @@ public class RegexUtils {
 
     public static String getMatchedRegex(String text, String regex) {
         try {
-            Pattern soe = Pattern.compile(regex);
-            Matcher matcher = soe.matcher(StringUtils.left(text, MAX_TEXT_LENGTH));
+            PatternCache.CompiledPattern pattern = PatternCache.compile(regex);
+            if (!pattern.mayMatch(text)) {
+                return null;
+            }
+            Matcher matcher = pattern.getPattern().matcher(StringUtils.left(text, MAX_TEXT_LENGTH));
 
             if (matcher.find()) {
                 int start = matcher.start();
                 int end = matcher.end();
                 return unifyEndOfLineCharacters(text.substring(start, end));
             }
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
         } catch (StackOverflowError e) {
             LOG.error(e);
         }
@@ -65,16 +55,17 @@ public class RegexUtils {
     public static List<String> getMatchedRegexesNoLimits(String text, String regex) {
         List<String> matches = new ArrayList<>();
         try {
-            Pattern soe = Pattern.compile(regex);
-            Matcher matcher = soe.matcher(text);
+            PatternCache.CompiledPattern pattern = PatternCache.compile(regex);
+            if (!pattern.mayMatch(text)) {
+                return matches;
+            }
+            Matcher matcher = pattern.getPattern().matcher(text);
 
             while (matcher.find()) {
                 int start = matcher.start();
                 int end = matcher.end();
                 matches.add(unifyEndOfLineCharacters(text.substring(start, end)));
             }
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
         } catch (StackOverflowError e) {
             LOG.error(e);
         }
@@ -83,8 +74,11 @@ public class RegexUtils {
 
     public static String getLastMatchedRegex(String text, String regex) {
         try {
-            Pattern soe = Pattern.compile(regex);
-            Matcher matcher = soe.matcher(text);
+            PatternCache.CompiledPattern pattern = PatternCache.compile(regex);
+            if (!pattern.mayMatch(text)) {
+                return null;
+            }
+            Matcher matcher = pattern.getPattern().matcher(text);
 
             String result = null;
             while (matcher.find()) {
@@ -93,8 +87,6 @@ public class RegexUtils {
                 result = unifyEndOfLineCharacters(text.substring(start, end));
             }
             return result;
-        } catch (PatternSyntaxException e) {
-            LOG.debug(e);
         } catch (StackOverflowError e) {
             LOG.error(e);
         }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.renderingutils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class GraphvizSvgCacheTest {
+    private static final String DOT = "digraph G {\n    a -> b;\n}\n";
+
+    @Test
+    public void getKey() {
+        String key = GraphvizSvgCache.getKey("internal", DOT);
+
+        assertEquals(64, key.length());
+        assertEquals(key, GraphvizSvgCache.getKey("internal", DOT));
+        assertNotEquals(key, GraphvizSvgCache.getKey("dot -Tsvg /usr/bin/dot", DOT));
+        assertNotEquals(key, GraphvizSvgCache.getKey("internal", DOT.replace("b", "c")));
+    }
+
+    @Test
+    public void readsPreviouslyRenderedGraphs() throws IOException {
+        File cacheFolder = Files.createTempDirectory("svg-cache").toFile();
+        try {
+            String key = GraphvizSvgCache.getKey(GraphvizUtil.getRenderingEngine(), DOT);
+            FileUtils.write(new File(cacheFolder, key + ".svg"), "<svg>cached</svg>", UTF_8);
+
+            GraphvizSvgCache cache = new GraphvizSvgCache();
+            assertEquals("<svg>cached</svg>", cache.render(DOT, cacheFolder));
+            assertEquals("<svg>cached</svg>", cache.render(DOT, cacheFolder));
+            assertEquals(0, cache.getRenderings());
+            assertTrue(cache.getStats().contains("1 hits, 1 file hits"));
+        } finally {
+            FileUtils.deleteDirectory(cacheFolder);
+        }
+    }
+
+    @Test
+    public void releaseDeletesUnusedSvgsAndFreesMemory() throws IOException {
+        File cacheFolder = Files.createTempDirectory("svg-cache").toFile();
+        try {
+            String key = GraphvizSvgCache.getKey(GraphvizUtil.getRenderingEngine(), DOT);
+            File usedFile = new File(cacheFolder, key + ".svg");
+            File unusedFile = new File(cacheFolder, GraphvizSvgCache.getKey("internal", "digraph G {}") + ".svg");
+            File otherFile = new File(cacheFolder, "notes.txt");
+            FileUtils.write(usedFile, "<svg>cached</svg>", UTF_8);
+            FileUtils.write(unusedFile, "<svg>old</svg>", UTF_8);
+            FileUtils.write(otherFile, "notes", UTF_8);
+
+            GraphvizSvgCache cache = new GraphvizSvgCache();
+            assertEquals("<svg>cached</svg>", cache.render(DOT, cacheFolder));
+            cache.release(cacheFolder);
+
+            assertTrue(usedFile.exists());
+            assertFalse(unusedFile.exists());
+            assertTrue(otherFile.exists());
+
+            assertEquals("<svg>cached</svg>", cache.render(DOT, cacheFolder));
+            assertTrue(cache.getStats().contains("0 hits, 2 file hits"));
+        } finally {
+            FileUtils.deleteDirectory(cacheFolder);
+        }
+    }
+
+    @Test
+    public void failedOrStoppedDotProcessesGiveNoSvg() throws IOException {
+        Assume.assumeTrue(SystemUtils.IS_OS_UNIX);
+        File folder = Files.createTempDirectory("fake-dot").toFile();
+        long dotTimeoutSeconds = GraphvizUtil.dotTimeoutSeconds;
+        try {
+            File dotFile = new File(folder, "graph.dot");
+            FileUtils.write(dotFile, DOT, UTF_8);
+
+            System.setProperty("GRAPHVIZ_DOT", createScript(folder, "failing", "echo '<svg>partial' > \"${2#-o}\"; exit 1"));
+            assertNull(GraphvizUtil.getSvgFromDotFileExternal(dotFile, new String[]{}));
+
+            GraphvizUtil.dotTimeoutSeconds = 1;
+            System.setProperty("GRAPHVIZ_DOT", createScript(folder, "slow", "echo '<svg>partial' > \"${2#-o}\"; sleep 10"));
+            assertNull(GraphvizUtil.getSvgFromDotFileExternal(dotFile, new String[]{}));
+
+            System.setProperty("GRAPHVIZ_DOT", createScript(folder, "working", "echo '<svg>rendered</svg>' > \"${2#-o}\""));
+            assertEquals("<svg>rendered</svg>\n", GraphvizUtil.getSvgFromDotFileExternal(dotFile, new String[]{}));
+        } finally {
+            System.clearProperty("GRAPHVIZ_DOT");
+            GraphvizUtil.dotTimeoutSeconds = dotTimeoutSeconds;
+            FileUtils.deleteDirectory(folder);
+        }
+    }
+
+    @Test
+    public void rendersAgainCachedContentThatIsNotAnSvg() throws IOException {
+        Assume.assumeTrue(SystemUtils.IS_OS_UNIX);
+        File folder = Files.createTempDirectory("fake-dot").toFile();
+        boolean useExternalGraphviz = GraphvizUtil.useExternalGraphviz;
+        try {
+            System.setProperty("GRAPHVIZ_DOT", createScript(folder, "working", "echo '<svg>rendered</svg>' > \"${2#-o}\""));
+            GraphvizUtil.useExternalGraphviz = true;
+            File cacheFolder = new File(folder, "svg-cache");
+            String key = GraphvizSvgCache.getKey(GraphvizUtil.getRenderingEngine(), DOT);
+            FileUtils.write(new File(cacheFolder, key + ".svg"), "", UTF_8);
+
+            String svg = new GraphvizSvgCache().render(DOT, cacheFolder);
+
+            assertEquals("<svg>rendered</svg>\n", svg);
+            assertEquals(svg, FileUtils.readFileToString(new File(cacheFolder, key + ".svg"), UTF_8));
+        } finally {
+            System.clearProperty("GRAPHVIZ_DOT");
+            GraphvizUtil.useExternalGraphviz = useExternalGraphviz;
+            FileUtils.deleteDirectory(folder);
+        }
+    }
+
+    private String createScript(File folder, String name, String body) throws IOException {
+        File script = new File(folder, name + ".sh");
+        FileUtils.write(script, "#!/bin/sh\n" + body + "\n", UTF_8);
+        script.setExecutable(true);
+        return script.getAbsolutePath();
+    }
+}
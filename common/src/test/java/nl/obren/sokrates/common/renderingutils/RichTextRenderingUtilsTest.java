@@ -6,6 +6,10 @@ package nl.obren.sokrates.common.renderingutils;
 
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static junit.framework.TestCase.assertEquals;
 
 public class RichTextRenderingUtilsTest {
@@ -38,4 +42,13 @@ public class RichTextRenderingUtilsTest {
         assertEquals(RichTextRenderingUtils.renderNumberStrong(25), "<b>25</b>");
         assertEquals(RichTextRenderingUtils.renderNumberStrong(-1), "<b>-1</b>");
     }
+
+    @Test
+    public void showMoreBlockIdsAreUniqueWhenRenderedInParallel() throws Exception {
+        Set<String> ids = IntStream.range(0, 2000).parallel()
+                .mapToObj(i -> RichTextRenderingUtils.getShowMoreParagraph("visible", "hidden", "more"))
+                .map(paragraph -> paragraph.replaceAll("(?s).*<span id=\"(showMoreBlock_[0-9]+)\".*", "$1"))
+                .collect(Collectors.toSet());
+        assertEquals(2000, ids.size());
+    }
 }
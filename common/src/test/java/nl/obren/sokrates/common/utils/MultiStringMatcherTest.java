@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MultiStringMatcherTest {
+    @Test
+    public void findAll() {
+        MultiStringMatcher matcher = new MultiStringMatcher(Arrays.asList("he", "she", "his", "hers", "", "x", "a.b.c", "b.c"));
+
+        assertEquals("{0, 1, 3, 4}", matcher.findAll("ushers").toString());
+        assertEquals("{4}", matcher.findAll("").toString());
+        assertEquals("{4, 6, 7}", matcher.findAll("import a.b.c;").toString());
+        assertEquals("{4, 7}", matcher.findAll("import a.b.b.c;").toString());
+    }
+
+    @Test
+    public void sameAsContains() {
+        Random random = new Random(7);
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            strings.add(randomString(random, 1 + random.nextInt(4)));
+        }
+        MultiStringMatcher matcher = new MultiStringMatcher(strings);
+
+        for (int i = 0; i < 100; i++) {
+            String text = randomString(random, random.nextInt(200));
+            BitSet expected = new BitSet();
+            for (int j = 0; j < strings.size(); j++) {
+                if (text.contains(strings.get(j))) {
+                    expected.set(j);
+                }
+            }
+            assertEquals(expected, matcher.findAll(text));
+        }
+    }
+
+    private String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
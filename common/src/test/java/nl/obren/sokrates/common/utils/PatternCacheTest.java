@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.common.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class PatternCacheTest {
+    @Test
+    public void getRequiredLiteral() {
+        assertEquals("import", PatternCache.getRequiredLiteral("import.* a[.]b([.][A-Z].*|[.][*]|);"));
+        assertEquals("TODO", PatternCache.getRequiredLiteral(".*TODO.*"));
+        assertEquals("a.b", PatternCache.getRequiredLiteral("x*a\\.b"));
+        assertEquals("ab", PatternCache.getRequiredLiteral("ab+c?"));
+        assertEquals("package ", PatternCache.getRequiredLiteral("[ ]*package [a-z]+;"));
+
+        assertNull(PatternCache.getRequiredLiteral("a|b"));
+        assertNull(PatternCache.getRequiredLiteral("(?i).*todo.*"));
+        assertNull(PatternCache.getRequiredLiteral("\\x41bc"));
+        assertNull(PatternCache.getRequiredLiteral(".*(abc)?.*"));
+        assertNull(PatternCache.getRequiredLiteral("[abc]*\\s+"));
+    }
+
+    @Test
+    public void matchesEntirelySameAsPattern() {
+        List<String> regexes = Arrays.asList(".*TODO.*", "import.* a[.]b([.][A-Z].*|[.][*]|);", "x*a\\.b", "ab+c?",
+                "[ ]*package [a-z]+;", "a{2}b", ".*[(]", "\\s*test[.]+\\S+");
+        List<String> texts = Arrays.asList("", "// TODO fix", "import a.b.C;", "import a.b;", "a.b", "xxa.b", "ab", "abbc",
+                "abc", " package test;", "aab", "ab", "f(", " test.x", "test", "tesT..y");
+        for (String regex : regexes) {
+            for (String text : texts) {
+                assertEquals(regex + " / " + text, Pattern.compile(regex).matcher(text).matches(), RegexUtils.matchesEntirely(regex, text));
+            }
+        }
+    }
+
+    @Test
+    public void invalidPatterns() {
+        PatternCache cache = new PatternCache();
+        assertFalse(cache.get("[ ]*init[ ]*{[ ]*").isValid());
+        assertFalse(cache.get("[ ]*init[ ]*{[ ]*").matchesEntirely("init {"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void multiPatternMatcher() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList(".*TODO.*", "[(", ".*FIXME.*", ".*", null));
+
+        assertEquals("{0, 3}", matcher.getMatchingPatterns("// TODO").toString());
+        assertEquals("{3}", matcher.getMatchingPatterns("int a;").toString());
+        assertTrue(matcher.matchesAny("x"));
+
+        List<String> lines = Arrays.asList("a", "// FIXME", "b // TODO");
+        assertEquals("[[2], [], [1], [], []]", matcher.getMatchingLines(lines, bits(0, 1, 2)).toString());
+    }
+
+    private java.util.BitSet bits(int... indexes) {
+        java.util.BitSet bitSet = new java.util.BitSet();
+        for (int index : indexes) {
+            bitSet.set(index);
+        }
+        return bitSet;
+    }
+}
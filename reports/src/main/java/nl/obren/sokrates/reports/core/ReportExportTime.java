@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2021 Željko Obrenović. All rights reserved.
+ */
+
+package nl.obren.sokrates.reports.core;
+
+public class ReportExportTime {
+    private String fileName;
+    private long timeMs;
+
+    public ReportExportTime(String fileName, long timeMs) {
+        this.fileName = fileName;
+        this.timeMs = timeMs;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+}
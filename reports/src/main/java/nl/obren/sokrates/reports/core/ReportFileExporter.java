@@ -4,6 +4,8 @@
 
 package nl.obren.sokrates.reports.core;
 
+import nl.obren.sokrates.common.renderingutils.GraphvizSvgCache;
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.reports.generators.statichtml.ContributorsReportUtils;
 import nl.obren.sokrates.reports.utils.HtmlTemplateUtils;
 import nl.obren.sokrates.sourcecode.Link;
@@ -15,28 +17,67 @@ import nl.obren.sokrates.sourcecode.core.CodeConfigurationUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
+/*
+ * Exports rich text reports as HTML files. Several reports can be rendered and written at the same time (see
+ * exportHtml with a number of threads): each report has its own writer, and the only state shared by rendering is the
+ * element ID counters of show more blocks and charts, which are atomic so that IDs stay unique within a page. Reports
+ * are streamed through a buffered writer fragment by fragment, without building the whole page in memory.
+ */
 public class ReportFileExporter {
-    private static String htmlReportsSubFolder = "html";
+    public static final String HTML_REPORTS_SUB_FOLDER = "html";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     public static void exportHtml(File folder, String subFolder, RichTextReport report, String customHeaderFragment) {
-        htmlReportsSubFolder = subFolder;
-        File htmlReportsFolder = getHtmlReportsFolder(folder);
+        File htmlReportsFolder = getHtmlReportsFolder(folder, subFolder);
         String reportFileName = getReportFileName(report);
         export(htmlReportsFolder, report, reportFileName, customHeaderFragment);
     }
 
+    // renders and writes the reports on the given number of threads, and returns the export times in milliseconds;
+    // afterwards, the SVGs of the graphs are released and the unused ones are deleted from the SVG cache folder
+    public static List<ReportExportTime> exportHtml(File folder, String subFolder, List<RichTextReport> reports, String customHeaderFragment, int threads) {
+        List<ReportExportTime> times = new ArrayList<>();
+        ParallelBatches batches = new ParallelBatches(threads);
+        try {
+            batches.forEachInOrder(reports, report -> {
+                long start = System.currentTimeMillis();
+                exportHtml(folder, subFolder, report, customHeaderFragment);
+                return new ReportExportTime(report.getFileName(), System.currentTimeMillis() - start);
+            }, (report, time) -> {
+                System.out.println("Exported " + time.getFileName() + " (" + time.getTimeMs() + " ms).");
+                times.add(time);
+            });
+        } finally {
+            batches.shutdown();
+            GraphvizSvgCache.getInstance().release(getSvgCacheFolder(getHtmlReportsFolder(folder, subFolder)));
+        }
+        return times;
+    }
+
+    public static void printExportTimesSummary(List<ReportExportTime> times, int limit) {
+        long total = times.stream().mapToLong(ReportExportTime::getTimeMs).sum();
+        System.out.println("Exported " + times.size() + " report(s) in " + total + " ms (sum of report export times).");
+        times.stream()
+                .sorted(Comparator.comparingLong(ReportExportTime::getTimeMs).reversed())
+                .limit(limit)
+                .forEach(time -> System.out.println(" - " + time.getFileName() + ": " + time.getTimeMs() + " ms"));
+    }
+
     private static void export(File folder, RichTextReport report, String reportFileName, String customHeaderFragment) {
         File reportFile = new File(folder, reportFileName);
-        try {
-            PrintWriter out = new PrintWriter(reportFile);
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile)), WRITE_BUFFER_SIZE))) {
             String reportsHtmlHeader = ReportConstants.REPORTS_HTML_HEADER;
             reportsHtmlHeader = reportsHtmlHeader.replace("<!-- CUSTOM HEADER FRAGMENT -->", customHeaderFragment);
             if (report.isEmbedded()) {
@@ -50,9 +91,7 @@ public class ReportFileExporter {
             out.println(reportsHtmlHeader + "\n<body><div id=\"report\">\n" + "\n");
             new ReportRenderer().render(report, getReportRenderingClient(out, folder));
             out.println("</div>\n</body>\n</html>");
-            out.flush();
-            out.close();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -76,9 +115,18 @@ public class ReportFileExporter {
                 visualsFolder.mkdirs();
                 return visualsFolder;
             }
+
+            @Override
+            public File getSvgCacheFolder() {
+                return ReportFileExporter.getSvgCacheFolder(reportsFolder);
+            }
         };
     }
 
+    private static File getSvgCacheFolder(File reportsFolder) {
+        return new File(reportsFolder, "visuals/svg-cache");
+    }
+
     private static String getReportFileName(RichTextReport report) {
         return report.getFileName();
     }
@@ -86,7 +134,7 @@ public class ReportFileExporter {
     public static void exportReportsIndexFile(File reportsFolder, CodeAnalysisResults analysisResults, File sokratesConfigFolder) {
         List<String[]> reportList = getReportsList(analysisResults, sokratesConfigFolder);
 
-        File htmlExportFolder = getHtmlReportsFolder(reportsFolder);
+        File htmlExportFolder = getHtmlReportsFolder(reportsFolder, HTML_REPORTS_SUB_FOLDER);
 
         Metadata metadata = analysisResults.getCodeConfiguration().getMetadata();
         String title = metadata.getName();
@@ -151,8 +199,8 @@ public class ReportFileExporter {
     }
 
 
-    private static File getHtmlReportsFolder(File reportsFolder) {
-        File htmlExportFolder = new File(reportsFolder, htmlReportsSubFolder);
+    private static File getHtmlReportsFolder(File reportsFolder, String subFolder) {
+        File htmlExportFolder = new File(reportsFolder, subFolder);
         htmlExportFolder.mkdirs();
         return htmlExportFolder;
     }
@@ -4,15 +4,20 @@
 
 package nl.obren.sokrates.reports.core;
 
-import nl.obren.sokrates.common.renderingutils.GraphvizUtil;
+import nl.obren.sokrates.common.renderingutils.GraphvizSvgCache;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 public class ReportRenderer {
+    private static final String GRAPH_NOT_RENDERED = "<p style=\"color: #787878; font-size: 80%;\">The graph could not be rendered.</p>\n";
+
     public void render(RichTextReport richTextReport, ReportRenderingClient reportRenderingClient) {
         StringBuilder content = new StringBuilder();
         if (StringUtils.isNotBlank(richTextReport.getDisplayName())) {
@@ -21,9 +26,16 @@ public class ReportRenderer {
         if (StringUtils.isNotBlank(richTextReport.getDescription())) {
             content.append("<p style=\"color: #787878; font-size: 94%; margin-top: 9px;\">" + richTextReport.getDescription() + "</p>\n");
         }
+        // all graphs of the report are rendered in parallel, while the fragments are written in order
+        Map<RichTextFragment, Future<String>> svgs = new HashMap<>();
+        richTextReport.getRichTextFragments().forEach(fragment -> {
+            if (fragment.getType() == RichTextFragment.Type.GRAPHVIZ && (fragment.isShow() || shouldExportVisualToFile(reportRenderingClient, fragment))) {
+                svgs.put(fragment, GraphvizSvgCache.getInstance().renderAsync(fragment.getFragment(), reportRenderingClient.getSvgCacheFolder()));
+            }
+        });
         reportRenderingClient.append(content.toString());
         richTextReport.getRichTextFragments().forEach(fragment -> {
-            renderFragment(reportRenderingClient, fragment);
+            renderFragment(reportRenderingClient, fragment, svgs);
         });
     }
 
@@ -51,14 +63,15 @@ public class ReportRenderer {
         content.append("</h1>\n");
     }
 
-    private void renderFragment(ReportRenderingClient reportRenderingClient, RichTextFragment fragment) {
+    private void renderFragment(ReportRenderingClient reportRenderingClient, RichTextFragment fragment, Map<RichTextFragment, Future<String>> svgs) {
         if (fragment.getType() == RichTextFragment.Type.GRAPHVIZ) {
             if (shouldExportVisualToFile(reportRenderingClient, fragment)) {
-                renderAndSaveVisuals(reportRenderingClient, fragment);
+                renderAndSaveVisuals(reportRenderingClient, fragment, svgs.get(fragment));
             } else {
                 if (fragment.isShow()) {
                     System.out.println("Rendering graphviz content: " + fragment.getId());
-                    reportRenderingClient.append(minimize(GraphvizUtil.getSvgFromDot(fragment.getFragment()) + "\n"));
+                    String svg = GraphvizSvgCache.getInstance().get(svgs.get(fragment));
+                    reportRenderingClient.append(svg != null ? minimize(svg + "\n") : GRAPH_NOT_RENDERED);
                 }
             }
         } else if (fragment.getType() == RichTextFragment.Type.SVG) {
@@ -72,7 +85,7 @@ public class ReportRenderer {
         }
     }
 
-    private void renderAndSaveVisuals(ReportRenderingClient reportRenderingClient, RichTextFragment fragment) {
+    private void renderAndSaveVisuals(ReportRenderingClient reportRenderingClient, RichTextFragment fragment, Future<String> svg) {
         try {
             File folder = reportRenderingClient.getVisualsExportFolder();
             String id = fragment.getId();
@@ -81,13 +94,23 @@ public class ReportRenderer {
             FileUtils.write(dotFile, fragment.getFragment(), StandardCharsets.UTF_8);
 
             System.out.println("Rendering graphviz file " + fragment.getId());
-            String svgContent = minimize(GraphvizUtil.getSvgFromDot(fragment.getFragment()));
+            String svgContent = GraphvizSvgCache.getInstance().get(svg);
+            File svgFile = new File(folder, id + ".svg");
 
+            if (svgContent == null) {
+                if (fragment.isShow()) {
+                    reportRenderingClient.append(GRAPH_NOT_RENDERED);
+                }
+                // a graph from a previous run would not match the saved DOT file
+                FileUtils.deleteQuietly(svgFile);
+                return;
+            }
+
+            svgContent = minimize(svgContent);
             if (fragment.isShow()) {
                 reportRenderingClient.append(svgContent + "\n");
             }
 
-            File svgFile = new File(folder, id + ".svg");
             FileUtils.write(svgFile, svgContent, StandardCharsets.UTF_8);
 
         } catch (IOException e) {
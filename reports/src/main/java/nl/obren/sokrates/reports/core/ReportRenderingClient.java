@@ -9,4 +9,9 @@ import java.io.File;
 public interface  ReportRenderingClient {
     void append(String text);
     File getVisualsExportFolder();
+
+    // the folder where rendered Graphviz graphs are kept between runs (not kept if null)
+    default File getSvgCacheFolder() {
+        return null;
+    }
 }
@@ -196,6 +196,9 @@ public class DataExporter {
     private void exportDuplicates() {
         exportDuplicates(analysisResults.getDuplicationAnalysisResults().getAllDuplicates(), "duplicates");
         exportDuplicates(analysisResults.getDuplicationAnalysisResults().getUnitDuplicates(), "unit_duplicates");
+        if (analysisResults.getDuplicationAnalysisResults().getSimilarUnits().size() > 0) {
+            exportDuplicates(analysisResults.getDuplicationAnalysisResults().getSimilarUnits(), "similar_units");
+        }
     }
 
     private void exportDuplicates(List<DuplicationInstance> instances, final String fileName) {
@@ -546,6 +549,9 @@ public class DataExporter {
         DuplicationAnalysisResults duplicationAnalysisResults = analysisResults.getDuplicationAnalysisResults();
         saveDuplicateFragmentFiles(duplicationAnalysisResults.getLongestDuplicates(), "longest_duplicates");
         saveDuplicateFragmentFiles(duplicationAnalysisResults.getUnitDuplicates(), "unit_duplicates");
+        if (duplicationAnalysisResults.getSimilarUnits().size() > 0) {
+            saveDuplicateFragmentFiles(duplicationAnalysisResults.getSimilarUnits(), "similar_units");
+        }
         // saveDuplicateFragmentFiles(duplicationAnalysisResults.getMostFrequentDuplicates(), "most_frequent_duplicates");
     }
 
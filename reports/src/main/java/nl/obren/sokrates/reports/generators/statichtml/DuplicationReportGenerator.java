@@ -109,6 +109,7 @@ public class DuplicationReportGenerator {
         addDuplicationPerLogicalDecomposition(report);
         addLongestDuplicatesList(report);
         addDuplicatedUnitsList(report);
+        addSimilarUnitsList(report);
         // addMostFrequentDuplicatesList(report);
     }
 
@@ -128,6 +129,23 @@ public class DuplicationReportGenerator {
         }
     }
 
+    private void addSimilarUnitsList(RichTextReport report) {
+        List<DuplicationInstance> similarUnits = codeAnalysisResults.getDuplicationAnalysisResults().getSimilarUnits();
+        if (similarUnits.size() > 0) {
+            int originalSize = similarUnits.size();
+            int maxTopListSize = codeAnalysisResults.getCodeConfiguration().getAnalysis().getMaxTopListSize();
+            if (similarUnits.size() > maxTopListSize) {
+                similarUnits = similarUnits.subList(0, maxTopListSize);
+            }
+            double minUnitSimilarity = codeAnalysisResults.getCodeConfiguration().getAnalysis().getMinUnitSimilarity();
+            report.startSection("Similar Units", "The list of top " + similarUnits.size() + " groups of units with at least "
+                    + FormattingUtils.getFormattedPercentage(100 * minUnitSimilarity) + "% of the same lines.");
+            report.addContentInDiv("<a href='../data/text/similar_units.txt'>See data for all <b>" + FormattingUtils.formatCount(originalSize) + "</b> " + (originalSize == 1 ? "group" : "groups...") + "</b></a>", "margin-bottom: 16px");
+            getDuplicatesTable(report, similarUnits, "similar_units");
+            report.endSection();
+        }
+    }
+
     private void addDuplicationPerLogicalDecomposition(RichTextReport report) {
         codeAnalysisResults.getDuplicationAnalysisResults().getDuplicationPerComponent().forEach(duplicationPerComponent -> {
             LogicalDecomposition logicalDecomposition = getLogicalDecomposition(codeAnalysisResults.getDuplicationAnalysisResults().getDuplicationPerComponent().indexOf(duplicationPerComponent));
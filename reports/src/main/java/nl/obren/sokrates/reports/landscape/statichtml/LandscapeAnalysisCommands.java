@@ -4,6 +4,8 @@
 
 package nl.obren.sokrates.reports.landscape.statichtml;
 
+import nl.obren.sokrates.common.renderingutils.GraphvizSvgCache;
+import nl.obren.sokrates.reports.core.ReportExportTime;
 import nl.obren.sokrates.reports.core.ReportFileExporter;
 import nl.obren.sokrates.reports.core.RichTextReport;
 import nl.obren.sokrates.sourcecode.landscape.analysis.LandscapeAnalysisResults;
@@ -15,6 +17,7 @@ import org.apache.commons.io.FileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 public class LandscapeAnalysisCommands {
@@ -28,11 +31,15 @@ public class LandscapeAnalysisCommands {
     }
 
     public static void update(File analysisRoot, File landscapeConfigFile) {
+        update(analysisRoot, landscapeConfigFile, 1);
+    }
+
+    public static void update(File analysisRoot, File landscapeConfigFile, int threads) {
         landscapeConfigFile = getConfigFile(analysisRoot, landscapeConfigFile);
         LandscapeAnalysisUpdater updater = new LandscapeAnalysisUpdater();
         updater.updateConfiguration(analysisRoot, landscapeConfigFile);
         System.out.println("Configuration file: " + landscapeConfigFile.getPath());
-        generateReport(landscapeConfigFile);
+        generateReport(landscapeConfigFile, threads);
     }
 
     private static File getConfigFile(File analysisRoot, File landscapeConfigFile) {
@@ -44,6 +51,10 @@ public class LandscapeAnalysisCommands {
     }
 
     public static void generateReport(File landscapeConfigFile) {
+        generateReport(landscapeConfigFile, 1);
+    }
+
+    public static void generateReport(File landscapeConfigFile, int threads) {
         File reportsFolder = Paths.get(landscapeConfigFile.getParent(), "").toFile();
         reportsFolder.mkdirs();
         File individualReportsFolder = new File(reportsFolder, "contributors");
@@ -54,26 +65,22 @@ public class LandscapeAnalysisCommands {
         }
         individualReportsFolder.mkdirs();
 
-        LandscapeAnalyzer analyzer = new LandscapeAnalyzer();
+        LandscapeAnalyzer analyzer = new LandscapeAnalyzer(threads);
 
         LandscapeAnalysisResults landscapeAnalysisResults = analyzer.analyze(landscapeConfigFile);
 
-        LandscapeReportGenerator reportGenerator = new LandscapeReportGenerator(landscapeAnalysisResults, landscapeConfigFile.getParentFile(), reportsFolder);
+        LandscapeReportGenerator reportGenerator = new LandscapeReportGenerator(landscapeAnalysisResults, landscapeConfigFile.getParentFile(), reportsFolder, threads);
         List<RichTextReport> reports = reportGenerator.report();
 
         try {
             File finalReportsFolder = reportsFolder;
             String customHtmlReportHeaderFragment = landscapeAnalysisResults.getConfiguration().getCustomHtmlReportHeaderFragment();
-            reports.forEach(report -> {
-                System.out.println("Exporting " + report.getFileName() + ".");
-                ReportFileExporter.exportHtml(finalReportsFolder, "", report, customHtmlReportHeaderFragment);
-            });
-
-            File finalIndividualReportsFolder = individualReportsFolder;
-            reportGenerator.getIndividualContributorReports().forEach(individualReport -> {
-                System.out.println("Exporting " + individualReport.getFileName() + ".");
-                ReportFileExporter.exportHtml(finalIndividualReportsFolder, "", individualReport, customHtmlReportHeaderFragment);
-            });
+            List<ReportExportTime> exportTimes = new ArrayList<>();
+            exportTimes.addAll(ReportFileExporter.exportHtml(finalReportsFolder, "", reports, customHtmlReportHeaderFragment, threads));
+            exportTimes.addAll(ReportFileExporter.exportHtml(individualReportsFolder, "",
+                    reportGenerator.getIndividualContributorReports(), customHtmlReportHeaderFragment, threads));
+            ReportFileExporter.printExportTimesSummary(exportTimes, 10);
+            System.out.println(GraphvizSvgCache.getInstance().getStats());
 
             LandscapeVisualsGenerator visualsGenerator = new LandscapeVisualsGenerator(reportsFolder);
             visualsGenerator.exportVisuals(landscapeAnalysisResults);
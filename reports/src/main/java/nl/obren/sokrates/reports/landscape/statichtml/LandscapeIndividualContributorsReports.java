@@ -1,5 +1,6 @@
 package nl.obren.sokrates.reports.landscape.statichtml;
 
+import nl.obren.sokrates.common.utils.ParallelBatches;
 import nl.obren.sokrates.reports.core.RichTextReport;
 import nl.obren.sokrates.reports.utils.DataImageUtils;
 import nl.obren.sokrates.sourcecode.contributors.Contributor;
@@ -18,11 +19,17 @@ public class LandscapeIndividualContributorsReports {
     private LandscapeAnalysisResults landscapeAnalysisResults;
     private List<RichTextReport> reports = new ArrayList<>();
     private boolean recent = false;
+    private int threads = 1;
 
     public LandscapeIndividualContributorsReports(LandscapeAnalysisResults landscapeAnalysisResults) {
         this.landscapeAnalysisResults = landscapeAnalysisResults;
     }
 
+    public LandscapeIndividualContributorsReports(LandscapeAnalysisResults landscapeAnalysisResults, int threads) {
+        this.landscapeAnalysisResults = landscapeAnalysisResults;
+        this.threads = threads;
+    }
+
     public static String getSafeFileName(String string) {
         StringBuilder sb = new StringBuilder(string.length());
         string = Normalizer.normalize(string, Normalizer.Form.NFD);
@@ -40,10 +47,14 @@ public class LandscapeIndividualContributorsReports {
         return getSafeFileName(email).toLowerCase() + ".html";
     }
 
+    // each report reads only the projects of its own contributor, so the reports can be created in parallel
     public List<RichTextReport> getIndividualReports(List<ContributorProjects> contributors) {
-        contributors.forEach(contributor -> {
-            reports.add(getIndividualReport(contributor));
-        });
+        ParallelBatches batches = new ParallelBatches(threads);
+        try {
+            batches.forEachInOrder(contributors, this::getIndividualReport, (contributor, report) -> reports.add(report));
+        } finally {
+            batches.shutdown();
+        }
 
         return reports;
     }
@@ -23,6 +23,7 @@ import nl.obren.sokrates.sourcecode.dependencies.ComponentDependency;
 import nl.obren.sokrates.sourcecode.filehistory.DateUtils;
 import nl.obren.sokrates.sourcecode.githistory.CommitsPerExtension;
 import nl.obren.sokrates.sourcecode.landscape.ContributorConnectionUtils;
+import nl.obren.sokrates.sourcecode.landscape.ContributorProjectGraph;
 import nl.obren.sokrates.sourcecode.landscape.LandscapeConfiguration;
 import nl.obren.sokrates.sourcecode.landscape.SubLandscapeLink;
 import nl.obren.sokrates.sourcecode.landscape.WebFrameLink;
@@ -86,8 +87,14 @@ public class LandscapeReportGenerator {
     private Map<String, List<String>> rookiesPerMonthMap = new HashMap<>();
     private Map<String, List<String>> contributorsPerYearMap = new HashMap<>();
     private Map<String, List<String>> rookiesPerYearMap = new HashMap<>();
+    private int threads = 1;
 
     public LandscapeReportGenerator(LandscapeAnalysisResults landscapeAnalysisResults, File folder, File reportsFolder) {
+        this(landscapeAnalysisResults, folder, reportsFolder, 1);
+    }
+
+    public LandscapeReportGenerator(LandscapeAnalysisResults landscapeAnalysisResults, File folder, File reportsFolder, int threads) {
+        this.threads = threads;
         this.folder = folder;
         this.reportsFolder = reportsFolder;
 
@@ -221,13 +228,15 @@ public class LandscapeReportGenerator {
     private void addPeopleDependencies() {
         landscapeReport.startSubSection("People Dependencies", "");
 
+        ContributorProjectGraph graph = new ContributorProjectGraph(landscapeAnalysisResults.getContributors());
+
         List<ComponentDependency> peopleDependencies30Days = landscapeAnalysisResults.getPeopleDependencies30Days();
         List<ContributorConnections> connectionsViaProjects30Days = landscapeAnalysisResults.getConnectionsViaProjects30Days();
         this.renderPeopleDependencies(peopleDependencies30Days, connectionsViaProjects30Days,
                 landscapeAnalysisResults.getcIndex30Days(), landscapeAnalysisResults.getpIndex30Days(),
                 landscapeAnalysisResults.getcMean30Days(), landscapeAnalysisResults.getpMean30Days(),
                 landscapeAnalysisResults.getcMedian30Days(), landscapeAnalysisResults.getpMedian30Days(),
-                30);
+                graph, 30);
 
         List<ComponentDependency> peopleDependencies90Days = landscapeAnalysisResults.getPeopleDependencies90Days();
         List<ContributorConnections> connectionsViaProjects90Days = landscapeAnalysisResults.getConnectionsViaProjects90Days();
@@ -235,7 +244,7 @@ public class LandscapeReportGenerator {
                 landscapeAnalysisResults.getcIndex90Days(), landscapeAnalysisResults.getpIndex90Days(),
                 landscapeAnalysisResults.getcMean90Days(), landscapeAnalysisResults.getpMean90Days(),
                 landscapeAnalysisResults.getcMedian90Days(), landscapeAnalysisResults.getpMedian90Days(),
-                90);
+                graph, 90);
 
         List<ComponentDependency> peopleDependencies180Days = landscapeAnalysisResults.getPeopleDependencies180Days();
         List<ContributorConnections> connectionsViaProjects180Days = landscapeAnalysisResults.getConnectionsViaProjects180Days();
@@ -243,7 +252,7 @@ public class LandscapeReportGenerator {
                 landscapeAnalysisResults.getcIndex180Days(), landscapeAnalysisResults.getpIndex180Days(),
                 landscapeAnalysisResults.getcMean180Days(), landscapeAnalysisResults.getpMean180Days(),
                 landscapeAnalysisResults.getcMedian180Days(), landscapeAnalysisResults.getpMedian180Days(),
-                180);
+                graph, 180);
 
         landscapeReport.endSection();
     }
@@ -753,7 +762,7 @@ public class LandscapeReportGenerator {
             new LandscapeContributorsReport(landscapeAnalysisResults, landscapeRecentContributorsReport).saveContributorsTable(recentContributors, totalRecentCommits, true);
             new LandscapeContributorsReport(landscapeAnalysisResults, landscapeContributorsReport).saveContributorsTable(contributors, totalCommits, false);
 
-            individualContributorReports = new LandscapeIndividualContributorsReports(landscapeAnalysisResults).getIndividualReports(contributors);
+            individualContributorReports = new LandscapeIndividualContributorsReports(landscapeAnalysisResults, threads).getIndividualReports(contributors);
         }
     }
 
@@ -1410,9 +1419,10 @@ public class LandscapeReportGenerator {
                                           double cIndex, double pIndex,
                                           double cMean, double pMean,
                                           double cMedian, double pMedian,
-                                          int daysAgo) {
+                                          ContributorProjectGraph graph, int daysAgo) {
         List<ContributorProjects> contributors = landscapeAnalysisResults.getContributors();
-        List<ComponentDependency> projectDependenciesViaPeople = ContributorConnectionUtils.getProjectDependenciesViaPeople(contributors, 0, daysAgo);
+        int window = graph.addWindow(0, daysAgo);
+        List<ComponentDependency> projectDependenciesViaPeople = graph.getProjectDependenciesViaPeople(window);
 
         landscapeReport.addLevel2Header("People Dependencies (past " + daysAgo + " days)", "margin-top: 40px");
 
@@ -1478,7 +1488,7 @@ public class LandscapeReportGenerator {
 
         addMostConnectedPeopleSection(contributorConnections, daysAgo);
         addMostProjectsPeopleSection(contributorConnections, daysAgo);
-        addTopConnectionsSection(peopleDependencies, daysAgo, contributors);
+        addTopConnectionsSection(peopleDependencies, graph, window);
         addProjectContributors(contributors, daysAgo);
         addProjectDependenciesViaPeople(projectDependenciesViaPeople);
 
@@ -1566,7 +1576,7 @@ public class LandscapeReportGenerator {
         final List<String> list = new ArrayList<>();
 
         contributors.forEach(contributorProjects -> {
-            contributorProjects.getProjects().stream().filter(project -> DateUtils.isAnyDateCommittedBetween(project.getCommitDates(), 0, daysAgo)).forEach(project -> {
+            contributorProjects.getProjects().stream().filter(project -> DateUtils.isAnyDateCommittedBetween(project.getCommitEpochDays(), 0, daysAgo)).forEach(project -> {
                 String key = project.getProjectAnalysisResults().getAnalysisResults().getMetadata().getName();
                 if (map.containsKey(key)) {
                     Integer currentValue = map.get(key).getRight();
@@ -1646,7 +1656,7 @@ public class LandscapeReportGenerator {
         landscapeReport.addLineBreak();
     }
 
-    private void addTopConnectionsSection(List<ComponentDependency> peopleDependencies, int daysAgo, List<ContributorProjects> contributors) {
+    private void addTopConnectionsSection(List<ComponentDependency> peopleDependencies, ContributorProjectGraph graph, int window) {
         landscapeReport.startShowMoreBlock("show top connections...<br>");
         landscapeReport.startTable();
         List<ComponentDependency> displayListConnections = peopleDependencies.subList(0, Math.min(100, peopleDependencies.size()));
@@ -1663,8 +1673,8 @@ public class LandscapeReportGenerator {
             String to = dependency.getToComponent();
             int dependencyCount = dependency.getCount();
             landscapeReport.addTableCell(index[0] + ".");
-            int projectCount1 = ContributorConnectionUtils.getProjectCount(contributors, from, 0, daysAgo);
-            int projectCount2 = ContributorConnectionUtils.getProjectCount(contributors, to, 0, daysAgo);
+            int projectCount1 = graph.getProjectCount(window, from);
+            int projectCount2 = graph.getProjectCount(window, to);
             double perc1 = 0;
             double perc2 = 0;
             if (projectCount1 > 0) {